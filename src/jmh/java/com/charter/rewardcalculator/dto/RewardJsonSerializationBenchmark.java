@@ -0,0 +1,63 @@
+package com.charter.rewardcalculator.dto;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Jackson serialization of a page of reward summaries, as returned by GET /api/rewards. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RewardJsonSerializationBenchmark {
+
+    /** Customers on the page. */
+    @Param({"10", "100", "1000"})
+    public int pageSize;
+
+    /** Months of history per customer. */
+    @Param({"3", "36"})
+    public int months;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private PagedRewardSummaryDTO page;
+
+    /** Builds the page once. */
+    @Setup
+    public void setUp() {
+        List<CustomerRewardSummaryDTO> content = new ArrayList<>(pageSize);
+        for (int c = 0; c < pageSize; c++) {
+            List<MonthlyRewardDTO> monthly = new ArrayList<>(months);
+            long total = 0;
+            for (int m = 0; m < months; m++) {
+                long points = 25L + (c * 31L + m * 17L) % 400;
+                monthly.add(new MonthlyRewardDTO(2021 + m / 12, Month.of(m % 12 + 1).name(), points));
+                total += points;
+            }
+            content.add(new CustomerRewardSummaryDTO((long) c + 1, "Customer " + (c + 1), monthly, total, "1"));
+        }
+        page = new PagedRewardSummaryDTO(content, 0, pageSize, 1_000_000, 1_000_000 / pageSize, false);
+    }
+
+    /** Serializes the page to UTF-8 bytes. */
+    @Benchmark
+    public byte[] serializePage() {
+        return jsonMapper.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,107 @@
+package com.charter.rewardcalculator.dto;
+
+import com.charter.rewardcalculator.config.BinaryFormatConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encodes and decodes a page of reward summaries as JSON, CBOR and Smile, each plain and gzipped,
+ * as GET /api/rewards sends them. The encoded size of each combination is printed during setup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RewardPayloadFormatBenchmark {
+
+    /** Body encoding. */
+    public enum Format { JSON, CBOR, SMILE }
+
+    @Param
+    public Format format;
+
+    /** Whether the body is gzipped, at the default level Tomcat uses. */
+    @Param({"false", "true"})
+    public boolean gzip;
+
+    /** Customers on the page. */
+    @Param({"100", "1000"})
+    public int pageSize;
+
+    /** Months of history per customer. */
+    @Param({"12"})
+    public int months;
+
+    private ObjectMapper mapper;
+    private PagedRewardSummaryDTO page;
+    private byte[] encoded;
+
+    /** Builds the page, encodes it once and prints the encoded size. */
+    @Setup
+    public void setUp() throws IOException {
+        mapper = switch (format) {
+            case JSON -> JsonMapper.builder().build();
+            case CBOR -> BinaryFormatConfig.cborMapper();
+            case SMILE -> BinaryFormatConfig.smileMapper();
+        };
+        List<CustomerRewardSummaryDTO> content = new ArrayList<>(pageSize);
+        for (int c = 0; c < pageSize; c++) {
+            List<MonthlyRewardDTO> monthly = new ArrayList<>(months);
+            long total = 0;
+            for (int m = 0; m < months; m++) {
+                long points = 25L + (c * 31L + m * 17L) % 400;
+                monthly.add(new MonthlyRewardDTO(2021 + m / 12, Month.of(m % 12 + 1).name(), points));
+                total += points;
+            }
+            content.add(new CustomerRewardSummaryDTO((long) c + 1, "Customer " + (c + 1), monthly, total, "1"));
+        }
+        page = new PagedRewardSummaryDTO(content, 0, pageSize, 1_000_000, 1_000_000 / pageSize, false);
+        encoded = encode();
+        System.out.printf("%n%s gzip=%s pageSize=%d: %d bytes%n", format, gzip, pageSize, encoded.length);
+    }
+
+    /** Encodes the page, gzipping it when {@link #gzip} is set. */
+    @Benchmark
+    public byte[] encode() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 * 1024);
+        try (OutputStream out = gzip ? new GZIPOutputStream(bytes) : bytes) {
+            mapper.writeValue(out, page);
+        }
+        return bytes.toByteArray();
+    }
+
+    /** Decodes the encoded page, as a downstream consumer does. */
+    @Benchmark
+    public PagedRewardSummaryDTO decode() throws IOException {
+        try (InputStream in = gzip
+                ? new GZIPInputStream(new ByteArrayInputStream(encoded))
+                : new ByteArrayInputStream(encoded)) {
+            return mapper.readValue(in, PagedRewardSummaryDTO.class);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.charter.rewardcalculator.repository;
+
+import com.charter.rewardcalculator.RewardCalculatorApplication;
+import com.charter.rewardcalculator.service.RewardLedgerService;
+import com.charter.rewardcalculator.service.RewardRuleSet;
+import com.charter.rewardcalculator.service.RewardService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Reward read paths against an embedded H2 database loaded with synthetic customers and
+ * transactions: the raw SQL aggregation, the ledger read, and the paged and cursor service calls.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RewardQueryBenchmark {
+
+    private static final int CUSTOMERS = 2_000;
+    private static final int PAGE_SIZE = 100;
+    private static final long FIRST_ID = 1_000_000L;
+    private static final int INSERT_BATCH = 5_000;
+
+    /** Transactions per synthetic customer. */
+    @Param({"10", "100"})
+    public int transactionsPerCustomer;
+
+    private ConfigurableApplicationContext context;
+    private TransactionRepository transactionRepository;
+    private CustomerMonthPointsRepository ledgerRepository;
+    private RewardService rewardService;
+    private List<List<Long>> pages;
+    private int nextPage;
+
+    /** Starts the application on H2 and loads the synthetic data set. */
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(RewardCalculatorApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:jmh;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.springframework.beans.factory.support.DisposableBeanAdapter=ERROR",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false",
+                        "--rewards.ledger.rebuild-on-startup=false");
+        transactionRepository = context.getBean(TransactionRepository.class);
+        ledgerRepository = context.getBean(CustomerMonthPointsRepository.class);
+        rewardService = context.getBean("rewardServiceImpl", RewardService.class);
+
+        loadSyntheticData(context.getBean(JdbcTemplate.class));
+        context.getBean(RewardLedgerService.class).rebuild();
+
+        pages = new ArrayList<>();
+        for (long first = FIRST_ID; first < FIRST_ID + CUSTOMERS; first += PAGE_SIZE) {
+            pages.add(LongStream.range(first, first + PAGE_SIZE).boxed().toList());
+        }
+    }
+
+    /** Stops the application. */
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    /** Monthly points of one page of customers aggregated from the transaction table. */
+    @Benchmark
+    public Object aggregatePageFromTransactions() {
+        return transactionRepository.sumMonthlyPointsByCustomerIdIn(nextPage());
+    }
+
+    /** The same aggregation restricted to a partial-month date range. */
+    @Benchmark
+    public Object aggregatePageInDateRange() {
+        return transactionRepository.sumMonthlyPointsByCustomerIdInAndTransactionDateBetween(
+                nextPage(), LocalDate.of(2022, 3, 10), LocalDate.of(2023, 8, 20));
+    }
+
+    /** Monthly points of one page of customers read from the ledger. */
+    @Benchmark
+    public Object readPageFromLedger() {
+        return ledgerRepository.findByCustomerIdInOrderByCustomerIdAscYearMonthAsc(nextPage());
+    }
+
+    /** GET /api/rewards service call for a page deep into the listing. */
+    @Benchmark
+    public Object getRewardsPaged() {
+        int page = nextPageIndex();
+        return rewardService.getRewardsPaged(PageRequest.of(page, PAGE_SIZE, Sort.by("id").ascending()), null, null);
+    }
+
+    private List<Long> nextPage() {
+        return pages.get(nextPageIndex());
+    }
+
+    private int nextPageIndex() {
+        nextPage = (nextPage + 1) % pages.size();
+        return nextPage;
+    }
+
+    private void loadSyntheticData(JdbcTemplate jdbc) {
+        List<Object[]> customers = new ArrayList<>(CUSTOMERS);
+        for (long id = FIRST_ID; id < FIRST_ID + CUSTOMERS; id++) {
+            customers.add(new Object[]{id, "Bench " + id, "bench-" + id + "@example.com"});
+        }
+        jdbc.batchUpdate("insert into customer (id, name, email) values (?, ?, ?)", customers);
+
+        SplittableRandom random = new SplittableRandom(5);
+        RewardRuleSet rules = RewardRuleSet.defaults();
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH);
+        long transactionId = FIRST_ID;
+        for (long customerId = FIRST_ID; customerId < FIRST_ID + CUSTOMERS; customerId++) {
+            for (int i = 0; i < transactionsPerCustomer; i++) {
+                BigDecimal amount = BigDecimal.valueOf(random.nextLong(1, 40_000), 2);
+                LocalDate date = LocalDate.of(2021, 1, 1).plusDays(random.nextInt(4 * 365));
+                batch.add(new Object[]{
+                        transactionId++,
+                        customerId,
+                        amount,
+                        Date.valueOf(date),
+                        rules.points(amount, date),
+                        rules.version()});
+                if (batch.size() == INSERT_BATCH) {
+                    insertTransactions(jdbc, batch);
+                }
+            }
+        }
+        insertTransactions(jdbc, batch);
+    }
+
+    private void insertTransactions(JdbcTemplate jdbc, List<Object[]> batch) {
+        jdbc.batchUpdate("insert into transaction (id, customer_id, amount, transaction_date, points,"
+                + " points_rule_version) values (?, ?, ?, ?, ?, ?)", batch);
+        batch.clear();
+    }
+}
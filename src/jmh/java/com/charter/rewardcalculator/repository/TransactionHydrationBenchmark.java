@@ -0,0 +1,153 @@
+package com.charter.rewardcalculator.repository;
+
+import com.charter.rewardcalculator.RewardCalculatorApplication;
+import com.charter.rewardcalculator.model.Transaction;
+import com.charter.rewardcalculator.repository.projection.TransactionPointsRow;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of reading one customer's full transaction history as managed Transaction entities against
+ * reading it as {@link TransactionPointsRow} projections, inside a transaction as a service would.
+ *
+ * <p>The {@code managedEntities} counter reports how many entities each read leaves in the
+ * persistence context. Run with {@code -prof gc} to see the bytes allocated per read
+ * ({@code gc.alloc.rate.norm}), which includes the entity snapshots kept for dirty checking.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TransactionHydrationBenchmark {
+
+    private static final long CUSTOMER_ID = 2_000_000L;
+    private static final int INSERT_BATCH = 5_000;
+
+    /** Transactions in the customer's history. */
+    @Param({"1000", "100000"})
+    public int historySize;
+
+    private ConfigurableApplicationContext context;
+    private TransactionRepository transactionRepository;
+    private TransactionTemplate transactionTemplate;
+    private EntityManager entityManager;
+
+    /** Entities held by the persistence context at the end of each read. */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PersistenceContext {
+
+        /** Managed entities, summed over the reads of an iteration. */
+        public long managedEntities;
+
+        /** Clears the counter before each iteration. */
+        @Setup(Level.Iteration)
+        public void reset() {
+            managedEntities = 0;
+        }
+    }
+
+    /** Starts the application on H2 and loads one customer with a large history. */
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(RewardCalculatorApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:jmh-hydration;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.springframework.beans.factory.support.DisposableBeanAdapter=ERROR",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false",
+                        "--rewards.ledger.rebuild-on-startup=false");
+        transactionRepository = context.getBean(TransactionRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(
+                context.getBean(EntityManagerFactory.class));
+        loadHistory(context.getBean(JdbcTemplate.class));
+    }
+
+    /** Stops the application. */
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    /** The history as managed entities, each with a snapshot for dirty checking. */
+    @Benchmark
+    public Object managedEntities(PersistenceContext counters) {
+        return transactionTemplate.execute(status -> {
+            List<Transaction> history = transactionRepository.findByCustomerId(CUSTOMER_ID);
+            counters.managedEntities += managedEntityCount();
+            return history;
+        });
+    }
+
+    /** The history as date and points projections, which the persistence context does not track. */
+    @Benchmark
+    public Object projectedRows(PersistenceContext counters) {
+        return transactionTemplate.execute(status -> {
+            List<TransactionPointsRow> history = transactionRepository.findPointsByCustomerId(CUSTOMER_ID);
+            counters.managedEntities += managedEntityCount();
+            return history;
+        });
+    }
+
+    private long managedEntityCount() {
+        return entityManager.unwrap(Session.class).getStatistics().getEntityCount();
+    }
+
+    private void loadHistory(JdbcTemplate jdbc) {
+        jdbc.update("insert into customer (id, name, email) values (?, ?, ?)",
+                CUSTOMER_ID, "Hydration", "hydration@example.com");
+        SplittableRandom random = new SplittableRandom(11);
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH);
+        for (long id = CUSTOMER_ID; id < CUSTOMER_ID + historySize; id++) {
+            batch.add(new Object[]{
+                    id,
+                    CUSTOMER_ID,
+                    BigDecimal.valueOf(random.nextLong(1, 40_000), 2),
+                    Date.valueOf(LocalDate.of(2015, 1, 1).plusDays(random.nextInt(10 * 365)))});
+            if (batch.size() == INSERT_BATCH) {
+                insertTransactions(jdbc, batch);
+            }
+        }
+        insertTransactions(jdbc, batch);
+    }
+
+    private void insertTransactions(JdbcTemplate jdbc, List<Object[]> batch) {
+        jdbc.batchUpdate("insert into transaction (id, customer_id, amount, transaction_date) values (?, ?, ?, ?)", batch);
+        batch.clear();
+    }
+}
@@ -0,0 +1,106 @@
+package com.charter.rewardcalculator.service;
+
+import com.charter.rewardcalculator.dto.CustomerRewardSummaryDTO;
+import com.charter.rewardcalculator.dto.MonthlyRewardDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds one customer's summary from their transactions, using the epoch-month accumulator and,
+ * for comparison, the boxed TreeMap aggregation it replaced. Run with {@code -prof gc}: the
+ * {@code gc.alloc.rate.norm} of {@link #accumulatorAdd()} should stay near zero bytes per operation
+ * whatever the history size, since adding a transaction does not allocate once the arrays are sized.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BuildSummaryBenchmark {
+
+    /** Transactions in the customer's history. */
+    @Param({"10", "1000", "100000"})
+    public int transactions;
+
+    private final RewardRuleSet rules = RewardRuleSet.defaults();
+    private final RewardServiceImpl service = new RewardServiceImpl(null, null, null, null, null, rules,
+            new ReportedRuleVersion(rules.version(), rules.compiledAt()));
+    private final MonthlyPointsAccumulator accumulator = new MonthlyPointsAccumulator();
+    private long[] cents;
+    private LocalDate[] dates;
+    private BigDecimal[] amounts;
+
+    /** Generates a history spread over five years. */
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(29);
+        cents = new long[transactions];
+        dates = new LocalDate[transactions];
+        amounts = new BigDecimal[transactions];
+        for (int i = 0; i < transactions; i++) {
+            cents[i] = random.nextLong(1, 40_000);
+            amounts[i] = BigDecimal.valueOf(cents[i], 2);
+            dates[i] = LocalDate.of(2020, 1, 1).plusDays(random.nextInt(5 * 365));
+        }
+    }
+
+    /** Primitive path used by the export writer. */
+    @Benchmark
+    public CustomerRewardSummaryDTO accumulator() {
+        accumulator.reset();
+        for (int i = 0; i < transactions; i++) {
+            LocalDate date = dates[i];
+            accumulator.add(MonthlyPointsAccumulator.epochMonth(date.getYear(), date.getMonthValue()),
+                    rules.pointsForCents(cents[i]));
+        }
+        return accumulator.toSummary(1L, "Customer", "1");
+    }
+
+    /** Adds the history to the accumulator without building the summary, to isolate allocations per add. */
+    @Benchmark
+    public long accumulatorAdd() {
+        accumulator.reset();
+        long total = 0;
+        for (int i = 0; i < transactions; i++) {
+            LocalDate date = dates[i];
+            long points = rules.pointsForCents(cents[i]);
+            accumulator.add(MonthlyPointsAccumulator.epochMonth(date.getYear(), date.getMonthValue()), points);
+            total += points;
+        }
+        return total;
+    }
+
+    /** Boxed TreeMap aggregation, kept as a baseline. */
+    @Benchmark
+    public CustomerRewardSummaryDTO treeMap() {
+        Map<YearMonth, Long> monthlyMap = new TreeMap<>();
+        for (int i = 0; i < transactions; i++) {
+            monthlyMap.merge(YearMonth.from(dates[i]), service.calculatePoints(amounts[i]), Long::sum);
+        }
+        List<MonthlyRewardDTO> months = new ArrayList<>(monthlyMap.size());
+        monthlyMap.forEach((month, points) ->
+                months.add(new MonthlyRewardDTO(month.getYear(), month.getMonth().name(), points)));
+        long total = months.stream().mapToLong(MonthlyRewardDTO::points).sum();
+        return new CustomerRewardSummaryDTO(1L, "Customer", months, total, "1");
+    }
+}
@@ -0,0 +1,78 @@
+package com.charter.rewardcalculator.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/** Cost per transaction of the points formula, in its BigDecimal and primitive cents forms. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CalculatePointsBenchmark {
+
+    private static final int AMOUNTS = 4096;
+
+    /** Distribution of transaction amounts, by points band. */
+    @Param({"BELOW_50", "50_TO_100", "ABOVE_100", "MIXED"})
+    public String distribution;
+
+    private final RewardRuleSet rules = RewardRuleSet.defaults();
+    private final RewardServiceImpl service = new RewardServiceImpl(null, null, null, null, null, rules, null);
+    private BigDecimal[] amounts;
+    private long[] cents;
+
+    /** Generates the amounts for the selected distribution. */
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(17);
+        amounts = new BigDecimal[AMOUNTS];
+        cents = new long[AMOUNTS];
+        for (int i = 0; i < AMOUNTS; i++) {
+            cents[i] = switch (distribution) {
+                case "BELOW_50" -> random.nextLong(1, 5_000);
+                case "50_TO_100" -> random.nextLong(5_000, 10_001);
+                case "ABOVE_100" -> random.nextLong(10_001, 1_000_000);
+                default -> random.nextLong(1, 50_000);
+            };
+            amounts[i] = BigDecimal.valueOf(cents[i], 2);
+        }
+    }
+
+    /** The BigDecimal entry point used by the ledger. */
+    @Benchmark
+    @OperationsPerInvocation(AMOUNTS)
+    public long calculatePoints() {
+        long total = 0;
+        for (BigDecimal amount : amounts) {
+            total += service.calculatePoints(amount);
+        }
+        return total;
+    }
+
+    /** The primitive entry point used by the export. */
+    @Benchmark
+    @OperationsPerInvocation(AMOUNTS)
+    public long pointsForCents() {
+        long total = 0;
+        for (long amountCents : cents) {
+            total += rules.pointsForCents(amountCents);
+        }
+        return total;
+    }
+}
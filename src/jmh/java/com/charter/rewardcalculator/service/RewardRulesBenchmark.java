@@ -0,0 +1,145 @@
+package com.charter.rewardcalculator.service;
+
+import com.charter.rewardcalculator.config.RewardRuleProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost per transaction of the compiled rule set against the hardcoded two-threshold formula it
+ * replaced, and against walking the configured tiers and promotions for every transaction.
+ *
+ * <p>{@code hardcoded} always applies the original two thresholds, so it is only a like-for-like
+ * comparison at {@code tiers=2, promotions=0}; at other sizes it shows the floor. Amounts run up to
+ * $2,000, across all tiers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RewardRulesBenchmark {
+
+    private static final int AMOUNTS = 4096;
+    private static final long LOWER_THRESHOLD = 50L;
+    private static final long UPPER_THRESHOLD = 100L;
+
+    /** Configured tiers; 2 is the original rules. */
+    @Param({"2", "10", "100"})
+    public int tiers;
+
+    /** Configured one-week promotions, spread over the transaction dates. */
+    @Param({"0", "12"})
+    public int promotions;
+
+    private RewardRuleSet compiled;
+    private List<RewardRuleProperties.Tier> tierList;
+    private List<RewardRuleProperties.Promotion> promotionList;
+    private long[] cents;
+    private long[] epochDays;
+
+    /** Builds the rules and the transactions. */
+    @Setup
+    public void setUp() {
+        tierList = new ArrayList<>(tiers);
+        if (tiers == 2) {
+            tierList.add(new RewardRuleProperties.Tier(50, 1));
+            tierList.add(new RewardRuleProperties.Tier(100, 2));
+        } else {
+            for (int i = 0; i < tiers; i++) {
+                tierList.add(new RewardRuleProperties.Tier(50L + i * (1_950L / tiers), 1 + i % 5));
+            }
+        }
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        promotionList = new ArrayList<>(promotions);
+        for (int i = 0; i < promotions; i++) {
+            LocalDate from = start.plusDays(i * 30L);
+            promotionList.add(new RewardRuleProperties.Promotion(
+                    "promo-" + i, from, from.plusDays(6), new BigDecimal("2")));
+        }
+        compiled = RewardRuleSet.compile(
+                new RewardRuleProperties("bench", tierList, promotionList), Instant.now());
+
+        SplittableRandom random = new SplittableRandom(23);
+        cents = new long[AMOUNTS];
+        epochDays = new long[AMOUNTS];
+        for (int i = 0; i < AMOUNTS; i++) {
+            cents[i] = random.nextLong(1, 200_000);
+            epochDays[i] = start.toEpochDay() + random.nextInt(366);
+        }
+    }
+
+    /** The formula with its two thresholds hardcoded, as before the rule set. */
+    @Benchmark
+    @OperationsPerInvocation(AMOUNTS)
+    public long hardcoded() {
+        long total = 0;
+        for (long amountCents : cents) {
+            long dollars = amountCents / 100;
+            long points = 0;
+            if (dollars > UPPER_THRESHOLD) {
+                points += (dollars - UPPER_THRESHOLD) * 2 + UPPER_THRESHOLD - LOWER_THRESHOLD;
+            } else if (dollars > LOWER_THRESHOLD) {
+                points += dollars - LOWER_THRESHOLD;
+            }
+            total += points;
+        }
+        return total;
+    }
+
+    /** The compiled rule set: one table lookup and one day lookup per transaction. */
+    @Benchmark
+    @OperationsPerInvocation(AMOUNTS)
+    public long compiled() {
+        long total = 0;
+        for (int i = 0; i < AMOUNTS; i++) {
+            total += compiled.pointsForCents(cents[i], epochDays[i]);
+        }
+        return total;
+    }
+
+    /** The configured rules walked in order for every transaction. */
+    @Benchmark
+    @OperationsPerInvocation(AMOUNTS)
+    public long interpreted() {
+        long total = 0;
+        for (int i = 0; i < AMOUNTS; i++) {
+            long dollars = cents[i] / 100;
+            long points = 0;
+            for (int t = 0; t < tierList.size(); t++) {
+                long threshold = tierList.get(t).threshold();
+                long next = t + 1 < tierList.size() ? tierList.get(t + 1).threshold() : Long.MAX_VALUE;
+                if (dollars > threshold) {
+                    points += tierList.get(t).rate() * (Math.min(dollars, next) - threshold);
+                }
+            }
+            LocalDate date = LocalDate.ofEpochDay(epochDays[i]);
+            for (RewardRuleProperties.Promotion promotion : promotionList) {
+                if (!date.isBefore(promotion.from()) && !date.isAfter(promotion.to())) {
+                    points = promotion.multiplier().multiply(BigDecimal.valueOf(points)).longValue();
+                    break;
+                }
+            }
+            total += points;
+        }
+        return total;
+    }
+}
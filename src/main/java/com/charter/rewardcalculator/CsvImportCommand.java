@@ -0,0 +1,63 @@
+package com.charter.rewardcalculator;
+
+import com.charter.rewardcalculator.dto.CsvImportResultDTO;
+import com.charter.rewardcalculator.service.CsvImportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Command-line mode for the CSV importer: {@code --import-csv=<file> [--reject-file=<file>]}. The
+ * reject file defaults to {@code <file>.rejects.csv}. Exits with 0 when every row was imported and
+ * 2 when some were rejected.
+ */
+@Component
+public class CsvImportCommand implements ApplicationRunner, ExitCodeGenerator {
+
+    static final String IMPORT_OPTION = "import-csv";
+    static final String REJECT_FILE_OPTION = "reject-file";
+
+    private static final Logger log = LoggerFactory.getLogger(CsvImportCommand.class);
+
+    private final CsvImportService csvImportService;
+    private int exitCode;
+
+    /** Injects the CSV import service. */
+    public CsvImportCommand(CsvImportService csvImportService) {
+        this.csvImportService = csvImportService;
+    }
+
+    /** Returns true when the arguments ask for a CSV import. */
+    static boolean isRequested(String[] args) {
+        return Arrays.stream(args).anyMatch(arg -> arg.startsWith("--" + IMPORT_OPTION + "="));
+    }
+
+    /** Runs the import when {@code --import-csv} is given; does nothing otherwise. */
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!args.containsOption(IMPORT_OPTION)) {
+            return;
+        }
+        Path csv = Path.of(args.getOptionValues(IMPORT_OPTION).get(0));
+        Path rejectFile = args.containsOption(REJECT_FILE_OPTION)
+                ? Path.of(args.getOptionValues(REJECT_FILE_OPTION).get(0))
+                : csv.resolveSibling(csv.getFileName() + ".rejects.csv");
+        CsvImportResultDTO result = csvImportService.importFile(csv, rejectFile);
+        log.info("Imported {} — received={}, accepted={}, rejected={}, rejectFile={}, rowsPerSecond={}",
+                csv, result.received(), result.accepted(), result.rejected(), result.rejectFile(),
+                Math.round(result.rowsPerSecond()));
+        exitCode = result.rejected() > 0 ? 2 : 0;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getExitCode() {
+        return exitCode;
+    }
+}
@@ -1,14 +1,29 @@
 package com.charter.rewardcalculator;
 
 import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.context.ConfigurableApplicationContext;
 
 /** Spring Boot entry point for the Rewards Calculator application. */
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class RewardCalculatorApplication {
 
-    /** Starts the application. */
+    /**
+     * Starts the application. With {@code --import-csv=<file>}, runs the CSV import without the web
+     * server and exits with the import's exit code instead.
+     */
     public static void main(String[] args) {
-        SpringApplication.run(RewardCalculatorApplication.class, args);
+        SpringApplication application = new SpringApplication(RewardCalculatorApplication.class);
+        boolean importMode = CsvImportCommand.isRequested(args);
+        if (importMode) {
+            application.setWebApplicationType(WebApplicationType.NONE);
+        }
+        ConfigurableApplicationContext context = application.run(args);
+        if (importMode) {
+            System.exit(SpringApplication.exit(context));
+        }
     }
 }
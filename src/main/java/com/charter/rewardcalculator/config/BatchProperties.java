@@ -0,0 +1,14 @@
+package com.charter.rewardcalculator.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings for batch reward lookups.
+ *
+ * @param maxSize   most customer IDs accepted in one batch request
+ */
+@ConfigurationProperties(prefix = "rewards.batch")
+public record BatchProperties(
+        @DefaultValue("200") int maxSize) {
+}
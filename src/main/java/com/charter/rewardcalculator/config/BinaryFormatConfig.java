@@ -0,0 +1,44 @@
+package com.charter.rewardcalculator.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverters;
+import org.springframework.http.converter.cbor.JacksonCborHttpMessageConverter;
+import org.springframework.http.converter.smile.JacksonSmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+import tools.jackson.dataformat.smile.SmileWriteFeature;
+
+/**
+ * Registers the CBOR and Smile message converters that the reward endpoints offer next to JSON.
+ *
+ * <p>Both take the converter slots after JSON, so a client that accepts any type still gets JSON.
+ * Smile sends each field name once per response and refers back to it after that. Shared string
+ * values are turned on as well, so a month name repeated across a page is also sent once. CBOR
+ * repeats names and strings, but numbers are binary and there are no quotes or separators.
+ */
+@Configuration
+public class BinaryFormatConfig implements WebMvcConfigurer {
+
+    /** Media type of Jackson's Smile encoding. */
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    /** Puts the CBOR and Smile converters in their default positions, after JSON. */
+    @Override
+    public void configureMessageConverters(HttpMessageConverters.ServerBuilder builder) {
+        builder.withCborConverter(new JacksonCborHttpMessageConverter(cborMapper()));
+        builder.withSmileConverter(new JacksonSmileHttpMessageConverter(smileMapper()));
+    }
+
+    /** Returns the mapper used for {@code application/cbor} bodies. */
+    public static CBORMapper cborMapper() {
+        return CBORMapper.builder().build();
+    }
+
+    /** Returns the mapper used for Smile bodies, with shared string values turned on. */
+    public static SmileMapper smileMapper() {
+        return SmileMapper.builder()
+                .enable(SmileWriteFeature.CHECK_SHARED_STRING_VALUES)
+                .build();
+    }
+}
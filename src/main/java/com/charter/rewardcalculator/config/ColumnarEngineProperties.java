@@ -0,0 +1,17 @@
+package com.charter.rewardcalculator.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings for the in-memory columnar reward engine.
+ *
+ * @param enabled           load all transactions into memory at startup and compute reward summaries from them
+ * @param compactAfterRows  rows held in replacement segments of written customers before they are
+ *                          merged back into the base columns
+ */
+@ConfigurationProperties(prefix = "rewards.columnar")
+public record ColumnarEngineProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("1000000") long compactAfterRows) {
+}
@@ -0,0 +1,26 @@
+package com.charter.rewardcalculator.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+
+/**
+ * Settings for importing transactions from CSV files.
+ *
+ * @param directory     where uploaded files are spooled and their reject files kept; defaults to
+ *                      {@code reward-imports} in the temp directory
+ * @param chunkSize     bytes of the file mapped and parsed per task, rounded to the next line boundary
+ * @param parallelism   chunks parsed and written concurrently, each holding one connection while it writes
+ * @param batchSize     rows written per batch and per database transaction
+ * @param copy          use PostgreSQL COPY when the database supports it, otherwise batched inserts
+ */
+@ConfigurationProperties(prefix = "rewards.csv-import")
+public record CsvImportProperties(
+        Path directory,
+        @DefaultValue("64MB") DataSize chunkSize,
+        @DefaultValue("4") int parallelism,
+        @DefaultValue("5000") int batchSize,
+        @DefaultValue("true") boolean copy) {
+}
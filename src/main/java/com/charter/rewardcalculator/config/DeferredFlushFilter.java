@@ -0,0 +1,105 @@
+package com.charter.rewardcalculator.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Holds back flushes of API responses while the handler runs, so that Tomcat can apply
+ * {@code server.compression.min-response-size}.
+ *
+ * <p>The JSON, CBOR and Smile converters flush after writing a body. That commits the response
+ * before its length is known, and Tomcat compresses every response of unknown length. With the
+ * flushes held back, a body that fits the response buffer is still uncommitted when the request
+ * completes. Tomcat then sets its Content-Length, and a body below the threshold is sent as it is.
+ * Larger bodies overflow the buffer and are compressed as before. Flushes after the handler
+ * returns, such as those of a streamed export, pass through.
+ */
+@Component
+public class DeferredFlushFilter extends OncePerRequestFilter {
+
+    /** Only API responses are affected. */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    /** Runs the handler with flushes held back, and lets them through once it returns. */
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        DeferredFlushResponse deferred = new DeferredFlushResponse(response);
+        try {
+            chain.doFilter(request, deferred);
+        } finally {
+            deferred.deferring = false;
+        }
+    }
+
+    /** Response whose stream and buffer ignore flushes while {@link #deferring} is set. */
+    private static final class DeferredFlushResponse extends HttpServletResponseWrapper {
+
+        private volatile boolean deferring = true;
+        private ServletOutputStream outputStream;
+
+        DeferredFlushResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                ServletOutputStream delegate = super.getOutputStream();
+                outputStream = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        delegate.write(b);
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        delegate.write(b, off, len);
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        if (!deferring) {
+                            delegate.flush();
+                        }
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        delegate.close();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return delegate.isReady();
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener listener) {
+                        delegate.setWriteListener(listener);
+                    }
+                };
+            }
+            return outputStream;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (!deferring) {
+                super.flushBuffer();
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.charter.rewardcalculator.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings for splitting a page's points query into concurrent chunks.
+ *
+ * @param enabled          run the chunks concurrently on virtual threads instead of as one query
+ * @param chunkSize        customers per chunk query; pages no larger than this run as a single query
+ * @param maxConcurrency   chunk queries in flight across all requests; 0 uses the connection pool size
+ */
+@ConfigurationProperties(prefix = "rewards.fan-out")
+public record FanOutProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("100") int chunkSize,
+        @DefaultValue("0") int maxConcurrency) {
+}
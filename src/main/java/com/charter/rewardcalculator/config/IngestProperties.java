@@ -0,0 +1,16 @@
+package com.charter.rewardcalculator.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings for bulk transaction ingestion.
+ *
+ * @param batchSize               rows written per JDBC batch and per database transaction
+ * @param maxReportedRejections   upper bound on the rejected rows listed individually in a response
+ */
+@ConfigurationProperties(prefix = "rewards.ingest")
+public record IngestProperties(
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("1000") int maxReportedRejections) {
+}
@@ -0,0 +1,14 @@
+package com.charter.rewardcalculator.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings for the top customers leaderboard.
+ *
+ * @param precompute   keep the current-month and last-three-months rankings in memory
+ */
+@ConfigurationProperties(prefix = "rewards.leaderboard")
+public record LeaderboardProperties(
+        @DefaultValue("true") boolean precompute) {
+}
@@ -0,0 +1,16 @@
+package com.charter.rewardcalculator.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings for the monthly points ledger.
+ *
+ * @param rebuildOnStartup  recompute the ledger from the transaction table once the application is ready
+ * @param rebuildChunkSize  number of customers recomputed per database transaction during a rebuild
+ */
+@ConfigurationProperties(prefix = "rewards.ledger")
+public record LedgerProperties(
+        @DefaultValue("true") boolean rebuildOnStartup,
+        @DefaultValue("500") int rebuildChunkSize) {
+}
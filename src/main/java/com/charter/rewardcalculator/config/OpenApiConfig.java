@@ -23,7 +23,8 @@ public class OpenApiConfig {
                         .description("""
                                 REST API for calculating customer reward points based on purchase transactions.
 
-                                **Points Calculation Rules:**
+                                **Points Calculation Rules** (defaults; tiers and promotions are configured under
+                                `rewards.rules`, and each summary reports the `ruleVersion` that produced it):
                                 - $0 - $50: 0 points
                                 - $50.01 - $100: 1 point per dollar over $50
                                 - Over $100: 2 points per dollar over $100 + 50 points for the $50-$100 tier
@@ -0,0 +1,18 @@
+package com.charter.rewardcalculator.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings for the per-customer cumulative points index behind {@code totalOnly} reward reads.
+ *
+ * @param maximumSize        upper bound on indexed customers; 0 rebuilds the index on every read
+ * @param expireAfterWrite   how long a customer's index may be served before it is reloaded
+ */
+@ConfigurationProperties(prefix = "rewards.points-index")
+public record PointsIndexProperties(
+        @DefaultValue("10000") long maximumSize,
+        @DefaultValue("1h") Duration expireAfterWrite) {
+}
@@ -0,0 +1,20 @@
+package com.charter.rewardcalculator.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings for the recalculation of stored transaction points after the reward rules change.
+ *
+ * @param onStartup        start or resume the recalculation in the background once the application is ready
+ * @param parallelism      worker threads, each holding at most one connection at a time
+ * @param rangesPerWorker  customer ID ranges per worker thread, each with its own checkpoint
+ * @param chunkSize        customers recalculated per database transaction, the step of a checkpoint
+ */
+@ConfigurationProperties(prefix = "rewards.recalculation")
+public record PointsRecalculationProperties(
+        @DefaultValue("true") boolean onStartup,
+        @DefaultValue("4") int parallelism,
+        @DefaultValue("8") int rangesPerWorker,
+        @DefaultValue("200") int chunkSize) {
+}
@@ -0,0 +1,25 @@
+package com.charter.rewardcalculator.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings for the asynchronous full-population report jobs.
+ *
+ * @param directory        where report files are written; defaults to {@code reward-reports} in the temp directory
+ * @param parallelism      worker threads shared by all report jobs, each holding at most one connection at a time
+ * @param rangesPerWorker  customer ID ranges per worker thread, so uneven ranges still balance out
+ * @param chunkSize        customers fetched per set-based query within a range
+ * @param retention        how long a finished job and its report file are kept before they are removed
+ */
+@ConfigurationProperties(prefix = "rewards.report")
+public record ReportProperties(
+        Path directory,
+        @DefaultValue("4") int parallelism,
+        @DefaultValue("8") int rangesPerWorker,
+        @DefaultValue("200") int chunkSize,
+        @DefaultValue("1h") Duration retention) {
+}
@@ -0,0 +1,41 @@
+package com.charter.rewardcalculator.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hibernate statement inspector that counts the SQL statements prepared for the current request.
+ *
+ * <p>Registered through {@code hibernate.session_factory.statement_inspector}, so Hibernate creates
+ * the instance; the count lives in a thread-local opened by {@link StatementCountFilter}. Work handed
+ * to other threads is counted only if they {@link #bind} the request's counter.
+ */
+public class RequestStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<AtomicInteger> CURRENT = new ThreadLocal<>();
+
+    /** Counts the statement if a request counter is bound, and returns the SQL unchanged. */
+    @Override
+    public String inspect(String sql) {
+        AtomicInteger counter = CURRENT.get();
+        if (counter != null) {
+            counter.incrementAndGet();
+        }
+        return sql;
+    }
+
+    /** Returns the counter bound to the current thread, or null outside a counted request. */
+    public static AtomicInteger current() {
+        return CURRENT.get();
+    }
+
+    /** Binds the counter to the current thread; a null counter clears the binding. */
+    public static void bind(AtomicInteger counter) {
+        if (counter == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(counter);
+        }
+    }
+}
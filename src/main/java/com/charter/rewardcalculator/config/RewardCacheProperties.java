@@ -0,0 +1,18 @@
+package com.charter.rewardcalculator.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings for the in-process reward summary cache.
+ *
+ * @param maximumSize        upper bound on cached summaries; 0 disables caching
+ * @param expireAfterWrite   how long a summary may be served before it is recomputed
+ */
+@ConfigurationProperties(prefix = "rewards.cache")
+public record RewardCacheProperties(
+        @DefaultValue("10000") long maximumSize,
+        @DefaultValue("10m") Duration expireAfterWrite) {
+}
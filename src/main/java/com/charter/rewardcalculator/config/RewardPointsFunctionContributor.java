@@ -0,0 +1,40 @@
+package com.charter.rewardcalculator.config;
+
+import com.charter.rewardcalculator.service.RewardRuleSet;
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers {@code reward_points(amount, date)}, the HQL function the aggregation queries use for
+ * the points of one transaction.
+ *
+ * <p>Loaded by Hibernate through {@code META-INF/services}, so Hibernate creates the instance. The
+ * rules come from the {@value RewardRuleSet#HIBERNATE_SETTING} setting put there by
+ * {@link RewardRuleConfig}; a session factory built without it, as in repository slice tests, uses
+ * {@link RewardRuleSet#defaults()}.
+ */
+public class RewardPointsFunctionContributor implements FunctionContributor {
+
+    /** Name of the registered function. */
+    public static final String FUNCTION_NAME = "reward_points";
+
+    /** Registers the function from the configured rules. */
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        Object configured = functionContributions.getServiceRegistry()
+                .requireService(ConfigurationService.class)
+                .getSettings()
+                .get(RewardRuleSet.HIBERNATE_SETTING);
+        RewardRuleSet rules = configured instanceof RewardRuleSet set ? set : RewardRuleSet.defaults();
+        // Rules without promotions never reference the date, so the arity is fixed here rather than
+        // inferred from the placeholders in the pattern.
+        functionContributions.getFunctionRegistry().patternDescriptorBuilder(FUNCTION_NAME, rules.sqlPattern())
+                .setExactArgumentCount(2)
+                .setArgumentListSignature("(NUMERIC amount, DATE date)")
+                .setInvariantType(functionContributions.getTypeConfiguration().getBasicTypeRegistry()
+                        .resolve(StandardBasicTypes.LONG))
+                .register();
+    }
+}
@@ -0,0 +1,58 @@
+package com.charter.rewardcalculator.config;
+
+import com.charter.rewardcalculator.repository.PointsRecalculationRangeRepository;
+import com.charter.rewardcalculator.service.ReportedRuleVersion;
+import com.charter.rewardcalculator.service.RewardRuleSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Limit;
+
+import java.time.Instant;
+
+/**
+ * Compiles the configured reward rules once, at startup, and shares the result with Java and SQL.
+ *
+ * <p>The same {@link RewardRuleSet} instance is handed to Hibernate as a setting, where
+ * {@link RewardPointsFunctionContributor} renders it as the {@code reward_points} SQL function.
+ * Changing the rules takes a restart; the points recalculation then rewrites the stored points
+ * with the new rules, and the reported rule version follows once it completes.
+ */
+@Configuration
+public class RewardRuleConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(RewardRuleConfig.class);
+
+    /** Returns the compiled rules, failing startup if they are invalid. */
+    @Bean
+    public RewardRuleSet rewardRuleSet(RewardRuleProperties properties) {
+        RewardRuleSet rules = RewardRuleSet.compile(properties, Instant.now());
+        log.info("Compiled reward rules — {}", rules);
+        return rules;
+    }
+
+    /**
+     * Returns the rule version to report, starting from the version every stored point was last
+     * recalculated under, or the configured one if none was recorded.
+     */
+    @Bean
+    public ReportedRuleVersion reportedRuleVersion(RewardRuleSet rewardRuleSet,
+                                                   PointsRecalculationRangeRepository rangeRepository) {
+        String version = rangeRepository.findCompletedRuleVersions(Limit.of(1)).stream()
+                .findFirst()
+                .orElse(rewardRuleSet.version());
+        if (!version.equals(rewardRuleSet.version())) {
+            log.info("Reporting reward rule version {} until the points recalculation to {} completes",
+                    version, rewardRuleSet.version());
+        }
+        return new ReportedRuleVersion(version, rewardRuleSet.compiledAt());
+    }
+
+    /** Passes the compiled rules to Hibernate for the {@code reward_points} function. */
+    @Bean
+    public HibernatePropertiesCustomizer rewardRuleHibernateProperties(RewardRuleSet rewardRuleSet) {
+        return properties -> properties.put(RewardRuleSet.HIBERNATE_SETTING, rewardRuleSet);
+    }
+}
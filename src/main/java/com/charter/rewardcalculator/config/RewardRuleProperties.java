@@ -0,0 +1,50 @@
+package com.charter.rewardcalculator.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * The reward rules: point tiers by whole dollars spent and date-bounded promotions.
+ *
+ * <p>Without any {@code tiers}, the original rules apply: 1 point per dollar over $50 and 2 points
+ * per dollar over $100. The rules are compiled once at startup; see
+ * {@code com.charter.rewardcalculator.service.RewardRuleSet}.
+ *
+ * @param version     label of this rule set, recorded on every summary it produces
+ * @param tiers       points per whole dollar above each threshold, up to the next threshold
+ * @param promotions  multipliers applied to the points of transactions dated within a promotion
+ */
+@ConfigurationProperties(prefix = "rewards.rules")
+public record RewardRuleProperties(
+        @DefaultValue("1") String version,
+        List<Tier> tiers,
+        List<Promotion> promotions) {
+
+    /**
+     * One tier of the points curve.
+     *
+     * @param threshold  whole dollars above which the tier starts
+     * @param rate       points per whole dollar between this threshold and the next one
+     */
+    public record Tier(long threshold, long rate) {
+    }
+
+    /**
+     * A promotion over an inclusive range of transaction dates.
+     *
+     * @param name        label used in validation messages
+     * @param from        first transaction date of the promotion, as an ISO date
+     * @param to          last transaction date of the promotion, as an ISO date
+     * @param multiplier  factor applied to the points, with at most two decimals; points are rounded down
+     */
+    public record Promotion(String name,
+                            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                            BigDecimal multiplier) {
+    }
+}
@@ -0,0 +1,56 @@
+package com.charter.rewardcalculator.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Records how many SQL statements each API request issued, as the {@code rewards.request.statements}
+ * distribution summary tagged with the matched URI pattern.
+ */
+@Component
+public class StatementCountFilter extends OncePerRequestFilter {
+
+    private final ObjectProvider<MeterRegistry> registry;
+
+    /** Records into the meter registry, when one is configured. */
+    public StatementCountFilter(ObjectProvider<MeterRegistry> registry) {
+        this.registry = registry;
+    }
+
+    /** Only API requests are counted, and only when metrics are available. */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/") || registry.getIfAvailable() == null;
+    }
+
+    /** Binds a fresh counter for the request and records its value when the request completes. */
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        AtomicInteger counter = new AtomicInteger();
+        RequestStatementCounter.bind(counter);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestStatementCounter.bind(null);
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            DistributionSummary.builder("rewards.request.statements")
+                    .description("SQL statements issued per API request")
+                    .tag("uri", pattern == null ? "UNKNOWN" : pattern.toString())
+                    .publishPercentileHistogram()
+                    .register(registry.getObject())
+                    .record(counter.get());
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.charter.rewardcalculator.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings for the write-behind buffer that group-commits single transaction creates.
+ *
+ * @param enabled        whether creates go through the buffer instead of committing one by one
+ * @param queueCapacity  creates that may wait in the buffer before callers are pushed back
+ * @param batchSize      creates committed together in one database transaction at most
+ * @param maxDelay       longest a create waits for others to join its batch
+ * @param offerTimeout   how long a caller waits for room in a full buffer before it is rejected
+ */
+@ConfigurationProperties(prefix = "rewards.write-behind")
+public record WriteBehindProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("10000") int queueCapacity,
+        @DefaultValue("200") int batchSize,
+        @DefaultValue("2ms") Duration maxDelay,
+        @DefaultValue("100ms") Duration offerTimeout) {
+}
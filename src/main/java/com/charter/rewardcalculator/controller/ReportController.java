@@ -0,0 +1,111 @@
+package com.charter.rewardcalculator.controller;
+
+import com.charter.rewardcalculator.dto.ReportJobDTO;
+import com.charter.rewardcalculator.service.ReportJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+/** REST controller for asynchronous full-population reward reports. */
+@RestController
+@RequestMapping("/api/rewards/reports")
+@Tag(name = "Reward Reports", description = "Asynchronous rewards report jobs")
+public class ReportController {
+
+    private static final MediaType GZIP = MediaType.parseMediaType("application/gzip");
+
+    private final ReportJobService reportJobService;
+
+    /** Injects the report job service. */
+    public ReportController(ReportJobService reportJobService) {
+        this.reportJobService = reportJobService;
+    }
+
+    /** Starts a report of every customer's reward summary and returns the job without waiting for it. */
+    @Operation(summary = "Start a rewards report for all customers")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Job started",
+                    content = @Content(schema = @Schema(implementation = ReportJobDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid date range")
+    })
+    @PostMapping
+    public ResponseEntity<ReportJobDTO> startReport(
+            @Parameter(description = "Start date filter (inclusive, ISO-8601)", example = "2024-01-01")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+
+            @Parameter(description = "End date filter (inclusive, ISO-8601)", example = "2024-03-31")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        ReportJobDTO job = reportJobService.start(from, to);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/rewards/reports/" + job.jobId()))
+                .body(job);
+    }
+
+    /** Returns the status, progress and throughput of a report job. */
+    @Operation(summary = "Get the status of a rewards report job")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successful response",
+                    content = @Content(schema = @Schema(implementation = ReportJobDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Job not found")
+    })
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ReportJobDTO> getReportStatus(
+            @Parameter(description = "Report job ID") @PathVariable String jobId) {
+        return ResponseEntity.ok(reportJobService.status(jobId));
+    }
+
+    /** Downloads the gzipped NDJSON file of a completed report job. */
+    @Operation(summary = "Download a completed rewards report")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Gzipped NDJSON, one summary per line",
+                    content = @Content(mediaType = "application/gzip")),
+            @ApiResponse(responseCode = "404", description = "Job not found"),
+            @ApiResponse(responseCode = "409", description = "Job has not completed")
+    })
+    @GetMapping("/{jobId}/download")
+    public ResponseEntity<Resource> downloadReport(
+            @Parameter(description = "Report job ID") @PathVariable String jobId) {
+        Path file = reportJobService.reportFile(jobId);
+        return ResponseEntity.ok()
+                .contentType(GZIP)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(file.getFileName().toString()).build().toString())
+                .body(new FileSystemResource(file));
+    }
+
+    /** Cancels a running report job, or removes a finished one and its file. */
+    @Operation(summary = "Cancel or remove a rewards report job")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Job status after the cancel",
+                    content = @Content(schema = @Schema(implementation = ReportJobDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Job not found")
+    })
+    @DeleteMapping("/{jobId}")
+    public ResponseEntity<ReportJobDTO> cancelReport(
+            @Parameter(description = "Report job ID") @PathVariable String jobId) {
+        return ResponseEntity.ok(reportJobService.cancel(jobId));
+    }
+}
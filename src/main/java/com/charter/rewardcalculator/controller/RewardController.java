@@ -1,8 +1,22 @@
 package com.charter.rewardcalculator.controller;
 
+import com.charter.rewardcalculator.config.BatchProperties;
+import com.charter.rewardcalculator.config.BinaryFormatConfig;
+import com.charter.rewardcalculator.dto.BatchRewardRequestDTO;
+import com.charter.rewardcalculator.dto.BatchRewardSummaryDTO;
 import com.charter.rewardcalculator.dto.CustomerRewardSummaryDTO;
+import com.charter.rewardcalculator.dto.LeaderboardDTO;
 import com.charter.rewardcalculator.dto.PagedRewardSummaryDTO;
+import com.charter.rewardcalculator.dto.RewardCacheStatsDTO;
+import com.charter.rewardcalculator.dto.RewardSummarySliceDTO;
+import com.charter.rewardcalculator.exception.InvalidBatchException;
+import com.charter.rewardcalculator.exception.InvalidDateRangeException;
+import com.charter.rewardcalculator.service.CustomerPointsIndex;
+import com.charter.rewardcalculator.service.RewardExportService;
+import com.charter.rewardcalculator.service.RewardLeaderboardService;
 import com.charter.rewardcalculator.service.RewardService;
+import com.charter.rewardcalculator.service.RewardSummaryCache;
+import com.charter.rewardcalculator.service.RewardVersionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -10,68 +24,240 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
+import java.util.List;
 
-/** REST controller for reward point summary endpoints. */
+/**
+ * REST controller for reward point summary endpoints. Summaries are returned as JSON by default, or
+ * as CBOR or Smile when the client asks for them in {@code Accept}.
+ */
 @RestController
 @RequestMapping("/api/rewards")
 @Validated
 @Tag(name = "Rewards", description = "Customer reward points calculation API")
 public class RewardController {
 
+    /** Largest page size accepted by the paged endpoint; use the export endpoint for bulk reads. */
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
     private final RewardService rewardService;
+    private final RewardExportService rewardExportService;
+    private final RewardSummaryCache rewardSummaryCache;
+    private final CustomerPointsIndex customerPointsIndex;
+    private final RewardLeaderboardService leaderboardService;
+    private final RewardVersionService rewardVersionService;
+    private final BatchProperties batchProperties;
 
-    /** Injects the reward service. */
-    public RewardController(RewardService rewardService) {
+    /**
+     * Injects the reward, export, leaderboard and version services, the reward summary cache, the
+     * points index and the batch settings.
+     */
+    public RewardController(RewardService rewardService,
+                            RewardExportService rewardExportService,
+                            RewardSummaryCache rewardSummaryCache,
+                            CustomerPointsIndex customerPointsIndex,
+                            RewardLeaderboardService leaderboardService,
+                            RewardVersionService rewardVersionService,
+                            BatchProperties batchProperties) {
         this.rewardService = rewardService;
+        this.rewardExportService = rewardExportService;
+        this.rewardSummaryCache = rewardSummaryCache;
+        this.customerPointsIndex = customerPointsIndex;
+        this.leaderboardService = leaderboardService;
+        this.rewardVersionService = rewardVersionService;
+        this.batchProperties = batchProperties;
     }
 
-    /** Returns paginated reward summaries for all customers, with optional date filtering. */
+    /**
+     * Returns paginated reward summaries for all customers, with optional date filtering. The page
+     * carries a combined ETag and Last-Modified; a request whose validators still match gets 304
+     * without any summary being built.
+     */
     @Operation(summary = "Get paginated reward summaries for all customers")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successful response",
-                    content = @Content(schema = @Schema(implementation = PagedRewardSummaryDTO.class)))
+                    content = @Content(schema = @Schema(implementation = PagedRewardSummaryDTO.class))),
+            @ApiResponse(responseCode = "304", description = "No customer on the page has changed")
     })
-    @GetMapping
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            BinaryFormatConfig.APPLICATION_SMILE_VALUE})
     public ResponseEntity<PagedRewardSummaryDTO> getAllRewards(
             @Parameter(description = "Zero-based page number", example = "0")
             @RequestParam(defaultValue = "0") @Min(0) int page,
 
-            @Parameter(description = "Number of items per page", example = "10")
-            @RequestParam(defaultValue = "10") @Min(1) int size,
+            @Parameter(description = "Number of items per page (1-" + MAX_PAGE_SIZE + ")", example = "10")
+            @RequestParam(defaultValue = "10") @Min(1) @Max(MAX_PAGE_SIZE) int size,
 
             @Parameter(description = "Start date filter (inclusive, ISO-8601)", example = "2024-01-01")
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
 
             @Parameter(description = "End date filter (inclusive, ISO-8601)", example = "2024-03-31")
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+
+            WebRequest request) {
 
         Pageable pageable = PageRequest.of(page, size, Sort.by("id").ascending());
-        return ResponseEntity.ok(rewardService.getRewardsPaged(pageable, from, to));
+        RewardVersionService.RewardVersion version = rewardVersionService.pageVersion(pageable);
+        if (request.checkNotModified(version.eTag(), version.lastModifiedMillis())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(rewardService.getRewardsPaged(pageable, from, to));
+    }
+
+    /** Returns reward summaries for the customers after a cursor, for walking the full customer list. */
+    @Operation(summary = "Get reward summaries using cursor (keyset) pagination")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successful response",
+                    content = @Content(schema = @Schema(implementation = RewardSummarySliceDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid request parameters or cursor")
+    })
+    @GetMapping(value = "/cursor", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            BinaryFormatConfig.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<RewardSummarySliceDTO> getRewardsByCursor(
+            @Parameter(description = "Opaque cursor from the previous response's nextCursor; omit for the first slice")
+            @RequestParam(required = false) String after,
+
+            @Parameter(description = "Number of items per slice (1-" + MAX_PAGE_SIZE + ")", example = "10")
+            @RequestParam(defaultValue = "10") @Min(1) @Max(MAX_PAGE_SIZE) int size,
+
+            @Parameter(description = "Start date filter (inclusive, ISO-8601)", example = "2024-01-01")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+
+            @Parameter(description = "End date filter (inclusive, ISO-8601)", example = "2024-03-31")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        return ResponseEntity.ok(rewardService.getRewardsAfter(after, size, from, to));
+    }
+
+    /**
+     * Returns the reward summaries of the requested customers, with optional date filtering. IDs
+     * that match no customer are listed in the response instead of failing the request.
+     */
+    @Operation(summary = "Get reward summaries for a batch of customers")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Summaries of the customers found; unknown IDs listed",
+                    content = @Content(schema = @Schema(implementation = BatchRewardSummaryDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Empty batch, invalid ID, too many IDs or invalid dates")
+    })
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+                    BinaryFormatConfig.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<BatchRewardSummaryDTO> getRewardsBatch(@RequestBody BatchRewardRequestDTO request) {
+        List<Long> customerIds = request.customerIds();
+        if (customerIds == null || customerIds.isEmpty()) {
+            throw new InvalidBatchException("customerIds must not be empty");
+        }
+        if (customerIds.size() > batchProperties.maxSize()) {
+            throw new InvalidBatchException(
+                    "customerIds must not hold more than " + batchProperties.maxSize() + " IDs");
+        }
+        if (customerIds.stream().anyMatch(id -> id == null || id < 1)) {
+            throw new InvalidBatchException("customerIds must all be >= 1");
+        }
+        return ResponseEntity.ok(rewardService.getRewardsForCustomers(customerIds, request.from(), request.to()));
+    }
+
+    /** Returns the customers with the most points, with optional date filtering. */
+    @Operation(summary = "Get the customers with the most reward points")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successful response",
+                    content = @Content(schema = @Schema(implementation = LeaderboardDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid request parameters")
+    })
+    @GetMapping(value = "/top", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            BinaryFormatConfig.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<LeaderboardDTO> getTopCustomers(
+            @Parameter(description = "Number of customers (1-" + RewardLeaderboardService.MAX_SIZE + ")",
+                    example = "100")
+            @RequestParam(defaultValue = "10") @Min(1) @Max(RewardLeaderboardService.MAX_SIZE) int n,
+
+            @Parameter(description = "Start date filter (inclusive, ISO-8601)", example = "2024-01-01")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+
+            @Parameter(description = "End date filter (inclusive, ISO-8601)", example = "2024-03-31")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        return ResponseEntity.ok(leaderboardService.getTopCustomers(n, from, to));
     }
 
-    /** Returns the reward summary for a single customer, with optional date filtering. */
+    /** Streams every customer's reward summary as NDJSON or CSV, with optional date filtering. */
+    @Operation(summary = "Stream reward summaries for all customers as NDJSON or CSV")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Summaries streamed in customer ID order"),
+            @ApiResponse(responseCode = "400", description = "Invalid request parameters")
+    })
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportRewards(
+            @Parameter(description = "Output format", example = "NDJSON")
+            @RequestParam(defaultValue = "NDJSON") RewardExportService.Format format,
+
+            @Parameter(description = "Start date filter (inclusive, ISO-8601)", example = "2024-01-01")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+
+            @Parameter(description = "End date filter (inclusive, ISO-8601)", example = "2024-03-31")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new InvalidDateRangeException(from, to);
+        }
+        MediaType contentType = format == RewardExportService.Format.CSV ? TEXT_CSV : MediaType.APPLICATION_NDJSON;
+        StreamingResponseBody body = out -> rewardExportService.exportSummaries(from, to, format, out);
+        return ResponseEntity.ok().contentType(contentType).body(body);
+    }
+
+    /** Returns hit, miss and eviction counters of the reward summary cache. */
+    @Operation(summary = "Get reward summary cache statistics")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successful response",
+                    content = @Content(schema = @Schema(implementation = RewardCacheStatsDTO.class)))
+    })
+    @GetMapping("/cache/stats")
+    public ResponseEntity<RewardCacheStatsDTO> getCacheStats() {
+        return ResponseEntity.ok(rewardSummaryCache.stats());
+    }
+
+    /**
+     * Returns the reward summary for a single customer, with optional date filtering. With
+     * {@code totalOnly}, only the total is returned, answered from the cumulative points index.
+     * The response carries the customer's ETag and Last-Modified; a request whose validators still
+     * match gets 304 after one primary key lookup.
+     */
     @Operation(summary = "Get reward summary for a specific customer")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successful response",
                     content = @Content(schema = @Schema(implementation = CustomerRewardSummaryDTO.class))),
+            @ApiResponse(responseCode = "304", description = "The customer's transactions have not changed"),
             @ApiResponse(responseCode = "404", description = "Customer not found"),
             @ApiResponse(responseCode = "400", description = "Invalid request parameters")
     })
-    @GetMapping("/{customerId}")
+    @GetMapping(value = "/{customerId}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            BinaryFormatConfig.APPLICATION_SMILE_VALUE})
     public ResponseEntity<CustomerRewardSummaryDTO> getCustomerReward(
             @Parameter(description = "Customer ID (must be >= 1)", example = "1", required = true)
             @PathVariable @Min(1) Long customerId,
@@ -80,8 +266,23 @@ public class RewardController {
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
 
             @Parameter(description = "End date filter (inclusive, ISO-8601)", example = "2024-03-31")
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+
+            @Parameter(description = "Return only totalPoints, with an empty monthly breakdown", example = "false")
+            @RequestParam(defaultValue = "false") boolean totalOnly,
+
+            WebRequest request) {
 
-        return ResponseEntity.ok(rewardService.getRewardsForCustomer(customerId, from, to));
+        RewardVersionService.RewardVersion version = rewardVersionService.customerVersion(customerId);
+        if (request.checkNotModified(version.eTag(), version.lastModifiedMillis())) {
+            return null;
+        }
+        CustomerRewardSummaryDTO summary = totalOnly
+                ? customerPointsIndex.getTotal(customerId, from, to)
+                : rewardService.getRewardsForCustomer(customerId, from, to);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(summary);
     }
 }
@@ -0,0 +1,98 @@
+package com.charter.rewardcalculator.controller;
+
+import com.charter.rewardcalculator.dto.BulkIngestResultDTO;
+import com.charter.rewardcalculator.dto.CsvImportResultDTO;
+import com.charter.rewardcalculator.dto.TransactionDTO;
+import com.charter.rewardcalculator.dto.TransactionRequestDTO;
+import com.charter.rewardcalculator.model.Transaction;
+import com.charter.rewardcalculator.service.CsvImportService;
+import com.charter.rewardcalculator.service.TransactionIngestService;
+import com.charter.rewardcalculator.service.TransactionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.InputStream;
+
+/** REST controller for transaction write endpoints. */
+@RestController
+@RequestMapping("/api/transactions")
+@Tag(name = "Transactions", description = "Purchase transaction ingestion API")
+public class TransactionController {
+
+    private final TransactionService transactionService;
+    private final TransactionIngestService ingestService;
+    private final CsvImportService csvImportService;
+
+    /** Injects the transaction, ingest and CSV import services. */
+    public TransactionController(TransactionService transactionService,
+                                 TransactionIngestService ingestService,
+                                 CsvImportService csvImportService) {
+        this.transactionService = transactionService;
+        this.ingestService = ingestService;
+        this.csvImportService = csvImportService;
+    }
+
+    /**
+     * Creates one transaction. With {@code rewards.write-behind.enabled} the create is group-committed
+     * with concurrent ones; either way the response is sent only once it has committed.
+     */
+    @Operation(summary = "Create a single transaction")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Transaction committed",
+                    content = @Content(schema = @Schema(implementation = TransactionDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Missing customer ID, amount or date, or amount not positive"),
+            @ApiResponse(responseCode = "404", description = "Customer not found"),
+            @ApiResponse(responseCode = "503", description = "Write-behind buffer full; retry later")
+    })
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<TransactionDTO> create(@RequestBody TransactionRequestDTO request) {
+        Transaction tx = transactionService.createTransaction(
+                request.customerId(), request.amount(), request.transactionDate());
+        return ResponseEntity.status(HttpStatus.CREATED).body(new TransactionDTO(
+                tx.getId(), tx.getCustomer().getId(), tx.getAmount(), tx.getTransactionDate()));
+    }
+
+    /** Ingests a JSON array of transactions. */
+    @Operation(summary = "Bulk-ingest transactions from a JSON array")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Rows processed; see per-row rejections",
+                    content = @Content(schema = @Schema(implementation = BulkIngestResultDTO.class)))
+    })
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkIngestResultDTO> ingestJsonArray(InputStream body) {
+        return ResponseEntity.ok(ingestService.ingest(body, TransactionIngestService.Format.JSON_ARRAY));
+    }
+
+    /** Ingests a newline-delimited JSON stream of transactions. */
+    @Operation(summary = "Bulk-ingest transactions from an NDJSON stream")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Rows processed; see per-row rejections",
+                    content = @Content(schema = @Schema(implementation = BulkIngestResultDTO.class)))
+    })
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<BulkIngestResultDTO> ingestNdjson(InputStream body) {
+        return ResponseEntity.ok(ingestService.ingest(body, TransactionIngestService.Format.NDJSON));
+    }
+
+    /** Imports a CSV dump of transactions, one {@code customerId,amount,transactionDate} line per row. */
+    @Operation(summary = "Import transactions from a CSV file")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Rows processed; rejected rows are in the reject file",
+                    content = @Content(schema = @Schema(implementation = CsvImportResultDTO.class)))
+    })
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<CsvImportResultDTO> importCsv(InputStream body) {
+        return ResponseEntity.ok(csvImportService.importStream(body));
+    }
+}
@@ -0,0 +1,8 @@
+package com.charter.rewardcalculator.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/** Customers whose reward summaries are requested together, with an optional inclusive date range. */
+public record BatchRewardRequestDTO(List<Long> customerIds, LocalDate from, LocalDate to) {
+}
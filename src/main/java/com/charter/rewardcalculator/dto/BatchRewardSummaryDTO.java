@@ -0,0 +1,12 @@
+package com.charter.rewardcalculator.dto;
+
+import java.util.List;
+
+/**
+ * Reward summaries of the requested customers that exist, in request order without duplicates,
+ * and the requested IDs that matched no customer.
+ */
+public record BatchRewardSummaryDTO(
+        List<CustomerRewardSummaryDTO> content,
+        List<Long> notFound) {
+}
@@ -0,0 +1,11 @@
+package com.charter.rewardcalculator.dto;
+
+import java.util.List;
+
+/** Outcome of a bulk transaction ingestion request with the reason for every rejected row. */
+public record BulkIngestResultDTO(
+        long received,
+        long accepted,
+        long rejected,
+        List<RowRejectionDTO> rejections) {
+}
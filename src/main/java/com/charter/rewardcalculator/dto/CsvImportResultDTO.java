@@ -0,0 +1,14 @@
+package com.charter.rewardcalculator.dto;
+
+/**
+ * Outcome of a CSV transaction import. Rejected rows are written to {@code rejectFile}, which is
+ * null when every row was accepted.
+ */
+public record CsvImportResultDTO(
+        long received,
+        long accepted,
+        long rejected,
+        String rejectFile,
+        long elapsedMs,
+        double rowsPerSecond) {
+}
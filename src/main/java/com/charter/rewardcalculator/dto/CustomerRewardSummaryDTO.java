@@ -2,10 +2,14 @@ package com.charter.rewardcalculator.dto;
 
 import java.util.List;
 
-/** Reward point summary for a single customer with monthly breakdown and total. */
+/**
+ * Reward point summary for a single customer with monthly breakdown and total, and the version of
+ * the reward rules that produced the points.
+ */
 public record CustomerRewardSummaryDTO(
         Long customerId,
         String customerName,
         List<MonthlyRewardDTO> monthlyRewards,
-        long totalPoints) {
+        long totalPoints,
+        String ruleVersion) {
 }
@@ -0,0 +1,11 @@
+package com.charter.rewardcalculator.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/** Customers with the most reward points in an optional date range, best first; null bounds are open. */
+public record LeaderboardDTO(
+        LocalDate from,
+        LocalDate to,
+        List<LeaderboardEntryDTO> entries) {
+}
@@ -0,0 +1,5 @@
+package com.charter.rewardcalculator.dto;
+
+/** One customer's position on the points leaderboard; rank 1 has the most points. */
+public record LeaderboardEntryDTO(int rank, Long customerId, String customerName, long totalPoints) {
+}
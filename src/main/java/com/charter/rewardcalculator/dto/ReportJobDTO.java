@@ -0,0 +1,31 @@
+package com.charter.rewardcalculator.dto;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/** Status and progress of a full-population rewards report job; null bounds are open. */
+public record ReportJobDTO(
+        String jobId,
+        Status status,
+        LocalDate from,
+        LocalDate to,
+        int rangesCompleted,
+        int rangesTotal,
+        long rowsWritten,
+        double rowsPerSecond,
+        Instant startedAt,
+        Instant finishedAt,
+        String error) {
+
+    /** Lifecycle of a report job. */
+    public enum Status {
+        /** Ranges are being written. */
+        RUNNING,
+        /** The report file is ready for download. */
+        COMPLETED,
+        /** The job was cancelled and its partial output removed. */
+        CANCELLED,
+        /** A range failed; see {@code error}. */
+        FAILED
+    }
+}
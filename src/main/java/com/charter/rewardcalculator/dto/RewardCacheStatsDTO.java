@@ -0,0 +1,10 @@
+package com.charter.rewardcalculator.dto;
+
+/** Hit, miss and eviction counters of the reward summary cache since startup. */
+public record RewardCacheStatsDTO(
+        long size,
+        long hitCount,
+        long missCount,
+        double hitRate,
+        long evictionCount) {
+}
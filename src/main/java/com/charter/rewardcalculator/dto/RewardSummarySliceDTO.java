@@ -0,0 +1,11 @@
+package com.charter.rewardcalculator.dto;
+
+import java.util.List;
+
+/** Cursor-paginated slice of customer reward summaries; {@code nextCursor} is null on the last slice. */
+public record RewardSummarySliceDTO(
+        List<CustomerRewardSummaryDTO> content,
+        int size,
+        String nextCursor,
+        boolean last) {
+}
@@ -0,0 +1,5 @@
+package com.charter.rewardcalculator.dto;
+
+/** A rejected input row, identified by its zero-based position in the request body. */
+public record RowRejectionDTO(long row, String message) {
+}
@@ -0,0 +1,8 @@
+package com.charter.rewardcalculator.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/** A committed purchase transaction. */
+public record TransactionDTO(Long id, Long customerId, BigDecimal amount, LocalDate transactionDate) {
+}
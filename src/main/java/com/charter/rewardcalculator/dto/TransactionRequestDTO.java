@@ -0,0 +1,8 @@
+package com.charter.rewardcalculator.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/** A purchase transaction submitted for ingestion. */
+public record TransactionRequestDTO(Long customerId, BigDecimal amount, LocalDate transactionDate) {
+}
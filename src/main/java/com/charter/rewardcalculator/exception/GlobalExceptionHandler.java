@@ -5,6 +5,9 @@ import jakarta.validation.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.HttpMediaTypeNotSupportedException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -23,6 +26,27 @@ public class GlobalExceptionHandler {
         return errorBody(HttpStatus.NOT_FOUND, ex.getMessage());
     }
 
+    /** Handles TransactionNotFoundException — returns 404. */
+    @ExceptionHandler(TransactionNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public ErrorResponseDTO handleTransactionNotFound(TransactionNotFoundException ex) {
+        return errorBody(HttpStatus.NOT_FOUND, ex.getMessage());
+    }
+
+    /** Handles ReportJobNotFoundException — returns 404. */
+    @ExceptionHandler(ReportJobNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public ErrorResponseDTO handleReportJobNotFound(ReportJobNotFoundException ex) {
+        return errorBody(HttpStatus.NOT_FOUND, ex.getMessage());
+    }
+
+    /** Handles downloads of reports that have not completed — returns 409. */
+    @ExceptionHandler(ReportNotReadyException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponseDTO handleReportNotReady(ReportNotReadyException ex) {
+        return errorBody(HttpStatus.CONFLICT, ex.getMessage());
+    }
+
     /** Handles constraint violations on request parameters — returns 400. */
     @ExceptionHandler(ConstraintViolationException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
@@ -41,6 +65,22 @@ public class GlobalExceptionHandler {
         return errorBody(HttpStatus.BAD_REQUEST, "Invalid parameter: " + ex.getName());
     }
 
+    /** Handles request bodies sent with an unsupported content type — returns 415. */
+    @ExceptionHandler(HttpMediaTypeNotSupportedException.class)
+    @ResponseStatus(HttpStatus.UNSUPPORTED_MEDIA_TYPE)
+    public ErrorResponseDTO handleUnsupportedMediaType(HttpMediaTypeNotSupportedException ex) {
+        return errorBody(HttpStatus.UNSUPPORTED_MEDIA_TYPE, "Unsupported content type: " + ex.getContentType());
+    }
+
+    /**
+     * Handles an Accept header that matches none of the endpoint's formats — returns 406. There is
+     * no body, since no format the client accepts could carry one.
+     */
+    @ExceptionHandler(HttpMediaTypeNotAcceptableException.class)
+    public ResponseEntity<Void> handleNotAcceptable(HttpMediaTypeNotAcceptableException ex) {
+        return ResponseEntity.status(HttpStatus.NOT_ACCEPTABLE).build();
+    }
+
     /** Handles invalid date range — returns 400. */
     @ExceptionHandler(InvalidDateRangeException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
@@ -48,6 +88,27 @@ public class GlobalExceptionHandler {
         return errorBody(HttpStatus.BAD_REQUEST, ex.getMessage());
     }
 
+    /** Handles malformed pagination cursors — returns 400. */
+    @ExceptionHandler(InvalidCursorException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponseDTO handleInvalidCursor(InvalidCursorException ex) {
+        return errorBody(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    /** Handles invalid batch requests — returns 400. */
+    @ExceptionHandler(InvalidBatchException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponseDTO handleInvalidBatch(InvalidBatchException ex) {
+        return errorBody(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    /** Handles creates turned away by a full write-behind buffer — returns 503. */
+    @ExceptionHandler(WriteBufferFullException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ErrorResponseDTO handleWriteBufferFull(WriteBufferFullException ex) {
+        return errorBody(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
+    }
+
     /** Handles all other unexpected exceptions — returns 500. */
     @ExceptionHandler(Exception.class)
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -0,0 +1,10 @@
+package com.charter.rewardcalculator.exception;
+
+/** Thrown when a batch reward request is empty, holds an invalid ID or exceeds the maximum size. */
+public class InvalidBatchException extends RuntimeException {
+
+    /** Constructs the exception with a message describing what is wrong with the batch. */
+    public InvalidBatchException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,10 @@
+package com.charter.rewardcalculator.exception;
+
+/** Thrown when a pagination cursor token cannot be decoded. */
+public class InvalidCursorException extends RuntimeException {
+
+    /** Constructs the exception with a message showing the rejected token. */
+    public InvalidCursorException(String cursor) {
+        super("Invalid cursor: " + cursor);
+    }
+}
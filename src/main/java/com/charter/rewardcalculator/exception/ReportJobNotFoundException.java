@@ -0,0 +1,10 @@
+package com.charter.rewardcalculator.exception;
+
+/** Thrown when no report job exists with the given ID. */
+public class ReportJobNotFoundException extends RuntimeException {
+
+    /** Constructs the exception with a message containing the missing job ID. */
+    public ReportJobNotFoundException(String jobId) {
+        super("Report job not found with id: " + jobId);
+    }
+}
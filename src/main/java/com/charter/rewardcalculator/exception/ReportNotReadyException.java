@@ -0,0 +1,12 @@
+package com.charter.rewardcalculator.exception;
+
+import com.charter.rewardcalculator.dto.ReportJobDTO;
+
+/** Thrown when a report is downloaded before its job has completed. */
+public class ReportNotReadyException extends RuntimeException {
+
+    /** Constructs the exception with a message containing the job ID and its current status. */
+    public ReportNotReadyException(String jobId, ReportJobDTO.Status status) {
+        super("Report job " + jobId + " is " + status + ", not COMPLETED");
+    }
+}
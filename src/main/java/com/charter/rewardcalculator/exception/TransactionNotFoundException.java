@@ -0,0 +1,10 @@
+package com.charter.rewardcalculator.exception;
+
+/** Thrown when a transaction is not found by ID. */
+public class TransactionNotFoundException extends RuntimeException {
+
+    /** Constructs the exception with a message containing the missing transaction ID. */
+    public TransactionNotFoundException(Long transactionId) {
+        super("Transaction not found with id: " + transactionId);
+    }
+}
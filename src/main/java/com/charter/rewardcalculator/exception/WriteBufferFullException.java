@@ -0,0 +1,10 @@
+package com.charter.rewardcalculator.exception;
+
+/** Thrown when the write-behind buffer stays full for longer than a caller may wait. */
+public class WriteBufferFullException extends RuntimeException {
+
+    /** Constructs the exception with a message containing the buffer capacity. */
+    public WriteBufferFullException(int capacity) {
+        super("Write buffer is full (" + capacity + " pending transactions); retry later");
+    }
+}
@@ -5,15 +5,19 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import lombok.Data;
 
+import java.time.Instant;
+
 /** JPA entity representing a customer. */
 @Entity
 @Data
 public class Customer {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customer_seq")
+    @SequenceGenerator(name = "customer_seq", sequenceName = "customer_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -21,4 +25,12 @@ public class Customer {
 
     @Column(nullable = false, unique = true)
     private String email;
+
+    /** Bumped whenever one of the customer's transactions is created, changed or deleted. */
+    @Column(nullable = false)
+    private long pointsVersion;
+
+    /** When {@link #pointsVersion} was last bumped. */
+    @Column(nullable = false)
+    private Instant pointsModifiedAt = Instant.now();
 }
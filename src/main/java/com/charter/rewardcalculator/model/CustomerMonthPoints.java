@@ -0,0 +1,55 @@
+package com.charter.rewardcalculator.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * JPA entity for the monthly points ledger: the points and transaction count of one customer in one
+ * calendar month. Rows are kept in step with the transaction table by RewardLedgerService.
+ */
+@Entity
+@Table(name = "customer_month_points")
+@IdClass(CustomerMonthPoints.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerMonthPoints {
+
+    @Id
+    @Column(name = "customer_id")
+    private Long customerId;
+
+    /** Calendar month encoded as yyyymm, e.g. 202401 for January 2024. */
+    @Id
+    @Column(name = "year_month")
+    private Integer yearMonth;
+
+    @Column(nullable = false)
+    private long points;
+
+    @Column(nullable = false)
+    private long transactionCount;
+
+    /** Encodes the month of the given date as yyyymm. */
+    public static int yearMonthOf(LocalDate date) {
+        return date.getYear() * 100 + date.getMonthValue();
+    }
+
+    /** Composite primary key of a ledger row. */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long customerId;
+        private Integer yearMonth;
+    }
+}
@@ -0,0 +1,56 @@
+package com.charter.rewardcalculator.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * JPA entity for the progress of one customer ID range in the points recalculation of one rule
+ * version. Every customer with an ID up to the checkpoint has had their transaction points
+ * recalculated; the range is done once {@link #completedAt} is set.
+ */
+@Entity
+@Table(name = "points_recalculation_range")
+@IdClass(PointsRecalculationRange.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PointsRecalculationRange {
+
+    @Id
+    @Column(name = "rule_version", length = 32)
+    private String ruleVersion;
+
+    @Id
+    @Column(name = "first_customer_id")
+    private Long firstCustomerId;
+
+    @Column(nullable = false)
+    private long lastCustomerId;
+
+    /** Highest customer ID of the range already recalculated, or one below the first ID. */
+    @Column(nullable = false)
+    private long checkpointCustomerId;
+
+    @Column(nullable = false)
+    private long recalculatedRows;
+
+    private Instant completedAt;
+
+    /** Composite primary key of a range row. */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String ruleVersion;
+        private Long firstCustomerId;
+    }
+}
@@ -2,14 +2,18 @@ package com.charter.rewardcalculator.model;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -20,11 +24,15 @@ import java.time.LocalDate;
 public class Transaction {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_seq")
+    @SequenceGenerator(name = "transaction_seq", sequenceName = "transaction_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne(optional = false)
+    /** Lazy: reads only need the customer ID, which the proxy holds without a query. */
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "customer_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Customer customer;
 
     @NotNull
@@ -35,4 +43,12 @@ public class Transaction {
     @NotNull
     @Column(nullable = false)
     private LocalDate transactionDate;
+
+    /** Reward points of the amount and date under the rules named by {@link #pointsRuleVersion}. */
+    @Column(nullable = false)
+    private long points;
+
+    /** Version of the reward rules the points were computed under; null until they are first computed. */
+    @Column(length = 32)
+    private String pointsRuleVersion;
 }
@@ -0,0 +1,105 @@
+package com.charter.rewardcalculator.repository;
+
+import com.charter.rewardcalculator.model.CustomerMonthPoints;
+import com.charter.rewardcalculator.repository.projection.CustomerPointsRow;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * JPA repository for the monthly points ledger. Months are compared as yyyymm integers, so the
+ * range queries mirror the date-bound variants in TransactionRepository at month granularity.
+ */
+public interface CustomerMonthPointsRepository extends JpaRepository<CustomerMonthPoints, CustomerMonthPoints.Key> {
+
+    /** Returns all ledger rows for the given customers, ordered by customer and month. */
+    List<CustomerMonthPoints> findByCustomerIdInOrderByCustomerIdAscYearMonthAsc(Collection<Long> customerIds);
+
+    /** Returns ledger rows for the given customers within an inclusive month range. */
+    List<CustomerMonthPoints> findByCustomerIdInAndYearMonthBetweenOrderByCustomerIdAscYearMonthAsc(
+            Collection<Long> customerIds, int fromYearMonth, int toYearMonth);
+
+    /** Returns ledger rows for the given customers from the given month onwards. */
+    List<CustomerMonthPoints> findByCustomerIdInAndYearMonthGreaterThanEqualOrderByCustomerIdAscYearMonthAsc(
+            Collection<Long> customerIds, int fromYearMonth);
+
+    /** Returns ledger rows for the given customers up to and including the given month. */
+    List<CustomerMonthPoints> findByCustomerIdInAndYearMonthLessThanEqualOrderByCustomerIdAscYearMonthAsc(
+            Collection<Long> customerIds, int toYearMonth);
+
+    /**
+     * Returns up to {@code limit} customers with the most points within an inclusive month range,
+     * ordered by points descending and then customer ID. Customers without points are left out.
+     */
+    @Query("""
+            select new com.charter.rewardcalculator.repository.projection.CustomerPointsRow(
+                m.customerId, sum(m.points))
+              from CustomerMonthPoints m
+             where m.yearMonth between :fromYearMonth and :toYearMonth
+             group by m.customerId
+            having sum(m.points) > 0
+             order by sum(m.points) desc, m.customerId
+            """)
+    List<CustomerPointsRow> findTopCustomersByPoints(@Param("fromYearMonth") int fromYearMonth,
+                                                     @Param("toYearMonth") int toYearMonth,
+                                                     Limit limit);
+
+    /** Returns the points of the given customers within an inclusive month range, for those that have any. */
+    @Query("""
+            select new com.charter.rewardcalculator.repository.projection.CustomerPointsRow(
+                m.customerId, sum(m.points))
+              from CustomerMonthPoints m
+             where m.customerId in :customerIds and m.yearMonth between :fromYearMonth and :toYearMonth
+             group by m.customerId
+            having sum(m.points) > 0
+            """)
+    List<CustomerPointsRow> sumPointsByCustomerIdIn(@Param("customerIds") Collection<Long> customerIds,
+                                                    @Param("fromYearMonth") int fromYearMonth,
+                                                    @Param("toYearMonth") int toYearMonth);
+
+    /** Adds the given deltas to an existing ledger row and returns the number of rows updated. */
+    @Modifying
+    @Query("""
+            update CustomerMonthPoints m
+               set m.points = m.points + :points, m.transactionCount = m.transactionCount + :count
+             where m.customerId = :customerId and m.yearMonth = :yearMonth
+            """)
+    int addToMonth(@Param("customerId") Long customerId, @Param("yearMonth") int yearMonth,
+                   @Param("points") long points, @Param("count") long count);
+
+    /** Inserts a new ledger row. */
+    @Modifying
+    @Query(value = """
+            INSERT INTO customer_month_points (customer_id, year_month, points, transaction_count)
+            VALUES (:customerId, :yearMonth, :points, :count)
+            """, nativeQuery = true)
+    int insertMonth(@Param("customerId") Long customerId, @Param("yearMonth") int yearMonth,
+                    @Param("points") long points, @Param("count") long count);
+
+    /** Removes a ledger row once its last transaction has gone. */
+    @Modifying
+    @Query("""
+            delete from CustomerMonthPoints m
+             where m.customerId = :customerId and m.yearMonth = :yearMonth and m.transactionCount <= 0
+            """)
+    int deleteIfEmpty(@Param("customerId") Long customerId, @Param("yearMonth") int yearMonth);
+
+    /** Removes all ledger rows for the given customers. */
+    @Modifying
+    @Query("delete from CustomerMonthPoints m where m.customerId in :customerIds")
+    int deleteByCustomerIdIn(@Param("customerIds") Collection<Long> customerIds);
+
+    /** Recomputes the ledger rows of the given customers from the transaction table. */
+    @Modifying
+    @Query("insert into CustomerMonthPoints (customerId, yearMonth, points, transactionCount)"
+            + " select t.customer.id, year(t.transactionDate) * 100 + month(t.transactionDate),"
+            + " sum(" + TransactionRepository.POINTS_EXPRESSION + "), count(t)"
+            + " from Transaction t where t.customer.id in :customerIds"
+            + " group by t.customer.id, year(t.transactionDate) * 100 + month(t.transactionDate)")
+    int insertFromTransactions(@Param("customerIds") Collection<Long> customerIds);
+}
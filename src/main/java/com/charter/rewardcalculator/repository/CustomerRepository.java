@@ -1,8 +1,121 @@
 package com.charter.rewardcalculator.repository;
 
 import com.charter.rewardcalculator.model.Customer;
+import com.charter.rewardcalculator.repository.projection.CustomerNameRow;
+import com.charter.rewardcalculator.repository.projection.CustomerVersionRow;
+import com.charter.rewardcalculator.repository.projection.IdRangeRow;
+import com.charter.rewardcalculator.repository.projection.TransactionExportRow;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /** JPA repository for Customer entities. */
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
+
+    /**
+     * Locks the given customers for the rest of the current transaction, in ID order so concurrent
+     * writers cannot deadlock. Used to serialize ledger maintenance per customer.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Customer> findAllByIdInOrderByIdAsc(Collection<Long> ids);
+
+    /** Returns up to {@code limit} customer IDs greater than {@code after}, in ascending order. */
+    @Query("select c.id from Customer c where c.id > :after order by c.id")
+    List<Long> findIdsAfter(@Param("after") Long after, Limit limit);
+
+    /**
+     * Returns up to {@code limit} customer IDs greater than {@code after} and not greater than
+     * {@code last}, in ascending order. Used to walk one range of the ID space.
+     */
+    @Query("select c.id from Customer c where c.id > :after and c.id <= :last order by c.id")
+    List<Long> findIdsBetween(@Param("after") Long after, @Param("last") Long last, Limit limit);
+
+    /** Returns the lowest and highest customer ID, read from the primary key index. */
+    @Query("select new com.charter.rewardcalculator.repository.projection.IdRangeRow(min(c.id), max(c.id))"
+            + " from Customer c")
+    IdRangeRow findIdRange();
+
+    /** Returns the ID and name of a page of customers, without loading Customer entities. */
+    @Query(value = "select new com.charter.rewardcalculator.repository.projection.CustomerNameRow(c.id, c.name)"
+            + " from Customer c",
+            countQuery = "select count(c) from Customer c")
+    Page<CustomerNameRow> findNames(Pageable pageable);
+
+    /** Returns the ID and name of up to {@code limit} customers with an ID greater than {@code after}, in ID order. */
+    @Query("select new com.charter.rewardcalculator.repository.projection.CustomerNameRow(c.id, c.name)"
+            + " from Customer c where c.id > :after order by c.id")
+    List<CustomerNameRow> findNamesAfter(@Param("after") Long after, Limit limit);
+
+    /** Returns the ID and name of the customer, without loading the Customer entity. */
+    @Query("select new com.charter.rewardcalculator.repository.projection.CustomerNameRow(c.id, c.name)"
+            + " from Customer c where c.id = :id")
+    Optional<CustomerNameRow> findNameById(@Param("id") Long id);
+
+    /** Returns the ID and name of the given customers, in no particular order. */
+    @Query("select new com.charter.rewardcalculator.repository.projection.CustomerNameRow(c.id, c.name)"
+            + " from Customer c where c.id in :ids")
+    List<CustomerNameRow> findNamesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Bumps the points version of the given customers and stamps the change time. Callers hold the
+     * customers' row locks, so concurrent bumps are serialized.
+     */
+    @Modifying
+    @Query("""
+            update Customer c
+               set c.pointsVersion = c.pointsVersion + 1, c.pointsModifiedAt = :modifiedAt
+             where c.id in :ids
+            """)
+    int bumpPointsVersion(@Param("ids") Collection<Long> ids, @Param("modifiedAt") Instant modifiedAt);
+
+    /** Returns the points version of the customer, read by primary key without touching transactions. */
+    @Query("select new com.charter.rewardcalculator.repository.projection.CustomerVersionRow("
+            + "c.id, c.pointsVersion, c.pointsModifiedAt) from Customer c where c.id = :id")
+    Optional<CustomerVersionRow> findVersionById(@Param("id") Long id);
+
+    /** Returns the points versions of a page of customers, without loading Customer entities. */
+    @Query(value = "select new com.charter.rewardcalculator.repository.projection.CustomerVersionRow("
+            + "c.id, c.pointsVersion, c.pointsModifiedAt) from Customer c",
+            countQuery = "select count(c) from Customer c")
+    Page<CustomerVersionRow> findVersions(Pageable pageable);
+
+    /** Returns the subset of the given IDs that belong to existing customers. */
+    @Query("select c.id from Customer c where c.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Streams every customer left-joined with their transactions in the optional date range, ordered
+     * by customer ID and transaction date. Absent bounds are passed as null. The stream must be
+     * consumed inside a transaction and closed by the caller.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select new com.charter.rewardcalculator.repository.projection.TransactionExportRow(
+                c.id, c.name, t.points, t.transactionDate)
+            from Customer c
+            left join Transaction t on t.customer.id = c.id
+                and (:from is null or t.transactionDate >= :from)
+                and (:to is null or t.transactionDate <= :to)
+            order by c.id, t.transactionDate
+            """)
+    Stream<TransactionExportRow> streamExportRows(@Param("from") LocalDate from, @Param("to") LocalDate to);
 }
@@ -0,0 +1,50 @@
+package com.charter.rewardcalculator.repository;
+
+import com.charter.rewardcalculator.model.PointsRecalculationRange;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+/** JPA repository for the checkpoints of the points recalculation. */
+public interface PointsRecalculationRangeRepository
+        extends JpaRepository<PointsRecalculationRange, PointsRecalculationRange.Key> {
+
+    /** Returns the ranges of the given rule version, ordered by their first customer ID. */
+    List<PointsRecalculationRange> findByRuleVersionOrderByFirstCustomerIdAsc(String ruleVersion);
+
+    /**
+     * Returns the rule versions whose ranges are all completed, the most recently completed first.
+     * The first is the version every stored point was last recalculated under.
+     */
+    @Query("""
+            select r.ruleVersion from PointsRecalculationRange r
+             group by r.ruleVersion
+            having count(r) = count(r.completedAt)
+             order by max(r.completedAt) desc
+            """)
+    List<String> findCompletedRuleVersions(Limit limit);
+
+    /** Removes the ranges of the given rule version, so that its recalculation starts over. */
+    @Modifying
+    @Query("delete from PointsRecalculationRange r where r.ruleVersion = :ruleVersion")
+    int deleteByRuleVersion(@Param("ruleVersion") String ruleVersion);
+
+    /**
+     * Locks one range for the rest of the current transaction, so that two instances recalculating
+     * the same rule version never work on the same range at once.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+            select r from PointsRecalculationRange r
+             where r.ruleVersion = :ruleVersion and r.firstCustomerId = :firstCustomerId
+            """)
+    Optional<PointsRecalculationRange> findForUpdate(@Param("ruleVersion") String ruleVersion,
+                                                     @Param("firstCustomerId") Long firstCustomerId);
+}
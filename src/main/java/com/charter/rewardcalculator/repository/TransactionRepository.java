@@ -1,14 +1,84 @@
 package com.charter.rewardcalculator.repository;
 
 import com.charter.rewardcalculator.model.Transaction;
+import com.charter.rewardcalculator.repository.projection.CustomerDayPointsRow;
+import com.charter.rewardcalculator.repository.projection.CustomerPointsRow;
+import com.charter.rewardcalculator.repository.projection.DailyPointsRow;
+import com.charter.rewardcalculator.repository.projection.MonthlyPointsProjection;
+import com.charter.rewardcalculator.repository.projection.TransactionPointsRow;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-/** JPA repository for Transaction entities with customer and date-based query methods. */
+/**
+ * JPA repository for Transaction entities with customer and date-based query methods.
+ *
+ * <p>The {@code sumMonthlyPoints*} queries sum the points stored on each transaction and group by
+ * customer, year and month, so only one row per customer-month leaves the database. Rows are
+ * ordered by customer, year and month. Stored points are written with the transaction and rewritten
+ * by the points recalculation when the reward rules change, which is the only place the compiled
+ * rules ({@code RewardRuleSet}) are applied in SQL.
+ */
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
 
+    /** HQL expression for the stored reward points of a single transaction aliased {@code t}. */
+    String POINTS_EXPRESSION = "t.points";
+
+    /**
+     * HQL expression for the reward points of a transaction aliased {@code t} under the current
+     * rules. The {@code reward_points} function is the configured rule set rendered as SQL.
+     */
+    String RULE_POINTS_EXPRESSION = "reward_points(t.amount, t.transactionDate)";
+
+    /** Condition matching the transactions whose points were computed under other rules than {@code :ruleVersion}. */
+    String STALE_POINTS_CONDITION =
+            " (t.pointsRuleVersion is null or t.pointsRuleVersion <> :ruleVersion)";
+
+    /** Select and grouping clauses shared by the monthly points aggregation queries. */
+    String MONTHLY_POINTS_SELECT = """
+            select new com.charter.rewardcalculator.repository.projection.MonthlyPointsProjection(
+                t.customer.id, year(t.transactionDate), month(t.transactionDate),
+                sum(""" + POINTS_EXPRESSION + """
+            ))
+            from Transaction t
+            """;
+
+    String MONTHLY_POINTS_GROUP_BY = """
+             group by t.customer.id, year(t.transactionDate), month(t.transactionDate)
+             order by t.customer.id, year(t.transactionDate), month(t.transactionDate)
+            """;
+
+    /**
+     * Returns up to {@code limit} customers with the most points within an inclusive date range,
+     * ordered by points descending and then customer ID. Customers without points are left out.
+     */
+    @Query("select new com.charter.rewardcalculator.repository.projection.CustomerPointsRow("
+            + "t.customer.id, sum(" + POINTS_EXPRESSION + ")) from Transaction t"
+            + " where t.transactionDate between :from and :to"
+            + " group by t.customer.id"
+            + " having sum(" + POINTS_EXPRESSION + ") > 0"
+            + " order by sum(" + POINTS_EXPRESSION + ") desc, t.customer.id")
+    List<CustomerPointsRow> findTopCustomersByPoints(@Param("from") LocalDate from,
+                                                     @Param("to") LocalDate to,
+                                                     Limit limit);
+
+    /**
+     * Returns the transaction locked for the rest of the current transaction, so that its stored
+     * points cannot be recalculated between reading and rewriting it.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from Transaction t where t.id = :id")
+    Optional<Transaction> findForUpdateById(@Param("id") Long id);
+
     /** Returns all transactions for the given customer. */
     List<Transaction> findByCustomerId(Long customerId);
 
@@ -20,4 +90,92 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
 
     /** Returns transactions for the given customer on or before the given date. */
     List<Transaction> findByCustomerIdAndTransactionDateLessThanEqual(Long customerId, LocalDate to);
+
+    /**
+     * Returns the date and stored points of every transaction of the customer in date order, as
+     * read-only rows instead of managed entities.
+     */
+    @Query("select new com.charter.rewardcalculator.repository.projection.TransactionPointsRow("
+            + "t.transactionDate, t.points) from Transaction t"
+            + " where t.customer.id = :customerId order by t.transactionDate")
+    List<TransactionPointsRow> findPointsByCustomerId(@Param("customerId") Long customerId);
+
+    /** Returns the customer's point totals per transaction day, in date order. */
+    @Query("select new com.charter.rewardcalculator.repository.projection.DailyPointsRow("
+            + "t.transactionDate, sum(" + POINTS_EXPRESSION + ")) from Transaction t"
+            + " where t.customer.id = :customerId"
+            + " group by t.transactionDate order by t.transactionDate")
+    List<DailyPointsRow> sumDailyPointsByCustomerId(@Param("customerId") Long customerId);
+
+    /** Returns monthly point totals for the given customers across all their transactions. */
+    @Query(MONTHLY_POINTS_SELECT
+            + " where t.customer.id in :customerIds"
+            + MONTHLY_POINTS_GROUP_BY)
+    List<MonthlyPointsProjection> sumMonthlyPointsByCustomerIdIn(
+            @Param("customerIds") Collection<Long> customerIds);
+
+    /** Returns monthly point totals for the given customers within an inclusive date range. */
+    @Query(MONTHLY_POINTS_SELECT
+            + " where t.customer.id in :customerIds and t.transactionDate between :from and :to"
+            + MONTHLY_POINTS_GROUP_BY)
+    List<MonthlyPointsProjection> sumMonthlyPointsByCustomerIdInAndTransactionDateBetween(
+            @Param("customerIds") Collection<Long> customerIds,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to);
+
+    /** Returns monthly point totals for the given customers on or after the given date. */
+    @Query(MONTHLY_POINTS_SELECT
+            + " where t.customer.id in :customerIds and t.transactionDate >= :from"
+            + MONTHLY_POINTS_GROUP_BY)
+    List<MonthlyPointsProjection> sumMonthlyPointsByCustomerIdInAndTransactionDateGreaterThanEqual(
+            @Param("customerIds") Collection<Long> customerIds,
+            @Param("from") LocalDate from);
+
+    /** Returns monthly point totals for the given customers on or before the given date. */
+    @Query(MONTHLY_POINTS_SELECT
+            + " where t.customer.id in :customerIds and t.transactionDate <= :to"
+            + MONTHLY_POINTS_GROUP_BY)
+    List<MonthlyPointsProjection> sumMonthlyPointsByCustomerIdInAndTransactionDateLessThanEqual(
+            @Param("customerIds") Collection<Long> customerIds,
+            @Param("to") LocalDate to);
+
+    /** Returns IDs of transactions whose points were computed under other rules, up to the limit. */
+    @Query("select t.id from Transaction t where" + STALE_POINTS_CONDITION)
+    List<Long> findStalePointsIds(@Param("ruleVersion") String ruleVersion, Limit limit);
+
+    /**
+     * Locks the transactions of the given customers whose points were computed under other rules,
+     * and returns their IDs. A writer holding one of them is waited for, so the points read
+     * afterwards are the committed ones.
+     */
+    @Query(value = """
+            SELECT id FROM transaction
+             WHERE customer_id IN (:customerIds)
+               AND (points_rule_version IS NULL OR points_rule_version <> :ruleVersion)
+             ORDER BY id
+               FOR UPDATE
+            """, nativeQuery = true)
+    List<Long> lockStalePoints(@Param("customerIds") Collection<Long> customerIds,
+                               @Param("ruleVersion") String ruleVersion);
+
+    /**
+     * Returns, per customer and transaction day, how much the stored points of the given customers'
+     * stale transactions change when recomputed under the current rules.
+     */
+    @Query("select new com.charter.rewardcalculator.repository.projection.CustomerDayPointsRow("
+            + "t.customer.id, t.transactionDate, sum(" + RULE_POINTS_EXPRESSION + " - t.points))"
+            + " from Transaction t where t.customer.id in :customerIds and" + STALE_POINTS_CONDITION
+            + " group by t.customer.id, t.transactionDate")
+    List<CustomerDayPointsRow> sumStalePointsChange(@Param("customerIds") Collection<Long> customerIds,
+                                                    @Param("ruleVersion") String ruleVersion);
+
+    /**
+     * Rewrites the stored points of the given customers' stale transactions under the current rules
+     * and returns the number of transactions rewritten.
+     */
+    @Modifying
+    @Query("update Transaction t set t.points = " + RULE_POINTS_EXPRESSION + ", t.pointsRuleVersion = :ruleVersion"
+            + " where t.customer.id in :customerIds and" + STALE_POINTS_CONDITION)
+    int recalculateStalePoints(@Param("customerIds") Collection<Long> customerIds,
+                               @Param("ruleVersion") String ruleVersion);
 }
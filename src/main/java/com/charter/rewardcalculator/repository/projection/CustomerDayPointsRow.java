@@ -0,0 +1,7 @@
+package com.charter.rewardcalculator.repository.projection;
+
+import java.time.LocalDate;
+
+/** Points of one customer on one transaction day, aggregated by the database. */
+public record CustomerDayPointsRow(Long customerId, LocalDate transactionDate, Long points) {
+}
@@ -0,0 +1,5 @@
+package com.charter.rewardcalculator.repository.projection;
+
+/** The ID and name of a customer, which is all a reward summary needs from the customer table. */
+public record CustomerNameRow(Long id, String name) {
+}
@@ -0,0 +1,5 @@
+package com.charter.rewardcalculator.repository.projection;
+
+/** Total reward points of one customer over a date range, aggregated by the database. */
+public record CustomerPointsRow(Long customerId, Long points) {
+}
@@ -0,0 +1,7 @@
+package com.charter.rewardcalculator.repository.projection;
+
+import java.time.Instant;
+
+/** The change marker of a customer's reward points: a counter and when it was last bumped. */
+public record CustomerVersionRow(Long id, long pointsVersion, Instant pointsModifiedAt) {
+}
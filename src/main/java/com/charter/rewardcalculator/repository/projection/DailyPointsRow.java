@@ -0,0 +1,7 @@
+package com.charter.rewardcalculator.repository.projection;
+
+import java.time.LocalDate;
+
+/** Reward points a customer earned on one day, aggregated by the database. */
+public record DailyPointsRow(LocalDate transactionDate, Long points) {
+}
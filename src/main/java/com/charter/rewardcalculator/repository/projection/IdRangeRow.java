@@ -0,0 +1,5 @@
+package com.charter.rewardcalculator.repository.projection;
+
+/** Lowest and highest customer ID; both null when there are no customers. */
+public record IdRangeRow(Long minId, Long maxId) {
+}
@@ -0,0 +1,14 @@
+package com.charter.rewardcalculator.repository.projection;
+
+import com.charter.rewardcalculator.dto.MonthlyRewardDTO;
+
+import java.time.Month;
+
+/** Reward points earned by a customer in one calendar month, aggregated by the database. */
+public record MonthlyPointsProjection(Long customerId, Integer year, Integer month, Long points) {
+
+    /** Converts this row into the API representation of a monthly reward. */
+    public MonthlyRewardDTO toMonthlyReward() {
+        return new MonthlyRewardDTO(year, Month.of(month).name(), points);
+    }
+}
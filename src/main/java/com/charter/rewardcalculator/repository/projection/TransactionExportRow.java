@@ -0,0 +1,10 @@
+package com.charter.rewardcalculator.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * One row of the rewards export cursor: a customer joined with one of their transactions, with its
+ * stored points. Points and date are null for a customer without transactions in the requested range.
+ */
+public record TransactionExportRow(Long customerId, String customerName, Long points, LocalDate transactionDate) {
+}
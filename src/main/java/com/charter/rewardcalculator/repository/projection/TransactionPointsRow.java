@@ -0,0 +1,7 @@
+package com.charter.rewardcalculator.repository.projection;
+
+import java.time.LocalDate;
+
+/** Date and stored points of one transaction, read without hydrating the Transaction entity. */
+public record TransactionPointsRow(LocalDate transactionDate, Long points) {
+}
@@ -0,0 +1,150 @@
+package com.charter.rewardcalculator.service;
+
+import com.charter.rewardcalculator.dto.BatchRewardSummaryDTO;
+import com.charter.rewardcalculator.dto.CustomerRewardSummaryDTO;
+import com.charter.rewardcalculator.dto.MonthlyRewardDTO;
+import com.charter.rewardcalculator.dto.PagedRewardSummaryDTO;
+import com.charter.rewardcalculator.dto.RewardSummarySliceDTO;
+import com.charter.rewardcalculator.exception.CustomerNotFoundException;
+import com.charter.rewardcalculator.exception.InvalidDateRangeException;
+import com.charter.rewardcalculator.model.CustomerMonthPoints;
+import com.charter.rewardcalculator.repository.CustomerMonthPointsRepository;
+import com.charter.rewardcalculator.repository.CustomerRepository;
+import com.charter.rewardcalculator.repository.TransactionRepository;
+import com.charter.rewardcalculator.repository.projection.CustomerNameRow;
+import com.charter.rewardcalculator.repository.projection.MonthlyPointsProjection;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RewardService decorator that answers single-customer summaries from the cached monthly history.
+ *
+ * <p>Months fully covered by the requested range are summed from the cache. A bound that falls
+ * inside a month is answered by one date-bounded query for that edge month, so an arbitrary range
+ * costs at most two small queries once the customer's history is cached.
+ *
+ * <p>Not created when the columnar engine is enabled, which keeps every history in memory anyway.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(prefix = "rewards.columnar", name = "enabled", havingValue = "false", matchIfMissing = true)
+public class CachingRewardService implements RewardService {
+
+    private final RewardService delegate;
+    private final RewardSummaryCache cache;
+    private final CustomerRepository customerRepository;
+    private final CustomerMonthPointsRepository ledgerRepository;
+    private final TransactionRepository transactionRepository;
+    private final RewardMetrics metrics;
+    private final ReportedRuleVersion ruleVersion;
+
+    /**
+     * Wraps the database-backed reward service with the given cache, the repositories it loads from,
+     * the reward meters and the reported rule version.
+     */
+    public CachingRewardService(@Qualifier("rewardServiceImpl") RewardService delegate,
+                                RewardSummaryCache cache,
+                                CustomerRepository customerRepository,
+                                CustomerMonthPointsRepository ledgerRepository,
+                                TransactionRepository transactionRepository,
+                                RewardMetrics metrics,
+                                ReportedRuleVersion ruleVersion) {
+        this.delegate = delegate;
+        this.cache = cache;
+        this.customerRepository = customerRepository;
+        this.ledgerRepository = ledgerRepository;
+        this.transactionRepository = transactionRepository;
+        this.metrics = metrics;
+        this.ruleVersion = ruleVersion;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public PagedRewardSummaryDTO getRewardsPaged(Pageable pageable, LocalDate from, LocalDate to) {
+        return delegate.getRewardsPaged(pageable, from, to);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public RewardSummarySliceDTO getRewardsAfter(String cursor, int size, LocalDate from, LocalDate to) {
+        return delegate.getRewardsAfter(cursor, size, from, to);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public BatchRewardSummaryDTO getRewardsForCustomers(List<Long> customerIds, LocalDate from, LocalDate to) {
+        return delegate.getRewardsForCustomers(customerIds, from, to);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public CustomerRewardSummaryDTO getRewardsForCustomer(Long customerId, LocalDate from, LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new InvalidDateRangeException(from, to);
+        }
+        return metrics.customer().record(() -> composeSummary(customerId, from, to));
+    }
+
+    /** Composes the summary from cached whole months and queried edge months. */
+    private CustomerRewardSummaryDTO composeSummary(Long customerId, LocalDate from, LocalDate to) {
+        CustomerMonthBuckets buckets = cache.get(customerId, () -> loadBuckets(customerId));
+
+        List<MonthlyPointsProjection> months = new ArrayList<>();
+        boolean partialFrom = from != null && from.getDayOfMonth() != 1;
+        boolean partialTo = to != null && to.getDayOfMonth() != to.lengthOfMonth();
+        if ((partialFrom || partialTo) && from != null && to != null && YearMonth.from(from).equals(YearMonth.from(to))) {
+            months.addAll(queryEdge(customerId, from, to));
+        } else {
+            int firstWhole = from == null ? Integer.MIN_VALUE : CustomerMonthPoints.yearMonthOf(from);
+            int lastWhole = to == null ? Integer.MAX_VALUE : CustomerMonthPoints.yearMonthOf(to);
+            if (partialFrom) {
+                months.addAll(queryEdge(customerId, from, YearMonth.from(from).atEndOfMonth()));
+                firstWhole = CustomerMonthPoints.yearMonthOf(from.plusMonths(1));
+            }
+            if (partialTo) {
+                lastWhole = CustomerMonthPoints.yearMonthOf(to.minusMonths(1));
+            }
+            months.addAll(buckets.between(firstWhole, lastWhole));
+            if (partialTo) {
+                months.addAll(queryEdge(customerId, to.withDayOfMonth(1), to));
+            }
+        }
+
+        List<MonthlyRewardDTO> monthlyRewards = months.stream()
+                .map(MonthlyPointsProjection::toMonthlyReward)
+                .toList();
+        long totalPoints = monthlyRewards.stream().mapToLong(MonthlyRewardDTO::points).sum();
+        metrics.recordMonths(monthlyRewards.size());
+        return new CustomerRewardSummaryDTO(
+                buckets.customerId(), buckets.customerName(), monthlyRewards, totalPoints, ruleVersion.version());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long calculatePoints(BigDecimal amount, LocalDate date) {
+        return delegate.calculatePoints(amount, date);
+    }
+
+    /** Loads the customer's full monthly history from the ledger. */
+    private CustomerMonthBuckets loadBuckets(Long customerId) {
+        CustomerNameRow customer = customerRepository.findNameById(customerId)
+                .orElseThrow(() -> new CustomerNotFoundException(customerId));
+        return CustomerMonthBuckets.of(customer,
+                ledgerRepository.findByCustomerIdInOrderByCustomerIdAscYearMonthAsc(List.of(customerId)));
+    }
+
+    /** Aggregates the points of a range within a single month from the transaction table. */
+    private List<MonthlyPointsProjection> queryEdge(Long customerId, LocalDate from, LocalDate to) {
+        return transactionRepository.sumMonthlyPointsByCustomerIdInAndTransactionDateBetween(
+                List.of(customerId), from, to);
+    }
+}
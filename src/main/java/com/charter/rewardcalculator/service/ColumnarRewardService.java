@@ -0,0 +1,295 @@
+package com.charter.rewardcalculator.service;
+
+import com.charter.rewardcalculator.config.ColumnarEngineProperties;
+import com.charter.rewardcalculator.dto.BatchRewardSummaryDTO;
+import com.charter.rewardcalculator.dto.CustomerRewardSummaryDTO;
+import com.charter.rewardcalculator.dto.PagedRewardSummaryDTO;
+import com.charter.rewardcalculator.dto.RewardSummarySliceDTO;
+import com.charter.rewardcalculator.exception.CustomerNotFoundException;
+import com.charter.rewardcalculator.exception.InvalidDateRangeException;
+import com.charter.rewardcalculator.repository.CustomerRepository;
+import com.charter.rewardcalculator.repository.projection.CustomerNameRow;
+import com.charter.rewardcalculator.repository.projection.TransactionExportRow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * RewardService that computes every summary from a {@link ColumnarTransactionStore} held in memory.
+ *
+ * <p>All transactions are loaded when the service starts. Afterwards, points are never queried from
+ * the database; only customer names for pages and cursor slices are. Once a write transaction
+ * commits, the per-day points and transaction count changes carried by its event are merged into
+ * the affected customers' rows in memory, without a query. Changes to one customer are serialized.
+ *
+ * <p>Merged rows live in per-customer segments beside the base columns. Once those segments hold
+ * {@code rewards.columnar.compact-after-rows} rows, the writer that crossed the bound rebuilds the
+ * base columns with them folded in. Other changes wait for the rebuild, and reads keep using the
+ * previous store until it is swapped in.
+ *
+ * <p>Enabled with {@code rewards.columnar.enabled=true}, in which case it replaces the cached
+ * database-backed service as the application's RewardService.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(prefix = "rewards.columnar", name = "enabled", havingValue = "true")
+public class ColumnarRewardService implements RewardService, InitializingBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ColumnarRewardService.class);
+
+    private static final int CHANGE_STRIPES = 1024;
+
+    private final CustomerRepository customerRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final RewardMetrics metrics;
+    private final RewardRuleSet rules;
+    private final ReportedRuleVersion ruleVersion;
+    private final long compactAfterRows;
+    private final Object[] changeLocks = new Object[CHANGE_STRIPES];
+    /** Changes hold the read side, so they run in parallel; compaction holds the write side. */
+    private final ReadWriteLock compaction = new ReentrantReadWriteLock();
+    private volatile ColumnarTransactionStore store = ColumnarTransactionStore.builder().build();
+
+    /**
+     * Constructs the service with the repository it loads from, a transaction template, the reward
+     * meters, the reward rules, the reported rule version and the engine settings.
+     */
+    public ColumnarRewardService(CustomerRepository customerRepository,
+                                 TransactionTemplate transactionTemplate,
+                                 RewardMetrics metrics,
+                                 RewardRuleSet rules,
+                                 ReportedRuleVersion ruleVersion,
+                                 ColumnarEngineProperties properties) {
+        this.customerRepository = customerRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.metrics = metrics;
+        this.rules = rules;
+        this.ruleVersion = ruleVersion;
+        this.compactAfterRows = properties.compactAfterRows();
+        for (int i = 0; i < CHANGE_STRIPES; i++) {
+            changeLocks[i] = new Object();
+        }
+    }
+
+    /** Loads the store before the service is used. */
+    @Override
+    public void afterPropertiesSet() {
+        reload();
+    }
+
+    /** Rebuilds the store from every customer and transaction in the database. */
+    public void reload() {
+        long started = System.nanoTime();
+        ColumnarTransactionStore loaded = transactionTemplate.execute(status -> {
+            ColumnarTransactionStore.Builder builder = ColumnarTransactionStore.builder();
+            try (Stream<TransactionExportRow> rows = customerRepository.streamExportRows(null, null)) {
+                Iterator<TransactionExportRow> it = rows.iterator();
+                Long current = null;
+                while (it.hasNext()) {
+                    TransactionExportRow row = it.next();
+                    if (!row.customerId().equals(current)) {
+                        current = row.customerId();
+                        builder.customer(current, row.customerName());
+                    }
+                    if (row.transactionDate() != null) {
+                        builder.row((int) row.transactionDate().toEpochDay(), row.points());
+                    }
+                }
+            }
+            return builder.build();
+        });
+        store = loaded;
+        log.info("Loaded columnar reward store — transactions={}, columnBytes={}, elapsedMs={}",
+                loaded.size(), loaded.columnBytes(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /** Merges the per-day changes of a committed write into the affected customers' rows. */
+    @TransactionalEventListener
+    public void onTransactionsChanged(TransactionsChangedEvent event) {
+        Map<Long, TreeMap<Integer, long[]>> changes = new HashMap<>();
+        for (TransactionsChangedEvent.PointsDelta delta : event.pointsDeltas()) {
+            long[] day = changes.computeIfAbsent(delta.customerId(), id -> new TreeMap<>())
+                    .computeIfAbsent((int) delta.transactionDate().toEpochDay(), d -> new long[2]);
+            day[0] += delta.points();
+            day[1] += delta.count();
+        }
+        compaction.readLock().lock();
+        try {
+            changes.forEach(this::applyChanges);
+        } finally {
+            compaction.readLock().unlock();
+        }
+        if (store.overlayRows() >= compactAfterRows) {
+            compact();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public PagedRewardSummaryDTO getRewardsPaged(Pageable pageable, LocalDate from, LocalDate to) {
+        validate(from, to);
+        return metrics.paged().record(() -> {
+            Page<CustomerNameRow> page = customerRepository.findNames(pageable);
+            metrics.recordPageSize(page.getNumberOfElements());
+            return new PagedRewardSummaryDTO(
+                    summarize(page.getContent(), from, to),
+                    page.getNumber(),
+                    page.getSize(),
+                    page.getTotalElements(),
+                    page.getTotalPages(),
+                    page.isLast());
+        });
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public RewardSummarySliceDTO getRewardsAfter(String cursor, int size, LocalDate from, LocalDate to) {
+        long after = CustomerCursor.decode(cursor);
+        validate(from, to);
+        return metrics.slice().record(() -> {
+            // One extra row tells whether another slice follows, without a count query.
+            List<CustomerNameRow> customers = customerRepository.findNamesAfter(after, Limit.of(size + 1));
+            boolean last = customers.size() <= size;
+            List<CustomerNameRow> slice = last ? customers : customers.subList(0, size);
+            metrics.recordPageSize(slice.size());
+            String nextCursor = last ? null : CustomerCursor.encode(slice.get(slice.size() - 1).id());
+            return new RewardSummarySliceDTO(summarize(slice, from, to), size, nextCursor, last);
+        });
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public CustomerRewardSummaryDTO getRewardsForCustomer(Long customerId, LocalDate from, LocalDate to) {
+        validate(from, to);
+        return metrics.customer().record(() -> {
+            ColumnarTransactionStore current = store;
+            // A customer deleted after the load is still in the store, without a name.
+            String loaded = current.customerName(customerId);
+            String name = loaded != null ? loaded : customerRepository.findNameById(customerId)
+                    .orElseThrow(() -> new CustomerNotFoundException(customerId)).name();
+            MonthlyPointsAccumulator accumulator = new MonthlyPointsAccumulator();
+            current.sumMonths(customerId, epochDay(from, Integer.MIN_VALUE), epochDay(to, Integer.MAX_VALUE),
+                    accumulator);
+            return accumulator.toSummary(customerId, name, ruleVersion.version());
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Names come from the store; only customers it does not know are looked up, in one query.
+     */
+    @Override
+    public BatchRewardSummaryDTO getRewardsForCustomers(List<Long> customerIds, LocalDate from, LocalDate to) {
+        validate(from, to);
+        return metrics.batch().record(() -> {
+            ColumnarTransactionStore current = store;
+            List<Long> requested = List.copyOf(new LinkedHashSet<>(customerIds));
+            Map<Long, String> names = new HashMap<>();
+            List<Long> unknown = new ArrayList<>();
+            for (Long id : requested) {
+                String name = current.customerName(id);
+                if (name != null) {
+                    names.put(id, name);
+                } else {
+                    unknown.add(id);
+                }
+            }
+            if (!unknown.isEmpty()) {
+                customerRepository.findNamesByIdIn(unknown).forEach(c -> names.put(c.id(), c.name()));
+            }
+            List<CustomerNameRow> found = requested.stream()
+                    .filter(names::containsKey)
+                    .map(id -> new CustomerNameRow(id, names.get(id)))
+                    .toList();
+            metrics.recordPageSize(found.size());
+            List<Long> notFound = requested.stream().filter(id -> !names.containsKey(id)).toList();
+            return new BatchRewardSummaryDTO(summarize(found, from, to), notFound);
+        });
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long calculatePoints(BigDecimal amount, LocalDate date) {
+        return rules.points(amount, date);
+    }
+
+    /** Builds the summaries of the given customers, in the given order, from the store. */
+    private List<CustomerRewardSummaryDTO> summarize(List<CustomerNameRow> customers, LocalDate from, LocalDate to) {
+        ColumnarTransactionStore current = store;
+        int fromDay = epochDay(from, Integer.MIN_VALUE);
+        int toDay = epochDay(to, Integer.MAX_VALUE);
+        MonthlyPointsAccumulator accumulator = new MonthlyPointsAccumulator();
+        return customers.stream()
+                .map(c -> {
+                    accumulator.reset();
+                    current.sumMonths(c.id(), fromDay, toDay, accumulator);
+                    return accumulator.toSummary(c.id(), c.name(), ruleVersion.version());
+                })
+                .toList();
+    }
+
+    /** Merges one customer's day changes, in day order, into the store. */
+    private void applyChanges(Long customerId, TreeMap<Integer, long[]> days) {
+        int[] epochDays = new int[days.size()];
+        long[] points = new long[days.size()];
+        int[] counts = new int[days.size()];
+        int i = 0;
+        for (Map.Entry<Integer, long[]> day : days.entrySet()) {
+            epochDays[i] = day.getKey();
+            points[i] = day.getValue()[0];
+            counts[i++] = (int) day.getValue()[1];
+        }
+        synchronized (changeLocks[(Long.hashCode(customerId) & Integer.MAX_VALUE) % CHANGE_STRIPES]) {
+            store.apply(customerId, epochDays, points, counts);
+        }
+    }
+
+    /** Folds the written customers' segments into new base columns, unless another writer already has. */
+    private void compact() {
+        compaction.writeLock().lock();
+        try {
+            ColumnarTransactionStore current = store;
+            if (current.overlayRows() < compactAfterRows) {
+                return;
+            }
+            long started = System.nanoTime();
+            store = current.compact();
+            log.info("Compacted columnar reward store — overlayRows={}, transactions={}, elapsedMs={}",
+                    current.overlayRows(), store.size(), (System.nanoTime() - started) / 1_000_000);
+        } finally {
+            compaction.writeLock().unlock();
+        }
+    }
+
+    private static void validate(LocalDate from, LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new InvalidDateRangeException(from, to);
+        }
+    }
+
+    private static int epochDay(LocalDate date, int unbounded) {
+        return date == null ? unbounded : (int) date.toEpochDay();
+    }
+}
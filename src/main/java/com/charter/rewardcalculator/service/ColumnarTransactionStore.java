@@ -0,0 +1,305 @@
+package com.charter.rewardcalculator.service;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory transaction table held as primitive columns, sorted by customer and then by date.
+ *
+ * <p>The base columns are built once from the database. They are never modified afterwards. Each
+ * row is an epoch day ({@code int}) and the transaction's stored points ({@code long}), 12 bytes in total.
+ * Customers are stored once, as a sorted ID array with a name and a start offset into the row
+ * columns, so rows carry no customer column. A customer whose transactions changed after the load
+ * is served from a replacement segment in {@link #overlay}, which shadows their base rows. Per-day
+ * changes are merged into the segment: a changed day keeps one row per transaction, with the
+ * day's points on its first row and zero on the others, so month sums and the months present are
+ * unchanged. {@link #compact()} folds the overlay back into new base columns.
+ *
+ * <p>A date range is found with two binary searches within the customer's rows, and monthly points
+ * are summed in one sweep between them without allocating.
+ */
+public final class ColumnarTransactionStore {
+
+    private final long[] customerIds;
+    private final String[] customerNames;
+    private final int[] rowStart;
+    private final int[] epochDays;
+    private final long[] points;
+    private final Map<Long, Segment> overlay = new ConcurrentHashMap<>();
+    private final AtomicLong overlayRows = new AtomicLong();
+
+    private ColumnarTransactionStore(long[] customerIds, String[] customerNames, int[] rowStart,
+                                     int[] epochDays, long[] points) {
+        this.customerIds = customerIds;
+        this.customerNames = customerNames;
+        this.rowStart = rowStart;
+        this.epochDays = epochDays;
+        this.points = points;
+    }
+
+    /** Returns an empty builder. Rows must be appended in customer and date order. */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /** Returns true when the customer was loaded or has been written since. */
+    public boolean contains(long customerId) {
+        return overlay.containsKey(customerId) || Arrays.binarySearch(customerIds, customerId) >= 0;
+    }
+
+    /** Returns the customer's name, or null when the store does not know the customer. */
+    public String customerName(long customerId) {
+        Segment segment = overlay.get(customerId);
+        if (segment != null) {
+            return segment.customerName();
+        }
+        int index = Arrays.binarySearch(customerIds, customerId);
+        return index >= 0 ? customerNames[index] : null;
+    }
+
+    /**
+     * Adds the points of the customer's transactions between the given epoch days, both inclusive,
+     * to the accumulator by month. Unknown customers add nothing.
+     */
+    void sumMonths(long customerId, int fromEpochDay, int toEpochDay, MonthlyPointsAccumulator accumulator) {
+        Segment segment = overlay.get(customerId);
+        if (segment != null) {
+            sweep(segment.epochDays(), segment.points(), 0, segment.epochDays().length,
+                    fromEpochDay, toEpochDay, accumulator);
+            return;
+        }
+        int index = Arrays.binarySearch(customerIds, customerId);
+        if (index >= 0) {
+            sweep(epochDays, points, rowStart[index], rowStart[index + 1], fromEpochDay, toEpochDay, accumulator);
+        }
+    }
+
+    /**
+     * Applies net per-day changes to the customer's rows. {@code days} are ascending, and each has the
+     * net points and the net number of transactions added to it, negative for removals. Calls for the
+     * same customer must not run concurrently.
+     */
+    public void apply(long customerId, int[] days, long[] pointsDelta, int[] countDelta) {
+        Segment current = overlay.get(customerId);
+        int[] oldDays;
+        long[] oldPoints;
+        int start;
+        int end;
+        String name;
+        if (current != null) {
+            oldDays = current.epochDays();
+            oldPoints = current.points();
+            start = 0;
+            end = oldDays.length;
+            name = current.customerName();
+        } else {
+            int index = Arrays.binarySearch(customerIds, customerId);
+            oldDays = epochDays;
+            oldPoints = points;
+            start = index >= 0 ? rowStart[index] : 0;
+            end = index >= 0 ? rowStart[index + 1] : 0;
+            name = index >= 0 ? customerNames[index] : null;
+        }
+
+        int capacity = end - start;
+        for (int count : countDelta) {
+            capacity += Math.max(0, count);
+        }
+        int[] newDays = new int[capacity];
+        long[] newPoints = new long[capacity];
+        int rows = 0;
+        int i = start;
+        for (int d = 0; d < days.length; d++) {
+            int day = days[d];
+            while (i < end && oldDays[i] < day) {
+                newDays[rows] = oldDays[i];
+                newPoints[rows++] = oldPoints[i++];
+            }
+            int count = countDelta[d];
+            long total = pointsDelta[d];
+            while (i < end && oldDays[i] == day) {
+                count++;
+                total += oldPoints[i++];
+            }
+            for (int r = 0; r < count; r++) {
+                newDays[rows] = day;
+                newPoints[rows++] = r == 0 ? total : 0;
+            }
+        }
+        while (i < end) {
+            newDays[rows] = oldDays[i];
+            newPoints[rows++] = oldPoints[i++];
+        }
+
+        Segment segment = new Segment(name, Arrays.copyOf(newDays, rows), Arrays.copyOf(newPoints, rows));
+        overlay.put(customerId, segment);
+        overlayRows.addAndGet(rows - (current != null ? current.epochDays().length : 0));
+    }
+
+    /** Returns the number of rows held by replacement segments. */
+    public long overlayRows() {
+        return overlayRows.get();
+    }
+
+    /**
+     * Returns a store whose base columns hold this store's current rows, with an empty overlay.
+     * Must not run concurrently with {@link #apply}.
+     */
+    public ColumnarTransactionStore compact() {
+        Map<Long, Segment> segments = new TreeMap<>(overlay);
+        Builder builder = builder();
+        int c = 0;
+        for (Map.Entry<Long, Segment> entry : segments.entrySet()) {
+            long customerId = entry.getKey();
+            for (; c < customerIds.length && customerIds[c] < customerId; c++) {
+                copyBase(builder, c);
+            }
+            if (c < customerIds.length && customerIds[c] == customerId) {
+                c++;
+            }
+            Segment segment = entry.getValue();
+            builder.customer(customerId, segment.customerName());
+            for (int r = 0; r < segment.epochDays().length; r++) {
+                builder.row(segment.epochDays()[r], segment.points()[r]);
+            }
+        }
+        for (; c < customerIds.length; c++) {
+            copyBase(builder, c);
+        }
+        return builder.build();
+    }
+
+    private void copyBase(Builder builder, int index) {
+        builder.customer(customerIds[index], customerNames[index]);
+        for (int r = rowStart[index]; r < rowStart[index + 1]; r++) {
+            builder.row(epochDays[r], points[r]);
+        }
+    }
+
+    /** Returns the number of transactions in the store. */
+    public long size() {
+        long rows = epochDays.length;
+        for (Map.Entry<Long, Segment> entry : overlay.entrySet()) {
+            int index = Arrays.binarySearch(customerIds, entry.getKey());
+            if (index >= 0) {
+                rows -= rowStart[index + 1] - rowStart[index];
+            }
+            rows += entry.getValue().epochDays().length;
+        }
+        return rows;
+    }
+
+    /** Returns the bytes held by the primitive columns, excluding customer names and the overlay. */
+    public long columnBytes() {
+        return (long) epochDays.length * Integer.BYTES
+                + (long) points.length * Long.BYTES
+                + (long) customerIds.length * Long.BYTES
+                + (long) rowStart.length * Integer.BYTES;
+    }
+
+    private static void sweep(int[] days, long[] points, int start, int end, int fromEpochDay, int toEpochDay,
+                              MonthlyPointsAccumulator accumulator) {
+        for (int i = lowerBound(days, start, end, fromEpochDay); i < end && days[i] <= toEpochDay; i++) {
+            accumulator.add(epochMonthOf(days[i]), points[i]);
+        }
+    }
+
+    /** Returns the first index in [start, end) whose day is not before the given day. */
+    private static int lowerBound(int[] days, int start, int end, int day) {
+        int low = start;
+        int high = end;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (days[mid] < day) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the epoch month ({@code year * 12 + month - 1}) of an epoch day, computed without
+     * creating a LocalDate (the civil-from-days algorithm by Howard Hinnant).
+     */
+    static int epochMonthOf(int epochDay) {
+        long z = epochDay + 719_468L;
+        long era = (z >= 0 ? z : z - 146_096) / 146_097;
+        long dayOfEra = z - era * 146_097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long shiftedMonth = (5 * dayOfYear + 2) / 153;
+        long month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return (int) (year * 12 + month - 1);
+    }
+
+    /** Rows of one customer that replace the loaded ones. */
+    private record Segment(String customerName, int[] epochDays, long[] points) {
+    }
+
+    /** Accumulates rows in customer and date order into growable primitive columns. */
+    public static final class Builder {
+
+        private long[] customerIds = new long[1024];
+        private String[] customerNames = new String[1024];
+        private int[] rowStart = new int[1025];
+        private int customers;
+        private int[] epochDays = new int[4096];
+        private long[] points = new long[4096];
+        private int rows;
+
+        private Builder() {
+        }
+
+        /** Starts a new customer; rows added afterwards belong to it. IDs must be ascending. */
+        public Builder customer(long customerId, String customerName) {
+            if (customers > 0 && customerId <= customerIds[customers - 1]) {
+                throw new IllegalArgumentException("Customers must be added in ascending ID order: " + customerId);
+            }
+            if (customers == customerIds.length) {
+                int capacity = customers + (customers >> 1);
+                customerIds = Arrays.copyOf(customerIds, capacity);
+                customerNames = Arrays.copyOf(customerNames, capacity);
+                rowStart = Arrays.copyOf(rowStart, capacity + 1);
+            }
+            customerIds[customers] = customerId;
+            customerNames[customers] = customerName;
+            rowStart[customers] = rows;
+            customers++;
+            rowStart[customers] = rows;
+            return this;
+        }
+
+        /** Adds a transaction of the current customer; days must not decrease within a customer. */
+        public Builder row(int epochDay, long points) {
+            if (customers == 0) {
+                throw new IllegalStateException("No customer started");
+            }
+            if (rows == epochDays.length) {
+                int capacity = rows + (rows >> 1);
+                epochDays = Arrays.copyOf(epochDays, capacity);
+                this.points = Arrays.copyOf(this.points, capacity);
+            }
+            epochDays[rows] = epochDay;
+            this.points[rows] = points;
+            rows++;
+            rowStart[customers] = rows;
+            return this;
+        }
+
+        /** Returns the store, with the columns trimmed to their size. */
+        public ColumnarTransactionStore build() {
+            return new ColumnarTransactionStore(
+                    Arrays.copyOf(customerIds, customers),
+                    Arrays.copyOf(customerNames, customers),
+                    Arrays.copyOf(rowStart, customers + 1),
+                    Arrays.copyOf(epochDays, rows),
+                    Arrays.copyOf(points, rows));
+        }
+    }
+}
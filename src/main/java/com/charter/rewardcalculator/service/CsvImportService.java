@@ -0,0 +1,20 @@
+package com.charter.rewardcalculator.service;
+
+import com.charter.rewardcalculator.dto.CsvImportResultDTO;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+
+/** Service interface for importing large CSV dumps of transactions. */
+public interface CsvImportService {
+
+    /**
+     * Imports every {@code customerId,amount,transactionDate} line of the file. A header line is
+     * skipped. Valid rows are inserted and added to the ledger; each rejected line is written to the
+     * reject file with its byte offset and the reason.
+     */
+    CsvImportResultDTO importFile(Path csv, Path rejectFile);
+
+    /** Spools the body to the import directory, imports it, and keeps the reject file in that directory. */
+    CsvImportResultDTO importStream(InputStream body);
+}
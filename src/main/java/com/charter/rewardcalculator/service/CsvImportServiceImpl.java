@@ -0,0 +1,458 @@
+package com.charter.rewardcalculator.service;
+
+import com.charter.rewardcalculator.config.CsvImportProperties;
+import com.charter.rewardcalculator.dto.CsvImportResultDTO;
+import com.charter.rewardcalculator.repository.CustomerRepository;
+import org.postgresql.PGConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Implementation of CsvImportService.
+ *
+ * <p>The file is split into chunks of about {@code rewards.csv-import.chunk-size} bytes, each ending
+ * on a line boundary. Chunks are memory-mapped and parsed concurrently by {@link CsvTransactionParser}
+ * into primitive columns. Every {@code batch-size} valid rows are written in one database
+ * transaction. The transaction first applies the rows' points to the ledger, which locks their
+ * customers in ID order, and then inserts the rows with those points stored on them. Taking the
+ * locks first means concurrent chunks cannot deadlock on the customer foreign key. On PostgreSQL
+ * the rows are sent with COPY; on other databases, such as H2 in tests, they are sent as one JDBC
+ * batch. Each insert takes its own value
+ * from {@code transaction_seq}. Every value the sequence hands out is the high end of a
+ * distinct Hibernate pooled block, so these IDs cannot collide with IDs Hibernate assigns.
+ *
+ * <p>Rejected lines are copied byte for byte into one reject part per chunk. Within a chunk, rows
+ * rejected by the parser and rows rejected when their batch is written are held until the batch is
+ * written, then sorted by position, so each part is in file order. The parts are joined in file
+ * order once all chunks are done.
+ */
+@Service
+public class CsvImportServiceImpl implements CsvImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(CsvImportServiceImpl.class);
+    private static final String COPY_SQL =
+            "COPY transaction (id, customer_id, amount, transaction_date, points, points_rule_version)"
+                    + " FROM STDIN WITH (FORMAT text)";
+    private static final String POSTGRES_IDS_SQL = "select nextval('transaction_seq') from generate_series(1, ?)";
+    private static final String INSERT_SQL =
+            "insert into transaction (id, customer_id, amount, transaction_date, points, points_rule_version)"
+                    + " values (%s, ?, ?, ?, ?, ?)";
+    private static final byte[] REJECT_HEADER = "offset,reason,line\n".getBytes(StandardCharsets.UTF_8);
+
+    private final CustomerRepository customerRepository;
+    private final RewardLedgerService ledgerService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CsvImportProperties properties;
+    private final RewardRuleSet rules;
+    private final Path directory;
+
+    /** Constructs the service with its persistence collaborators, import settings and reward rules. */
+    public CsvImportServiceImpl(CustomerRepository customerRepository,
+                                RewardLedgerService ledgerService,
+                                JdbcTemplate jdbcTemplate,
+                                TransactionTemplate transactionTemplate,
+                                CsvImportProperties properties,
+                                RewardRuleSet rules) {
+        this.customerRepository = customerRepository;
+        this.ledgerService = ledgerService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.rules = rules;
+        this.directory = properties.directory() != null
+                ? properties.directory()
+                : Path.of(System.getProperty("java.io.tmpdir"), "reward-imports");
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public CsvImportResultDTO importStream(InputStream body) {
+        String name = "import-" + UUID.randomUUID();
+        Path spool = directory.resolve(name + ".csv");
+        try {
+            Files.createDirectories(directory);
+            Files.copy(body, spool);
+            return importFile(spool, directory.resolve(name + ".rejects.csv"));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            deleteQuietly(spool);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public CsvImportResultDTO importFile(Path csv, Path rejectFile) {
+        long started = System.nanoTime();
+        Counters counters = new Counters();
+        List<Path> rejectParts = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(csv, StandardOpenOption.READ)) {
+            List<long[]> chunks = split(channel, properties.chunkSize().toBytes());
+            for (int i = 0; i < chunks.size(); i++) {
+                rejectParts.add(rejectFile.resolveSibling(rejectFile.getFileName() + ".part" + i));
+            }
+            runChunks(channel, chunks, rejectParts, counters);
+            if (counters.rejected.get() > 0) {
+                joinRejects(rejectParts, rejectFile);
+            } else {
+                deleteQuietly(rejectFile);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            rejectParts.forEach(CsvImportServiceImpl::deleteQuietly);
+        }
+
+        long elapsedNanos = Math.max(System.nanoTime() - started, 1);
+        double rowsPerSecond = counters.received.get() * 1_000_000_000d / elapsedNanos;
+        log.info("CSV import finished — file={}, received={}, accepted={}, rejected={}, rowsPerSecond={}",
+                csv, counters.received, counters.accepted, counters.rejected, Math.round(rowsPerSecond));
+        return new CsvImportResultDTO(counters.received.get(), counters.accepted.get(), counters.rejected.get(),
+                counters.rejected.get() > 0 ? rejectFile.toString() : null,
+                elapsedNanos / 1_000_000, rowsPerSecond);
+    }
+
+    /** Imports the chunks on a pool of {@code parallelism} threads and rethrows the first failure. */
+    private void runChunks(FileChannel channel, List<long[]> chunks, List<Path> rejectParts, Counters counters) {
+        List<Future<?>> futures = new ArrayList<>(chunks.size());
+        try (ExecutorService pool = Executors.newFixedThreadPool(properties.parallelism(),
+                Thread.ofPlatform().name("csv-import-", 0).factory())) {
+            for (int i = 0; i < chunks.size(); i++) {
+                long[] chunk = chunks.get(i);
+                Path rejectPart = rejectParts.get(i);
+                boolean first = i == 0;
+                futures.add(pool.submit(() -> {
+                    importChunk(channel, chunk[0], chunk[1], first, rejectPart, counters);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while importing", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    /** Maps one chunk, parses its lines and writes its valid rows in batches. */
+    private void importChunk(FileChannel channel, long start, long end, boolean first,
+                             Path rejectPart, Counters counters) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        CsvTransactionParser parser = new CsvTransactionParser(buffer, first);
+        RowBatch batch = new RowBatch(properties.batchSize());
+        try (OutputStream rejects = new BufferedOutputStream(Files.newOutputStream(rejectPart))) {
+            RejectWriter rejectWriter = new RejectWriter(buffer, start, rejects, counters);
+            long received = 0;
+            while (parser.next()) {
+                received++;
+                if (parser.error() != null) {
+                    rejectWriter.reject(parser.lineStart(), parser.lineLength(), parser.error());
+                } else {
+                    batch.add(parser);
+                }
+                // held rejects are bounded by the batch size too
+                if (batch.size == batch.customerIds.length || rejectWriter.held() >= batch.customerIds.length) {
+                    writeBatch(batch, rejectWriter, counters);
+                    batch.size = 0;
+                    rejectWriter.flush();
+                }
+            }
+            writeBatch(batch, rejectWriter, counters);
+            rejectWriter.flush();
+            counters.received.addAndGet(received);
+        }
+    }
+
+    /** Rejects rows of unknown customers, then adds the rest to the ledger and inserts them in one transaction. */
+    private void writeBatch(RowBatch batch, RejectWriter rejects, Counters counters) {
+        if (batch.size == 0) {
+            return;
+        }
+        Set<Long> customerIds = new HashSet<>();
+        for (int i = 0; i < batch.size; i++) {
+            customerIds.add(batch.customerIds[i]);
+        }
+        Set<Long> known = new HashSet<>(customerRepository.findExistingIds(customerIds));
+
+        int[] valid = new int[batch.size];
+        int validCount = 0;
+        Map<DayKey, long[]> days = new HashMap<>();
+        for (int i = 0; i < batch.size; i++) {
+            long customerId = batch.customerIds[i];
+            if (!known.contains(customerId)) {
+                rejects.reject(batch.lineStarts[i], batch.lineLengths[i], "Customer not found with id: " + customerId);
+                continue;
+            }
+            valid[validCount++] = i;
+            batch.points[i] = rules.pointsForCents(batch.amountCents[i], batch.epochDays[i]);
+            long[] day = days.computeIfAbsent(new DayKey(customerId, batch.epochDays[i]), k -> new long[2]);
+            day[0] += batch.points[i];
+            day[1]++;
+        }
+        if (validCount == 0) {
+            return;
+        }
+        List<RewardLedgerService.DayTotal> totals = new ArrayList<>(days.size());
+        days.forEach((key, day) -> totals.add(new RewardLedgerService.DayTotal(
+                key.customerId(), LocalDate.ofEpochDay(key.epochDay()), day[0], day[1])));
+
+        int rows = validCount;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                ledgerService.recordInserted(totals);
+                jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                    insertRows(connection, batch, valid, rows);
+                    return null;
+                });
+            });
+            counters.accepted.addAndGet(rows);
+        } catch (DataAccessException ex) {
+            log.warn("CSV import batch failed — rows={}", rows, ex);
+            String reason = "Batch write failed: " + ex.getMostSpecificCause().getMessage();
+            for (int i = 0; i < rows; i++) {
+                rejects.reject(batch.lineStarts[valid[i]], batch.lineLengths[valid[i]], reason);
+            }
+        }
+    }
+
+    /** Inserts the selected rows with COPY on PostgreSQL, or as one JDBC batch elsewhere. */
+    private void insertRows(Connection connection, RowBatch batch, int[] rows, int count) throws SQLException {
+        boolean postgres = connection.isWrapperFor(PGConnection.class);
+        if (postgres && properties.copy()) {
+            copyRows(connection, batch, rows, count);
+            return;
+        }
+        String nextId = postgres ? "nextval('transaction_seq')" : "next value for transaction_seq";
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_SQL.formatted(nextId))) {
+            for (int i = 0; i < count; i++) {
+                int row = rows[i];
+                insert.setLong(1, batch.customerIds[row]);
+                insert.setBigDecimal(2, BigDecimal.valueOf(batch.amountCents[row], 2));
+                insert.setObject(3, LocalDate.ofEpochDay(batch.epochDays[row]));
+                insert.setLong(4, batch.points[row]);
+                insert.setString(5, rules.version());
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private void copyRows(Connection connection, RowBatch batch, int[] rows, int count) throws SQLException {
+        long[] ids = new long[count];
+        try (PreparedStatement select = connection.prepareStatement(POSTGRES_IDS_SQL)) {
+            select.setInt(1, count);
+            try (ResultSet result = select.executeQuery()) {
+                for (int i = 0; result.next(); i++) {
+                    ids[i] = result.getLong(1);
+                }
+            }
+        }
+        StringBuilder text = new StringBuilder(count * 40);
+        for (int i = 0; i < count; i++) {
+            int row = rows[i];
+            long cents = batch.amountCents[row];
+            text.append(ids[i]).append('\t')
+                    .append(batch.customerIds[row]).append('\t')
+                    .append(cents / 100).append('.').append((char) ('0' + cents % 100 / 10)).append((char) ('0' + cents % 10))
+                    .append('\t').append(LocalDate.ofEpochDay(batch.epochDays[row]))
+                    .append('\t').append(batch.points[row])
+                    .append('\t').append(rules.version()).append('\n');
+        }
+        try {
+            connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL, new StringReader(text.toString()));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Splits the file into [start, end) byte ranges of about {@code chunkSize} bytes, each ending just
+     * after a line feed or at the end of the file.
+     */
+    static List<long[]> split(FileChannel channel, long chunkSize) throws IOException {
+        long size = channel.size();
+        long step = Math.max(1, Math.min(chunkSize, Integer.MAX_VALUE / 2));
+        List<long[]> chunks = new ArrayList<>();
+        long start = 0;
+        while (start < size) {
+            long end = start + step >= size ? size : nextLineStart(channel, start + step, size);
+            chunks.add(new long[] {start, end});
+            start = end;
+        }
+        return chunks;
+    }
+
+    /** Returns the offset just after the first line feed at or after {@code position - 1}. */
+    private static long nextLineStart(FileChannel channel, long position, long size) throws IOException {
+        ByteBuffer window = ByteBuffer.allocate(8192);
+        long offset = position - 1;
+        while (offset < size) {
+            window.clear();
+            int read = channel.read(window, offset);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (window.get(i) == '\n') {
+                    return offset + i + 1;
+                }
+            }
+            offset += read;
+        }
+        return size;
+    }
+
+    private static void joinRejects(List<Path> parts, Path rejectFile) throws IOException {
+        try (FileChannel out = FileChannel.open(rejectFile, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            out.write(ByteBuffer.wrap(REJECT_HEADER));
+            for (Path part : parts) {
+                try (FileChannel in = FileChannel.open(part, StandardOpenOption.READ)) {
+                    long size = in.size();
+                    for (long position = 0; position < size; ) {
+                        position += in.transferTo(position, size - position, out);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ex) {
+            log.warn("Could not delete import file {}", path, ex);
+        }
+    }
+
+    /** Customer and transaction day whose points are added to the ledger. */
+    private record DayKey(long customerId, int epochDay) {
+    }
+
+    /** Valid rows of one batch held as primitive columns, with their position in the chunk. */
+    private static final class RowBatch {
+
+        private final long[] customerIds;
+        private final long[] amountCents;
+        private final int[] epochDays;
+        private final long[] points;
+        private final int[] lineStarts;
+        private final int[] lineLengths;
+        private int size;
+
+        RowBatch(int capacity) {
+            customerIds = new long[capacity];
+            amountCents = new long[capacity];
+            epochDays = new int[capacity];
+            points = new long[capacity];
+            lineStarts = new int[capacity];
+            lineLengths = new int[capacity];
+        }
+
+        void add(CsvTransactionParser parser) {
+            customerIds[size] = parser.customerId();
+            amountCents[size] = parser.amountCents();
+            epochDays[size] = parser.epochDay();
+            lineStarts[size] = parser.lineStart();
+            lineLengths[size] = parser.lineLength();
+            size++;
+        }
+    }
+
+    /** Writes rejected lines of one chunk as {@code offset,"reason",line} records, in file order. */
+    private static final class RejectWriter {
+
+        private final ByteBuffer chunk;
+        private final long chunkStart;
+        private final OutputStream out;
+        private final Counters counters;
+        private final List<Reject> held = new ArrayList<>();
+
+        RejectWriter(ByteBuffer chunk, long chunkStart, OutputStream out, Counters counters) {
+            this.chunk = chunk;
+            this.chunkStart = chunkStart;
+            this.out = out;
+            this.counters = counters;
+        }
+
+        /** Holds a rejected line until the next {@link #flush()}. */
+        void reject(int lineStart, int lineLength, String reason) {
+            held.add(new Reject(lineStart, lineLength, reason));
+            counters.rejected.incrementAndGet();
+        }
+
+        int held() {
+            return held.size();
+        }
+
+        /** Writes the held lines ordered by their position in the chunk. */
+        void flush() throws IOException {
+            held.sort(Comparator.comparingInt(Reject::lineStart));
+            for (Reject reject : held) {
+                byte[] line = new byte[reject.lineLength()];
+                chunk.get(reject.lineStart(), line);
+                out.write((chunkStart + reject.lineStart() + ",\"" + reject.reason().replace("\"", "\"\"") + "\",")
+                        .getBytes(StandardCharsets.UTF_8));
+                out.write(line);
+                out.write('\n');
+            }
+            held.clear();
+        }
+    }
+
+    private record Reject(int lineStart, int lineLength, String reason) {
+    }
+
+    /** Row counts shared by the chunks of one import. */
+    private static final class Counters {
+
+        private final AtomicLong received = new AtomicLong();
+        private final AtomicLong accepted = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+    }
+}
@@ -0,0 +1,262 @@
+package com.charter.rewardcalculator.service;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Cursor over the lines of a CSV region held in a byte buffer, typically a memory-mapped chunk of a
+ * file. Each line is {@code customerId,amount,transactionDate}, for example
+ * {@code 42,120.50,2024-03-07}, optionally ending in CR LF.
+ *
+ * <p>Fields are parsed straight from the bytes into primitives: the customer ID as a {@code long},
+ * the amount as cents and the date as an epoch day. No String or BigDecimal is created per field.
+ * A line that breaks a rule sets {@link #error()} to a constant message that follows the
+ * Transaction entity constraints and the {@code NUMERIC(10, 2)} amount column.
+ */
+final class CsvTransactionParser {
+
+    static final String EXPECTED_FIELDS = "Expected 3 fields: customerId,amount,transactionDate";
+    static final String CUSTOMER_ID_NULL = "customerId must not be null";
+    static final String CUSTOMER_ID_MALFORMED = "customerId must be a positive whole number";
+    static final String AMOUNT_NULL = "amount must not be null";
+    static final String AMOUNT_NOT_POSITIVE = "amount must be greater than 0";
+    static final String AMOUNT_MALFORMED = "amount must be a decimal number";
+    static final String AMOUNT_OUT_OF_BOUNDS = "amount numeric value out of bounds (<8 digits>.<2 digits> expected)";
+    static final String DATE_NULL = "transactionDate must not be null";
+    static final String DATE_MALFORMED = "transactionDate must be an ISO-8601 date (yyyy-MM-dd)";
+
+    private static final int MAX_INTEGER_DIGITS = 8;
+    private static final int MAX_FRACTION_DIGITS = 2;
+
+    private final ByteBuffer buffer;
+    private final int end;
+    private int position;
+    private boolean skipHeader;
+
+    private int lineStart;
+    private int lineEnd;
+    private long customerId;
+    private long amountCents;
+    private int epochDay;
+    private String error;
+
+    /**
+     * Creates a parser over the buffer from position 0 to its limit. When {@code skipHeader} is set,
+     * a first line that does not start with a digit or sign is skipped as a header.
+     */
+    CsvTransactionParser(ByteBuffer buffer, boolean skipHeader) {
+        this.buffer = buffer;
+        this.end = buffer.limit();
+        this.skipHeader = skipHeader;
+    }
+
+    /** Moves to the next non-blank line and parses it; returns false at the end of the region. */
+    boolean next() {
+        while (position < end) {
+            lineStart = position;
+            int newline = lineStart;
+            while (newline < end && buffer.get(newline) != '\n') {
+                newline++;
+            }
+            position = newline + 1;
+            lineEnd = newline > lineStart && buffer.get(newline - 1) == '\r' ? newline - 1 : newline;
+            if (lineEnd == lineStart) {
+                continue;
+            }
+            if (skipHeader) {
+                skipHeader = false;
+                byte first = buffer.get(lineStart);
+                if (!isDigit(first) && first != '-' && first != '+') {
+                    continue;
+                }
+            }
+            error = parseLine();
+            return true;
+        }
+        return false;
+    }
+
+    /** Offset of the current line within the buffer. */
+    int lineStart() {
+        return lineStart;
+    }
+
+    /** Length of the current line, without its line terminator. */
+    int lineLength() {
+        return lineEnd - lineStart;
+    }
+
+    long customerId() {
+        return customerId;
+    }
+
+    long amountCents() {
+        return amountCents;
+    }
+
+    int epochDay() {
+        return epochDay;
+    }
+
+    /** Why the current line is rejected, or null when it is valid. */
+    String error() {
+        return error;
+    }
+
+    private String parseLine() {
+        int firstComma = indexOf(',', lineStart, lineEnd);
+        int secondComma = firstComma < 0 ? -1 : indexOf(',', firstComma + 1, lineEnd);
+        if (secondComma < 0 || indexOf(',', secondComma + 1, lineEnd) >= 0) {
+            return EXPECTED_FIELDS;
+        }
+        String problem = parseCustomerId(lineStart, firstComma);
+        if (problem == null) {
+            problem = parseAmount(firstComma + 1, secondComma);
+        }
+        if (problem == null) {
+            problem = parseDate(secondComma + 1, lineEnd);
+        }
+        return problem;
+    }
+
+    private String parseCustomerId(int from, int to) {
+        if (from == to) {
+            return CUSTOMER_ID_NULL;
+        }
+        if (to - from > 18) {
+            return CUSTOMER_ID_MALFORMED;
+        }
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            byte b = buffer.get(i);
+            if (!isDigit(b)) {
+                return CUSTOMER_ID_MALFORMED;
+            }
+            value = value * 10 + (b - '0');
+        }
+        if (value == 0) {
+            return CUSTOMER_ID_MALFORMED;
+        }
+        customerId = value;
+        return null;
+    }
+
+    private String parseAmount(int from, int to) {
+        if (from == to) {
+            return AMOUNT_NULL;
+        }
+        boolean negative = false;
+        byte sign = buffer.get(from);
+        if (sign == '-' || sign == '+') {
+            negative = sign == '-';
+            from++;
+        }
+        long units = 0;
+        int integerDigits = 0;
+        int i = from;
+        for (; i < to && buffer.get(i) != '.'; i++) {
+            byte b = buffer.get(i);
+            if (!isDigit(b)) {
+                return AMOUNT_MALFORMED;
+            }
+            if (integerDigits > 0 || b != '0') {
+                integerDigits++;
+            }
+            if (integerDigits > MAX_INTEGER_DIGITS) {
+                return AMOUNT_OUT_OF_BOUNDS;
+            }
+            units = units * 10 + (b - '0');
+        }
+        boolean anyDigit = i > from;
+        long cents = 0;
+        int fractionDigits = 0;
+        if (i < to) {
+            for (i++; i < to; i++) {
+                byte b = buffer.get(i);
+                if (!isDigit(b)) {
+                    return AMOUNT_MALFORMED;
+                }
+                if (++fractionDigits > MAX_FRACTION_DIGITS) {
+                    return AMOUNT_OUT_OF_BOUNDS;
+                }
+                cents = cents * 10 + (b - '0');
+                anyDigit = true;
+            }
+        }
+        if (!anyDigit) {
+            return AMOUNT_MALFORMED;
+        }
+        if (fractionDigits == 1) {
+            cents *= 10;
+        }
+        long value = units * 100 + cents;
+        if (negative || value == 0) {
+            return AMOUNT_NOT_POSITIVE;
+        }
+        amountCents = value;
+        return null;
+    }
+
+    private String parseDate(int from, int to) {
+        if (from == to) {
+            return DATE_NULL;
+        }
+        if (to - from != 10 || buffer.get(from + 4) != '-' || buffer.get(from + 7) != '-') {
+            return DATE_MALFORMED;
+        }
+        int year = digits(from, 4);
+        int month = digits(from + 5, 2);
+        int day = digits(from + 8, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) {
+            return DATE_MALFORMED;
+        }
+        epochDay = epochDayOf(year, month, day);
+        return null;
+    }
+
+    /** Returns the value of {@code count} decimal digits, or -1 when any byte is not a digit. */
+    private int digits(int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            byte b = buffer.get(i);
+            if (!isDigit(b)) {
+                return -1;
+            }
+            value = value * 10 + (b - '0');
+        }
+        return value;
+    }
+
+    private int indexOf(char c, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer.get(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    /**
+     * Returns the epoch day of a valid proleptic Gregorian date, computed without creating a
+     * LocalDate (the days-from-civil algorithm by Howard Hinnant).
+     */
+    static int epochDayOf(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146_097 + dayOfEra - 719_468;
+    }
+}
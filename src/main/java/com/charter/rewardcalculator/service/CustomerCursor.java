@@ -0,0 +1,43 @@
+package com.charter.rewardcalculator.service;
+
+import com.charter.rewardcalculator.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes the last customer ID of a slice as an opaque, URL-safe cursor token. The version prefix
+ * leaves room to change the encoding without misreading tokens issued earlier.
+ */
+final class CustomerCursor {
+
+    private static final String PREFIX = "c1:";
+
+    private CustomerCursor() {
+    }
+
+    /** Returns the token that resumes the listing after the given customer ID. */
+    static String encode(long lastCustomerId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + lastCustomerId).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /** Returns the customer ID encoded in the token, or 0 when the token is null or blank. */
+    static long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            if (decoded.startsWith(PREFIX)) {
+                long id = Long.parseLong(decoded.substring(PREFIX.length()));
+                if (id > 0) {
+                    return id;
+                }
+            }
+        } catch (IllegalArgumentException ex) {
+            // falls through to the rejection below; NumberFormatException is an IllegalArgumentException
+        }
+        throw new InvalidCursorException(cursor);
+    }
+}
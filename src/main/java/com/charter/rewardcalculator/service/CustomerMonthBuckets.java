@@ -0,0 +1,72 @@
+package com.charter.rewardcalculator.service;
+
+import com.charter.rewardcalculator.model.CustomerMonthPoints;
+import com.charter.rewardcalculator.repository.projection.CustomerNameRow;
+import com.charter.rewardcalculator.repository.projection.MonthlyPointsProjection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A customer's complete monthly points history, held as parallel arrays sorted by month so a
+ * cached entry costs a few bytes per month and any span of whole months is found by binary search.
+ */
+public final class CustomerMonthBuckets {
+
+    private final Long customerId;
+    private final String customerName;
+    private final int[] yearMonths;
+    private final long[] points;
+
+    private CustomerMonthBuckets(Long customerId, String customerName, int[] yearMonths, long[] points) {
+        this.customerId = customerId;
+        this.customerName = customerName;
+        this.yearMonths = yearMonths;
+        this.points = points;
+    }
+
+    /** Builds the buckets from ledger rows ordered by month. */
+    public static CustomerMonthBuckets of(CustomerNameRow customer, List<CustomerMonthPoints> months) {
+        int[] yearMonths = new int[months.size()];
+        long[] points = new long[months.size()];
+        for (int i = 0; i < months.size(); i++) {
+            yearMonths[i] = months.get(i).getYearMonth();
+            points[i] = months.get(i).getPoints();
+        }
+        return new CustomerMonthBuckets(customer.id(), customer.name(), yearMonths, points);
+    }
+
+    /** Returns the customer ID. */
+    public Long customerId() {
+        return customerId;
+    }
+
+    /** Returns the customer name. */
+    public String customerName() {
+        return customerName;
+    }
+
+    /** Returns the number of months with transactions. */
+    public int size() {
+        return yearMonths.length;
+    }
+
+    /** Returns the months between the given yyyymm bounds, both inclusive, in month order. */
+    public List<MonthlyPointsProjection> between(int fromYearMonth, int toYearMonth) {
+        if (fromYearMonth > toYearMonth) {
+            return List.of();
+        }
+        int start = insertionPoint(fromYearMonth);
+        List<MonthlyPointsProjection> months = new ArrayList<>();
+        for (int i = start; i < yearMonths.length && yearMonths[i] <= toYearMonth; i++) {
+            months.add(new MonthlyPointsProjection(customerId, yearMonths[i] / 100, yearMonths[i] % 100, points[i]));
+        }
+        return months;
+    }
+
+    private int insertionPoint(int yearMonth) {
+        int index = Arrays.binarySearch(yearMonths, yearMonth);
+        return index >= 0 ? index : -index - 1;
+    }
+}
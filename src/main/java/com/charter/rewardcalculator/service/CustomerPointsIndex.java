@@ -0,0 +1,173 @@
+package com.charter.rewardcalculator.service;
+
+import com.charter.rewardcalculator.config.PointsIndexProperties;
+import com.charter.rewardcalculator.dto.CustomerRewardSummaryDTO;
+import com.charter.rewardcalculator.exception.CustomerNotFoundException;
+import com.charter.rewardcalculator.exception.InvalidDateRangeException;
+import com.charter.rewardcalculator.repository.CustomerRepository;
+import com.charter.rewardcalculator.repository.TransactionRepository;
+import com.charter.rewardcalculator.repository.projection.CustomerNameRow;
+import com.charter.rewardcalculator.repository.projection.DailyPointsRow;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Bounded cache of each customer's {@link PointsPrefixSums}, from which the total points of any
+ * date range are answered without reading transactions.
+ *
+ * <p>A customer's sums are loaded with one query grouped by day. Once a write transaction commits,
+ * its per-day points changes are applied to the cached sums in place of a reload, wherever the
+ * changed day falls in the customer's history. Sums loaded while such a write was in flight are
+ * never stored. Each customer maps to a stripe with a version, as in {@link RewardSummaryCache},
+ * and a count of writes in flight. A write joins the count just before it commits and leaves it
+ * once it has completed, bumping the version. A loader stores its result only if no write was in
+ * flight when it started or when it finished, and the version has not moved in between. Otherwise
+ * sums read after the commit but before the change is applied would already hold the change, and
+ * applying it would count it twice.
+ */
+@Component
+public class CustomerPointsIndex {
+
+    private static final int VERSION_STRIPES = 4096;
+
+    private final CustomerRepository customerRepository;
+    private final TransactionRepository transactionRepository;
+    private final RewardMetrics metrics;
+    private final ReportedRuleVersion ruleVersion;
+    private final boolean enabled;
+    private final Cache<Long, PointsPrefixSums> cache;
+    private final long[] versions = new long[VERSION_STRIPES];
+    private final int[] writesInFlight = new int[VERSION_STRIPES];
+    private final Object[] stripeLocks = new Object[VERSION_STRIPES];
+
+    /**
+     * Builds the index from the configured size and expiry, with the repositories it loads from and
+     * the reported rule version its totals carry.
+     */
+    public CustomerPointsIndex(CustomerRepository customerRepository,
+                               TransactionRepository transactionRepository,
+                               RewardMetrics metrics,
+                               ReportedRuleVersion ruleVersion,
+                               PointsIndexProperties properties) {
+        this.customerRepository = customerRepository;
+        this.transactionRepository = transactionRepository;
+        this.metrics = metrics;
+        this.ruleVersion = ruleVersion;
+        this.enabled = properties.maximumSize() > 0;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .expireAfterWrite(properties.expireAfterWrite())
+                .build();
+        for (int i = 0; i < VERSION_STRIPES; i++) {
+            stripeLocks[i] = new Object();
+        }
+    }
+
+    /**
+     * Returns the customer's total points within the optional inclusive date range, as a summary
+     * without the monthly breakdown.
+     */
+    public CustomerRewardSummaryDTO getTotal(Long customerId, LocalDate from, LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new InvalidDateRangeException(from, to);
+        }
+        return metrics.total().record(() -> {
+            PointsPrefixSums sums = get(customerId);
+            long total = sums.total(
+                    from == null ? Integer.MIN_VALUE : (int) from.toEpochDay(),
+                    to == null ? Integer.MAX_VALUE : (int) to.toEpochDay());
+            return new CustomerRewardSummaryDTO(
+                    sums.customerId(), sums.customerName(), List.of(), total, ruleVersion.version());
+        });
+    }
+
+    /**
+     * Marks the changed customers' stripes as written just before the transaction commits, and
+     * applies its per-day points changes to the customers already indexed once it has committed.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onTransactionsChanged(TransactionsChangedEvent event) {
+        int[] stripes = event.customerIds().stream().mapToInt(CustomerPointsIndex::stripe).distinct().toArray();
+        for (int stripe : stripes) {
+            synchronized (stripeLocks[stripe]) {
+                writesInFlight[stripe]++;
+            }
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                writeCompleted(event, stripes, status == STATUS_COMMITTED);
+            }
+        });
+    }
+
+    /** Applies the changes of a committed write, then clears the write from its stripes. */
+    private void writeCompleted(TransactionsChangedEvent event, int[] stripes, boolean committed) {
+        if (committed) {
+            for (TransactionsChangedEvent.PointsDelta delta : event.pointsDeltas()) {
+                int stripe = stripe(delta.customerId());
+                int day = (int) delta.transactionDate().toEpochDay();
+                synchronized (stripeLocks[stripe]) {
+                    cache.asMap().computeIfPresent(delta.customerId(), (id, sums) -> sums.plus(day, delta.points()));
+                }
+            }
+        }
+        for (int stripe : stripes) {
+            synchronized (stripeLocks[stripe]) {
+                writesInFlight[stripe]--;
+                versions[stripe]++;
+            }
+        }
+    }
+
+    /** Returns the indexed sums of the customer, loading and storing them on a miss. */
+    PointsPrefixSums get(Long customerId) {
+        if (!enabled) {
+            return load(customerId);
+        }
+        PointsPrefixSums cached = cache.getIfPresent(customerId);
+        if (cached != null) {
+            return cached;
+        }
+        int stripe = stripe(customerId);
+        long version;
+        boolean quiet;
+        synchronized (stripeLocks[stripe]) {
+            version = versions[stripe];
+            quiet = writesInFlight[stripe] == 0;
+        }
+        PointsPrefixSums sums = load(customerId);
+        synchronized (stripeLocks[stripe]) {
+            if (quiet && writesInFlight[stripe] == 0 && versions[stripe] == version) {
+                cache.put(customerId, sums);
+            }
+        }
+        return sums;
+    }
+
+    /** Loads the customer's name and points per day. */
+    private PointsPrefixSums load(Long customerId) {
+        CustomerNameRow customer = customerRepository.findNameById(customerId)
+                .orElseThrow(() -> new CustomerNotFoundException(customerId));
+        List<DailyPointsRow> rows = transactionRepository.sumDailyPointsByCustomerId(customerId);
+        int[] days = new int[rows.size()];
+        long[] points = new long[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            days[i] = (int) rows.get(i).transactionDate().toEpochDay();
+            points[i] = rows.get(i).points();
+        }
+        return PointsPrefixSums.of(customer.id(), customer.name(), days, points);
+    }
+
+    private static int stripe(Long customerId) {
+        return (Long.hashCode(customerId) & Integer.MAX_VALUE) % VERSION_STRIPES;
+    }
+}
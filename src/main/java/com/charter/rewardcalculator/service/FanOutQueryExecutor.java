@@ -0,0 +1,89 @@
+package com.charter.rewardcalculator.service;
+
+import com.charter.rewardcalculator.config.FanOutProperties;
+import com.charter.rewardcalculator.config.RequestStatementCounter;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Runs a query over a list of IDs as concurrent chunk queries on virtual threads, when enabled.
+ *
+ * <p>All chunk queries in the application share one semaphore sized to the connection pool, so a
+ * burst of large pages queues in memory instead of exhausting the pool. Callers must not hold a
+ * connection while waiting for their chunks, otherwise requests could each hold one connection and
+ * wait for another that never frees up.
+ */
+@Component
+public class FanOutQueryExecutor implements DisposableBean {
+
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    private final FanOutProperties properties;
+    private final Semaphore permits;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /** Sizes the concurrency limit from the settings or, by default, from the connection pool. */
+    public FanOutQueryExecutor(FanOutProperties properties, DataSource dataSource) {
+        this.properties = properties;
+        int limit = properties.maxConcurrency() > 0
+                ? properties.maxConcurrency()
+                : dataSource instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : DEFAULT_POOL_SIZE;
+        this.permits = new Semaphore(limit, true);
+    }
+
+    /** Returns the query results for all IDs, concatenated in chunk order. */
+    public <T> List<T> query(List<Long> ids, Function<List<Long>, List<T>> query) {
+        if (!properties.enabled() || ids.size() <= properties.chunkSize()) {
+            return query.apply(ids);
+        }
+        AtomicInteger statements = RequestStatementCounter.current();
+        List<Future<List<T>>> chunks = new ArrayList<>();
+        for (int start = 0; start < ids.size(); start += properties.chunkSize()) {
+            List<Long> chunk = ids.subList(start, Math.min(start + properties.chunkSize(), ids.size()));
+            chunks.add(executor.submit(() -> {
+                RequestStatementCounter.bind(statements);
+                permits.acquire();
+                try {
+                    return query.apply(chunk);
+                } finally {
+                    permits.release();
+                }
+            }));
+        }
+        List<T> results = new ArrayList<>();
+        try {
+            for (Future<List<T>> chunk : chunks) {
+                results.addAll(chunk.get());
+            }
+        } catch (InterruptedException ex) {
+            chunks.forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for chunk queries", ex);
+        } catch (ExecutionException ex) {
+            chunks.forEach(f -> f.cancel(true));
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+        return results;
+    }
+
+    /** Stops the executor on shutdown. */
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
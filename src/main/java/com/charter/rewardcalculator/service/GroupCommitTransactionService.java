@@ -0,0 +1,298 @@
+package com.charter.rewardcalculator.service;
+
+import com.charter.rewardcalculator.config.WriteBehindProperties;
+import com.charter.rewardcalculator.exception.CustomerNotFoundException;
+import com.charter.rewardcalculator.exception.WriteBufferFullException;
+import com.charter.rewardcalculator.model.Customer;
+import com.charter.rewardcalculator.model.Transaction;
+import com.charter.rewardcalculator.repository.CustomerRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.validation.annotation.Validated;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * TransactionService decorator that group-commits single transaction creates.
+ *
+ * <p>A create is appended to a lock-free queue and the caller waits until the database transaction
+ * holding it has committed, so a returned transaction is as durable as one committed on its own. One
+ * writer thread drains the queue. It commits a batch once {@code batch-size} creates are waiting or
+ * {@code max-delay} after the oldest one arrived, whichever comes first. A batch is one database
+ * transaction with one JDBC batch insert and one set of ledger deltas, so a burst pays for one commit
+ * per batch instead of one per row.
+ *
+ * <p>The queue holds at most {@code queue-capacity} creates. When it is full, a caller waits up to
+ * {@code offer-timeout} for room and then gets {@link WriteBufferFullException}. Creates for unknown
+ * customers fail on their own. If a batch fails for any other reason, its creates are retried one by
+ * one, so one bad row cannot fail the others. Updates and deletes are passed straight through.
+ *
+ * <p>Only created when {@code rewards.write-behind.enabled} is true.
+ */
+@Service
+@Primary
+@Validated
+@ConditionalOnProperty(prefix = "rewards.write-behind", name = "enabled", havingValue = "true")
+public class GroupCommitTransactionService implements TransactionService, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(GroupCommitTransactionService.class);
+
+    private final TransactionServiceImpl delegate;
+    private final EntityManager entityManager;
+    private final CustomerRepository customerRepository;
+    private final RewardLedgerService ledgerService;
+    private final TransactionTemplate transactionTemplate;
+    private final WriteBehindProperties properties;
+    private final RewardRuleSet rules;
+
+    private final ConcurrentLinkedQueue<PendingCreate> queue = new ConcurrentLinkedQueue<>();
+    private final Semaphore slots;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    private final DistributionSummary batchRows;
+    private final Timer commitTimer;
+    private final Timer latencyTimer;
+    private final Counter rejectedCounter;
+
+    /** Wraps the per-row transaction service and starts the writer thread. */
+    public GroupCommitTransactionService(TransactionServiceImpl delegate,
+                                         EntityManager entityManager,
+                                         CustomerRepository customerRepository,
+                                         RewardLedgerService ledgerService,
+                                         TransactionTemplate transactionTemplate,
+                                         WriteBehindProperties properties,
+                                         RewardRuleSet rules,
+                                         MeterRegistry registry) {
+        this.delegate = delegate;
+        this.entityManager = entityManager;
+        this.customerRepository = customerRepository;
+        this.ledgerService = ledgerService;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.rules = rules;
+        this.slots = new Semaphore(properties.queueCapacity());
+
+        this.batchRows = DistributionSummary.builder("rewards.write-behind.batch.rows")
+                .description("Transactions committed together in one write-behind batch")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.commitTimer = Timer.builder("rewards.write-behind.commit")
+                .description("Time to insert and commit one write-behind batch")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.latencyTimer = Timer.builder("rewards.write-behind.latency")
+                .description("Time from queueing a transaction to its batch committing")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.rejectedCounter = Counter.builder("rewards.write-behind.rejected")
+                .description("Transactions turned away because the write-behind queue was full")
+                .register(registry);
+        Gauge.builder("rewards.write-behind.queue.depth", slots,
+                        s -> properties.queueCapacity() - s.availablePermits())
+                .description("Transactions waiting in the write-behind queue")
+                .register(registry);
+
+        this.writer = Thread.ofPlatform().name("write-behind").daemon().unstarted(this::drain);
+        this.writer.start();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Transaction createTransaction(Long customerId, BigDecimal amount, LocalDate transactionDate) {
+        if (!running) {
+            return delegate.createTransaction(customerId, amount, transactionDate);
+        }
+        acquireSlot();
+        PendingCreate create = new PendingCreate(customerId, amount, transactionDate, System.nanoTime());
+        queue.offer(create);
+        LockSupport.unpark(writer);
+        if (!running && queue.remove(create)) {
+            // The writer may already have stopped; this create never reached it.
+            slots.release();
+            return delegate.createTransaction(customerId, amount, transactionDate);
+        }
+        return await(create);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Transaction updateTransaction(Long transactionId, Long customerId,
+                                        BigDecimal amount, LocalDate transactionDate) {
+        return delegate.updateTransaction(transactionId, customerId, amount, transactionDate);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void deleteTransaction(Long transactionId) {
+        delegate.deleteTransaction(transactionId);
+    }
+
+    /** Stops taking new creates, commits the ones already queued and waits for the writer to finish. */
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+    }
+
+    private void acquireSlot() {
+        try {
+            if (!slots.tryAcquire() && !slots.tryAcquire(properties.offerTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                rejectedCounter.increment();
+                throw new WriteBufferFullException(properties.queueCapacity());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for room in the write buffer", ex);
+        }
+    }
+
+    private Transaction await(PendingCreate create) {
+        try {
+            return create.result.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the write to commit; it may still commit", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    /** Writer loop: collects batches until stopped, then commits whatever is still queued. */
+    private void drain() {
+        long maxDelayNanos = properties.maxDelay().toNanos();
+        List<PendingCreate> batch = new ArrayList<>(properties.batchSize());
+        while (running || !queue.isEmpty()) {
+            PendingCreate first = queue.poll();
+            if (first == null) {
+                LockSupport.park(this);
+                continue;
+            }
+            batch.add(first);
+            long deadline = first.enqueuedAt + maxDelayNanos;
+            while (batch.size() < properties.batchSize()) {
+                PendingCreate next = queue.poll();
+                if (next != null) {
+                    batch.add(next);
+                    continue;
+                }
+                long wait = deadline - System.nanoTime();
+                if (wait <= 0 || !running) {
+                    break;
+                }
+                LockSupport.parkNanos(this, wait);
+            }
+            slots.release(batch.size());
+            try {
+                commit(batch);
+            } catch (Throwable ex) {
+                log.error("Write-behind batch failed — rows={}", batch.size(), ex);
+                batch.forEach(create -> create.result.completeExceptionally(ex));
+            }
+            batch.clear();
+        }
+    }
+
+    /** Fails creates for unknown customers, then inserts the rest and their ledger deltas in one transaction. */
+    private void commit(List<PendingCreate> batch) {
+        Set<Long> customerIds = new HashSet<>();
+        batch.forEach(create -> customerIds.add(create.customerId));
+        Set<Long> known = new HashSet<>(customerRepository.findExistingIds(customerIds));
+
+        List<PendingCreate> accepted = new ArrayList<>(batch.size());
+        for (PendingCreate create : batch) {
+            if (known.contains(create.customerId)) {
+                accepted.add(create);
+            } else {
+                create.result.completeExceptionally(new CustomerNotFoundException(create.customerId));
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        long started = System.nanoTime();
+        List<Transaction> saved;
+        try {
+            saved = transactionTemplate.execute(status -> {
+                List<Transaction> transactions = new ArrayList<>(accepted.size());
+                for (PendingCreate create : accepted) {
+                    Transaction tx = new Transaction();
+                    tx.setCustomer(entityManager.getReference(Customer.class, create.customerId));
+                    tx.setAmount(create.amount);
+                    tx.setTransactionDate(create.transactionDate);
+                    rules.assignPoints(tx);
+                    entityManager.persist(tx);
+                    transactions.add(tx);
+                }
+                ledgerService.recordChanges(transactions, List.of());
+                entityManager.flush();
+                entityManager.clear();
+                return transactions;
+            });
+        } catch (RuntimeException ex) {
+            log.warn("Write-behind batch failed, retrying rows one by one — rows={}", accepted.size(), ex);
+            accepted.forEach(this::commitAlone);
+            return;
+        }
+        long committed = System.nanoTime();
+        commitTimer.record(committed - started, TimeUnit.NANOSECONDS);
+        batchRows.record(accepted.size());
+        for (int i = 0; i < accepted.size(); i++) {
+            PendingCreate create = accepted.get(i);
+            latencyTimer.record(committed - create.enqueuedAt, TimeUnit.NANOSECONDS);
+            create.result.complete(saved.get(i));
+        }
+    }
+
+    private void commitAlone(PendingCreate create) {
+        try {
+            create.result.complete(delegate.createTransaction(create.customerId, create.amount, create.transactionDate));
+        } catch (RuntimeException ex) {
+            create.result.completeExceptionally(ex);
+        }
+    }
+
+    /** A queued create and the future its caller waits on. */
+    private static final class PendingCreate {
+
+        private final Long customerId;
+        private final BigDecimal amount;
+        private final LocalDate transactionDate;
+        private final long enqueuedAt;
+        private final CompletableFuture<Transaction> result = new CompletableFuture<>();
+
+        PendingCreate(Long customerId, BigDecimal amount, LocalDate transactionDate, long enqueuedAt) {
+            this.customerId = customerId;
+            this.amount = amount;
+            this.transactionDate = transactionDate;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+}
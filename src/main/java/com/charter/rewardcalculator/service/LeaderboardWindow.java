@@ -0,0 +1,146 @@
+package com.charter.rewardcalculator.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory ranking of the customers with the most points over a fixed range of whole months,
+ * kept up to date from committed changes.
+ *
+ * <p>The ranking holds at most {@code capacity} customers. Committed changes only mark their
+ * customer as changed, which is cheap and lock-free. The next read queries the current totals of
+ * the changed customers, whether ranked or not, and re-ranks them. It reloads the whole ranking
+ * only when a ranked customer falls to or below {@link #untrackedMax}, the most points any customer
+ * left out of the ranking can have. Changed customers are drained before they are queried, so a
+ * change that commits during a query is picked up by the following read.
+ */
+final class LeaderboardWindow {
+
+    /** Ranking order: most points first, then lowest customer ID. */
+    static final Comparator<CustomerPoints> RANKING = Comparator.comparingLong(CustomerPoints::points).reversed()
+            .thenComparing(CustomerPoints::customerId);
+
+    private final int fromYearMonth;
+    private final int toYearMonth;
+    private final int capacity;
+    private final Set<Long> changed = ConcurrentHashMap.newKeySet();
+    private final Map<Long, CustomerPoints> entries = new HashMap<>();
+    private final TreeSet<CustomerPoints> ranked = new TreeSet<>(RANKING);
+    private boolean loaded;
+    private long untrackedMax;
+
+    /** Creates an unloaded window over the given yyyymm months, both inclusive. */
+    LeaderboardWindow(int fromYearMonth, int toYearMonth, int capacity) {
+        this.fromYearMonth = fromYearMonth;
+        this.toYearMonth = toYearMonth;
+        this.capacity = capacity;
+    }
+
+    int fromYearMonth() {
+        return fromYearMonth;
+    }
+
+    int toYearMonth() {
+        return toYearMonth;
+    }
+
+    /** Returns true when the given yyyymm month falls within the window. */
+    boolean covers(int yearMonth) {
+        return yearMonth >= fromYearMonth && yearMonth <= toYearMonth;
+    }
+
+    /** Records that the customer's points in the window changed; applied on the next read. */
+    void markChanged(Long customerId) {
+        changed.add(customerId);
+    }
+
+    /** Returns the best {@code n} customers, loading or refreshing the ranking first if needed. */
+    synchronized List<CustomerPoints> top(int n, Loader loader) {
+        if (!loaded) {
+            reload(loader);
+        } else if (!changed.isEmpty()) {
+            refresh(loader);
+        }
+        List<CustomerPoints> top = new ArrayList<>(Math.min(n, ranked.size()));
+        for (CustomerPoints entry : ranked) {
+            if (top.size() == n) {
+                break;
+            }
+            top.add(entry);
+        }
+        return top;
+    }
+
+    /** Re-ranks the changed customers with their current totals. */
+    private void refresh(Loader loader) {
+        List<Long> ids = drainChanged();
+        Map<Long, CustomerPoints> current = new HashMap<>();
+        loader.totals(fromYearMonth, toYearMonth, ids).forEach(e -> current.put(e.customerId(), e));
+        boolean fellBelowUntracked = false;
+        for (Long id : ids) {
+            CustomerPoints before = entries.remove(id);
+            CustomerPoints after = current.get(id);
+            if (before != null) {
+                ranked.remove(before);
+                long points = after == null ? 0 : after.points();
+                fellBelowUntracked |= untrackedMax > 0 && points <= untrackedMax;
+            }
+            if (after != null) {
+                add(after);
+            }
+        }
+        if (fellBelowUntracked) {
+            // A customer outside the ranking may now rank above the one that fell.
+            reload(loader);
+            return;
+        }
+        while (ranked.size() > capacity) {
+            CustomerPoints evicted = ranked.pollLast();
+            entries.remove(evicted.customerId());
+            untrackedMax = Math.max(untrackedMax, evicted.points());
+        }
+    }
+
+    /** Replaces the ranking with the best customers read from the database. */
+    private void reload(Loader loader) {
+        drainChanged();
+        entries.clear();
+        ranked.clear();
+        List<CustomerPoints> top = loader.top(fromYearMonth, toYearMonth, capacity);
+        top.forEach(this::add);
+        untrackedMax = top.size() < capacity ? 0 : top.get(top.size() - 1).points();
+        loaded = true;
+    }
+
+    private void add(CustomerPoints entry) {
+        entries.put(entry.customerId(), entry);
+        ranked.add(entry);
+    }
+
+    private List<Long> drainChanged() {
+        List<Long> ids = new ArrayList<>(changed);
+        changed.removeAll(ids);
+        return ids;
+    }
+
+    /** One customer's points in the window. */
+    record CustomerPoints(Long customerId, String customerName, long points) {
+    }
+
+    /** Reads window totals from the database. */
+    interface Loader {
+
+        /** Returns up to {@code limit} customers with the most points in the months, in ranking order. */
+        List<CustomerPoints> top(int fromYearMonth, int toYearMonth, int limit);
+
+        /** Returns the points in the months of those given customers that have any. */
+        List<CustomerPoints> totals(int fromYearMonth, int toYearMonth, Collection<Long> customerIds);
+    }
+}
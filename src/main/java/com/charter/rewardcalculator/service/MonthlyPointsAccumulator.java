@@ -0,0 +1,99 @@
+package com.charter.rewardcalculator.service;
+
+import com.charter.rewardcalculator.dto.CustomerRewardSummaryDTO;
+import com.charter.rewardcalculator.dto.MonthlyRewardDTO;
+
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reusable per-customer accumulator of monthly points, indexed by epoch month ({@code year * 12 +
+ * month - 1}). Adding a transaction touches two array slots and allocates nothing; the arrays grow
+ * only when a customer's history spans more months than seen so far. {@link #reset()} clears just
+ * the touched window, so one instance serves any number of customers in turn.
+ */
+final class MonthlyPointsAccumulator {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private long[] points = new long[INITIAL_CAPACITY];
+    private int[] counts = new int[INITIAL_CAPACITY];
+    private int base;
+    private int low = Integer.MAX_VALUE;
+    private int high = Integer.MIN_VALUE;
+
+    /** Returns the epoch month of the given calendar month. */
+    static int epochMonth(int year, int month) {
+        return year * 12 + month - 1;
+    }
+
+    /** Adds one transaction's points to the given epoch month. */
+    void add(int epochMonth, long transactionPoints) {
+        if (low > high) {
+            base = epochMonth - points.length / 2;
+        } else if (epochMonth < base || epochMonth >= base + points.length) {
+            grow(epochMonth);
+        }
+        int index = epochMonth - base;
+        points[index] += transactionPoints;
+        counts[index]++;
+        low = Math.min(low, index);
+        high = Math.max(high, index);
+    }
+
+    /** Returns true when no transaction has been added since the last reset. */
+    boolean isEmpty() {
+        return low > high;
+    }
+
+    /**
+     * Builds the summary of the accumulated months, in month order, with the given customer identity
+     * and rule version.
+     */
+    CustomerRewardSummaryDTO toSummary(Long customerId, String customerName, String ruleVersion) {
+        List<MonthlyRewardDTO> monthlyRewards = new ArrayList<>();
+        long totalPoints = 0;
+        for (int i = low; i <= high; i++) {
+            if (counts[i] > 0) {
+                int epochMonth = base + i;
+                monthlyRewards.add(new MonthlyRewardDTO(
+                        Math.floorDiv(epochMonth, 12), Month.of(Math.floorMod(epochMonth, 12) + 1).name(), points[i]));
+                totalPoints += points[i];
+            }
+        }
+        return new CustomerRewardSummaryDTO(customerId, customerName, monthlyRewards, totalPoints, ruleVersion);
+    }
+
+    /** Clears the accumulated months. */
+    void reset() {
+        if (low <= high) {
+            Arrays.fill(points, low, high + 1, 0L);
+            Arrays.fill(counts, low, high + 1, 0);
+        }
+        low = Integer.MAX_VALUE;
+        high = Integer.MIN_VALUE;
+    }
+
+    /** Re-centres the arrays so the touched window and the new month both fit. */
+    private void grow(int epochMonth) {
+        int first = Math.min(base + low, epochMonth);
+        int last = Math.max(base + high, epochMonth);
+        int capacity = points.length;
+        while (capacity < (last - first + 1) * 2) {
+            capacity *= 2;
+        }
+        int newBase = first - (capacity - (last - first + 1)) / 2;
+        long[] newPoints = new long[capacity];
+        int[] newCounts = new int[capacity];
+        int shift = base - newBase;
+        System.arraycopy(points, low, newPoints, low + shift, high - low + 1);
+        System.arraycopy(counts, low, newCounts, low + shift, high - low + 1);
+        points = newPoints;
+        counts = newCounts;
+        low += shift;
+        high += shift;
+        base = newBase;
+    }
+}
@@ -0,0 +1,105 @@
+package com.charter.rewardcalculator.service;
+
+import java.util.Arrays;
+
+/**
+ * Immutable cumulative points of one customer, keyed by transaction day.
+ *
+ * <p>{@code days} holds the customer's distinct transaction days as epoch days in ascending order,
+ * and {@code cumulative[i]} the points earned on or before {@code days[i]}. The points of any
+ * inclusive range are therefore two binary searches and one subtraction. A change to one day
+ * returns a new instance with the day inserted if needed and the later sums shifted, which costs
+ * one array copy and leaves readers of the old instance unaffected.
+ */
+final class PointsPrefixSums {
+
+    private final Long customerId;
+    private final String customerName;
+    private final int[] days;
+    private final long[] cumulative;
+
+    private PointsPrefixSums(Long customerId, String customerName, int[] days, long[] cumulative) {
+        this.customerId = customerId;
+        this.customerName = customerName;
+        this.days = days;
+        this.cumulative = cumulative;
+    }
+
+    /** Builds the sums from points per day; days must be ascending and distinct. */
+    static PointsPrefixSums of(Long customerId, String customerName, int[] days, long[] dailyPoints) {
+        long[] cumulative = new long[days.length];
+        long running = 0;
+        for (int i = 0; i < days.length; i++) {
+            if (i > 0 && days[i] <= days[i - 1]) {
+                throw new IllegalArgumentException("Days must be ascending and distinct at index " + i);
+            }
+            running += dailyPoints[i];
+            cumulative[i] = running;
+        }
+        return new PointsPrefixSums(customerId, customerName, days.clone(), cumulative);
+    }
+
+    Long customerId() {
+        return customerId;
+    }
+
+    String customerName() {
+        return customerName;
+    }
+
+    /** Returns the number of distinct transaction days. */
+    int size() {
+        return days.length;
+    }
+
+    /** Returns the points earned between the given epoch days, both inclusive. */
+    long total(int fromEpochDay, int toEpochDay) {
+        if (fromEpochDay > toEpochDay) {
+            return 0;
+        }
+        return pointsBefore(upperBound(toEpochDay)) - pointsBefore(lowerBound(fromEpochDay));
+    }
+
+    /** Returns a copy with the given points added to the given epoch day, which may be any day. */
+    PointsPrefixSums plus(int epochDay, long points) {
+        if (points == 0) {
+            return this;
+        }
+        int index = lowerBound(epochDay);
+        if (index < days.length && days[index] == epochDay) {
+            long[] shifted = cumulative.clone();
+            for (int i = index; i < shifted.length; i++) {
+                shifted[i] += points;
+            }
+            return new PointsPrefixSums(customerId, customerName, days, shifted);
+        }
+        int[] newDays = new int[days.length + 1];
+        long[] newCumulative = new long[days.length + 1];
+        System.arraycopy(days, 0, newDays, 0, index);
+        System.arraycopy(cumulative, 0, newCumulative, 0, index);
+        newDays[index] = epochDay;
+        newCumulative[index] = pointsBefore(index) + points;
+        for (int i = index; i < days.length; i++) {
+            newDays[i + 1] = days[i];
+            newCumulative[i + 1] = cumulative[i] + points;
+        }
+        return new PointsPrefixSums(customerId, customerName, newDays, newCumulative);
+    }
+
+    /** Returns the points of the days before the given index. */
+    private long pointsBefore(int index) {
+        return index == 0 ? 0 : cumulative[index - 1];
+    }
+
+    /** Returns the index of the first day not before the given day. */
+    private int lowerBound(int day) {
+        int index = Arrays.binarySearch(days, day);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /** Returns the index of the first day after the given day. */
+    private int upperBound(int day) {
+        int index = Arrays.binarySearch(days, day);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+}
@@ -0,0 +1,14 @@
+package com.charter.rewardcalculator.service;
+
+import java.util.concurrent.CompletableFuture;
+
+/** Service interface for rewriting the stored points of historical transactions after the reward rules change. */
+public interface PointsRecalculationService {
+
+    /**
+     * Starts or resumes the recalculation of every transaction whose points were computed under
+     * other rules than the current ones, and returns a future of the number of transactions this
+     * run rewrote. Completes immediately with zero once the current rule version is done.
+     */
+    CompletableFuture<Long> recalculate();
+}
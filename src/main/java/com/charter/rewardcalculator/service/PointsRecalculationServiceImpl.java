@@ -0,0 +1,218 @@
+package com.charter.rewardcalculator.service;
+
+import com.charter.rewardcalculator.config.PointsRecalculationProperties;
+import com.charter.rewardcalculator.model.PointsRecalculationRange;
+import com.charter.rewardcalculator.repository.CustomerRepository;
+import com.charter.rewardcalculator.repository.PointsRecalculationRangeRepository;
+import com.charter.rewardcalculator.repository.TransactionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Implementation of PointsRecalculationService.
+ *
+ * <p>On the first run for a rule version, the customer ID space is split into equal ranges like a
+ * report job, and each range is stored with a checkpoint. A version whose ranges are all completed
+ * is started over if stale transactions remain, as after the rules went back to an earlier version
+ * or an instance still running older rules wrote some. That check stops at the first stale
+ * transaction it finds. Workers walk their ranges in chunks of
+ * customers. One chunk is one database transaction: it locks the range row, locks the chunk's
+ * transactions whose points were computed under other rules, sums per customer and day how their
+ * points change, rewrites them with the {@code reward_points} SQL function, applies the changes to
+ * the ledger and advances the checkpoint. A run that stops, or a process that dies, leaves every
+ * range at its last committed chunk, and the next run resumes there. Two instances running at once
+ * take turns on each range through the range row lock.
+ *
+ * <p>Reads stay consistent while it runs. Each customer switches from the old points to the new ones
+ * in a single commit that also updates their ledger rows and bumps their points version, which
+ * evicts their cached summaries and changes their ETag. Writers lock a transaction before
+ * rewriting it, so the points they take out of the ledger are the ones stored. Transactions
+ * written during the run already carry the current rules and are skipped. Summaries and ETags keep
+ * the previously completed {@link ReportedRuleVersion} until every range is done, and only then
+ * report the current version.
+ */
+@Service
+public class PointsRecalculationServiceImpl implements PointsRecalculationService, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(PointsRecalculationServiceImpl.class);
+
+    private final TransactionRepository transactionRepository;
+    private final CustomerRepository customerRepository;
+    private final PointsRecalculationRangeRepository rangeRepository;
+    private final RewardLedgerService ledgerService;
+    private final RewardRuleSet rules;
+    private final ReportedRuleVersion ruleVersion;
+    private final TransactionTemplate transactionTemplate;
+    private final PointsRecalculationProperties properties;
+    private final ExecutorService workers;
+    private volatile boolean stopping;
+
+    /**
+     * Constructs the service with its repositories, the ledger service, the reward rules, the
+     * reported rule version, a transaction template and its settings.
+     */
+    public PointsRecalculationServiceImpl(TransactionRepository transactionRepository,
+                                          CustomerRepository customerRepository,
+                                          PointsRecalculationRangeRepository rangeRepository,
+                                          RewardLedgerService ledgerService,
+                                          RewardRuleSet rules,
+                                          ReportedRuleVersion ruleVersion,
+                                          TransactionTemplate transactionTemplate,
+                                          PointsRecalculationProperties properties) {
+        this.transactionRepository = transactionRepository;
+        this.customerRepository = customerRepository;
+        this.rangeRepository = rangeRepository;
+        this.ledgerService = ledgerService;
+        this.rules = rules;
+        this.ruleVersion = ruleVersion;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.workers = Executors.newFixedThreadPool(properties.parallelism(),
+                Thread.ofPlatform().name("points-recalculation-", 0).daemon(true).factory());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public CompletableFuture<Long> recalculate() {
+        String version = rules.version();
+        return CompletableFuture.supplyAsync(() -> pendingRanges(version), workers)
+                .thenCompose(pending -> recalculate(version, pending));
+    }
+
+    /** Runs the pending ranges on the workers and reports the rule version once all of them complete. */
+    private CompletableFuture<Long> recalculate(String version, List<PointsRecalculationRange> pending) {
+        if (pending.isEmpty()) {
+            ruleVersion.promote(version);
+            return CompletableFuture.completedFuture(0L);
+        }
+        long started = System.nanoTime();
+        log.info("Recalculating transaction points — ruleVersion={}, pendingRanges={}", version, pending.size());
+        List<CompletableFuture<Long>> tasks = pending.stream()
+                .map(range -> CompletableFuture.supplyAsync(
+                        () -> recalculateRange(version, range.getFirstCustomerId()), workers))
+                .toList();
+        return CompletableFuture.allOf(tasks.toArray(CompletableFuture<?>[]::new))
+                .thenApply(ignored -> tasks.stream().mapToLong(CompletableFuture::join).sum())
+                .whenComplete((rows, failure) -> {
+                    if (failure != null) {
+                        log.warn("Transaction points recalculation failed; it resumes from its checkpoints"
+                                + " on the next run — ruleVersion={}", version, failure);
+                    } else {
+                        if (!stopping) {
+                            ruleVersion.promote(version);
+                        }
+                        log.info("{} transaction points recalculation — ruleVersion={}, rows={}, elapsedMs={}",
+                                stopping ? "Stopped" : "Finished", version, rows,
+                                (System.nanoTime() - started) / 1_000_000);
+                    }
+                });
+    }
+
+    /** Starts or resumes the recalculation in the background once the application is ready, if enabled. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recalculateOnStartup() {
+        if (properties.onStartup()) {
+            recalculate();
+        }
+    }
+
+    /** Lets workers finish their current chunk and stops them; the checkpoints keep the progress. */
+    @Override
+    public void destroy() {
+        stopping = true;
+        workers.shutdown();
+    }
+
+    /**
+     * Returns the ranges of the rule version left to recalculate. Splits the customer ID space on the
+     * version's first run, and again when all its ranges are completed but stale transactions remain.
+     */
+    private List<PointsRecalculationRange> pendingRanges(String version) {
+        List<PointsRecalculationRange> ranges = rangeRepository.findByRuleVersionOrderByFirstCustomerIdAsc(version);
+        if (!ranges.isEmpty() && ranges.stream().allMatch(range -> range.getCompletedAt() != null)) {
+            if (transactionRepository.findStalePointsIds(version, Limit.of(1)).isEmpty()) {
+                return List.of();
+            }
+            log.info("Stale transaction points remain after a completed recalculation; starting over"
+                    + " — ruleVersion={}", version);
+            transactionTemplate.executeWithoutResult(status -> rangeRepository.deleteByRuleVersion(version));
+            ranges = List.of();
+        }
+        if (ranges.isEmpty()) {
+            ranges = split(version);
+        }
+        return ranges.stream()
+                .filter(range -> range.getCompletedAt() == null)
+                .toList();
+    }
+
+    /** Splits the customer ID space into the ranges of the rule version and stores them. */
+    private List<PointsRecalculationRange> split(String version) {
+        List<PointsRecalculationRange> created = ReportJobServiceImpl.split(customerRepository.findIdRange(),
+                        properties.parallelism() * properties.rangesPerWorker()).stream()
+                .map(range -> new PointsRecalculationRange(version, range[0], range[1], range[0] - 1, 0, null))
+                .toList();
+        try {
+            return transactionTemplate.execute(status -> rangeRepository.saveAllAndFlush(created));
+        } catch (DataIntegrityViolationException ex) {
+            // Another instance split the ID space first.
+            return rangeRepository.findByRuleVersionOrderByFirstCustomerIdAsc(version);
+        }
+    }
+
+    /** Walks one range from its checkpoint, one chunk per transaction, and returns the transactions rewritten. */
+    private long recalculateRange(String version, Long firstCustomerId) {
+        long rows = 0;
+        Long written;
+        while (!stopping
+                && (written = transactionTemplate.execute(status -> recalculateChunk(version, firstCustomerId))) != null) {
+            rows += written;
+        }
+        return rows;
+    }
+
+    /**
+     * Recalculates the customers after the range's checkpoint, up to the chunk size, and advances the
+     * checkpoint past them. Returns the number of transactions rewritten, or null once the range is
+     * complete.
+     */
+    private Long recalculateChunk(String version, Long firstCustomerId) {
+        PointsRecalculationRange range = rangeRepository.findForUpdate(version, firstCustomerId).orElseThrow();
+        if (range.getCompletedAt() != null) {
+            return null;
+        }
+        List<Long> ids = customerRepository.findIdsBetween(
+                range.getCheckpointCustomerId(), range.getLastCustomerId(), Limit.of(properties.chunkSize()));
+        if (ids.isEmpty()) {
+            range.setCompletedAt(Instant.now());
+            return null;
+        }
+        long written = 0;
+        if (!transactionRepository.lockStalePoints(ids, version).isEmpty()) {
+            List<RewardLedgerService.DayTotal> changes = transactionRepository.sumStalePointsChange(ids, version)
+                    .stream()
+                    .filter(row -> row.points() != 0)
+                    .map(row -> new RewardLedgerService.DayTotal(
+                            row.customerId(), row.transactionDate(), row.points(), 0))
+                    .toList();
+            written = transactionRepository.recalculateStalePoints(ids, version);
+            ledgerService.recordRecalculated(changes);
+        }
+        range.setCheckpointCustomerId(ids.get(ids.size() - 1));
+        range.setRecalculatedRows(range.getRecalculatedRows() + written);
+        return written;
+    }
+}
@@ -0,0 +1,128 @@
+package com.charter.rewardcalculator.service;
+
+import com.charter.rewardcalculator.dto.ReportJobDTO;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * State of one report job. Workers add progress through atomics; status transitions are
+ * synchronized so that a cancel and the final step of the job cannot both win.
+ */
+final class ReportJob {
+
+    private final String id;
+    private final LocalDate from;
+    private final LocalDate to;
+    private final Path file;
+    private final List<Path> parts;
+    private final Instant startedAt = Instant.now();
+    private final long startedNanos = System.nanoTime();
+    private final AtomicLong rows = new AtomicLong();
+    private final AtomicInteger rangesCompleted = new AtomicInteger();
+    private volatile boolean cancelRequested;
+    private ReportJobDTO.Status status = ReportJobDTO.Status.RUNNING;
+    private Instant finishedAt;
+    private long finishedNanos;
+    private String error;
+
+    /** Creates a running job that writes one part file per range and then the report file. */
+    ReportJob(String id, LocalDate from, LocalDate to, Path file, List<Path> parts) {
+        this.id = id;
+        this.from = from;
+        this.to = to;
+        this.file = file;
+        this.parts = List.copyOf(parts);
+    }
+
+    String id() {
+        return id;
+    }
+
+    LocalDate from() {
+        return from;
+    }
+
+    LocalDate to() {
+        return to;
+    }
+
+    Path file() {
+        return file;
+    }
+
+    /** Part files in range order; concatenated they form the report. */
+    List<Path> parts() {
+        return parts;
+    }
+
+    /** Returns true once a cancel has been requested; workers stop at their next chunk. */
+    boolean isCancelRequested() {
+        return cancelRequested;
+    }
+
+    void addRows(int count) {
+        rows.addAndGet(count);
+    }
+
+    void rangeCompleted() {
+        rangesCompleted.incrementAndGet();
+    }
+
+    synchronized ReportJobDTO.Status status() {
+        return status;
+    }
+
+    /** Requests a cancel; returns false when the job has already finished. */
+    synchronized boolean requestCancel() {
+        if (status != ReportJobDTO.Status.RUNNING) {
+            return false;
+        }
+        cancelRequested = true;
+        return true;
+    }
+
+    /** Marks the job completed unless a cancel was requested first; returns whether it did. */
+    synchronized boolean complete() {
+        return finish(cancelRequested ? ReportJobDTO.Status.CANCELLED : ReportJobDTO.Status.COMPLETED, null)
+                == ReportJobDTO.Status.COMPLETED;
+    }
+
+    /** Marks the job cancelled. */
+    synchronized void cancelled() {
+        finish(ReportJobDTO.Status.CANCELLED, null);
+    }
+
+    /** Marks the job failed with the given reason, unless a cancel was requested first. */
+    synchronized void failed(String reason) {
+        finish(cancelRequested ? ReportJobDTO.Status.CANCELLED : ReportJobDTO.Status.FAILED, reason);
+    }
+
+    private ReportJobDTO.Status finish(ReportJobDTO.Status finalStatus, String reason) {
+        if (status == ReportJobDTO.Status.RUNNING) {
+            status = finalStatus;
+            error = finalStatus == ReportJobDTO.Status.FAILED ? reason : null;
+            finishedAt = Instant.now();
+            finishedNanos = System.nanoTime();
+        }
+        return status;
+    }
+
+    /** Returns when the job finished, or null while it is running. */
+    synchronized Instant finishedAt() {
+        return finishedAt;
+    }
+
+    /** Returns the job's status, with throughput measured up to now or to when it finished. */
+    synchronized ReportJobDTO toDto() {
+        long written = rows.get();
+        long elapsedNanos = (finishedAt == null ? System.nanoTime() : finishedNanos) - startedNanos;
+        double rowsPerSecond = elapsedNanos > 0 ? written * 1_000_000_000d / elapsedNanos : 0;
+        return new ReportJobDTO(id, status, from, to, rangesCompleted.get(), parts.size(), written,
+                rowsPerSecond, startedAt, finishedAt, error);
+    }
+}
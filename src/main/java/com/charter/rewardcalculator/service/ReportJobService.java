@@ -0,0 +1,31 @@
+package com.charter.rewardcalculator.service;
+
+import com.charter.rewardcalculator.dto.ReportJobDTO;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+/**
+ * Service interface for asynchronous reports of every customer's reward summary, for consumers such
+ * as month-end statements that cannot wait on a single request.
+ */
+public interface ReportJobService {
+
+    /**
+     * Starts a report for the optional date range and returns immediately. The report is a gzipped
+     * NDJSON file with one CustomerRewardSummaryDTO per line, in customer ID order.
+     */
+    ReportJobDTO start(LocalDate from, LocalDate to);
+
+    /** Returns the status and progress of a job. */
+    ReportJobDTO status(String jobId);
+
+    /** Returns the report file of a completed job. */
+    Path reportFile(String jobId);
+
+    /**
+     * Cancels a running job and removes its partial output, or forgets a finished job and deletes its
+     * report file. Returns the job's status afterwards.
+     */
+    ReportJobDTO cancel(String jobId);
+}
@@ -0,0 +1,283 @@
+package com.charter.rewardcalculator.service;
+
+import com.charter.rewardcalculator.config.ReportProperties;
+import com.charter.rewardcalculator.dto.CustomerRewardSummaryDTO;
+import com.charter.rewardcalculator.dto.ReportJobDTO;
+import com.charter.rewardcalculator.exception.InvalidDateRangeException;
+import com.charter.rewardcalculator.exception.ReportJobNotFoundException;
+import com.charter.rewardcalculator.exception.ReportNotReadyException;
+import com.charter.rewardcalculator.repository.CustomerRepository;
+import com.charter.rewardcalculator.repository.projection.IdRangeRow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Implementation of ReportJobService.
+ *
+ * <p>A job splits the customer ID space, from the lowest to the highest ID, into equal ranges and
+ * submits one task per range to a fixed pool of worker threads shared by all jobs. A worker walks its
+ * range in chunks of IDs and builds each chunk with the set-based batch lookup, two queries for the
+ * whole chunk. It writes the summaries as NDJSON to its own gzip part file. Once every range is done,
+ * the parts are appended to the report file in range order. A gzip file may hold several members
+ * back to back, so the parts are not recompressed and the report lists customers in ID order.
+ *
+ * <p>Cancelling sets a flag that workers check before each chunk, so a cancelled job releases its
+ * threads within one chunk and never interrupts a thread that holds a connection. Its part files
+ * are deleted. Workers do not hold a transaction or a connection between chunks.
+ *
+ * <p>Finished jobs are kept for {@link ReportProperties#retention()} after they finish. A sweep runs
+ * at least once a minute, and more often for shorter retentions. It forgets expired jobs and deletes
+ * their report files, so neither the job map nor the report directory grows without bound.
+ */
+@Service
+public class ReportJobServiceImpl implements ReportJobService, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportJobServiceImpl.class);
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private final CustomerRepository customerRepository;
+    private final RewardService rewardService;
+    private final JsonMapper jsonMapper;
+    private final ReportProperties properties;
+    private final Path directory;
+    private final ExecutorService workers;
+    private final ScheduledExecutorService sweeper;
+    private final Map<String, ReportJob> jobs = new ConcurrentHashMap<>();
+
+    /** Constructs the service with the customer repository, the reward service, the JSON mapper and its settings. */
+    public ReportJobServiceImpl(CustomerRepository customerRepository,
+                                RewardService rewardService,
+                                JsonMapper jsonMapper,
+                                ReportProperties properties) {
+        this.customerRepository = customerRepository;
+        this.rewardService = rewardService;
+        this.jsonMapper = jsonMapper;
+        this.properties = properties;
+        this.directory = properties.directory() != null
+                ? properties.directory()
+                : Path.of(System.getProperty("java.io.tmpdir"), "reward-reports");
+        this.workers = Executors.newFixedThreadPool(properties.parallelism(),
+                Thread.ofPlatform().name("reward-report-", 0).daemon(true).factory());
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("reward-report-sweeper").daemon(true).factory());
+        long period = Math.max(1, Math.min(properties.retention().toMillis(), Duration.ofMinutes(1).toMillis()));
+        sweeper.scheduleWithFixedDelay(() -> removeExpired(Instant.now()), period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public ReportJobDTO start(LocalDate from, LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new InvalidDateRangeException(from, to);
+        }
+        String id = UUID.randomUUID().toString();
+        List<long[]> ranges = split(customerRepository.findIdRange(),
+                properties.parallelism() * properties.rangesPerWorker());
+        List<Path> parts = new ArrayList<>(ranges.size());
+        for (int i = 0; i < ranges.size(); i++) {
+            parts.add(directory.resolve(id + ".part" + i));
+        }
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        ReportJob job = new ReportJob(id, from, to, directory.resolve("rewards-" + id + ".ndjson.gz"), parts);
+        jobs.put(id, job);
+        log.info("Started rewards report — job={}, from={}, to={}, ranges={}", id, from, to, ranges.size());
+
+        CompletableFuture<?>[] tasks = new CompletableFuture<?>[ranges.size()];
+        for (int i = 0; i < ranges.size(); i++) {
+            long[] range = ranges.get(i);
+            Path part = parts.get(i);
+            tasks[i] = CompletableFuture.runAsync(() -> writeRange(job, range[0], range[1], part), workers);
+        }
+        CompletableFuture.allOf(tasks).whenCompleteAsync((ignored, failure) -> finish(job, failure), workers);
+        return job.toDto();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public ReportJobDTO status(String jobId) {
+        return job(jobId).toDto();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Path reportFile(String jobId) {
+        ReportJob job = job(jobId);
+        ReportJobDTO.Status status = job.status();
+        if (status != ReportJobDTO.Status.COMPLETED) {
+            throw new ReportNotReadyException(jobId, status);
+        }
+        return job.file();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public ReportJobDTO cancel(String jobId) {
+        ReportJob job = job(jobId);
+        if (job.requestCancel()) {
+            log.info("Cancelling rewards report — job={}", jobId);
+            return job.toDto();
+        }
+        jobs.remove(jobId);
+        deleteQuietly(job.file());
+        return job.toDto();
+    }
+
+    /** Stops the workers and the sweep on shutdown; running jobs are left unfinished. */
+    @Override
+    public void destroy() {
+        sweeper.shutdownNow();
+        jobs.values().forEach(ReportJob::requestCancel);
+        workers.shutdownNow();
+    }
+
+    /** Forgets the jobs that finished more than the retention before {@code now} and deletes their report files. */
+    void removeExpired(Instant now) {
+        Instant cutoff = now.minus(properties.retention());
+        try {
+            jobs.values().forEach(job -> {
+                Instant finishedAt = job.finishedAt();
+                if (finishedAt != null && finishedAt.isBefore(cutoff) && jobs.remove(job.id(), job)) {
+                    deleteQuietly(job.file());
+                    log.info("Removed expired rewards report — job={}, finishedAt={}", job.id(), finishedAt);
+                }
+            });
+        } catch (RuntimeException ex) {
+            // an exception would cancel the scheduled sweep
+            log.warn("Could not remove expired rewards reports", ex);
+        }
+    }
+
+    private ReportJob job(String jobId) {
+        ReportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new ReportJobNotFoundException(jobId);
+        }
+        return job;
+    }
+
+    /** Writes the summaries of the customers with IDs in [first, last] to the part file. */
+    private void writeRange(ReportJob job, long first, long last, Path part) {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(part), GZIP_BUFFER_SIZE), StandardCharsets.UTF_8))) {
+            long after = first - 1;
+            while (!job.isCancelRequested()) {
+                List<Long> ids = customerRepository.findIdsBetween(after, last, Limit.of(properties.chunkSize()));
+                if (ids.isEmpty()) {
+                    break;
+                }
+                List<CustomerRewardSummaryDTO> summaries =
+                        rewardService.getRewardsForCustomers(ids, job.from(), job.to()).content();
+                for (CustomerRewardSummaryDTO summary : summaries) {
+                    writer.write(jsonMapper.writeValueAsString(summary));
+                    writer.write('\n');
+                }
+                job.addRows(summaries.size());
+                after = ids.get(ids.size() - 1);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        job.rangeCompleted();
+    }
+
+    /** Appends the parts to the report file once every range is done, or cleans up after a cancel or failure. */
+    private void finish(ReportJob job, Throwable failure) {
+        try {
+            if (job.isCancelRequested()) {
+                job.cancelled();
+            } else if (failure != null) {
+                Throwable cause = failure.getCause() != null ? failure.getCause() : failure;
+                log.warn("Rewards report failed — job={}", job.id(), cause);
+                job.failed(cause.toString());
+            } else {
+                concatenate(job.parts(), job.file());
+                if (!job.complete()) {
+                    deleteQuietly(job.file());
+                }
+            }
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Rewards report failed — job={}", job.id(), ex);
+            job.failed(ex.toString());
+            deleteQuietly(job.file());
+        } finally {
+            job.parts().forEach(ReportJobServiceImpl::deleteQuietly);
+        }
+        ReportJobDTO result = job.toDto();
+        log.info("Finished rewards report — job={}, status={}, rows={}, rowsPerSecond={}",
+                job.id(), result.status(), result.rowsWritten(), Math.round(result.rowsPerSecond()));
+    }
+
+    private static void concatenate(List<Path> parts, Path file) throws IOException {
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            for (Path part : parts) {
+                try (FileChannel in = FileChannel.open(part, StandardOpenOption.READ)) {
+                    long size = in.size();
+                    for (long position = 0; position < size; ) {
+                        position += in.transferTo(position, size - position, out);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Splits [minId, maxId] into at most {@code count} contiguous ranges of equal width, as
+     * {first, last} pairs. Without customers, returns one empty range so the report is still a valid
+     * gzip file.
+     */
+    static List<long[]> split(IdRangeRow idRange, int count) {
+        if (idRange == null || idRange.minId() == null) {
+            return List.<long[]>of(new long[] {1, 0});
+        }
+        long min = idRange.minId();
+        long max = idRange.maxId();
+        long width = Math.max(1, Math.ceilDiv(max - min + 1, Math.max(1, count)));
+        List<long[]> ranges = new ArrayList<>();
+        for (long first = min; first <= max; first += width) {
+            ranges.add(new long[] {first, Math.min(max, first + width - 1)});
+        }
+        return ranges;
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ex) {
+            log.warn("Could not delete report file {}", path, ex);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.charter.rewardcalculator.service;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * The reward rule version that summaries and ETags report, and since when.
+ *
+ * <p>It trails the configured version ({@link RewardRuleSet#version()}) while stored points are
+ * being recalculated: responses keep the version of the last completed recalculation until every
+ * customer has been rewritten, and only then switch to the configured one.
+ */
+public class ReportedRuleVersion {
+
+    private record State(String version, Instant since) {
+    }
+
+    private volatile State state;
+
+    /** Creates the holder reporting the given version since the given time. */
+    public ReportedRuleVersion(String version, Instant since) {
+        this.state = new State(version, since);
+    }
+
+    /** Returns the reported rule version. */
+    public String version() {
+        return state.version();
+    }
+
+    /** Returns when the reported version last changed, to the second. */
+    public Instant since() {
+        return state.since();
+    }
+
+    /** Reports the given version from now on; does nothing if it is already reported. */
+    public void promote(String version) {
+        if (!state.version().equals(version)) {
+            state = new State(version, Instant.now().truncatedTo(ChronoUnit.SECONDS));
+        }
+    }
+}
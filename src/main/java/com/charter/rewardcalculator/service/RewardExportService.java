@@ -0,0 +1,23 @@
+package com.charter.rewardcalculator.service;
+
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+/** Service interface for streaming every customer's reward summary in a single pass. */
+public interface RewardExportService {
+
+    /** Output encodings supported by the export. */
+    enum Format {
+        /** One CustomerRewardSummaryDTO JSON object per line. */
+        NDJSON,
+        /** One row per customer-month with the customer's total repeated on each row. */
+        CSV
+    }
+
+    /**
+     * Writes the reward summary of every customer, in customer ID order, to the output stream. The
+     * summaries are produced from a forward-only cursor and flushed as they are completed, so memory
+     * use does not depend on the number of customers.
+     */
+    void exportSummaries(LocalDate from, LocalDate to, Format format, OutputStream out);
+}
@@ -0,0 +1,49 @@
+package com.charter.rewardcalculator.service;
+
+import com.charter.rewardcalculator.exception.InvalidDateRangeException;
+import com.charter.rewardcalculator.repository.CustomerRepository;
+import com.charter.rewardcalculator.repository.projection.TransactionExportRow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+/** Implementation of RewardExportService over a streaming customer/transaction cursor. */
+@Service
+public class RewardExportServiceImpl implements RewardExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(RewardExportServiceImpl.class);
+
+    private final CustomerRepository customerRepository;
+    private final JsonMapper jsonMapper;
+    private final ReportedRuleVersion ruleVersion;
+
+    /** Constructs the service with the customer repository, the JSON mapper and the reported rule version. */
+    public RewardExportServiceImpl(CustomerRepository customerRepository, JsonMapper jsonMapper,
+                                   ReportedRuleVersion ruleVersion) {
+        this.customerRepository = customerRepository;
+        this.jsonMapper = jsonMapper;
+        this.ruleVersion = ruleVersion;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportSummaries(LocalDate from, LocalDate to, Format format, OutputStream out) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new InvalidDateRangeException(from, to);
+        }
+        long started = System.nanoTime();
+        RewardSummaryStreamWriter writer = new RewardSummaryStreamWriter(jsonMapper, ruleVersion.version(), format);
+        try (Stream<TransactionExportRow> rows = customerRepository.streamExportRows(from, to)) {
+            long customers = writer.write(rows.iterator(), out);
+            log.info("Exported reward summaries — format={}, from={}, to={}, customers={}, elapsedMs={}",
+                    format, from, to, customers, (System.nanoTime() - started) / 1_000_000);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.charter.rewardcalculator.service;
+
+import com.charter.rewardcalculator.dto.LeaderboardDTO;
+
+import java.time.LocalDate;
+
+/** Service interface for ranking customers by reward points. */
+public interface RewardLeaderboardService {
+
+    /** Largest number of customers a leaderboard may hold. */
+    int MAX_SIZE = 1000;
+
+    /**
+     * Returns up to {@code n} customers with the most points within the optional inclusive date
+     * range, ordered by points descending and then customer ID. Customers without points are left
+     * out, so fewer than {@code n} entries may be returned.
+     */
+    LeaderboardDTO getTopCustomers(int n, LocalDate from, LocalDate to);
+}
@@ -0,0 +1,183 @@
+package com.charter.rewardcalculator.service;
+
+import com.charter.rewardcalculator.config.LeaderboardProperties;
+import com.charter.rewardcalculator.dto.LeaderboardDTO;
+import com.charter.rewardcalculator.dto.LeaderboardEntryDTO;
+import com.charter.rewardcalculator.exception.InvalidDateRangeException;
+import com.charter.rewardcalculator.model.CustomerMonthPoints;
+import com.charter.rewardcalculator.repository.CustomerMonthPointsRepository;
+import com.charter.rewardcalculator.repository.CustomerRepository;
+import com.charter.rewardcalculator.repository.TransactionRepository;
+import com.charter.rewardcalculator.repository.projection.CustomerNameRow;
+import com.charter.rewardcalculator.repository.projection.CustomerPointsRow;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of RewardLeaderboardService.
+ *
+ * <p>Any range is ranked by the database in one aggregated query ordered by points and limited to
+ * {@code n} rows: from the ledger when the range is made of whole months, otherwise from the
+ * transaction table. The current month and the last three months (the current month and the two
+ * before it) are also kept as {@link LeaderboardWindow}s, which a request for exactly that range is
+ * served from. Committed transaction changes mark their customers in the windows they fall in, and
+ * the windows move forward when the month changes.
+ */
+@Service
+public class RewardLeaderboardServiceImpl implements RewardLeaderboardService {
+
+    private static final LocalDate EARLIEST = LocalDate.of(1, 1, 1);
+    private static final LocalDate LATEST = LocalDate.of(9999, 12, 31);
+
+    private final CustomerRepository customerRepository;
+    private final CustomerMonthPointsRepository ledgerRepository;
+    private final TransactionRepository transactionRepository;
+    private final RewardMetrics metrics;
+    private final boolean precompute;
+    private final LeaderboardWindow.Loader loader = new LedgerLoader();
+    private volatile Windows windows;
+
+    /** Constructs the service with the repositories it ranks from, the reward meters and its settings. */
+    public RewardLeaderboardServiceImpl(CustomerRepository customerRepository,
+                                        CustomerMonthPointsRepository ledgerRepository,
+                                        TransactionRepository transactionRepository,
+                                        RewardMetrics metrics,
+                                        LeaderboardProperties properties) {
+        this.customerRepository = customerRepository;
+        this.ledgerRepository = ledgerRepository;
+        this.transactionRepository = transactionRepository;
+        this.metrics = metrics;
+        this.precompute = properties.precompute();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public LeaderboardDTO getTopCustomers(int n, LocalDate from, LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new InvalidDateRangeException(from, to);
+        }
+        LeaderboardWindow window = precompute ? currentWindows().matching(from, to) : null;
+        if (window != null) {
+            return metrics.top("precomputed").record(() -> toLeaderboard(from, to, window.top(n, loader)));
+        }
+        boolean wholeMonths = (from == null || from.getDayOfMonth() == 1)
+                && (to == null || to.getDayOfMonth() == to.lengthOfMonth());
+        if (wholeMonths) {
+            return metrics.top("ledger").record(() -> toLeaderboard(from, to, withNames(
+                    ledgerRepository.findTopCustomersByPoints(
+                            CustomerMonthPoints.yearMonthOf(from == null ? EARLIEST : from),
+                            CustomerMonthPoints.yearMonthOf(to == null ? LATEST : to),
+                            Limit.of(n)))));
+        }
+        return metrics.top("transactions").record(() -> toLeaderboard(from, to, withNames(
+                transactionRepository.findTopCustomersByPoints(
+                        from == null ? EARLIEST : from, to == null ? LATEST : to, Limit.of(n)))));
+    }
+
+    /** Marks the customers whose points changed in a precomputed window once the write has committed. */
+    @TransactionalEventListener
+    public void onTransactionsChanged(TransactionsChangedEvent event) {
+        Windows current = windows;
+        if (current == null) {
+            return;
+        }
+        for (TransactionsChangedEvent.PointsDelta delta : event.pointsDeltas()) {
+            int yearMonth = CustomerMonthPoints.yearMonthOf(delta.transactionDate());
+            for (LeaderboardWindow window : current.all()) {
+                if (window.covers(yearMonth)) {
+                    window.markChanged(delta.customerId());
+                }
+            }
+        }
+    }
+
+    /** Returns the windows of the current month, replacing them once the month has changed. */
+    private Windows currentWindows() {
+        YearMonth month = YearMonth.now();
+        Windows current = windows;
+        if (current == null || !current.month().equals(month)) {
+            synchronized (this) {
+                current = windows;
+                if (current == null || !current.month().equals(month)) {
+                    current = Windows.of(month);
+                    windows = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /** Attaches customer names to database-ranked rows, keeping their order. */
+    private List<LeaderboardWindow.CustomerPoints> withNames(List<CustomerPointsRow> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, String> names = customerRepository.findNamesByIdIn(
+                        rows.stream().map(CustomerPointsRow::customerId).toList()).stream()
+                .collect(Collectors.toMap(CustomerNameRow::id, CustomerNameRow::name));
+        return rows.stream()
+                .map(r -> new LeaderboardWindow.CustomerPoints(r.customerId(), names.get(r.customerId()), r.points()))
+                .toList();
+    }
+
+    private static LeaderboardDTO toLeaderboard(LocalDate from, LocalDate to,
+                                                List<LeaderboardWindow.CustomerPoints> ranked) {
+        List<LeaderboardEntryDTO> entries = new ArrayList<>(ranked.size());
+        for (LeaderboardWindow.CustomerPoints entry : ranked) {
+            entries.add(new LeaderboardEntryDTO(
+                    entries.size() + 1, entry.customerId(), entry.customerName(), entry.points()));
+        }
+        return new LeaderboardDTO(from, to, entries);
+    }
+
+    /** Loads window rankings from the ledger. */
+    private final class LedgerLoader implements LeaderboardWindow.Loader {
+
+        @Override
+        public List<LeaderboardWindow.CustomerPoints> top(int fromYearMonth, int toYearMonth, int limit) {
+            return withNames(ledgerRepository.findTopCustomersByPoints(fromYearMonth, toYearMonth, Limit.of(limit)));
+        }
+
+        @Override
+        public List<LeaderboardWindow.CustomerPoints> totals(int fromYearMonth, int toYearMonth,
+                                                             Collection<Long> customerIds) {
+            return withNames(ledgerRepository.sumPointsByCustomerIdIn(customerIds, fromYearMonth, toYearMonth));
+        }
+    }
+
+    /** The precomputed windows anchored at one month. */
+    private record Windows(YearMonth month, LeaderboardWindow currentMonth, LeaderboardWindow lastThreeMonths) {
+
+        static Windows of(YearMonth month) {
+            int current = CustomerMonthPoints.yearMonthOf(month.atDay(1));
+            int threeBack = CustomerMonthPoints.yearMonthOf(month.minusMonths(2).atDay(1));
+            return new Windows(month,
+                    new LeaderboardWindow(current, current, MAX_SIZE),
+                    new LeaderboardWindow(threeBack, current, MAX_SIZE));
+        }
+
+        List<LeaderboardWindow> all() {
+            return List.of(currentMonth, lastThreeMonths);
+        }
+
+        /** Returns the window whose range is exactly the given one, or null. */
+        LeaderboardWindow matching(LocalDate from, LocalDate to) {
+            if (from == null || to == null || !to.equals(month.atEndOfMonth())) {
+                return null;
+            }
+            if (from.equals(month.atDay(1))) {
+                return currentMonth;
+            }
+            return from.equals(month.minusMonths(2).atDay(1)) ? lastThreeMonths : null;
+        }
+    }
+}
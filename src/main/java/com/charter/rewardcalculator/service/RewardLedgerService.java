@@ -0,0 +1,41 @@
+package com.charter.rewardcalculator.service;
+
+import com.charter.rewardcalculator.model.Transaction;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+/** Service interface for maintaining the monthly points ledger (customer_month_points). */
+public interface RewardLedgerService {
+
+    /**
+     * Applies the effect of added and removed transactions to the ledger within the caller's
+     * database transaction, using the points stored on them. An update is recorded as the old state
+     * removed and the new state added.
+     * Publishes a {@link TransactionsChangedEvent} naming the affected customers and the net points
+     * change of each of their transaction days.
+     */
+    void recordChanges(Collection<Transaction> added, Collection<Transaction> removed);
+
+    /**
+     * Applies transactions that were inserted without JPA, given as totals per customer and day,
+     * within the caller's database transaction. Locks the affected customers like
+     * {@link #recordChanges}, so callers that insert rows afterwards cannot deadlock with other
+     * writers. Publishes the same {@link TransactionsChangedEvent}.
+     */
+    void recordInserted(Collection<DayTotal> totals);
+
+    /**
+     * Applies changes to the stored points of existing transactions, given as the net change per
+     * customer and day with a count of zero, within the caller's database transaction. Locks and
+     * publishes like {@link #recordInserted}.
+     */
+    void recordRecalculated(Collection<DayTotal> changes);
+
+    /** Recomputes the whole ledger from the transaction table and returns the number of rows written. */
+    long rebuild();
+
+    /** Points and number of transactions added to one customer's transaction day. */
+    record DayTotal(Long customerId, LocalDate transactionDate, long points, long count) {
+    }
+}
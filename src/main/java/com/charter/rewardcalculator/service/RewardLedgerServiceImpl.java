@@ -0,0 +1,197 @@
+package com.charter.rewardcalculator.service;
+
+import com.charter.rewardcalculator.config.LedgerProperties;
+import com.charter.rewardcalculator.model.CustomerMonthPoints;
+import com.charter.rewardcalculator.model.Transaction;
+import com.charter.rewardcalculator.repository.CustomerMonthPointsRepository;
+import com.charter.rewardcalculator.repository.CustomerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of RewardLedgerService.
+ *
+ * <p>Writers lock the affected customer rows before touching the ledger, so an update-then-insert
+ * upsert is safe without database-specific MERGE syntax. The rebuild takes the same locks one chunk
+ * of customers at a time, which keeps it consistent with concurrent writes.
+ */
+@Service
+public class RewardLedgerServiceImpl implements RewardLedgerService {
+
+    private static final Logger log = LoggerFactory.getLogger(RewardLedgerServiceImpl.class);
+
+    private final CustomerMonthPointsRepository ledgerRepository;
+    private final CustomerRepository customerRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final LedgerProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /** Constructs the service with its repositories, ledger settings and event publisher. */
+    public RewardLedgerServiceImpl(CustomerMonthPointsRepository ledgerRepository,
+                                   CustomerRepository customerRepository,
+                                   TransactionTemplate transactionTemplate,
+                                   LedgerProperties properties,
+                                   ApplicationEventPublisher eventPublisher) {
+        this.ledgerRepository = ledgerRepository;
+        this.customerRepository = customerRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordChanges(Collection<Transaction> added, Collection<Transaction> removed) {
+        Map<MonthKey, long[]> deltas = new TreeMap<>(
+                Comparator.comparing(MonthKey::customerId).thenComparingInt(MonthKey::yearMonth));
+        Map<DayKey, long[]> dayDeltas = new LinkedHashMap<>();
+        for (Transaction tx : added) {
+            long points = tx.getPoints();
+            long[] delta = deltas.computeIfAbsent(MonthKey.of(tx), k -> new long[2]);
+            delta[0] += points;
+            delta[1]++;
+            long[] day = dayDeltas.computeIfAbsent(DayKey.of(tx), k -> new long[2]);
+            day[0] += points;
+            day[1]++;
+        }
+        for (Transaction tx : removed) {
+            long points = tx.getPoints();
+            long[] delta = deltas.computeIfAbsent(MonthKey.of(tx), k -> new long[2]);
+            delta[0] -= points;
+            delta[1]--;
+            long[] day = dayDeltas.computeIfAbsent(DayKey.of(tx), k -> new long[2]);
+            day[0] -= points;
+            day[1]--;
+        }
+        apply(deltas, dayDeltas);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordInserted(Collection<DayTotal> totals) {
+        applyDayTotals(totals);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordRecalculated(Collection<DayTotal> changes) {
+        applyDayTotals(changes);
+    }
+
+    private void applyDayTotals(Collection<DayTotal> totals) {
+        Map<MonthKey, long[]> deltas = new TreeMap<>(
+                Comparator.comparing(MonthKey::customerId).thenComparingInt(MonthKey::yearMonth));
+        Map<DayKey, long[]> dayDeltas = new LinkedHashMap<>();
+        for (DayTotal total : totals) {
+            long[] delta = deltas.computeIfAbsent(
+                    new MonthKey(total.customerId(), CustomerMonthPoints.yearMonthOf(total.transactionDate())),
+                    k -> new long[2]);
+            delta[0] += total.points();
+            delta[1] += total.count();
+            long[] day = dayDeltas.computeIfAbsent(
+                    new DayKey(total.customerId(), total.transactionDate()), k -> new long[2]);
+            day[0] += total.points();
+            day[1] += total.count();
+        }
+        apply(deltas, dayDeltas);
+    }
+
+    /**
+     * Publishes the change event, then locks the affected customers, bumps their points version and
+     * writes the month deltas. The version is bumped even when no month total changes, because a
+     * date-bounded summary may still differ.
+     */
+    private void apply(Map<MonthKey, long[]> deltas, Map<DayKey, long[]> dayDeltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        Set<Long> changedCustomers = deltas.keySet().stream().map(MonthKey::customerId).collect(Collectors.toSet());
+        List<TransactionsChangedEvent.PointsDelta> pointsDeltas = dayDeltas.entrySet().stream()
+                .filter(e -> e.getValue()[0] != 0 || e.getValue()[1] != 0)
+                .map(e -> new TransactionsChangedEvent.PointsDelta(
+                        e.getKey().customerId(), e.getKey().transactionDate(), e.getValue()[0], e.getValue()[1]))
+                .toList();
+        eventPublisher.publishEvent(new TransactionsChangedEvent(changedCustomers, pointsDeltas));
+
+        List<Long> lockOrder = changedCustomers.stream().sorted().toList();
+        customerRepository.findAllByIdInOrderByIdAsc(lockOrder);
+        customerRepository.bumpPointsVersion(lockOrder, Instant.now());
+        deltas.values().removeIf(d -> d[0] == 0 && d[1] == 0);
+        deltas.forEach((key, delta) -> {
+            int updated = ledgerRepository.addToMonth(key.customerId(), key.yearMonth(), delta[0], delta[1]);
+            if (updated == 0) {
+                ledgerRepository.insertMonth(key.customerId(), key.yearMonth(), delta[0], delta[1]);
+            } else if (delta[1] < 0) {
+                ledgerRepository.deleteIfEmpty(key.customerId(), key.yearMonth());
+            }
+        });
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long rebuild() {
+        long rows = 0;
+        long customers = 0;
+        Long after = 0L;
+        List<Long> ids;
+        while (!(ids = customerRepository.findIdsAfter(after, Limit.of(properties.rebuildChunkSize()))).isEmpty()) {
+            List<Long> chunk = ids;
+            Integer written = transactionTemplate.execute(status -> {
+                customerRepository.findAllByIdInOrderByIdAsc(chunk);
+                ledgerRepository.deleteByCustomerIdIn(chunk);
+                return ledgerRepository.insertFromTransactions(chunk);
+            });
+            rows += written == null ? 0 : written;
+            customers += chunk.size();
+            after = chunk.get(chunk.size() - 1);
+        }
+        log.info("Rebuilt monthly points ledger — customers={}, rows={}", customers, rows);
+        return rows;
+    }
+
+    /** Rebuilds the ledger once the application is ready, if enabled. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (properties.rebuildOnStartup()) {
+            rebuild();
+        }
+    }
+
+    /** Ledger row identity used to accumulate deltas before they are written. */
+    private record MonthKey(Long customerId, int yearMonth) {
+
+        static MonthKey of(Transaction tx) {
+            return new MonthKey(tx.getCustomer().getId(), CustomerMonthPoints.yearMonthOf(tx.getTransactionDate()));
+        }
+    }
+
+    /** Customer and transaction day whose points and transaction count change is published with the event. */
+    private record DayKey(Long customerId, LocalDate transactionDate) {
+
+        static DayKey of(Transaction tx) {
+            return new DayKey(tx.getCustomer().getId(), tx.getTransactionDate());
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.charter.rewardcalculator.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Micrometer meters for the reward read paths, registered once so recording them costs no lookup.
+ *
+ * <p>Timers publish percentile histograms, so p95/p99 can be aggregated across instances from the
+ * Prometheus buckets. The points query timer is tagged with the data source ({@code ledger} or
+ * {@code transactions}) and which date bounds were given ({@code none}, {@code between},
+ * {@code from} or {@code to}). The leaderboard timer is tagged with where the ranking came from
+ * ({@code precomputed}, {@code ledger} or {@code transactions}).
+ */
+@Component
+public class RewardMetrics {
+
+    private static final String[] BOUNDS = {"none", "between", "from", "to"};
+    private static final String[] TOP_SOURCES = {"precomputed", "ledger", "transactions"};
+
+    private final Timer pagedTimer;
+    private final Timer sliceTimer;
+    private final Timer batchTimer;
+    private final Timer customerTimer;
+    private final Timer totalTimer;
+    private final Timer summaryTimer;
+    private final Timer[] ledgerQueryTimers = new Timer[BOUNDS.length];
+    private final Timer[] transactionQueryTimers = new Timer[BOUNDS.length];
+    private final Map<String, Timer> topTimers = new HashMap<>();
+    private final DistributionSummary pageSize;
+    private final DistributionSummary monthsPerCustomer;
+
+    /** Registers the reward meters with the given registry. */
+    public RewardMetrics(MeterRegistry registry) {
+        this.pagedTimer = timer("rewards.paged", "Time to build a page of reward summaries", registry);
+        this.sliceTimer = timer("rewards.slice", "Time to build a cursor slice of reward summaries", registry);
+        this.batchTimer = timer("rewards.batch", "Time to build the summaries of a batch of customers", registry);
+        this.customerTimer = timer("rewards.customer", "Time to build a single customer's reward summary", registry);
+        this.totalTimer = timer("rewards.customer.total", "Time to answer a customer's total points", registry);
+        this.summaryTimer = timer("rewards.summary.build", "Time to build one summary from monthly points", registry);
+        for (int i = 0; i < BOUNDS.length; i++) {
+            ledgerQueryTimers[i] = pointsQueryTimer("ledger", BOUNDS[i], registry);
+            transactionQueryTimers[i] = pointsQueryTimer("transactions", BOUNDS[i], registry);
+        }
+        for (String source : TOP_SOURCES) {
+            topTimers.put(source, Timer.builder("rewards.top")
+                    .description("Time to rank the customers with the most points")
+                    .tag("source", source)
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+        this.pageSize = DistributionSummary.builder("rewards.page.customers")
+                .description("Customers per page or slice of reward summaries")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.monthsPerCustomer = DistributionSummary.builder("rewards.customer.months")
+                .description("Months with points in a customer's reward summary")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    /** Times building a page of summaries. */
+    public Timer paged() {
+        return pagedTimer;
+    }
+
+    /** Times building a cursor slice of summaries. */
+    public Timer slice() {
+        return sliceTimer;
+    }
+
+    /** Times building the summaries of a batch of requested customers. */
+    public Timer batch() {
+        return batchTimer;
+    }
+
+    /** Times building a single customer's summary. */
+    public Timer customer() {
+        return customerTimer;
+    }
+
+    /** Times answering a customer's total points from the cumulative points index. */
+    public Timer total() {
+        return totalTimer;
+    }
+
+    /** Times building one summary from rows already fetched. */
+    public Timer summary() {
+        return summaryTimer;
+    }
+
+    /** Times the monthly points query for the source and date bounds the request resolved to. */
+    public Timer pointsQuery(boolean ledger, LocalDate from, LocalDate to) {
+        int bounds = from == null ? (to == null ? 0 : 3) : (to == null ? 2 : 1);
+        return ledger ? ledgerQueryTimers[bounds] : transactionQueryTimers[bounds];
+    }
+
+    /** Times a leaderboard request served from the given source. */
+    public Timer top(String source) {
+        return topTimers.get(source);
+    }
+
+    /** Records the number of customers on a page or slice. */
+    public void recordPageSize(int customers) {
+        pageSize.record(customers);
+    }
+
+    /** Records the number of months in one customer's summary. */
+    public void recordMonths(int months) {
+        monthsPerCustomer.record(months);
+    }
+
+    private static Timer timer(String name, String description, MeterRegistry registry) {
+        return Timer.builder(name)
+                .description(description)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private static Timer pointsQueryTimer(String source, String bounds, MeterRegistry registry) {
+        return Timer.builder("rewards.points.query")
+                .description("Time to fetch monthly points for a set of customers")
+                .tag("source", source)
+                .tag("bounds", bounds)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
@@ -0,0 +1,254 @@
+package com.charter.rewardcalculator.service;
+
+import com.charter.rewardcalculator.config.RewardRuleProperties;
+import com.charter.rewardcalculator.model.Transaction;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Reward rules compiled from {@link RewardRuleProperties} into flat arrays, evaluated without
+ * walking the configured rules.
+ *
+ * <p>Tiers form a piecewise-linear curve of points over whole dollars. It is stored as a dense
+ * table of points per dollar up to the last threshold, followed by the last tier's slope. A
+ * transaction costs one clamped table lookup and one multiply-add, however many tiers are
+ * configured. A curve whose last threshold is above {@value #DENSE_TIER_LIMIT} dollars keeps only
+ * the sorted breakpoints and is searched instead. Promotions are stored as a percentage per day,
+ * from the first promotion day to the last, so a transaction's multiplier is one bounds check and
+ * one array read.
+ *
+ * <p>Writers store each transaction's points with {@link #assignPoints}. {@link #sqlPattern()}
+ * renders the same rules as a SQL expression, registered as the {@code reward_points} function that
+ * the points recalculation applies to stored rows. The Java and SQL forms give the same points for
+ * every amount and date.
+ */
+public final class RewardRuleSet {
+
+    /** Hibernate setting under which the application hands its compiled rules to the SQL function. */
+    public static final String HIBERNATE_SETTING = "rewards.rules.compiled";
+
+    static final int DENSE_TIER_LIMIT = 1 << 16;
+    private static final int MAX_PROMOTION_SPAN_DAYS = 36_525;
+    private static final Pattern VERSION = Pattern.compile("[A-Za-z0-9._-]{1,32}");
+    private static final List<RewardRuleProperties.Tier> DEFAULT_TIERS = List.of(
+            new RewardRuleProperties.Tier(50, 1),
+            new RewardRuleProperties.Tier(100, 2));
+
+    private final String version;
+    private final Instant compiledAt;
+    private final long[] thresholds;
+    private final long[] rates;
+    private final long[] basePoints;
+    private final long[] pointsByDollar;
+    private final long lastThreshold;
+    private final long tailRate;
+    private final long[] promotionFrom;
+    private final long[] promotionTo;
+    private final int[] promotionPercent;
+    private final long firstPromotionDay;
+    private final int[] percentByDay;
+
+    private RewardRuleSet(String version, Instant compiledAt, long[] thresholds, long[] rates,
+                          long[] promotionFrom, long[] promotionTo, int[] promotionPercent) {
+        this.version = version;
+        this.compiledAt = compiledAt;
+        this.thresholds = thresholds;
+        this.rates = rates;
+        this.basePoints = new long[thresholds.length];
+        for (int i = 1; i < thresholds.length; i++) {
+            basePoints[i] = basePoints[i - 1] + rates[i - 1] * (thresholds[i] - thresholds[i - 1]);
+        }
+        this.lastThreshold = thresholds.length == 0 ? 0 : thresholds[thresholds.length - 1];
+        this.tailRate = thresholds.length == 0 ? 0 : rates[rates.length - 1];
+        this.pointsByDollar = lastThreshold <= DENSE_TIER_LIMIT ? tabulate() : null;
+
+        this.promotionFrom = promotionFrom;
+        this.promotionTo = promotionTo;
+        this.promotionPercent = promotionPercent;
+        if (promotionFrom.length == 0) {
+            this.firstPromotionDay = 0;
+            this.percentByDay = new int[0];
+        } else {
+            this.firstPromotionDay = promotionFrom[0];
+            this.percentByDay = new int[(int) (promotionTo[promotionTo.length - 1] - firstPromotionDay + 1)];
+            Arrays.fill(percentByDay, 100);
+            for (int p = 0; p < promotionFrom.length; p++) {
+                Arrays.fill(percentByDay, (int) (promotionFrom[p] - firstPromotionDay),
+                        (int) (promotionTo[p] - firstPromotionDay + 1), promotionPercent[p]);
+            }
+        }
+    }
+
+    /** Returns the original rules: 1 point per dollar over $50 and 2 points per dollar over $100, version "1". */
+    public static RewardRuleSet defaults() {
+        return compile(new RewardRuleProperties("1", null, null), Instant.EPOCH);
+    }
+
+    /**
+     * Validates and compiles the configured rules.
+     *
+     * @throws IllegalArgumentException if the version is not a short token, the tiers are not in
+     *                                  strictly increasing order of non-negative thresholds with
+     *                                  non-negative rates, or a promotion is malformed or overlaps another
+     */
+    public static RewardRuleSet compile(RewardRuleProperties properties, Instant compiledAt) {
+        String version = properties.version();
+        if (version == null || !VERSION.matcher(version).matches()) {
+            throw new IllegalArgumentException(
+                    "Reward rule version must be 1-32 letters, digits, '.', '_' or '-': " + version);
+        }
+        List<RewardRuleProperties.Tier> tiers =
+                properties.tiers() == null || properties.tiers().isEmpty() ? DEFAULT_TIERS : properties.tiers();
+        long[] thresholds = new long[tiers.size()];
+        long[] rates = new long[tiers.size()];
+        for (int i = 0; i < tiers.size(); i++) {
+            RewardRuleProperties.Tier tier = tiers.get(i);
+            if (tier.threshold() < 0 || tier.rate() < 0) {
+                throw new IllegalArgumentException("Reward tier threshold and rate must not be negative: " + tier);
+            }
+            if (i > 0 && tier.threshold() <= thresholds[i - 1]) {
+                throw new IllegalArgumentException(
+                        "Reward tier thresholds must be strictly increasing: " + tier.threshold()
+                                + " follows " + thresholds[i - 1]);
+            }
+            thresholds[i] = tier.threshold();
+            rates[i] = tier.rate();
+        }
+
+        List<RewardRuleProperties.Promotion> promotions = new ArrayList<>(
+                properties.promotions() == null ? List.of() : properties.promotions());
+        for (int p = 0; p < promotions.size(); p++) {
+            validate(promotions.get(p), p);
+        }
+        promotions.sort(Comparator.comparing(RewardRuleProperties.Promotion::from));
+        long[] from = new long[promotions.size()];
+        long[] to = new long[promotions.size()];
+        int[] percent = new int[promotions.size()];
+        for (int p = 0; p < promotions.size(); p++) {
+            RewardRuleProperties.Promotion promotion = promotions.get(p);
+            from[p] = promotion.from().toEpochDay();
+            to[p] = promotion.to().toEpochDay();
+            percent[p] = promotion.multiplier().movePointRight(2).intValueExact();
+            if (p > 0 && from[p] <= to[p - 1]) {
+                throw new IllegalArgumentException("Reward promotions must not overlap: "
+                        + promotions.get(p - 1).name() + " and " + promotion.name());
+            }
+        }
+        if (!promotions.isEmpty() && to[to.length - 1] - from[0] >= MAX_PROMOTION_SPAN_DAYS) {
+            throw new IllegalArgumentException(
+                    "Reward promotions must fall within " + MAX_PROMOTION_SPAN_DAYS + " days of each other");
+        }
+        return new RewardRuleSet(version, compiledAt.truncatedTo(ChronoUnit.SECONDS),
+                thresholds, rates, from, to, percent);
+    }
+
+    private static void validate(RewardRuleProperties.Promotion promotion, int index) {
+        String name = promotion.name() != null ? promotion.name() : "#" + index;
+        if (promotion.from() == null || promotion.to() == null || promotion.from().isAfter(promotion.to())) {
+            throw new IllegalArgumentException("Reward promotion " + name + " needs from on or before to");
+        }
+        BigDecimal multiplier = promotion.multiplier();
+        if (multiplier == null || multiplier.signum() < 0 || multiplier.stripTrailingZeros().scale() > 2
+                || multiplier.compareTo(BigDecimal.valueOf(1000)) > 0) {
+            throw new IllegalArgumentException(
+                    "Reward promotion " + name + " needs a multiplier from 0 to 1000 with at most two decimals");
+        }
+    }
+
+    /** Returns the label of this rule set. */
+    public String version() {
+        return version;
+    }
+
+    /** Returns when the rules were compiled, to the second. */
+    public Instant compiledAt() {
+        return compiledAt;
+    }
+
+    /** Returns the points of an amount on the given date; a null date applies no promotion. */
+    public long points(BigDecimal amount, LocalDate date) {
+        long cents = amount.movePointRight(2).longValue();
+        return date == null ? pointsForCents(cents) : pointsForCents(cents, date.toEpochDay());
+    }
+
+    /** Stores the points of the transaction's amount and date on it, with the version of these rules. */
+    public void assignPoints(Transaction tx) {
+        tx.setPoints(points(tx.getAmount(), tx.getTransactionDate()));
+        tx.setPointsRuleVersion(version);
+    }
+
+    /** Returns the points of an amount in cents, before any promotion. */
+    public long pointsForCents(long amountCents) {
+        long dollars = Math.max(amountCents / 100, 0);
+        if (pointsByDollar != null) {
+            long clamped = Math.min(dollars, lastThreshold);
+            return pointsByDollar[(int) clamped] + tailRate * (dollars - clamped);
+        }
+        int found = Arrays.binarySearch(thresholds, dollars);
+        int tier = found >= 0 ? found - 1 : -found - 2;
+        return tier < 0 ? 0 : basePoints[tier] + rates[tier] * (dollars - thresholds[tier]);
+    }
+
+    /** Returns the points of an amount in cents on the given epoch day, promotions included. */
+    public long pointsForCents(long amountCents, long epochDay) {
+        long points = pointsForCents(amountCents);
+        if (percentByDay.length == 0) {
+            return points;
+        }
+        long offset = epochDay - firstPromotionDay;
+        int percent = offset >= 0 && offset < percentByDay.length ? percentByDay[(int) offset] : 100;
+        return points * percent / 100;
+    }
+
+    /**
+     * Renders the rules as a SQL expression over an amount {@code ?1} and a date {@code ?2}, using only
+     * syntax shared by PostgreSQL and H2.
+     */
+    public String sqlPattern() {
+        StringBuilder sql = new StringBuilder("(case");
+        for (int i = thresholds.length - 1; i >= 0; i--) {
+            sql.append(" when cast(floor(?1) as bigint) > ").append(thresholds[i])
+                    .append(" then ").append(basePoints[i])
+                    .append(" + ").append(rates[i])
+                    .append(" * (cast(floor(?1) as bigint) - ").append(thresholds[i]).append(')');
+        }
+        sql.append(" else 0 end)");
+        if (promotionFrom.length == 0) {
+            return sql.toString();
+        }
+        sql.insert(0, '(').append(" * (case");
+        for (int p = 0; p < promotionFrom.length; p++) {
+            sql.append(" when ?2 between date '").append(LocalDate.ofEpochDay(promotionFrom[p]))
+                    .append("' and date '").append(LocalDate.ofEpochDay(promotionTo[p]))
+                    .append("' then ").append(promotionPercent[p]);
+        }
+        return sql.append(" else 100 end) / 100)").toString();
+    }
+
+    /** Returns the version and the number of tiers and promotions. */
+    @Override
+    public String toString() {
+        return "RewardRuleSet[version=" + version + ", tiers=" + thresholds.length
+                + ", promotions=" + promotionFrom.length + "]";
+    }
+
+    /** Returns the points of every whole dollar amount up to the last threshold. */
+    private long[] tabulate() {
+        long[] table = new long[(int) lastThreshold + 1];
+        for (int i = 0; i < thresholds.length; i++) {
+            long end = i + 1 < thresholds.length ? thresholds[i + 1] : lastThreshold;
+            for (long d = thresholds[i] + 1; d <= end; d++) {
+                table[(int) d] = basePoints[i] + rates[i] * (d - thresholds[i]);
+            }
+        }
+        return table;
+    }
+}
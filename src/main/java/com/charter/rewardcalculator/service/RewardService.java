@@ -1,11 +1,14 @@
 package com.charter.rewardcalculator.service;
 
+import com.charter.rewardcalculator.dto.BatchRewardSummaryDTO;
 import com.charter.rewardcalculator.dto.CustomerRewardSummaryDTO;
 import com.charter.rewardcalculator.dto.PagedRewardSummaryDTO;
+import com.charter.rewardcalculator.dto.RewardSummarySliceDTO;
 import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
 
 /** Service interface for computing customer reward summaries. */
 public interface RewardService {
@@ -13,12 +16,31 @@ public interface RewardService {
     /** Returns paginated reward summaries for all customers, filtered by optional date range. */
     PagedRewardSummaryDTO getRewardsPaged(Pageable pageable, LocalDate from, LocalDate to);
 
+    /**
+     * Returns up to {@code size} reward summaries for customers after the given cursor, in ID order,
+     * without counting the total. A null cursor starts from the first customer.
+     */
+    RewardSummarySliceDTO getRewardsAfter(String cursor, int size, LocalDate from, LocalDate to);
+
     /** Returns the reward summary for a single customer, filtered by optional date range. */
     CustomerRewardSummaryDTO getRewardsForCustomer(Long customerId, LocalDate from, LocalDate to);
 
     /**
-     * Calculates reward points for a transaction amount (cents truncated).
+     * Returns the reward summaries of the given customers, filtered by optional date range, with all
+     * customers resolved in one query and all their points in one more. IDs that match no customer
+     * are listed in {@code notFound} rather than failing the request.
+     */
+    BatchRewardSummaryDTO getRewardsForCustomers(List<Long> customerIds, LocalDate from, LocalDate to);
+
+    /**
+     * Calculates reward points for a transaction amount (cents truncated) on the given date, with the
+     * configured {@link RewardRuleSet}. A null date applies no promotion. With the default rules,
      * $0-$50 = 0 pts, $50-$100 = 1 pt/dollar over $50, over $100 = 50 pts + 2 pts/dollar over $100.
      */
-    long calculatePoints(BigDecimal amount);
+    long calculatePoints(BigDecimal amount, LocalDate date);
+
+    /** Calculates reward points for a transaction amount outside any promotion. */
+    default long calculatePoints(BigDecimal amount) {
+        return calculatePoints(amount, null);
+    }
 }
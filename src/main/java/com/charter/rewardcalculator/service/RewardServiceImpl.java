@@ -1,16 +1,21 @@
 package com.charter.rewardcalculator.service;
 
+import com.charter.rewardcalculator.dto.BatchRewardSummaryDTO;
 import com.charter.rewardcalculator.dto.CustomerRewardSummaryDTO;
 import com.charter.rewardcalculator.dto.MonthlyRewardDTO;
 import com.charter.rewardcalculator.dto.PagedRewardSummaryDTO;
+import com.charter.rewardcalculator.dto.RewardSummarySliceDTO;
 import com.charter.rewardcalculator.exception.CustomerNotFoundException;
 import com.charter.rewardcalculator.exception.InvalidDateRangeException;
-import com.charter.rewardcalculator.model.Customer;
-import com.charter.rewardcalculator.model.Transaction;
+import com.charter.rewardcalculator.model.CustomerMonthPoints;
+import com.charter.rewardcalculator.repository.CustomerMonthPointsRepository;
 import com.charter.rewardcalculator.repository.CustomerRepository;
 import com.charter.rewardcalculator.repository.TransactionRepository;
+import com.charter.rewardcalculator.repository.projection.CustomerNameRow;
+import com.charter.rewardcalculator.repository.projection.MonthlyPointsProjection;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -18,40 +23,78 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.YearMonth;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
-/** Implementation of RewardService that computes reward summaries from DB data. */
+/**
+ * Implementation of RewardService that computes reward summaries from DB data.
+ *
+ * <p>Points are summed per customer and month by the database (see {@link TransactionRepository}),
+ * or read from the monthly points ledger when the requested range is made of whole months. Both
+ * hold points stored under the same {@link RewardRuleSet} as
+ * {@link #calculatePoints(BigDecimal, LocalDate)}, and summaries carry the
+ * {@link ReportedRuleVersion}.
+ */
 @Service
 public class RewardServiceImpl implements RewardService {
 
     private static final Logger log = LoggerFactory.getLogger(RewardServiceImpl.class);
 
-    private static final long LOWER_THRESHOLD = 50L;
-    private static final long UPPER_THRESHOLD = 100L;
-
     private final CustomerRepository customerRepository;
     private final TransactionRepository transactionRepository;
+    private final CustomerMonthPointsRepository ledgerRepository;
+    private final FanOutQueryExecutor fanOut;
+    private final RewardMetrics metrics;
+    private final RewardRuleSet rules;
+    private final ReportedRuleVersion ruleVersion;
 
-    /** Constructs the service with customer and transaction repositories. */
+    /**
+     * Constructs the service with customer, transaction and ledger repositories, the chunk query
+     * executor, the reward meters, the reward rules and the reported rule version.
+     */
     public RewardServiceImpl(CustomerRepository customerRepository,
-                             TransactionRepository transactionRepository) {
+                             TransactionRepository transactionRepository,
+                             CustomerMonthPointsRepository ledgerRepository,
+                             FanOutQueryExecutor fanOut,
+                             RewardMetrics metrics,
+                             RewardRuleSet rules,
+                             ReportedRuleVersion ruleVersion) {
         this.customerRepository = customerRepository;
         this.transactionRepository = transactionRepository;
+        this.ledgerRepository = ledgerRepository;
+        this.fanOut = fanOut;
+        this.metrics = metrics;
+        this.rules = rules;
+        this.ruleVersion = ruleVersion;
     }
 
-    /** {@inheritDoc} */
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Not transactional: the customer page and the points query each run in their own read-only
+     * transaction, so no connection is held while points chunks wait for one.
+     */
     @Override
-    @Transactional(readOnly = true)
     public PagedRewardSummaryDTO getRewardsPaged(Pageable pageable, LocalDate from, LocalDate to) {
-        Page<Customer> customerPage = customerRepository.findAll(pageable);
-        log.info("Fetching paged rewards — page={}, size={}, from={}, to={}",
+        return metrics.paged().record(() -> buildPage(pageable, from, to));
+    }
+
+    /** Loads the customer page and builds a summary for each customer on it, in page order. */
+    private PagedRewardSummaryDTO buildPage(Pageable pageable, LocalDate from, LocalDate to) {
+        Page<CustomerNameRow> customerPage = customerRepository.findNames(pageable);
+        metrics.recordPageSize(customerPage.getNumberOfElements());
+        log.debug("Fetching paged rewards — page={}, size={}, from={}, to={}",
                 pageable.getPageNumber(), pageable.getPageSize(), from, to);
 
+        List<Long> customerIds = customerPage.getContent().stream().map(CustomerNameRow::id).toList();
+        Map<Long, List<MonthlyPointsProjection>> pointsByCustomer = fetchMonthlyPoints(customerIds, from, to);
+
         List<CustomerRewardSummaryDTO> content = customerPage.getContent().stream()
-                .map(c -> buildSummary(c, fetchTransactions(c.getId(), from, to)))
+                .map(c -> buildSummary(c, pointsByCustomer.getOrDefault(c.id(), List.of())))
                 .toList();
 
         return new PagedRewardSummaryDTO(
@@ -63,58 +106,147 @@ public class RewardServiceImpl implements RewardService {
                 customerPage.isLast());
     }
 
+    /** {@inheritDoc} Not transactional, for the same reason as {@link #getRewardsPaged}. */
+    @Override
+    public RewardSummarySliceDTO getRewardsAfter(String cursor, int size, LocalDate from, LocalDate to) {
+        long after = CustomerCursor.decode(cursor);
+        return metrics.slice().record(() -> buildSlice(after, size, from, to));
+    }
+
+    /** Loads the customers after the cursor position and builds a summary for each, in ID order. */
+    private RewardSummarySliceDTO buildSlice(long after, int size, LocalDate from, LocalDate to) {
+        log.debug("Fetching reward slice — after={}, size={}, from={}, to={}", after, size, from, to);
+
+        // One extra row tells whether another slice follows, without a count query.
+        List<CustomerNameRow> customers = customerRepository.findNamesAfter(after, Limit.of(size + 1));
+        boolean last = customers.size() <= size;
+        List<CustomerNameRow> slice = last ? customers : customers.subList(0, size);
+        metrics.recordPageSize(slice.size());
+
+        List<Long> customerIds = slice.stream().map(CustomerNameRow::id).toList();
+        Map<Long, List<MonthlyPointsProjection>> pointsByCustomer = fetchMonthlyPoints(customerIds, from, to);
+
+        List<CustomerRewardSummaryDTO> content = slice.stream()
+                .map(c -> buildSummary(c, pointsByCustomer.getOrDefault(c.id(), List.of())))
+                .toList();
+        String nextCursor = last ? null : CustomerCursor.encode(slice.get(slice.size() - 1).id());
+        return new RewardSummarySliceDTO(content, size, nextCursor, last);
+    }
+
     /** {@inheritDoc} */
     @Override
     @Transactional(readOnly = true)
     public CustomerRewardSummaryDTO getRewardsForCustomer(Long customerId, LocalDate from, LocalDate to) {
-        log.info("Fetching reward summary for customerId={}, from={}, to={}", customerId, from, to);
-        Customer customer = customerRepository.findById(customerId)
-                .orElseThrow(() -> new CustomerNotFoundException(customerId));
-        return buildSummary(customer, fetchTransactions(customerId, from, to));
+        return metrics.customer().record(() -> {
+            log.debug("Fetching reward summary for customerId={}, from={}, to={}", customerId, from, to);
+            CustomerNameRow customer = customerRepository.findNameById(customerId)
+                    .orElseThrow(() -> new CustomerNotFoundException(customerId));
+            Map<Long, List<MonthlyPointsProjection>> pointsByCustomer =
+                    fetchMonthlyPoints(List.of(customerId), from, to);
+            return buildSummary(customer, pointsByCustomer.getOrDefault(customerId, List.of()));
+        });
+    }
+
+    /** {@inheritDoc} Not transactional, for the same reason as {@link #getRewardsPaged}. */
+    @Override
+    public BatchRewardSummaryDTO getRewardsForCustomers(List<Long> customerIds, LocalDate from, LocalDate to) {
+        return metrics.batch().record(() -> {
+            List<Long> requested = List.copyOf(new LinkedHashSet<>(customerIds));
+            log.debug("Fetching reward batch — customers={}, from={}, to={}", requested.size(), from, to);
+            Map<Long, CustomerNameRow> customers = customerRepository.findNamesByIdIn(requested).stream()
+                    .collect(Collectors.toMap(CustomerNameRow::id, Function.identity()));
+            List<Long> found = requested.stream().filter(customers::containsKey).toList();
+            metrics.recordPageSize(found.size());
+            Map<Long, List<MonthlyPointsProjection>> pointsByCustomer = fetchMonthlyPoints(found, from, to);
+
+            List<CustomerRewardSummaryDTO> content = found.stream()
+                    .map(id -> buildSummary(customers.get(id), pointsByCustomer.getOrDefault(id, List.of())))
+                    .toList();
+            List<Long> notFound = requested.stream().filter(id -> !customers.containsKey(id)).toList();
+            return new BatchRewardSummaryDTO(content, notFound);
+        });
+    }
+
+    /**
+     * Fetches monthly points for a set of customers in a single query, or in concurrent chunks when
+     * fan-out is enabled, and groups the rows by customer ID. Ranges made of whole months are answered
+     * from the ledger; any other range is aggregated from the transaction table.
+     */
+    private Map<Long, List<MonthlyPointsProjection>> fetchMonthlyPoints(List<Long> customerIds,
+                                                                        LocalDate from, LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new InvalidDateRangeException(from, to);
+        }
+        if (customerIds.isEmpty()) {
+            return Map.of();
+        }
+        boolean wholeMonths = coversWholeMonths(from, to);
+        List<MonthlyPointsProjection> rows = metrics.pointsQuery(wholeMonths, from, to).record(
+                () -> fanOut.query(customerIds, ids -> wholeMonths
+                        ? fetchLedgerPoints(ids, from, to)
+                        : aggregateTransactionPoints(ids, from, to)));
+        return rows.stream().collect(Collectors.groupingBy(MonthlyPointsProjection::customerId));
+    }
+
+    /** Returns true when each bound is absent or falls on a month boundary. */
+    private boolean coversWholeMonths(LocalDate from, LocalDate to) {
+        return (from == null || from.getDayOfMonth() == 1)
+                && (to == null || to.getDayOfMonth() == to.lengthOfMonth());
+    }
+
+    /** Reads precomputed monthly points from the ledger, applying whichever month bounds are provided. */
+    private List<MonthlyPointsProjection> fetchLedgerPoints(List<Long> customerIds, LocalDate from, LocalDate to) {
+        List<CustomerMonthPoints> months;
+        if (from == null && to == null) {
+            months = ledgerRepository.findByCustomerIdInOrderByCustomerIdAscYearMonthAsc(customerIds);
+        } else if (from != null && to != null) {
+            months = ledgerRepository.findByCustomerIdInAndYearMonthBetweenOrderByCustomerIdAscYearMonthAsc(
+                    customerIds, CustomerMonthPoints.yearMonthOf(from), CustomerMonthPoints.yearMonthOf(to));
+        } else if (from != null) {
+            months = ledgerRepository.findByCustomerIdInAndYearMonthGreaterThanEqualOrderByCustomerIdAscYearMonthAsc(
+                    customerIds, CustomerMonthPoints.yearMonthOf(from));
+        } else {
+            months = ledgerRepository.findByCustomerIdInAndYearMonthLessThanEqualOrderByCustomerIdAscYearMonthAsc(
+                    customerIds, CustomerMonthPoints.yearMonthOf(to));
+        }
+        return months.stream()
+                .map(m -> new MonthlyPointsProjection(
+                        m.getCustomerId(), m.getYearMonth() / 100, m.getYearMonth() % 100, m.getPoints()))
+                .toList();
     }
 
-    /** Fetches transactions for a customer applying whichever date bounds are provided. */
-    private List<Transaction> fetchTransactions(Long customerId, LocalDate from, LocalDate to) {
+    /** Aggregates monthly points from the transaction table, applying whichever date bounds are provided. */
+    private List<MonthlyPointsProjection> aggregateTransactionPoints(List<Long> customerIds,
+                                                                    LocalDate from, LocalDate to) {
         if (from == null && to == null) {
-            return transactionRepository.findByCustomerId(customerId);
+            return transactionRepository.sumMonthlyPointsByCustomerIdIn(customerIds);
         }
         if (from != null && to != null) {
-            if (from.isAfter(to)) {
-                throw new InvalidDateRangeException(from, to);
-            }
-            return transactionRepository.findByCustomerIdAndTransactionDateBetween(customerId, from, to);
+            return transactionRepository.sumMonthlyPointsByCustomerIdInAndTransactionDateBetween(customerIds, from, to);
         }
         if (from != null) {
-            return transactionRepository.findByCustomerIdAndTransactionDateGreaterThanEqual(customerId, from);
+            return transactionRepository.sumMonthlyPointsByCustomerIdInAndTransactionDateGreaterThanEqual(customerIds, from);
         }
-        return transactionRepository.findByCustomerIdAndTransactionDateLessThanEqual(customerId, to);
+        return transactionRepository.sumMonthlyPointsByCustomerIdInAndTransactionDateLessThanEqual(customerIds, to);
     }
 
-    /** Aggregates transaction points by month and builds the customer reward summary. */
-    private CustomerRewardSummaryDTO buildSummary(Customer customer, List<Transaction> transactions) {
-        Map<YearMonth, Long> monthlyMap = new TreeMap<>();
-        for (Transaction tx : transactions) {
-            YearMonth ym = YearMonth.from(tx.getTransactionDate());
-            monthlyMap.merge(ym, calculatePoints(tx.getAmount()), Long::sum);
-        }
-        List<MonthlyRewardDTO> monthlyRewards = monthlyMap.entrySet().stream()
-                .map(e -> new MonthlyRewardDTO(e.getKey().getYear(), e.getKey().getMonth().name(), e.getValue()))
+    /** Builds the customer reward summary from monthly point rows already ordered by month. */
+    private CustomerRewardSummaryDTO buildSummary(CustomerNameRow customer, List<MonthlyPointsProjection> months) {
+        long started = System.nanoTime();
+        metrics.recordMonths(months.size());
+        List<MonthlyRewardDTO> monthlyRewards = months.stream()
+                .map(MonthlyPointsProjection::toMonthlyReward)
                 .toList();
-        long totalPoints = monthlyMap.values().stream().mapToLong(Long::longValue).sum();
-        return new CustomerRewardSummaryDTO(customer.getId(), customer.getName(), monthlyRewards, totalPoints);
+        long totalPoints = monthlyRewards.stream().mapToLong(MonthlyRewardDTO::points).sum();
+        CustomerRewardSummaryDTO summary = new CustomerRewardSummaryDTO(
+                customer.id(), customer.name(), monthlyRewards, totalPoints, ruleVersion.version());
+        metrics.summary().record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        return summary;
     }
 
     /** {@inheritDoc} */
     @Override
-    public long calculatePoints(BigDecimal amount) {
-        long dollars = amount.longValue();
-        long points = 0;
-        if (dollars > UPPER_THRESHOLD) {
-            points += (dollars - UPPER_THRESHOLD) * 2;
-            points += UPPER_THRESHOLD - LOWER_THRESHOLD;
-        } else if (dollars > LOWER_THRESHOLD) {
-            points += dollars - LOWER_THRESHOLD;
-        }
-        return points;
+    public long calculatePoints(BigDecimal amount, LocalDate date) {
+        return rules.points(amount, date);
     }
 }
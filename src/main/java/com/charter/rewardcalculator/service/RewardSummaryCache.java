@@ -0,0 +1,104 @@
+package com.charter.rewardcalculator.service;
+
+import com.charter.rewardcalculator.config.RewardCacheProperties;
+import com.charter.rewardcalculator.dto.RewardCacheStatsDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, size- and TTL-evicting cache of each customer's monthly points history, from which a
+ * summary for any date range can be composed.
+ *
+ * <p>A customer's entry is dropped once a transaction that changed their data commits. History
+ * loaded while such a write was in flight is never stored: each customer maps to a version stripe
+ * that invalidation bumps before removing the entry, and a loader stores its result only if its
+ * stripe has not moved since it started, checked under the stripe's lock.
+ */
+@Component
+public class RewardSummaryCache {
+
+    private static final int VERSION_STRIPES = 4096;
+
+    private final boolean enabled;
+    private final Cache<Long, CustomerMonthBuckets> cache;
+    private final long[] versions = new long[VERSION_STRIPES];
+    private final Object[] stripeLocks = new Object[VERSION_STRIPES];
+
+    /** Builds the cache from the configured size and expiry. */
+    public RewardSummaryCache(RewardCacheProperties properties) {
+        this.enabled = properties.maximumSize() > 0;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .expireAfterWrite(properties.expireAfterWrite())
+                .recordStats()
+                .build();
+        for (int i = 0; i < VERSION_STRIPES; i++) {
+            stripeLocks[i] = new Object();
+        }
+    }
+
+    /** Returns the cached history of the customer, or loads it with the loader and caches it. */
+    public CustomerMonthBuckets get(Long customerId, Supplier<CustomerMonthBuckets> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        CustomerMonthBuckets cached = cache.getIfPresent(customerId);
+        if (cached != null) {
+            return cached;
+        }
+        int stripe = stripe(customerId);
+        long version;
+        synchronized (stripeLocks[stripe]) {
+            version = versions[stripe];
+        }
+        CustomerMonthBuckets buckets = loader.get();
+        synchronized (stripeLocks[stripe]) {
+            if (versions[stripe] == version) {
+                cache.put(customerId, buckets);
+            }
+        }
+        return buckets;
+    }
+
+    /** Drops the cached history of the given customers. */
+    public void invalidate(Collection<Long> customerIds) {
+        if (customerIds.isEmpty()) {
+            return;
+        }
+        for (Long id : customerIds) {
+            int stripe = stripe(id);
+            synchronized (stripeLocks[stripe]) {
+                versions[stripe]++;
+            }
+        }
+        cache.invalidateAll(customerIds);
+    }
+
+    /** Invalidates the affected customers once a write transaction has committed. */
+    @TransactionalEventListener
+    public void onTransactionsChanged(TransactionsChangedEvent event) {
+        invalidate(event.customerIds());
+    }
+
+    /** Returns the cache counters accumulated since startup. */
+    public RewardCacheStatsDTO stats() {
+        cache.cleanUp();
+        CacheStats stats = cache.stats();
+        return new RewardCacheStatsDTO(
+                cache.estimatedSize(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate(),
+                stats.evictionCount());
+    }
+
+    private static int stripe(Long customerId) {
+        return (Long.hashCode(customerId) & Integer.MAX_VALUE) % VERSION_STRIPES;
+    }
+}
@@ -0,0 +1,110 @@
+package com.charter.rewardcalculator.service;
+
+import com.charter.rewardcalculator.dto.CustomerRewardSummaryDTO;
+import com.charter.rewardcalculator.dto.MonthlyRewardDTO;
+import com.charter.rewardcalculator.repository.projection.TransactionExportRow;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.Objects;
+
+/**
+ * Turns a cursor of export rows, ordered by customer, into reward summaries written to a stream.
+ * Only the customer currently being read is held in memory; its summary is written as soon as the
+ * cursor moves on to the next customer. Per-row work is primitive: the row's stored points are added
+ * at an epoch month index into a reused {@link MonthlyPointsAccumulator}.
+ */
+class RewardSummaryStreamWriter {
+
+    private static final int FLUSH_EVERY_CUSTOMERS = 256;
+    private static final String CSV_HEADER = "customerId,customerName,year,month,points,totalPoints\n";
+
+    private final JsonMapper jsonMapper;
+    private final String ruleVersion;
+    private final RewardExportService.Format format;
+
+    /** Creates a writer that records the given reward rule version on every summary, in the given format. */
+    RewardSummaryStreamWriter(JsonMapper jsonMapper,
+                              String ruleVersion,
+                              RewardExportService.Format format) {
+        this.jsonMapper = jsonMapper;
+        this.ruleVersion = ruleVersion;
+        this.format = format;
+    }
+
+    /** Consumes every row and returns the number of customer summaries written. */
+    long write(Iterator<TransactionExportRow> rows, OutputStream out) {
+        try {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            if (format == RewardExportService.Format.CSV) {
+                writer.write(CSV_HEADER);
+            }
+            long written = 0;
+            Long customerId = null;
+            String customerName = null;
+            MonthlyPointsAccumulator months = new MonthlyPointsAccumulator();
+            while (rows.hasNext()) {
+                TransactionExportRow row = rows.next();
+                if (!Objects.equals(row.customerId(), customerId)) {
+                    if (customerId != null) {
+                        writeSummary(writer, months.toSummary(customerId, customerName, ruleVersion));
+                        if (++written % FLUSH_EVERY_CUSTOMERS == 0) {
+                            writer.flush();
+                        }
+                    }
+                    customerId = row.customerId();
+                    customerName = row.customerName();
+                    months.reset();
+                }
+                LocalDate date = row.transactionDate();
+                if (date != null) {
+                    months.add(MonthlyPointsAccumulator.epochMonth(date.getYear(), date.getMonthValue()), row.points());
+                }
+            }
+            if (customerId != null) {
+                writeSummary(writer, months.toSummary(customerId, customerName, ruleVersion));
+                written++;
+            }
+            writer.flush();
+            return written;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void writeSummary(Writer writer, CustomerRewardSummaryDTO summary) throws IOException {
+        if (format == RewardExportService.Format.NDJSON) {
+            writer.write(jsonMapper.writeValueAsString(summary));
+            writer.write('\n');
+            return;
+        }
+        String prefix = summary.customerId() + "," + csvField(summary.customerName()) + ",";
+        if (summary.monthlyRewards().isEmpty()) {
+            writer.write(prefix + ",,," + summary.totalPoints() + "\n");
+            return;
+        }
+        for (MonthlyRewardDTO month : summary.monthlyRewards()) {
+            writer.write(prefix + month.year() + "," + month.month() + "," + month.points()
+                    + "," + summary.totalPoints() + "\n");
+        }
+    }
+
+    /** Quotes a CSV field when it contains a delimiter, quote or line break. */
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,38 @@
+package com.charter.rewardcalculator.service;
+
+import org.springframework.data.domain.Pageable;
+
+import java.time.Instant;
+
+/**
+ * Service interface for the change markers of reward summaries, used to answer conditional GETs
+ * without building the summaries.
+ */
+public interface RewardVersionService {
+
+    /**
+     * Returns the version of a customer's reward summary. It changes whenever one of the customer's
+     * transactions is created, changed or deleted, and when the reward rule version changes.
+     */
+    RewardVersion customerVersion(Long customerId);
+
+    /**
+     * Returns the combined version of a page of reward summaries. It changes when any customer on
+     * the page changes, when the number of customers changes or when the reward rule version changes.
+     */
+    RewardVersion pageVersion(Pageable pageable);
+
+    /**
+     * An entity tag and the time of the latest change it covers.
+     *
+     * @param eTag          weak entity tag, e.g. {@code W/"1-42-1"}
+     * @param lastModified  latest change, or null when the tag covers no customer
+     */
+    record RewardVersion(String eTag, Instant lastModified) {
+
+        /** Returns {@link #lastModified} in epoch milliseconds, or -1 when it is unknown. */
+        public long lastModifiedMillis() {
+            return lastModified == null ? -1 : lastModified.toEpochMilli();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.charter.rewardcalculator.service;
+
+import com.charter.rewardcalculator.exception.CustomerNotFoundException;
+import com.charter.rewardcalculator.repository.CustomerRepository;
+import com.charter.rewardcalculator.repository.projection.CustomerVersionRow;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+
+/**
+ * Implementation of RewardVersionService backed by the version columns of the customer table.
+ *
+ * <p>A customer's tag is its ID, points version and reward rule version, read with one primary key
+ * lookup. A page's tag is a 64-bit FNV-1a hash of the rule version, the page position, the customer
+ * count and each customer's ID and version. It is read with the same two customer-table queries as
+ * the page's names, and no transaction or ledger rows. The rule version is the
+ * {@link ReportedRuleVersion}, so tags change when a points recalculation completes, and the
+ * last-modified time is never earlier than the time that version started being reported.
+ *
+ * <p>Both tags are weak: the same tag covers the JSON, CBOR and Smile bodies and their gzipped forms,
+ * which are equivalent but not byte-for-byte equal. Tomcat also only compresses responses whose
+ * ETag is weak.
+ */
+@Service
+public class RewardVersionServiceImpl implements RewardVersionService {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final CustomerRepository customerRepository;
+    private final ReportedRuleVersion ruleVersion;
+
+    /** Constructs the service with the customer repository and the reported rule version. */
+    public RewardVersionServiceImpl(CustomerRepository customerRepository, ReportedRuleVersion ruleVersion) {
+        this.customerRepository = customerRepository;
+        this.ruleVersion = ruleVersion;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public RewardVersion customerVersion(Long customerId) {
+        CustomerVersionRow row = customerRepository.findVersionById(customerId)
+                .orElseThrow(() -> new CustomerNotFoundException(customerId));
+        return new RewardVersion("W/\"" + row.id() + "-" + row.pointsVersion() + "-" + ruleVersion.version() + "\"",
+                notBeforeRules(row.pointsModifiedAt()));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public RewardVersion pageVersion(Pageable pageable) {
+        Page<CustomerVersionRow> page = customerRepository.findVersions(pageable);
+        long hash = FNV_OFFSET_BASIS;
+        String version = ruleVersion.version();
+        for (int i = 0; i < version.length(); i++) {
+            hash = mix(hash, version.charAt(i));
+        }
+        hash = mix(hash, pageable.getPageNumber());
+        hash = mix(hash, pageable.getPageSize());
+        hash = mix(hash, page.getTotalElements());
+        Instant lastModified = null;
+        for (CustomerVersionRow row : page) {
+            hash = mix(mix(hash, row.id()), row.pointsVersion());
+            if (lastModified == null || row.pointsModifiedAt().isAfter(lastModified)) {
+                lastModified = row.pointsModifiedAt();
+            }
+        }
+        return new RewardVersion("W/\"p" + Long.toHexString(hash) + "\"",
+                lastModified == null ? null : notBeforeRules(lastModified));
+    }
+
+    /** Returns the later of the given time and the time the reported rule version took effect. */
+    private Instant notBeforeRules(Instant modifiedAt) {
+        Instant since = ruleVersion.since();
+        return modifiedAt.isBefore(since) ? since : modifiedAt;
+    }
+
+    /** Folds the eight bytes of {@code value} into an FNV-1a hash. */
+    private static long mix(long hash, long value) {
+        for (int shift = 0; shift < Long.SIZE; shift += Byte.SIZE) {
+            hash = (hash ^ ((value >>> shift) & 0xff)) * FNV_PRIME;
+        }
+        return hash;
+    }
+}
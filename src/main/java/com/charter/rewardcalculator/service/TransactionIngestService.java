@@ -0,0 +1,23 @@
+package com.charter.rewardcalculator.service;
+
+import com.charter.rewardcalculator.dto.BulkIngestResultDTO;
+
+import java.io.InputStream;
+
+/** Service interface for high-volume transaction ingestion. */
+public interface TransactionIngestService {
+
+    /** Supported encodings of a bulk ingestion request body. */
+    enum Format {
+        /** A single JSON array of transaction objects. */
+        JSON_ARRAY,
+        /** Newline-delimited JSON, one transaction object per line. */
+        NDJSON
+    }
+
+    /**
+     * Reads transactions from the body as a stream, validates each row, and inserts valid rows in
+     * JDBC batches. Invalid rows are reported individually and do not fail the request.
+     */
+    BulkIngestResultDTO ingest(InputStream body, Format format);
+}
@@ -0,0 +1,285 @@
+package com.charter.rewardcalculator.service;
+
+import com.charter.rewardcalculator.config.IngestProperties;
+import com.charter.rewardcalculator.dto.BulkIngestResultDTO;
+import com.charter.rewardcalculator.dto.RowRejectionDTO;
+import com.charter.rewardcalculator.dto.TransactionRequestDTO;
+import com.charter.rewardcalculator.model.Customer;
+import com.charter.rewardcalculator.model.Transaction;
+import com.charter.rewardcalculator.repository.CustomerRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.MappingIterator;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Implementation of TransactionIngestService.
+ *
+ * <p>The body is consumed row by row and written in chunks of {@code rewards.ingest.batch-size}.
+ * Each chunk is one database transaction: rows are persisted with the Hibernate session's JDBC batch
+ * size set to the chunk size, IDs come from pooled sequences, and the ledger is updated with one
+ * set of deltas per chunk.
+ */
+@Service
+public class TransactionIngestServiceImpl implements TransactionIngestService {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionIngestServiceImpl.class);
+
+    private final JsonMapper jsonMapper;
+    private final EntityManager entityManager;
+    private final CustomerRepository customerRepository;
+    private final RewardLedgerService ledgerService;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final IngestProperties properties;
+    private final RewardRuleSet rules;
+
+    /** Constructs the service with its JSON mapper, persistence collaborators, ingest settings and reward rules. */
+    public TransactionIngestServiceImpl(JsonMapper jsonMapper,
+                                        EntityManager entityManager,
+                                        CustomerRepository customerRepository,
+                                        RewardLedgerService ledgerService,
+                                        Validator validator,
+                                        TransactionTemplate transactionTemplate,
+                                        IngestProperties properties,
+                                        RewardRuleSet rules) {
+        this.jsonMapper = jsonMapper;
+        this.entityManager = entityManager;
+        this.customerRepository = customerRepository;
+        this.ledgerService = ledgerService;
+        this.validator = validator;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.rules = rules;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public BulkIngestResultDTO ingest(InputStream body, Format format) {
+        return ingest(body, format, properties.batchSize());
+    }
+
+    /** Ingests the body using an explicit batch size instead of the configured one. */
+    public BulkIngestResultDTO ingest(InputStream body, Format format, int batchSize) {
+        long started = System.nanoTime();
+        Progress progress = new Progress(properties.maxReportedRejections());
+        List<ParsedRow> chunk = new ArrayList<>(batchSize);
+        RowSource source = format == Format.NDJSON ? ndjsonRows(body) : jsonArrayRows(body);
+
+        ParsedRow row;
+        while ((row = source.next()) != null) {
+            chunk.add(row);
+            if (chunk.size() == batchSize) {
+                writeChunk(chunk, batchSize, progress);
+                chunk.clear();
+            }
+        }
+        writeChunk(chunk, batchSize, progress);
+
+        double seconds = Math.max(System.nanoTime() - started, 1) / 1_000_000_000.0;
+        log.info("Bulk ingest finished — received={}, accepted={}, rejected={}, rowsPerSecond={}",
+                progress.received, progress.accepted, progress.rejected, Math.round(progress.received / seconds));
+        return new BulkIngestResultDTO(progress.received, progress.accepted, progress.rejected,
+                List.copyOf(progress.rejections));
+    }
+
+    /** Validates a chunk of rows and inserts the valid ones in a single database transaction. */
+    private void writeChunk(List<ParsedRow> chunk, int batchSize, Progress progress) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        progress.received += chunk.size();
+
+        Set<Long> customerIds = new HashSet<>();
+        for (ParsedRow row : chunk) {
+            if (row.request() != null && row.request().customerId() != null) {
+                customerIds.add(row.request().customerId());
+            }
+        }
+        Set<Long> knownCustomers = customerIds.isEmpty()
+                ? Set.of()
+                : new HashSet<>(customerRepository.findExistingIds(customerIds));
+
+        List<Transaction> transactions = new ArrayList<>(chunk.size());
+        List<ParsedRow> accepted = new ArrayList<>(chunk.size());
+        for (ParsedRow row : chunk) {
+            String error = row.error() != null ? row.error() : validate(row.request(), knownCustomers);
+            if (error != null) {
+                progress.reject(row.index(), error);
+                continue;
+            }
+            Transaction tx = new Transaction();
+            tx.setAmount(row.request().amount());
+            tx.setTransactionDate(row.request().transactionDate());
+            rules.assignPoints(tx);
+            transactions.add(tx);
+            accepted.add(row);
+        }
+        if (transactions.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+                for (int i = 0; i < transactions.size(); i++) {
+                    Transaction tx = transactions.get(i);
+                    tx.setCustomer(entityManager.getReference(Customer.class, accepted.get(i).request().customerId()));
+                    entityManager.persist(tx);
+                }
+                ledgerService.recordChanges(transactions, List.of());
+                entityManager.flush();
+                entityManager.clear();
+            });
+            progress.accepted += transactions.size();
+        } catch (RuntimeException ex) {
+            // the raw EntityManager does not translate, so a failed flush arrives as a PersistenceException
+            DataAccessException failure = ex instanceof DataAccessException dataAccess
+                    ? dataAccess
+                    : EntityManagerFactoryUtils.convertJpaAccessExceptionIfPossible(ex);
+            if (failure == null) {
+                throw ex;
+            }
+            log.warn("Bulk ingest batch failed — rows={}", transactions.size(), failure);
+            String reason = "Batch write failed: " + failure.getMostSpecificCause().getMessage();
+            accepted.forEach(row -> progress.reject(row.index(), reason));
+        }
+    }
+
+    /** Applies the Transaction entity constraints and the customer existence check to a row. */
+    private String validate(TransactionRequestDTO request, Set<Long> knownCustomers) {
+        if (request.customerId() == null) {
+            return "customerId must not be null";
+        }
+        Transaction candidate = new Transaction();
+        candidate.setAmount(request.amount());
+        candidate.setTransactionDate(request.transactionDate());
+        String violation = validator.validate(candidate).stream()
+                .map(cv -> cv.getPropertyPath() + " " + cv.getMessage())
+                .sorted()
+                .findFirst()
+                .orElse(null);
+        if (violation != null) {
+            return violation;
+        }
+        if (!knownCustomers.contains(request.customerId())) {
+            return "Customer not found with id: " + request.customerId();
+        }
+        return null;
+    }
+
+    /** Reads one JSON object per non-blank line; a malformed line only rejects that row. */
+    private RowSource ndjsonRows(InputStream body) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        long[] lineNumber = {-1};
+        return () -> {
+            try {
+                String line;
+                do {
+                    line = reader.readLine();
+                    lineNumber[0]++;
+                } while (line != null && line.isBlank());
+                if (line == null) {
+                    return null;
+                }
+                try {
+                    return ParsedRow.of(lineNumber[0], jsonMapper.readValue(line, TransactionRequestDTO.class));
+                } catch (JacksonException ex) {
+                    return ParsedRow.rejected(lineNumber[0], "Malformed row: " + ex.getOriginalMessage());
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        };
+    }
+
+    /**
+     * Streams the elements of a top-level JSON array. An element that cannot be bound is rejected on
+     * its own; a syntax error ends the stream and rejects the remainder of the body as one row.
+     */
+    private RowSource jsonArrayRows(InputStream body) {
+        MappingIterator<JsonNode> elements = jsonMapper.readerFor(JsonNode.class).readValues(body);
+        long[] index = {-1};
+        boolean[] finished = {false};
+        return () -> {
+            if (finished[0]) {
+                return null;
+            }
+            index[0]++;
+            JsonNode node;
+            try {
+                if (!elements.hasNextValue()) {
+                    return null;
+                }
+                node = elements.nextValue();
+            } catch (JacksonException ex) {
+                finished[0] = true;
+                return ParsedRow.rejected(index[0], "Malformed JSON, remaining input skipped: " + ex.getOriginalMessage());
+            }
+            try {
+                return ParsedRow.of(index[0], jsonMapper.treeToValue(node, TransactionRequestDTO.class));
+            } catch (JacksonException ex) {
+                return ParsedRow.rejected(index[0], "Malformed row: " + ex.getOriginalMessage());
+            }
+        };
+    }
+
+    /** Pull-style source of parsed rows; returns null when the body is exhausted. */
+    @FunctionalInterface
+    private interface RowSource {
+        ParsedRow next();
+    }
+
+    /** A row read from the body, either bound to a request or carrying a parse error. */
+    private record ParsedRow(long index, TransactionRequestDTO request, String error) {
+
+        static ParsedRow of(long index, TransactionRequestDTO request) {
+            return new ParsedRow(index, request, null);
+        }
+
+        static ParsedRow rejected(long index, String error) {
+            return new ParsedRow(index, null, error);
+        }
+    }
+
+    /** Running counters for one ingestion request. */
+    private static final class Progress {
+
+        private final int maxReportedRejections;
+        private final List<RowRejectionDTO> rejections = new ArrayList<>();
+        private long received;
+        private long accepted;
+        private long rejected;
+
+        Progress(int maxReportedRejections) {
+            this.maxReportedRejections = maxReportedRejections;
+        }
+
+        void reject(long row, String message) {
+            rejected++;
+            if (rejections.size() < maxReportedRejections) {
+                rejections.add(new RowRejectionDTO(row, message));
+            }
+        }
+    }
+}
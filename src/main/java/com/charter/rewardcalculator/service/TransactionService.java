@@ -0,0 +1,30 @@
+package com.charter.rewardcalculator.service;
+
+import com.charter.rewardcalculator.model.Transaction;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Service interface for writing purchase transactions. Every write also updates the monthly points
+ * ledger in the same database transaction. Implementations are {@code @Validated}, so arguments that
+ * break the Transaction entity constraints are rejected before any SQL is sent.
+ */
+public interface TransactionService {
+
+    /** Creates a transaction for an existing customer. */
+    Transaction createTransaction(@NotNull Long customerId,
+                                  @NotNull @Positive BigDecimal amount,
+                                  @NotNull LocalDate transactionDate);
+
+    /** Replaces the customer, amount and date of an existing transaction. */
+    Transaction updateTransaction(Long transactionId,
+                                  @NotNull Long customerId,
+                                  @NotNull @Positive BigDecimal amount,
+                                  @NotNull LocalDate transactionDate);
+
+    /** Deletes an existing transaction. */
+    void deleteTransaction(Long transactionId);
+}
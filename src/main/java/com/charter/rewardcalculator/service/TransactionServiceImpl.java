@@ -0,0 +1,105 @@
+package com.charter.rewardcalculator.service;
+
+import com.charter.rewardcalculator.exception.CustomerNotFoundException;
+import com.charter.rewardcalculator.exception.TransactionNotFoundException;
+import com.charter.rewardcalculator.model.Customer;
+import com.charter.rewardcalculator.model.Transaction;
+import com.charter.rewardcalculator.repository.CustomerRepository;
+import com.charter.rewardcalculator.repository.TransactionRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.validation.annotation.Validated;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Implementation of TransactionService backed by JPA repositories and the points ledger.
+ *
+ * <p>Every write stores the transaction's points under the current reward rules. Updates and
+ * deletes lock the transaction first, so the stored points they take out of the ledger cannot be
+ * rewritten by a concurrent points recalculation.
+ */
+@Service
+@Validated
+public class TransactionServiceImpl implements TransactionService {
+
+    private final TransactionRepository transactionRepository;
+    private final CustomerRepository customerRepository;
+    private final RewardLedgerService ledgerService;
+    private final RewardRuleSet rules;
+
+    /** Constructs the service with its repositories, the ledger service and the reward rules. */
+    public TransactionServiceImpl(TransactionRepository transactionRepository,
+                                  CustomerRepository customerRepository,
+                                  RewardLedgerService ledgerService,
+                                  RewardRuleSet rules) {
+        this.transactionRepository = transactionRepository;
+        this.customerRepository = customerRepository;
+        this.ledgerService = ledgerService;
+        this.rules = rules;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @Transactional
+    public Transaction createTransaction(Long customerId, BigDecimal amount, LocalDate transactionDate) {
+        Transaction tx = new Transaction();
+        tx.setCustomer(findCustomer(customerId));
+        tx.setAmount(amount);
+        tx.setTransactionDate(transactionDate);
+        rules.assignPoints(tx);
+        Transaction saved = transactionRepository.save(tx);
+        ledgerService.recordChanges(List.of(saved), List.of());
+        return saved;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @Transactional
+    public Transaction updateTransaction(Long transactionId, Long customerId,
+                                         BigDecimal amount, LocalDate transactionDate) {
+        Transaction tx = findTransaction(transactionId);
+        Transaction before = snapshot(tx);
+        if (!tx.getCustomer().getId().equals(customerId)) {
+            tx.setCustomer(findCustomer(customerId));
+        }
+        tx.setAmount(amount);
+        tx.setTransactionDate(transactionDate);
+        rules.assignPoints(tx);
+        ledgerService.recordChanges(List.of(tx), List.of(before));
+        return tx;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @Transactional
+    public void deleteTransaction(Long transactionId) {
+        Transaction tx = findTransaction(transactionId);
+        transactionRepository.delete(tx);
+        ledgerService.recordChanges(List.of(), List.of(tx));
+    }
+
+    private Customer findCustomer(Long customerId) {
+        return customerRepository.findById(customerId)
+                .orElseThrow(() -> new CustomerNotFoundException(customerId));
+    }
+
+    private Transaction findTransaction(Long transactionId) {
+        return transactionRepository.findForUpdateById(transactionId)
+                .orElseThrow(() -> new TransactionNotFoundException(transactionId));
+    }
+
+    /** Copies the ledger-relevant state of a transaction before it is modified. */
+    private Transaction snapshot(Transaction tx) {
+        Transaction copy = new Transaction();
+        copy.setId(tx.getId());
+        copy.setCustomer(tx.getCustomer());
+        copy.setAmount(tx.getAmount());
+        copy.setTransactionDate(tx.getTransactionDate());
+        copy.setPoints(tx.getPoints());
+        copy.setPointsRuleVersion(tx.getPointsRuleVersion());
+        return copy;
+    }
+}
@@ -0,0 +1,19 @@
+package com.charter.rewardcalculator.service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Published inside a write transaction with the customers whose transactions it added, changed or
+ * removed, and the net change in points and in transactions it made to each of their transaction days.
+ */
+public record TransactionsChangedEvent(Set<Long> customerIds, List<PointsDelta> pointsDeltas) {
+
+    /**
+     * Net points and net number of transactions added to (or, when negative, removed from) one
+     * customer's transaction day.
+     */
+    public record PointsDelta(Long customerId, LocalDate transactionDate, long points, long count) {
+    }
+}
@@ -0,0 +1,28 @@
+-- Tables as previously generated by Hibernate from the JPA entities.
+CREATE SEQUENCE customer_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE transaction_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE customer (
+    id    BIGINT       NOT NULL,
+    name  VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    CONSTRAINT pk_customer PRIMARY KEY (id),
+    CONSTRAINT uk_customer_email UNIQUE (email)
+);
+
+CREATE TABLE transaction (
+    id               BIGINT         NOT NULL,
+    customer_id      BIGINT         NOT NULL,
+    amount           NUMERIC(10, 2) NOT NULL,
+    transaction_date DATE           NOT NULL,
+    CONSTRAINT pk_transaction PRIMARY KEY (id),
+    CONSTRAINT fk_transaction_customer FOREIGN KEY (customer_id) REFERENCES customer (id)
+);
+
+CREATE TABLE customer_month_points (
+    customer_id       BIGINT  NOT NULL,
+    year_month        INTEGER NOT NULL,
+    points            BIGINT  NOT NULL,
+    transaction_count BIGINT  NOT NULL,
+    CONSTRAINT pk_customer_month_points PRIMARY KEY (customer_id, year_month)
+);
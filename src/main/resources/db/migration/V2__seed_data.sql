@@ -1,3 +1,4 @@
+-- Seed data: 3 customers with 14 transactions in January-March 2024.
 INSERT INTO customer (id, name, email) VALUES
     (1, 'Alice Johnson', 'alice@example.com'),
     (2, 'Bob Smith',     'bob@example.com'),
@@ -18,3 +19,7 @@ INSERT INTO transaction (id, customer_id, amount, transaction_date) VALUES
     (12, 3,  88.00, '2024-02-11'),
     (13, 3,  50.00, '2024-02-25'),
     (14, 3, 175.00, '2024-03-30');
+
+-- Seed rows use explicit IDs, so move the ID sequences past them.
+ALTER SEQUENCE customer_seq RESTART WITH 1000;
+ALTER SEQUENCE transaction_seq RESTART WITH 1000;
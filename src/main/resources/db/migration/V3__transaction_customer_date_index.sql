@@ -0,0 +1,4 @@
+-- Access path for every customer/date query in TransactionRepository: seek on customer_id, range on
+-- transaction_date. amount is a trailing key column so the points aggregation and the transaction
+-- lookups are answered from the index alone.
+CREATE INDEX idx_transaction_customer_date ON transaction (customer_id, transaction_date, amount);
@@ -0,0 +1,5 @@
+-- Access paths for the top-N leaderboard, which aggregates a range of months or dates across all
+-- customers: range on the month or date, then customer_id for the grouping. The points and amount
+-- columns are trailing key columns so both aggregations are answered from the index alone.
+CREATE INDEX idx_customer_month_points_month ON customer_month_points (year_month, customer_id, points);
+CREATE INDEX idx_transaction_date_customer ON transaction (transaction_date, customer_id, amount);
@@ -0,0 +1,4 @@
+-- Per-customer change marker for conditional GETs on reward summaries. Every ledger write bumps the
+-- version and stamps the time, so a summary can be revalidated with one primary key lookup.
+ALTER TABLE customer ADD COLUMN points_version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE customer ADD COLUMN points_modified_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP;
@@ -0,0 +1,39 @@
+-- Reward points stored on each transaction when it is written, so reads only sum them. The rule
+-- version they were computed under lets a recalculation find the rows that still hold older points.
+ALTER TABLE transaction ADD COLUMN points BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE transaction ADD COLUMN points_rule_version VARCHAR(32);
+
+-- Existing rows get the points of the default rules, version 1. An application configured with
+-- other rules recalculates them on startup.
+UPDATE transaction SET
+    points = CASE
+        WHEN CAST(FLOOR(amount) AS BIGINT) > 100 THEN 50 + 2 * (CAST(FLOOR(amount) AS BIGINT) - 100)
+        WHEN CAST(FLOOR(amount) AS BIGINT) > 50 THEN CAST(FLOOR(amount) AS BIGINT) - 50
+        ELSE 0
+    END,
+    points_rule_version = '1';
+
+-- Progress of the points recalculation for each rule version, one row per customer ID range. A
+-- range's checkpoint advances in the same database transaction as the rows it covers, so a
+-- restarted recalculation resumes after the last committed chunk.
+CREATE TABLE points_recalculation_range (
+    rule_version           VARCHAR(32)              NOT NULL,
+    first_customer_id      BIGINT                   NOT NULL,
+    last_customer_id       BIGINT                   NOT NULL,
+    checkpoint_customer_id BIGINT                   NOT NULL,
+    recalculated_rows      BIGINT                   NOT NULL DEFAULT 0,
+    completed_at           TIMESTAMP WITH TIME ZONE,
+    PRIMARY KEY (rule_version, first_customer_id)
+);
+
+-- Version 1 was computed above for every customer.
+INSERT INTO points_recalculation_range
+    (rule_version, first_customer_id, last_customer_id, checkpoint_customer_id, completed_at)
+VALUES ('1', 1, 0, 0, CURRENT_TIMESTAMP);
+
+-- Reads now sum points instead of amounts, so points replaces amount as the trailing key column of
+-- the customer/date and date/customer indexes, which keeps those aggregations index-only.
+DROP INDEX idx_transaction_customer_date;
+CREATE INDEX idx_transaction_customer_date ON transaction (customer_id, transaction_date, points);
+DROP INDEX idx_transaction_date_customer;
+CREATE INDEX idx_transaction_date_customer ON transaction (transaction_date, customer_id, points);
@@ -0,0 +1,100 @@
+package com.charter.rewardcalculator;
+
+import com.charter.rewardcalculator.config.BinaryFormatConfig;
+import com.charter.rewardcalculator.dto.PagedRewardSummaryDTO;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Checks gzip compression of reward responses on a running Tomcat, with a threshold low enough for
+ * a page of the seed customers to be compressed.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "server.compression.min-response-size=256")
+@ActiveProfiles("test")
+class ResponseCompressionTest {
+
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    @Autowired
+    Environment environment;
+
+    @Test
+    void getAllRewards_gzipsJsonAndCborWhenAccepted() throws Exception {
+        HttpResponse<byte[]> json = get("/api/rewards", MediaType.APPLICATION_JSON_VALUE, "gzip");
+        HttpResponse<byte[]> cbor = get("/api/rewards", MediaType.APPLICATION_CBOR_VALUE, "gzip");
+
+        Assertions.assertThat(json.headers().firstValue(HttpHeaders.CONTENT_ENCODING)).hasValue("gzip");
+        Assertions.assertThat(cbor.headers().firstValue(HttpHeaders.CONTENT_ENCODING)).hasValue("gzip");
+        PagedRewardSummaryDTO fromJson = JsonMapper.builder().build()
+                .readValue(gunzip(json.body()), PagedRewardSummaryDTO.class);
+        PagedRewardSummaryDTO fromCbor = BinaryFormatConfig.cborMapper()
+                .readValue(gunzip(cbor.body()), PagedRewardSummaryDTO.class);
+        Assertions.assertThat(fromJson.content()).isNotEmpty();
+        Assertions.assertThat(fromCbor).isEqualTo(fromJson);
+    }
+
+    @Test
+    void getAllRewards_withoutAcceptEncoding_isNotCompressed() throws Exception {
+        HttpResponse<byte[]> response = get("/api/rewards", MediaType.APPLICATION_JSON_VALUE, null);
+
+        Assertions.assertThat(response.statusCode()).isEqualTo(200);
+        Assertions.assertThat(response.headers().firstValue(HttpHeaders.CONTENT_ENCODING)).isEmpty();
+    }
+
+    @Test
+    void getCustomerReward_belowThreshold_isNotCompressed() throws Exception {
+        HttpResponse<byte[]> response = get("/api/rewards/1?totalOnly=true", MediaType.APPLICATION_JSON_VALUE, "gzip");
+
+        Assertions.assertThat(response.statusCode()).isEqualTo(200);
+        Assertions.assertThat(response.headers().firstValue(HttpHeaders.CONTENT_ENCODING)).isEmpty();
+    }
+
+    @Test
+    void getAllRewards_compressedResponseRevalidatesWithItsETag() throws Exception {
+        HttpResponse<byte[]> first = get("/api/rewards", MediaType.APPLICATION_JSON_VALUE, "gzip");
+        String eTag = first.headers().firstValue(HttpHeaders.ETAG).orElseThrow();
+
+        HttpResponse<byte[]> second = http.send(request("/api/rewards", MediaType.APPLICATION_JSON_VALUE, "gzip")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .build(), HttpResponse.BodyHandlers.ofByteArray());
+
+        Assertions.assertThat(eTag).startsWith("W/");
+        Assertions.assertThat(second.statusCode()).isEqualTo(304);
+    }
+
+    private HttpResponse<byte[]> get(String path, String accept, String acceptEncoding) throws Exception {
+        return http.send(request(path, accept, acceptEncoding).build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private HttpRequest.Builder request(String path, String accept, String acceptEncoding) {
+        String port = environment.getRequiredProperty("local.server.port");
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header(HttpHeaders.ACCEPT, accept);
+        if (acceptEncoding != null) {
+            builder.header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        return builder;
+    }
+
+    private static byte[] gunzip(byte[] body) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -1,30 +1,55 @@
 package com.charter.rewardcalculator;
 
+import com.charter.rewardcalculator.config.BatchProperties;
+import com.charter.rewardcalculator.config.BinaryFormatConfig;
 import com.charter.rewardcalculator.controller.RewardController;
+import com.charter.rewardcalculator.dto.BatchRewardSummaryDTO;
 import com.charter.rewardcalculator.dto.CustomerRewardSummaryDTO;
+import com.charter.rewardcalculator.dto.ErrorResponseDTO;
+import com.charter.rewardcalculator.dto.LeaderboardDTO;
+import com.charter.rewardcalculator.dto.LeaderboardEntryDTO;
 import com.charter.rewardcalculator.dto.MonthlyRewardDTO;
 import com.charter.rewardcalculator.dto.PagedRewardSummaryDTO;
+import com.charter.rewardcalculator.dto.RewardCacheStatsDTO;
+import com.charter.rewardcalculator.dto.RewardSummarySliceDTO;
 import com.charter.rewardcalculator.exception.CustomerNotFoundException;
+import com.charter.rewardcalculator.exception.InvalidCursorException;
 import com.charter.rewardcalculator.exception.InvalidDateRangeException;
+import com.charter.rewardcalculator.service.CustomerPointsIndex;
+import com.charter.rewardcalculator.service.RewardExportService;
+import com.charter.rewardcalculator.service.RewardLeaderboardService;
 import com.charter.rewardcalculator.service.RewardService;
+import com.charter.rewardcalculator.service.RewardSummaryCache;
+import com.charter.rewardcalculator.service.RewardVersionService;
+import org.assertj.core.api.Assertions;
 import org.hamcrest.Matchers;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentMatchers;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
 import java.util.List;
 
-@WebMvcTest(RewardController.class)
+@WebMvcTest(controllers = RewardController.class, properties = "rewards.batch.max-size=3")
+@EnableConfigurationProperties(BatchProperties.class)
 class RewardIntegrationTests {
 
     @Autowired
@@ -33,12 +58,34 @@ class RewardIntegrationTests {
     @MockitoBean
     RewardService rewardService;
 
+    @MockitoBean
+    RewardExportService rewardExportService;
+
+    @MockitoBean
+    RewardSummaryCache rewardSummaryCache;
+
+    @MockitoBean
+    CustomerPointsIndex customerPointsIndex;
+
+    @MockitoBean
+    RewardLeaderboardService leaderboardService;
+
+    @MockitoBean
+    RewardVersionService rewardVersionService;
+
+    @BeforeEach
+    void stubVersions() {
+        var version = new RewardVersionService.RewardVersion("W/\"1-3\"", Instant.parse("2024-04-02T10:15:30Z"));
+        Mockito.when(rewardVersionService.customerVersion(ArgumentMatchers.any())).thenReturn(version);
+        Mockito.when(rewardVersionService.pageVersion(ArgumentMatchers.any())).thenReturn(version);
+    }
+
     // --- GET /api/rewards ---
 
     @Test
     void getAllRewards_returnsOkWithPagedContent() throws Exception {
         var summary = new CustomerRewardSummaryDTO(1L, "Alice Johnson",
-                List.of(new MonthlyRewardDTO(2024, "JANUARY", 115)), 115L);
+                List.of(new MonthlyRewardDTO(2024, "JANUARY", 115)), 115L, "1");
         var paged = new PagedRewardSummaryDTO(List.of(summary), 0, 10, 1, 1, true);
         Mockito.when(rewardService.getRewardsPaged(ArgumentMatchers.any(), ArgumentMatchers.isNull(), ArgumentMatchers.isNull())).thenReturn(paged);
 
@@ -138,6 +185,13 @@ class RewardIntegrationTests {
                 .andExpect(MockMvcResultMatchers.jsonPath("$.status").value(400));
     }
 
+    @Test
+    void getAllRewards_sizeAboveMaximum_returns400() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/rewards?size=1001").accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.status").value(400));
+    }
+
     @Test
     void getAllRewards_invalidFromDate_returns400() throws Exception {
         mockMvc.perform(MockMvcRequestBuilders.get("/api/rewards?from=not-a-date").accept(MediaType.APPLICATION_JSON))
@@ -167,12 +221,131 @@ class RewardIntegrationTests {
                 .andExpect(MockMvcResultMatchers.jsonPath("$.error").value("Internal Server Error"));
     }
 
+    // --- GET /api/rewards/cache/stats ---
+
+    @Test
+    void getCacheStats_returnsCounters() throws Exception {
+        Mockito.when(rewardSummaryCache.stats()).thenReturn(new RewardCacheStatsDTO(2, 8, 2, 0.8, 1));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/rewards/cache/stats").accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.hitCount").value(8))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.missCount").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.evictionCount").value(1));
+    }
+
+    // --- GET /api/rewards/cursor ---
+
+    @Test
+    void getRewardsByCursor_returnsSliceWithNextCursor() throws Exception {
+        var summary = new CustomerRewardSummaryDTO(1L, "Alice", List.of(), 0, "1");
+        Mockito.when(rewardService.getRewardsAfter("YzE6MA", 1, null, null))
+                .thenReturn(new RewardSummarySliceDTO(List.of(summary), 1, "YzE6MQ", false));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/rewards/cursor?after=YzE6MA&size=1").accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].customerId").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.nextCursor").value("YzE6MQ"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.last").value(false))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    void getRewardsByCursor_invalidCursor_returns400() throws Exception {
+        Mockito.when(rewardService.getRewardsAfter("bogus", 10, null, null))
+                .thenThrow(new InvalidCursorException("bogus"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/rewards/cursor?after=bogus").accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.message").value("Invalid cursor: bogus"));
+    }
+
+    @Test
+    void getRewardsByCursor_sizeAboveMaximum_returns400() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/rewards/cursor?size=1001").accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+        Mockito.verifyNoInteractions(rewardService);
+    }
+
+    // --- GET /api/rewards/top ---
+
+    @Test
+    void getTopCustomers_returnsRankedEntries() throws Exception {
+        var leaderboard = new LeaderboardDTO(null, null, List.of(
+                new LeaderboardEntryDTO(1, 3L, "Carol White", 688),
+                new LeaderboardEntryDTO(2, 1L, "Alice Johnson", 435)));
+        Mockito.when(leaderboardService.getTopCustomers(2, null, null)).thenReturn(leaderboard);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/rewards/top?n=2").accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.entries[0].rank").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.entries[0].customerId").value(3))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.entries[1].totalPoints").value(435));
+    }
+
+    @Test
+    void getTopCustomers_sizeAboveMaximum_returns400() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/rewards/top?n=1001").accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    // --- GET /api/rewards/export ---
+
+    @Test
+    void exportRewards_defaultsToNdjson() throws Exception {
+        Mockito.doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(3);
+            out.write("{\"customerId\":1}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(rewardExportService).exportSummaries(ArgumentMatchers.isNull(), ArgumentMatchers.isNull(),
+                ArgumentMatchers.eq(RewardExportService.Format.NDJSON), ArgumentMatchers.any());
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/api/rewards/export"))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(MockMvcResultMatchers.content().string("{\"customerId\":1}\n"));
+    }
+
+    @Test
+    void exportRewards_csvFormat_passesDatesToService() throws Exception {
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to   = LocalDate.of(2024, 1, 31);
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/api/rewards/export?format=CSV&from=2024-01-01&to=2024-01-31"))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentTypeCompatibleWith("text/csv"));
+        Mockito.verify(rewardExportService).exportSummaries(ArgumentMatchers.eq(from), ArgumentMatchers.eq(to),
+                ArgumentMatchers.eq(RewardExportService.Format.CSV), ArgumentMatchers.any());
+    }
+
+    @Test
+    void exportRewards_fromAfterTo_returns400() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/rewards/export?from=2024-03-01&to=2024-01-01"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.status").value(400));
+        Mockito.verifyNoInteractions(rewardExportService);
+    }
+
+    @Test
+    void exportRewards_unknownFormat_returns400() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/rewards/export?format=XML"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
     // --- GET /api/rewards/{customerId} ---
 
     @Test
     void getCustomerReward_returnsOkWithSummary() throws Exception {
         var summary = new CustomerRewardSummaryDTO(1L, "Alice Johnson",
-                List.of(new MonthlyRewardDTO(2024, "JANUARY", 115)), 115L);
+                List.of(new MonthlyRewardDTO(2024, "JANUARY", 115)), 115L, "1");
         Mockito.when(rewardService.getRewardsForCustomer(ArgumentMatchers.eq(1L), ArgumentMatchers.isNull(), ArgumentMatchers.isNull())).thenReturn(summary);
 
         mockMvc.perform(MockMvcRequestBuilders.get("/api/rewards/1").accept(MediaType.APPLICATION_JSON))
@@ -183,9 +356,23 @@ class RewardIntegrationTests {
                 .andExpect(MockMvcResultMatchers.jsonPath("$.monthlyRewards[0].month").value("JANUARY"));
     }
 
+    @Test
+    void getCustomerReward_totalOnly_returnsIndexTotal() throws Exception {
+        var total = new CustomerRewardSummaryDTO(1L, "Alice", List.of(), 340L, "1");
+        Mockito.when(customerPointsIndex.getTotal(1L, LocalDate.of(2024, 1, 10), null)).thenReturn(total);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/rewards/1?from=2024-01-10&totalOnly=true")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.totalPoints").value(340))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.monthlyRewards").isEmpty());
+
+        Mockito.verifyNoInteractions(rewardService);
+    }
+
     @Test
     void getCustomerReward_callsServiceWithCorrectArgs() throws Exception {
-        var summary = new CustomerRewardSummaryDTO(1L, "Alice", List.of(), 0L);
+        var summary = new CustomerRewardSummaryDTO(1L, "Alice", List.of(), 0L, "1");
         LocalDate from = LocalDate.of(2024, 1, 1);
         LocalDate to   = LocalDate.of(2024, 1, 31);
         Mockito.when(rewardService.getRewardsForCustomer(ArgumentMatchers.eq(1L), ArgumentMatchers.eq(from), ArgumentMatchers.eq(to))).thenReturn(summary);
@@ -199,7 +386,7 @@ class RewardIntegrationTests {
 
     @Test
     void getCustomerReward_withOnlyFrom_passesToService() throws Exception {
-        var summary = new CustomerRewardSummaryDTO(1L, "Alice", List.of(), 0L);
+        var summary = new CustomerRewardSummaryDTO(1L, "Alice", List.of(), 0L, "1");
         LocalDate from = LocalDate.of(2024, 2, 1);
         Mockito.when(rewardService.getRewardsForCustomer(ArgumentMatchers.eq(1L), ArgumentMatchers.eq(from), ArgumentMatchers.isNull())).thenReturn(summary);
 
@@ -211,7 +398,7 @@ class RewardIntegrationTests {
 
     @Test
     void getCustomerReward_withOnlyTo_passesToService() throws Exception {
-        var summary = new CustomerRewardSummaryDTO(1L, "Alice", List.of(), 0L);
+        var summary = new CustomerRewardSummaryDTO(1L, "Alice", List.of(), 0L, "1");
         LocalDate to = LocalDate.of(2024, 1, 31);
         Mockito.when(rewardService.getRewardsForCustomer(ArgumentMatchers.eq(1L), ArgumentMatchers.isNull(), ArgumentMatchers.eq(to))).thenReturn(summary);
 
@@ -224,7 +411,7 @@ class RewardIntegrationTests {
     @Test
     void getCustomerReward_fromEqualsTo_passedToService() throws Exception {
         LocalDate day = LocalDate.of(2024, 1, 15);
-        var summary = new CustomerRewardSummaryDTO(1L, "Alice", List.of(new MonthlyRewardDTO(2024, "JANUARY", 90)), 90L);
+        var summary = new CustomerRewardSummaryDTO(1L, "Alice", List.of(new MonthlyRewardDTO(2024, "JANUARY", 90)), 90L, "1");
         Mockito.when(rewardService.getRewardsForCustomer(ArgumentMatchers.eq(1L), ArgumentMatchers.eq(day), ArgumentMatchers.eq(day))).thenReturn(summary);
 
         mockMvc.perform(MockMvcRequestBuilders.get("/api/rewards/1?from=2024-01-15&to=2024-01-15").accept(MediaType.APPLICATION_JSON))
@@ -236,7 +423,7 @@ class RewardIntegrationTests {
 
     @Test
     void getCustomerReward_noTransactions_returnsEmptyMonthlyRewards() throws Exception {
-        var summary = new CustomerRewardSummaryDTO(1L, "Alice", List.of(), 0L);
+        var summary = new CustomerRewardSummaryDTO(1L, "Alice", List.of(), 0L, "1");
         Mockito.when(rewardService.getRewardsForCustomer(ArgumentMatchers.eq(1L), ArgumentMatchers.isNull(), ArgumentMatchers.isNull())).thenReturn(summary);
 
         mockMvc.perform(MockMvcRequestBuilders.get("/api/rewards/1").accept(MediaType.APPLICATION_JSON))
@@ -288,4 +475,143 @@ class RewardIntegrationTests {
                 .andExpect(MockMvcResultMatchers.status().isBadRequest())
                 .andExpect(MockMvcResultMatchers.jsonPath("$.status").value(400));
     }
+
+    @Test
+    void getCustomerReward_returnsValidatorHeaders() throws Exception {
+        Mockito.when(rewardService.getRewardsForCustomer(1L, null, null))
+                .thenReturn(new CustomerRewardSummaryDTO(1L, "Alice", List.of(), 0L, "1"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/rewards/1"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "W/\"1-3\""))
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.LAST_MODIFIED, "Tue, 02 Apr 2024 10:15:30 GMT"))
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.CACHE_CONTROL, "no-cache"));
+    }
+
+    @Test
+    void getCustomerReward_ifNoneMatch_returns304WithEmptyBody() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/rewards/1").header(HttpHeaders.IF_NONE_MATCH, "W/\"1-3\""))
+                .andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "W/\"1-3\""))
+                .andExpect(MockMvcResultMatchers.content().string(""));
+
+        Mockito.verifyNoInteractions(rewardService);
+    }
+
+    @Test
+    void getAllRewards_ifNoneMatch_returns304() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/rewards?page=0&size=10").header(HttpHeaders.IF_NONE_MATCH, "W/\"1-3\""))
+                .andExpect(MockMvcResultMatchers.status().isNotModified());
+
+        Mockito.verifyNoInteractions(rewardService);
+    }
+
+    // --- Content negotiation ---
+
+    @Test
+    void getAllRewards_binaryFormatsDecodeToSamePageAndAreSmaller() throws Exception {
+        PagedRewardSummaryDTO paged = yearPage(20);
+        Mockito.when(rewardService.getRewardsPaged(ArgumentMatchers.any(), ArgumentMatchers.isNull(), ArgumentMatchers.isNull())).thenReturn(paged);
+
+        byte[] json = getAllRewardsAs(MediaType.APPLICATION_JSON);
+        byte[] cbor = getAllRewardsAs(MediaType.APPLICATION_CBOR);
+        byte[] smile = getAllRewardsAs(MediaType.parseMediaType(BinaryFormatConfig.APPLICATION_SMILE_VALUE));
+
+        Assertions.assertThat(BinaryFormatConfig.cborMapper().readValue(cbor, PagedRewardSummaryDTO.class)).isEqualTo(paged);
+        Assertions.assertThat(BinaryFormatConfig.smileMapper().readValue(smile, PagedRewardSummaryDTO.class)).isEqualTo(paged);
+        Assertions.assertThat(cbor.length).isLessThan(json.length);
+        Assertions.assertThat(smile.length).isLessThan(cbor.length);
+    }
+
+    @Test
+    void getAllRewards_anyOrMissingAccept_returnsJson() throws Exception {
+        Mockito.when(rewardService.getRewardsPaged(ArgumentMatchers.any(), ArgumentMatchers.isNull(), ArgumentMatchers.isNull()))
+                .thenReturn(yearPage(1));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/rewards").accept(MediaType.ALL))
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON));
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/rewards"))
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.VARY, Matchers.containsString(HttpHeaders.ACCEPT)));
+    }
+
+    @Test
+    void getAllRewards_unsupportedAccept_returns406() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/rewards").accept(MediaType.APPLICATION_XML))
+                .andExpect(MockMvcResultMatchers.status().isNotAcceptable())
+                .andExpect(MockMvcResultMatchers.content().string(""));
+    }
+
+    @Test
+    void getCustomerReward_acceptCbor_encodesErrorsAsCbor() throws Exception {
+        Mockito.when(rewardVersionService.customerVersion(99L)).thenThrow(new CustomerNotFoundException(99L));
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/api/rewards/99").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(MockMvcResultMatchers.status().isNotFound())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        ErrorResponseDTO error = BinaryFormatConfig.cborMapper()
+                .readValue(result.getResponse().getContentAsByteArray(), ErrorResponseDTO.class);
+        Assertions.assertThat(error.status()).isEqualTo(404);
+    }
+
+    private byte[] getAllRewardsAs(MediaType accept) throws Exception {
+        return mockMvc.perform(MockMvcRequestBuilders.get("/api/rewards").accept(accept))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(accept))
+                .andReturn().getResponse().getContentAsByteArray();
+    }
+
+    /** A page of customers with a year of monthly rewards each. */
+    private static PagedRewardSummaryDTO yearPage(int customers) {
+        List<CustomerRewardSummaryDTO> content = new ArrayList<>();
+        for (long c = 1; c <= customers; c++) {
+            List<MonthlyRewardDTO> monthly = new ArrayList<>();
+            for (Month month : Month.values()) {
+                monthly.add(new MonthlyRewardDTO(2024, month.name(), c * 7 + month.getValue()));
+            }
+            content.add(new CustomerRewardSummaryDTO(c, "Customer " + c, monthly,
+                    monthly.stream().mapToLong(MonthlyRewardDTO::points).sum(), "1"));
+        }
+        return new PagedRewardSummaryDTO(content, 0, customers, customers, 1, true);
+    }
+
+    // --- POST /api/rewards/batch ---
+
+    @Test
+    void getRewardsBatch_returnsFoundSummariesAndMissingIds() throws Exception {
+        var batch = new BatchRewardSummaryDTO(
+                List.of(new CustomerRewardSummaryDTO(2L, "Bob", List.of(new MonthlyRewardDTO(2024, "JANUARY", 90)), 90L, "1")),
+                List.of(999L));
+        Mockito.when(rewardService.getRewardsForCustomers(List.of(2L, 999L), LocalDate.of(2024, 1, 1), null))
+                .thenReturn(batch);
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/rewards/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"customerIds\":[2,999],\"from\":\"2024-01-01\"}"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].customerId").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].totalPoints").value(90))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.notFound[0]").value(999));
+    }
+
+    @Test
+    void getRewardsBatch_emptyIds_returns400() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/rewards/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"customerIds\":[]}"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.status").value(400));
+    }
+
+    @Test
+    void getRewardsBatch_moreIdsThanMaxSize_returns400() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/rewards/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"customerIds\":[1,2,3,4]}"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.message", Matchers.containsString("3")));
+        Mockito.verifyNoInteractions(rewardService);
+    }
 }
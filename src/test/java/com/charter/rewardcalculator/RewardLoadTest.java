@@ -0,0 +1,156 @@
+package com.charter.rewardcalculator;
+
+import com.charter.rewardcalculator.service.RewardLedgerService;
+import com.charter.rewardcalculator.service.RewardRuleSet;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares throughput and p99 latency of GET /api/rewards with 1,000 concurrent clients, served on
+ * platform threads with a single points query per page against virtual threads with chunked fan-out.
+ * Slow, so only runs with {@code -Drewards.load-test=true}.
+ */
+@EnabledIfSystemProperty(named = "rewards.load-test", matches = "true")
+class RewardLoadTest {
+
+    private static final int CLIENTS = 1_000;
+    private static final int REQUESTS_PER_CLIENT = 5;
+    private static final int CUSTOMERS = 5_000;
+    private static final int TRANSACTIONS_PER_CUSTOMER = 20;
+    private static final int PAGE_SIZE = 500;
+
+    @Test
+    void virtualThreadsWithFanOut_versusPlatformThreads() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        System.out.printf("%n%-28s %12s %10s %10s %8s%n", "mode", "requests/s", "p50 ms", "p99 ms", "errors");
+        for (Result r : List.of(platform, virtual)) {
+            System.out.printf("%-28s %12.1f %10.1f %10.1f %8d%n",
+                    r.mode(), r.throughput(), r.p50Millis(), r.p99Millis(), r.errors());
+        }
+        Assertions.assertThat(platform.errors()).isZero();
+        Assertions.assertThat(virtual.errors()).isZero();
+    }
+
+    private Result run(boolean virtual) throws Exception {
+        String mode = virtual ? "virtual threads + fan-out" : "platform threads";
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(RewardCalculatorApplication.class)
+                .profiles("test")
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:load-" + virtual + ";DB_CLOSE_DELAY=-1",
+                        "--spring.threads.virtual.enabled=" + virtual,
+                        "--rewards.fan-out.enabled=" + virtual,
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false",
+                        "--rewards.ledger.rebuild-on-startup=false")) {
+            seed(context.getBean(JdbcTemplate.class));
+            context.getBean(RewardLedgerService.class).rebuild();
+            int port = Integer.parseInt(context.getEnvironment().getRequiredProperty("local.server.port"));
+
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                HttpClient http = HttpClient.newBuilder()
+                        .executor(clients)
+                        .connectTimeout(Duration.ofSeconds(30))
+                        .build();
+                load(http, clients, port, 200, 1);  // warm-up
+                return load(http, clients, port, CLIENTS, REQUESTS_PER_CLIENT).withMode(mode);
+            }
+        }
+    }
+
+    private Result load(HttpClient http, ExecutorService clients, int port, int clientCount, int requestsPerClient)
+            throws Exception {
+        long[] latencies = new long[clientCount * requestsPerClient];
+        AtomicInteger errors = new AtomicInteger();
+        int pages = CUSTOMERS / PAGE_SIZE;
+        List<Future<?>> futures = new ArrayList<>(clientCount);
+        long started = System.nanoTime();
+        for (int c = 0; c < clientCount; c++) {
+            int client = c;
+            futures.add(clients.submit(() -> {
+                for (int r = 0; r < requestsPerClient; r++) {
+                    int index = client * requestsPerClient + r;
+                    URI uri = URI.create("http://localhost:" + port + "/api/rewards?page=" + (index % pages)
+                            + "&size=" + PAGE_SIZE + "&from=2022-01-10&to=2023-06-20");
+                    long sent = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = http.send(
+                                HttpRequest.newBuilder(uri).timeout(Duration.ofMinutes(2)).build(),
+                                HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception ex) {
+                        errors.incrementAndGet();
+                    }
+                    latencies[index] = System.nanoTime() - sent;
+                }
+                return null;
+            }));
+        }
+        for (var future : futures) {
+            future.get();
+        }
+        double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+        Arrays.sort(latencies);
+        return new Result("", latencies.length / elapsedSeconds,
+                latencies[latencies.length / 2] / 1e6,
+                latencies[(int) Math.ceil(latencies.length * 0.99) - 1] / 1e6,
+                errors.get());
+    }
+
+    private void seed(JdbcTemplate jdbc) {
+        List<Object[]> customers = new ArrayList<>(CUSTOMERS);
+        for (long id = 1_000; id < 1_000 + CUSTOMERS; id++) {
+            customers.add(new Object[]{id, "Load " + id, "load-" + id + "@example.com"});
+        }
+        jdbc.batchUpdate("insert into customer (id, name, email) values (?, ?, ?)", customers);
+
+        SplittableRandom random = new SplittableRandom(1);
+        RewardRuleSet rules = RewardRuleSet.defaults();
+        List<Object[]> transactions = new ArrayList<>(CUSTOMERS * TRANSACTIONS_PER_CUSTOMER);
+        long transactionId = 1_000;
+        for (long customerId = 1_000; customerId < 1_000 + CUSTOMERS; customerId++) {
+            for (int i = 0; i < TRANSACTIONS_PER_CUSTOMER; i++) {
+                BigDecimal amount = BigDecimal.valueOf(random.nextLong(1, 40_000), 2);
+                LocalDate date = LocalDate.of(2021, 1, 1).plusDays(random.nextInt(3 * 365));
+                transactions.add(new Object[]{transactionId++, customerId, amount, Date.valueOf(date),
+                        rules.points(amount, date), rules.version()});
+            }
+        }
+        jdbc.batchUpdate("insert into transaction (id, customer_id, amount, transaction_date, points,"
+                        + " points_rule_version) values (?, ?, ?, ?, ?, ?)",
+                transactions);
+    }
+
+    private record Result(String mode, double throughput, double p50Millis, double p99Millis, int errors) {
+
+        Result withMode(String mode) {
+            return new Result(mode, throughput, p50Millis, p99Millis, errors);
+        }
+    }
+}
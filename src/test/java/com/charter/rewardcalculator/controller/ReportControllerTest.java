@@ -0,0 +1,114 @@
+package com.charter.rewardcalculator.controller;
+
+import com.charter.rewardcalculator.dto.ReportJobDTO;
+import com.charter.rewardcalculator.exception.InvalidDateRangeException;
+import com.charter.rewardcalculator.exception.ReportJobNotFoundException;
+import com.charter.rewardcalculator.exception.ReportNotReadyException;
+import com.charter.rewardcalculator.service.ReportJobService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+
+@WebMvcTest(ReportController.class)
+class ReportControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @MockitoBean
+    ReportJobService reportJobService;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void startReport_returns202WithLocation() throws Exception {
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2024, 3, 31);
+        Mockito.when(reportJobService.start(from, to)).thenReturn(job("j1", ReportJobDTO.Status.RUNNING));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/rewards/reports?from=2024-01-01&to=2024-03-31"))
+                .andExpect(MockMvcResultMatchers.status().isAccepted())
+                .andExpect(MockMvcResultMatchers.header().string("Location", "/api/rewards/reports/j1"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.jobId").value("j1"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.status").value("RUNNING"));
+    }
+
+    @Test
+    void startReport_invalidDateRange_returns400() throws Exception {
+        Mockito.when(reportJobService.start(Mockito.any(), Mockito.any()))
+                .thenThrow(new InvalidDateRangeException(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 1, 1)));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/rewards/reports?from=2024-03-01&to=2024-01-01"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    void getReportStatus_returnsProgress() throws Exception {
+        Mockito.when(reportJobService.status("j1")).thenReturn(job("j1", ReportJobDTO.Status.COMPLETED));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/rewards/reports/j1"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.status").value("COMPLETED"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.rowsWritten").value(120))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.rowsPerSecond").value(60.0));
+    }
+
+    @Test
+    void getReportStatus_unknownJob_returns404() throws Exception {
+        Mockito.when(reportJobService.status("nope")).thenThrow(new ReportJobNotFoundException("nope"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/rewards/reports/nope"))
+                .andExpect(MockMvcResultMatchers.status().isNotFound())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.status").value(404));
+    }
+
+    @Test
+    void downloadReport_completed_streamsGzipAttachment() throws Exception {
+        Path file = Files.write(tempDir.resolve("rewards-j1.ndjson.gz"), new byte[] {31, -117, 8});
+        Mockito.when(reportJobService.reportFile("j1")).thenReturn(file);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/rewards/reports/j1/download"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType("application/gzip"))
+                .andExpect(MockMvcResultMatchers.header().string("Content-Disposition",
+                        "attachment; filename=\"rewards-j1.ndjson.gz\""))
+                .andExpect(MockMvcResultMatchers.content().bytes(new byte[] {31, -117, 8}));
+    }
+
+    @Test
+    void downloadReport_running_returns409() throws Exception {
+        Mockito.when(reportJobService.reportFile("j1"))
+                .thenThrow(new ReportNotReadyException("j1", ReportJobDTO.Status.RUNNING));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/rewards/reports/j1/download"))
+                .andExpect(MockMvcResultMatchers.status().isConflict())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.status").value(409));
+    }
+
+    @Test
+    void cancelReport_returnsStatus() throws Exception {
+        Mockito.when(reportJobService.cancel("j1")).thenReturn(job("j1", ReportJobDTO.Status.RUNNING));
+
+        mockMvc.perform(MockMvcRequestBuilders.delete("/api/rewards/reports/j1"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.jobId").value("j1"));
+        Mockito.verify(reportJobService).cancel("j1");
+    }
+
+    private static ReportJobDTO job(String id, ReportJobDTO.Status status) {
+        return new ReportJobDTO(id, status, null, null, 4, 4, 120, 60.0,
+                Instant.parse("2024-04-01T00:00:00Z"), null, null);
+    }
+}
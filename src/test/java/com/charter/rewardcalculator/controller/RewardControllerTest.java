@@ -1,42 +1,92 @@
 package com.charter.rewardcalculator.controller;
 
+import com.charter.rewardcalculator.config.BatchProperties;
+import com.charter.rewardcalculator.dto.BatchRewardRequestDTO;
+import com.charter.rewardcalculator.dto.BatchRewardSummaryDTO;
 import com.charter.rewardcalculator.dto.CustomerRewardSummaryDTO;
+import com.charter.rewardcalculator.dto.LeaderboardDTO;
+import com.charter.rewardcalculator.dto.LeaderboardEntryDTO;
 import com.charter.rewardcalculator.dto.MonthlyRewardDTO;
 import com.charter.rewardcalculator.dto.PagedRewardSummaryDTO;
 import com.charter.rewardcalculator.exception.CustomerNotFoundException;
+import com.charter.rewardcalculator.exception.InvalidBatchException;
 import com.charter.rewardcalculator.exception.InvalidDateRangeException;
+import com.charter.rewardcalculator.service.CustomerPointsIndex;
+import com.charter.rewardcalculator.service.RewardExportService;
+import com.charter.rewardcalculator.service.RewardLeaderboardService;
 import com.charter.rewardcalculator.service.RewardService;
+import com.charter.rewardcalculator.service.RewardSummaryCache;
+import com.charter.rewardcalculator.service.RewardVersionService;
 import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
 
 @ExtendWith(MockitoExtension.class)
 class RewardControllerTest {
 
+    private static final RewardVersionService.RewardVersion VERSION =
+            new RewardVersionService.RewardVersion("W/\"1-7\"", Instant.parse("2024-04-02T10:15:30Z"));
+
     @Mock
     RewardService rewardService;
 
+    @Mock
+    RewardExportService rewardExportService;
+
+    @Mock
+    RewardSummaryCache rewardSummaryCache;
+
+    @Mock
+    CustomerPointsIndex customerPointsIndex;
+
+    @Mock
+    RewardLeaderboardService leaderboardService;
+
+    @Mock
+    RewardVersionService rewardVersionService;
+
+    @Spy
+    BatchProperties batchProperties = new BatchProperties(3);
+
     @InjectMocks
     RewardController controller;
 
+    private final MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/api/rewards");
+    private final MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+    private final ServletWebRequest request = new ServletWebRequest(servletRequest, servletResponse);
+
+    @BeforeEach
+    void stubVersions() {
+        Mockito.lenient().when(rewardVersionService.customerVersion(ArgumentMatchers.any())).thenReturn(VERSION);
+        Mockito.lenient().when(rewardVersionService.pageVersion(ArgumentMatchers.any())).thenReturn(VERSION);
+    }
+
     @Test
     void getAllRewards_returnsOk() {
         var paged = new PagedRewardSummaryDTO(List.of(), 0, 10, 0, 0, true);
         Pageable pageable = PageRequest.of(0, 10, Sort.by("id").ascending());
         Mockito.when(rewardService.getRewardsPaged(pageable, null, null)).thenReturn(paged);
 
-        var response = controller.getAllRewards(0, 10, null, null);
+        var response = controller.getAllRewards(0, 10, null, null, request);
 
         Assertions.assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
     }
@@ -44,12 +94,12 @@ class RewardControllerTest {
     @Test
     void getAllRewards_returnsPagedBody() {
         var summary = new CustomerRewardSummaryDTO(1L, "Alice Johnson",
-                List.of(new MonthlyRewardDTO(2024, "JANUARY", 115)), 115L);
+                List.of(new MonthlyRewardDTO(2024, "JANUARY", 115)), 115L, "1");
         var paged = new PagedRewardSummaryDTO(List.of(summary), 0, 10, 1, 1, true);
         Pageable pageable = PageRequest.of(0, 10, Sort.by("id").ascending());
         Mockito.when(rewardService.getRewardsPaged(pageable, null, null)).thenReturn(paged);
 
-        var response = controller.getAllRewards(0, 10, null, null);
+        var response = controller.getAllRewards(0, 10, null, null, request);
 
         Assertions.assertThat(response.getBody()).isNotNull();
         Assertions.assertThat(response.getBody().totalElements()).isEqualTo(1);
@@ -63,7 +113,7 @@ class RewardControllerTest {
         Pageable pageable = PageRequest.of(0, 10, Sort.by("id").ascending());
         Mockito.when(rewardService.getRewardsPaged(pageable, null, null)).thenReturn(paged);
 
-        var response = controller.getAllRewards(0, 10, null, null);
+        var response = controller.getAllRewards(0, 10, null, null, request);
 
         Assertions.assertThat(response.getBody()).isNotNull();
         Assertions.assertThat(response.getBody().content()).isEmpty();
@@ -78,7 +128,7 @@ class RewardControllerTest {
         Pageable pageable = PageRequest.of(0, 10, Sort.by("id").ascending());
         Mockito.when(rewardService.getRewardsPaged(pageable, from, to)).thenReturn(paged);
 
-        controller.getAllRewards(0, 10, from, to);
+        controller.getAllRewards(0, 10, from, to, request);
 
         Mockito.verify(rewardService).getRewardsPaged(pageable, from, to);
     }
@@ -90,7 +140,7 @@ class RewardControllerTest {
         Pageable pageable = PageRequest.of(0, 10, Sort.by("id").ascending());
         Mockito.when(rewardService.getRewardsPaged(pageable, from, null)).thenReturn(paged);
 
-        controller.getAllRewards(0, 10, from, null);
+        controller.getAllRewards(0, 10, from, null, request);
 
         Mockito.verify(rewardService).getRewardsPaged(pageable, from, null);
     }
@@ -102,7 +152,7 @@ class RewardControllerTest {
         Pageable pageable = PageRequest.of(0, 10, Sort.by("id").ascending());
         Mockito.when(rewardService.getRewardsPaged(pageable, null, to)).thenReturn(paged);
 
-        controller.getAllRewards(0, 10, null, to);
+        controller.getAllRewards(0, 10, null, to, request);
 
         Mockito.verify(rewardService).getRewardsPaged(pageable, null, to);
     }
@@ -113,7 +163,7 @@ class RewardControllerTest {
         Pageable pageable = PageRequest.of(1, 5, Sort.by("id").ascending());
         Mockito.when(rewardService.getRewardsPaged(pageable, null, null)).thenReturn(paged);
 
-        var response = controller.getAllRewards(1, 5, null, null);
+        var response = controller.getAllRewards(1, 5, null, null, request);
 
         Assertions.assertThat(response.getBody()).isNotNull();
         Assertions.assertThat(response.getBody().page()).isEqualTo(1);
@@ -129,17 +179,17 @@ class RewardControllerTest {
         Mockito.when(rewardService.getRewardsPaged(pageable, from, to))
                 .thenThrow(new InvalidDateRangeException(from, to));
 
-        Assertions.assertThatThrownBy(() -> controller.getAllRewards(0, 10, from, to))
+        Assertions.assertThatThrownBy(() -> controller.getAllRewards(0, 10, from, to, request))
                 .isInstanceOf(InvalidDateRangeException.class);
     }
 
     @Test
     void getCustomerReward_returnsOk() {
         var summary = new CustomerRewardSummaryDTO(1L, "Alice Johnson",
-                List.of(new MonthlyRewardDTO(2024, "JANUARY", 115)), 115L);
+                List.of(new MonthlyRewardDTO(2024, "JANUARY", 115)), 115L, "1");
         Mockito.when(rewardService.getRewardsForCustomer(1L, null, null)).thenReturn(summary);
 
-        var response = controller.getCustomerReward(1L, null, null);
+        var response = controller.getCustomerReward(1L, null, null, false, request);
 
         Assertions.assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
     }
@@ -147,10 +197,10 @@ class RewardControllerTest {
     @Test
     void getCustomerReward_returnsCorrectBody() {
         var summary = new CustomerRewardSummaryDTO(1L, "Alice Johnson",
-                List.of(new MonthlyRewardDTO(2024, "JANUARY", 115)), 115L);
+                List.of(new MonthlyRewardDTO(2024, "JANUARY", 115)), 115L, "1");
         Mockito.when(rewardService.getRewardsForCustomer(1L, null, null)).thenReturn(summary);
 
-        var response = controller.getCustomerReward(1L, null, null);
+        var response = controller.getCustomerReward(1L, null, null, false, request);
 
         Assertions.assertThat(response.getBody()).isNotNull();
         Assertions.assertThat(response.getBody().customerId()).isEqualTo(1L);
@@ -165,10 +215,10 @@ class RewardControllerTest {
                 new MonthlyRewardDTO(2024, "FEBRUARY", 250),
                 new MonthlyRewardDTO(2024, "MARCH", 70)
         );
-        var summary = new CustomerRewardSummaryDTO(1L, "Alice Johnson", monthly, 435L);
+        var summary = new CustomerRewardSummaryDTO(1L, "Alice Johnson", monthly, 435L, "1");
         Mockito.when(rewardService.getRewardsForCustomer(1L, null, null)).thenReturn(summary);
 
-        var response = controller.getCustomerReward(1L, null, null);
+        var response = controller.getCustomerReward(1L, null, null, false, request);
 
         Assertions.assertThat(response.getBody()).isNotNull();
         Assertions.assertThat(response.getBody().monthlyRewards()).hasSize(3);
@@ -179,10 +229,10 @@ class RewardControllerTest {
 
     @Test
     void getCustomerReward_noTransactions_returnsZeroPointsAndEmptyMonthly() {
-        var summary = new CustomerRewardSummaryDTO(1L, "Alice", List.of(), 0L);
+        var summary = new CustomerRewardSummaryDTO(1L, "Alice", List.of(), 0L, "1");
         Mockito.when(rewardService.getRewardsForCustomer(1L, null, null)).thenReturn(summary);
 
-        var response = controller.getCustomerReward(1L, null, null);
+        var response = controller.getCustomerReward(1L, null, null, false, request);
 
         Assertions.assertThat(response.getBody()).isNotNull();
         Assertions.assertThat(response.getBody().monthlyRewards()).isEmpty();
@@ -193,10 +243,10 @@ class RewardControllerTest {
     void getCustomerReward_withFromAndTo_passesDatesThroughToService() {
         LocalDate from = LocalDate.of(2024, 1, 1);
         LocalDate to   = LocalDate.of(2024, 1, 31);
-        var summary = new CustomerRewardSummaryDTO(1L, "Alice", List.of(), 0L);
+        var summary = new CustomerRewardSummaryDTO(1L, "Alice", List.of(), 0L, "1");
         Mockito.when(rewardService.getRewardsForCustomer(1L, from, to)).thenReturn(summary);
 
-        controller.getCustomerReward(1L, from, to);
+        controller.getCustomerReward(1L, from, to, false, request);
 
         Mockito.verify(rewardService).getRewardsForCustomer(1L, from, to);
     }
@@ -204,10 +254,10 @@ class RewardControllerTest {
     @Test
     void getCustomerReward_withOnlyFrom_passesFromNullToToService() {
         LocalDate from = LocalDate.of(2024, 2, 1);
-        var summary = new CustomerRewardSummaryDTO(1L, "Alice", List.of(), 0L);
+        var summary = new CustomerRewardSummaryDTO(1L, "Alice", List.of(), 0L, "1");
         Mockito.when(rewardService.getRewardsForCustomer(1L, from, null)).thenReturn(summary);
 
-        controller.getCustomerReward(1L, from, null);
+        controller.getCustomerReward(1L, from, null, false, request);
 
         Mockito.verify(rewardService).getRewardsForCustomer(1L, from, null);
     }
@@ -215,10 +265,10 @@ class RewardControllerTest {
     @Test
     void getCustomerReward_withOnlyTo_passesNullFromToService() {
         LocalDate to = LocalDate.of(2024, 1, 31);
-        var summary = new CustomerRewardSummaryDTO(1L, "Alice", List.of(), 0L);
+        var summary = new CustomerRewardSummaryDTO(1L, "Alice", List.of(), 0L, "1");
         Mockito.when(rewardService.getRewardsForCustomer(1L, null, to)).thenReturn(summary);
 
-        controller.getCustomerReward(1L, null, to);
+        controller.getCustomerReward(1L, null, to, false, request);
 
         Mockito.verify(rewardService).getRewardsForCustomer(1L, null, to);
     }
@@ -227,10 +277,10 @@ class RewardControllerTest {
     void getCustomerReward_fromEqualsTo_singleDayPassedToService() {
         LocalDate day = LocalDate.of(2024, 1, 15);
         var summary = new CustomerRewardSummaryDTO(1L, "Alice",
-                List.of(new MonthlyRewardDTO(2024, "JANUARY", 90)), 90L);
+                List.of(new MonthlyRewardDTO(2024, "JANUARY", 90)), 90L, "1");
         Mockito.when(rewardService.getRewardsForCustomer(1L, day, day)).thenReturn(summary);
 
-        var response = controller.getCustomerReward(1L, day, day);
+        var response = controller.getCustomerReward(1L, day, day, false, request);
 
         Assertions.assertThat(response.getBody()).isNotNull();
         Assertions.assertThat(response.getBody().totalPoints()).isEqualTo(90L);
@@ -242,7 +292,7 @@ class RewardControllerTest {
         Mockito.when(rewardService.getRewardsForCustomer(999L, null, null))
                 .thenThrow(new CustomerNotFoundException(999L));
 
-        Assertions.assertThatThrownBy(() -> controller.getCustomerReward(999L, null, null))
+        Assertions.assertThatThrownBy(() -> controller.getCustomerReward(999L, null, null, false, request))
                 .isInstanceOf(CustomerNotFoundException.class)
                 .hasMessageContaining("999");
     }
@@ -254,7 +304,106 @@ class RewardControllerTest {
         Mockito.when(rewardService.getRewardsForCustomer(1L, from, to))
                 .thenThrow(new InvalidDateRangeException(from, to));
 
-        Assertions.assertThatThrownBy(() -> controller.getCustomerReward(1L, from, to))
+        Assertions.assertThatThrownBy(() -> controller.getCustomerReward(1L, from, to, false, request))
                 .isInstanceOf(InvalidDateRangeException.class);
     }
+
+    @Test
+    void getCustomerReward_totalOnly_answersFromPointsIndex() {
+        LocalDate from = LocalDate.of(2024, 1, 10);
+        LocalDate to   = LocalDate.of(2024, 2, 20);
+        var total = new CustomerRewardSummaryDTO(1L, "Alice", List.of(), 340L, "1");
+        Mockito.when(customerPointsIndex.getTotal(1L, from, to)).thenReturn(total);
+
+        var response = controller.getCustomerReward(1L, from, to, true, request);
+
+        Assertions.assertThat(response.getBody()).isEqualTo(total);
+        Mockito.verifyNoInteractions(rewardService);
+    }
+
+    @Test
+    void getTopCustomers_passesSizeAndDatesToService() {
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to   = LocalDate.of(2024, 3, 31);
+        var leaderboard = new LeaderboardDTO(from, to, List.of(new LeaderboardEntryDTO(1, 3L, "Carol White", 688)));
+        Mockito.when(leaderboardService.getTopCustomers(5, from, to)).thenReturn(leaderboard);
+
+        var response = controller.getTopCustomers(5, from, to);
+
+        Assertions.assertThat(response.getBody()).isEqualTo(leaderboard);
+    }
+
+    @Test
+    void getRewardsBatch_passesIdsAndDatesToService() {
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        var batch = new BatchRewardSummaryDTO(List.of(new CustomerRewardSummaryDTO(1L, "Alice", List.of(), 0L, "1")),
+                List.of(99L));
+        Mockito.when(rewardService.getRewardsForCustomers(List.of(1L, 99L), from, null)).thenReturn(batch);
+
+        var response = controller.getRewardsBatch(new BatchRewardRequestDTO(List.of(1L, 99L), from, null));
+
+        Assertions.assertThat(response.getBody()).isEqualTo(batch);
+    }
+
+    @Test
+    void getRewardsBatch_invalidIds_throwsInvalidBatch() {
+        Assertions.assertThatThrownBy(() -> controller.getRewardsBatch(new BatchRewardRequestDTO(null, null, null)))
+                .isInstanceOf(InvalidBatchException.class);
+        Assertions.assertThatThrownBy(() -> controller.getRewardsBatch(new BatchRewardRequestDTO(List.of(), null, null)))
+                .isInstanceOf(InvalidBatchException.class);
+        Assertions.assertThatThrownBy(() -> controller.getRewardsBatch(
+                        new BatchRewardRequestDTO(List.of(1L, 2L, 3L, 4L), null, null)))
+                .isInstanceOf(InvalidBatchException.class);
+        Assertions.assertThatThrownBy(() -> controller.getRewardsBatch(new BatchRewardRequestDTO(List.of(1L, 0L), null, null)))
+                .isInstanceOf(InvalidBatchException.class);
+        Mockito.verifyNoInteractions(rewardService);
+    }
+
+    @Test
+    void getCustomerReward_setsValidatorsAndNoCache() {
+        Mockito.when(rewardService.getRewardsForCustomer(1L, null, null))
+                .thenReturn(new CustomerRewardSummaryDTO(1L, "Alice", List.of(), 0L, "1"));
+
+        var response = controller.getCustomerReward(1L, null, null, false, request);
+
+        Assertions.assertThat(response.getHeaders().getCacheControl()).isEqualTo("no-cache");
+        Assertions.assertThat(servletResponse.getHeader(HttpHeaders.ETAG)).isEqualTo("W/\"1-7\"");
+        Assertions.assertThat(servletResponse.getDateHeader(HttpHeaders.LAST_MODIFIED))
+                .isEqualTo(VERSION.lastModifiedMillis());
+    }
+
+    @Test
+    void getCustomerReward_matchingETag_returns304WithoutBuildingSummary() {
+        servletRequest.addHeader(HttpHeaders.IF_NONE_MATCH, "W/\"1-7\"");
+
+        var response = controller.getCustomerReward(1L, null, null, true, request);
+
+        Assertions.assertThat(response).isNull();
+        Assertions.assertThat(servletResponse.getStatus()).isEqualTo(HttpStatus.NOT_MODIFIED.value());
+        Mockito.verifyNoInteractions(rewardService, customerPointsIndex);
+    }
+
+    @Test
+    void getCustomerReward_staleETag_buildsSummary() {
+        servletRequest.addHeader(HttpHeaders.IF_NONE_MATCH, "\"1-6\"");
+        Mockito.when(rewardService.getRewardsForCustomer(1L, null, null))
+                .thenReturn(new CustomerRewardSummaryDTO(1L, "Alice", List.of(), 0L, "1"));
+
+        var response = controller.getCustomerReward(1L, null, null, false, request);
+
+        Assertions.assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        Assertions.assertThat(servletResponse.getHeader(HttpHeaders.ETAG)).isEqualTo("W/\"1-7\"");
+    }
+
+    @Test
+    void getAllRewards_notModifiedSince_returns304WithoutBuildingPage() {
+        servletRequest.addHeader(HttpHeaders.IF_MODIFIED_SINCE, VERSION.lastModifiedMillis());
+
+        var response = controller.getAllRewards(0, 10, null, null, request);
+
+        Assertions.assertThat(response).isNull();
+        Assertions.assertThat(servletResponse.getStatus()).isEqualTo(HttpStatus.NOT_MODIFIED.value());
+        Mockito.verify(rewardVersionService).pageVersion(PageRequest.of(0, 10, Sort.by("id").ascending()));
+        Mockito.verifyNoInteractions(rewardService);
+    }
 }
@@ -0,0 +1,130 @@
+package com.charter.rewardcalculator.controller;
+
+import com.charter.rewardcalculator.dto.BulkIngestResultDTO;
+import com.charter.rewardcalculator.dto.CsvImportResultDTO;
+import com.charter.rewardcalculator.dto.RowRejectionDTO;
+import com.charter.rewardcalculator.exception.WriteBufferFullException;
+import com.charter.rewardcalculator.model.Customer;
+import com.charter.rewardcalculator.model.Transaction;
+import com.charter.rewardcalculator.service.CsvImportService;
+import com.charter.rewardcalculator.service.TransactionIngestService;
+import com.charter.rewardcalculator.service.TransactionService;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@WebMvcTest(TransactionController.class)
+class TransactionControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @MockitoBean
+    TransactionService transactionService;
+
+    @MockitoBean
+    TransactionIngestService ingestService;
+
+    @MockitoBean
+    CsvImportService csvImportService;
+
+    @Test
+    void bulk_jsonArray_dispatchesJsonFormat() throws Exception {
+        var result = new BulkIngestResultDTO(2, 1, 1, List.of(new RowRejectionDTO(1, "amount must be greater than 0")));
+        Mockito.when(ingestService.ingest(ArgumentMatchers.any(), ArgumentMatchers.eq(TransactionIngestService.Format.JSON_ARRAY)))
+                .thenReturn(result);
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/transactions/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.received").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.accepted").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.rejected").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.rejections[0].row").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.rejections[0].message").value("amount must be greater than 0"));
+    }
+
+    @Test
+    void bulk_ndjson_dispatchesNdjsonFormat() throws Exception {
+        Mockito.when(ingestService.ingest(ArgumentMatchers.any(), ArgumentMatchers.eq(TransactionIngestService.Format.NDJSON)))
+                .thenReturn(new BulkIngestResultDTO(0, 0, 0, List.of()));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/transactions/bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(""))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.received").value(0));
+
+        Mockito.verify(ingestService).ingest(ArgumentMatchers.any(), ArgumentMatchers.eq(TransactionIngestService.Format.NDJSON));
+    }
+
+    @Test
+    void bulk_unsupportedContentType_returns415() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/transactions/bulk")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content("1,2,3"))
+                .andExpect(MockMvcResultMatchers.status().isUnsupportedMediaType());
+    }
+
+    @Test
+    void importCsv_returnsImportSummary() throws Exception {
+        Mockito.when(csvImportService.importStream(ArgumentMatchers.any()))
+                .thenReturn(new CsvImportResultDTO(3, 2, 1, "/tmp/import.rejects.csv", 12, 250.0));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/transactions/import")
+                        .contentType("text/csv")
+                        .content("1,120.00,2024-01-01\n1,-1,2024-01-02\n2,5.00,2024-01-03\n"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.received").value(3))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.accepted").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.rejected").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.rejectFile").value("/tmp/import.rejects.csv"));
+    }
+
+    @Test
+    void create_returns201WithCommittedTransaction() throws Exception {
+        Customer customer = new Customer();
+        customer.setId(1L);
+        Transaction tx = new Transaction();
+        tx.setId(51L);
+        tx.setCustomer(customer);
+        tx.setAmount(new BigDecimal("120.00"));
+        tx.setTransactionDate(LocalDate.of(2024, 4, 2));
+        Mockito.when(transactionService.createTransaction(
+                        ArgumentMatchers.eq(1L), ArgumentMatchers.any(), ArgumentMatchers.eq(LocalDate.of(2024, 4, 2))))
+                .thenReturn(tx);
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/transactions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"customerId\": 1, \"amount\": 120.00, \"transactionDate\": \"2024-04-02\"}"))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.id").value(51))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.customerId").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.amount").value(120.00))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.transactionDate").value("2024-04-02"));
+    }
+
+    @Test
+    void create_fullWriteBuffer_returns503() throws Exception {
+        Mockito.when(transactionService.createTransaction(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any()))
+                .thenThrow(new WriteBufferFullException(10));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/transactions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"customerId\": 1, \"amount\": 5.00, \"transactionDate\": \"2024-04-02\"}"))
+                .andExpect(MockMvcResultMatchers.status().isServiceUnavailable())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.status").value(503));
+    }
+}
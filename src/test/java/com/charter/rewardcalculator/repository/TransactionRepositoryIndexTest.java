@@ -0,0 +1,133 @@
+package com.charter.rewardcalculator.repository;
+
+import com.charter.rewardcalculator.config.RequestStatementCounter;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Runs every TransactionRepository query, then asks H2 to EXPLAIN the SQL that Hibernate generated
+ * for it with the same parameters, and checks that the plan reads the transaction table through the
+ * (customer_id, transaction_date, points) index, or the (transaction_date, customer_id, points) index
+ * for the leaderboard query across all customers.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.charter.rewardcalculator.repository.TransactionRepositoryIndexTest$CapturingInspector")
+@ActiveProfiles("test")
+class TransactionRepositoryIndexTest {
+
+    private static final String INDEX = "IDX_TRANSACTION_CUSTOMER_DATE";
+    private static final String DATE_INDEX = "IDX_TRANSACTION_DATE_CUSTOMER";
+    private static final LocalDate FROM = LocalDate.of(2024, 1, 10);
+    private static final LocalDate TO = LocalDate.of(2024, 2, 20);
+
+    @Autowired
+    TransactionRepository transactionRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void clearCaptured() {
+        CapturingInspector.STATEMENTS.clear();
+    }
+
+    @Test
+    void findByCustomerId_usesCustomerDateIndex() {
+        transactionRepository.findByCustomerId(1L);
+        assertUsesIndex(1L);
+    }
+
+    @Test
+    void findByCustomerIdAndTransactionDateBetween_usesCustomerDateIndex() {
+        transactionRepository.findByCustomerIdAndTransactionDateBetween(1L, FROM, TO);
+        assertUsesIndex(1L, FROM, TO);
+    }
+
+    @Test
+    void findByCustomerIdAndTransactionDateGreaterThanEqual_usesCustomerDateIndex() {
+        transactionRepository.findByCustomerIdAndTransactionDateGreaterThanEqual(1L, FROM);
+        assertUsesIndex(1L, FROM);
+    }
+
+    @Test
+    void findByCustomerIdAndTransactionDateLessThanEqual_usesCustomerDateIndex() {
+        transactionRepository.findByCustomerIdAndTransactionDateLessThanEqual(1L, TO);
+        assertUsesIndex(1L, TO);
+    }
+
+    @Test
+    void findPointsByCustomerId_usesCustomerDateIndex() {
+        transactionRepository.findPointsByCustomerId(1L);
+        assertUsesIndex(1L);
+    }
+
+    @Test
+    void sumDailyPointsByCustomerId_usesCustomerDateIndex() {
+        transactionRepository.sumDailyPointsByCustomerId(1L);
+        assertUsesIndex(1L);
+    }
+
+    @Test
+    void sumMonthlyPointsByCustomerIdIn_usesCustomerDateIndex() {
+        transactionRepository.sumMonthlyPointsByCustomerIdIn(List.of(1L, 2L));
+        assertUsesIndex(1L, 2L);
+    }
+
+    @Test
+    void sumMonthlyPointsByCustomerIdInAndTransactionDateBetween_usesCustomerDateIndex() {
+        transactionRepository.sumMonthlyPointsByCustomerIdInAndTransactionDateBetween(List.of(1L, 2L), FROM, TO);
+        assertUsesIndex(1L, 2L, FROM, TO);
+    }
+
+    @Test
+    void sumMonthlyPointsByCustomerIdInAndTransactionDateGreaterThanEqual_usesCustomerDateIndex() {
+        transactionRepository.sumMonthlyPointsByCustomerIdInAndTransactionDateGreaterThanEqual(List.of(1L, 2L), FROM);
+        assertUsesIndex(1L, 2L, FROM);
+    }
+
+    @Test
+    void sumMonthlyPointsByCustomerIdInAndTransactionDateLessThanEqual_usesCustomerDateIndex() {
+        transactionRepository.sumMonthlyPointsByCustomerIdInAndTransactionDateLessThanEqual(List.of(1L, 2L), TO);
+        assertUsesIndex(1L, 2L, TO);
+    }
+
+    @Test
+    void findTopCustomersByPoints_usesDateCustomerIndex() {
+        transactionRepository.findTopCustomersByPoints(FROM, TO, Limit.of(10));
+        assertUsesNamedIndex(DATE_INDEX, FROM, TO, 10);
+    }
+
+    private void assertUsesIndex(Object... parameters) {
+        assertUsesNamedIndex(INDEX, parameters);
+    }
+
+    private void assertUsesNamedIndex(String index, Object... parameters) {
+        // the repository query comes first; entity lookups may load customers after it
+        Assertions.assertThat(CapturingInspector.STATEMENTS).isNotEmpty();
+        String sql = CapturingInspector.STATEMENTS.get(0);
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, parameters);
+        Assertions.assertThat(plan).as(sql).containsIgnoringCase(index);
+    }
+
+    /** Records the SQL of every statement Hibernate prepares, in addition to counting it. */
+    public static class CapturingInspector extends RequestStatementCounter {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return super.inspect(sql);
+        }
+    }
+}
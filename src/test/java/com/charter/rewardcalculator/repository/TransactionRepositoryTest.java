@@ -0,0 +1,168 @@
+package com.charter.rewardcalculator.repository;
+
+import com.charter.rewardcalculator.model.Customer;
+import com.charter.rewardcalculator.model.Transaction;
+import com.charter.rewardcalculator.repository.projection.CustomerDayPointsRow;
+import com.charter.rewardcalculator.repository.projection.MonthlyPointsProjection;
+import com.charter.rewardcalculator.service.RewardRuleSet;
+import com.charter.rewardcalculator.service.RewardService;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class TransactionRepositoryTest {
+
+    private static final List<String> EDGE_AMOUNTS = List.of(
+            "0.01", "49.99", "50.00", "50.99", "51.00", "75.50", "99.99",
+            "100.00", "100.99", "101.00", "120.99", "200.00", "99999999.99");
+
+    @Autowired
+    TransactionRepository transactionRepository;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Autowired
+    RewardService rewardService;
+
+    @Autowired
+    RewardRuleSet rules;
+
+    private final List<Transaction> transactions = new ArrayList<>();
+    private Customer first;
+    private Customer second;
+
+    @BeforeEach
+    void seed() {
+        first = customerRepository.save(customer("repo-first@example.com"));
+        second = customerRepository.save(customer("repo-second@example.com"));
+        Random random = new Random(42);
+        for (String amount : EDGE_AMOUNTS) {
+            transactions.add(tx(first, new BigDecimal(amount), LocalDate.of(2023, 12, 31)));
+        }
+        for (int i = 0; i < 400; i++) {
+            Customer owner = random.nextBoolean() ? first : second;
+            BigDecimal amount = BigDecimal.valueOf(1 + random.nextInt(50_000), 2);
+            LocalDate date = LocalDate.of(2023, 1, 1).plusDays(random.nextInt(730));
+            transactions.add(tx(owner, amount, date));
+        }
+        transactionRepository.saveAll(transactions);
+    }
+
+    @Test
+    void sumMonthlyPoints_matchesJavaFormula() {
+        List<MonthlyPointsProjection> rows = transactionRepository.sumMonthlyPointsByCustomerIdIn(
+                List.of(first.getId(), second.getId()));
+
+        Assertions.assertThat(rows).containsExactlyElementsOf(expected(null, null));
+    }
+
+    @Test
+    void sumMonthlyPointsBetween_matchesJavaFormula() {
+        LocalDate from = LocalDate.of(2023, 3, 17);
+        LocalDate to = LocalDate.of(2024, 8, 2);
+
+        List<MonthlyPointsProjection> rows = transactionRepository.sumMonthlyPointsByCustomerIdInAndTransactionDateBetween(
+                List.of(first.getId(), second.getId()), from, to);
+
+        Assertions.assertThat(rows).containsExactlyElementsOf(expected(from, to));
+    }
+
+    @Test
+    void sumMonthlyPointsGreaterThanEqual_matchesJavaFormula() {
+        LocalDate from = LocalDate.of(2024, 2, 29);
+
+        List<MonthlyPointsProjection> rows = transactionRepository.sumMonthlyPointsByCustomerIdInAndTransactionDateGreaterThanEqual(
+                List.of(first.getId(), second.getId()), from);
+
+        Assertions.assertThat(rows).containsExactlyElementsOf(expected(from, null));
+    }
+
+    @Test
+    void sumMonthlyPointsLessThanEqual_matchesJavaFormula() {
+        LocalDate to = LocalDate.of(2023, 6, 30);
+
+        List<MonthlyPointsProjection> rows = transactionRepository.sumMonthlyPointsByCustomerIdInAndTransactionDateLessThanEqual(
+                List.of(first.getId(), second.getId()), to);
+
+        Assertions.assertThat(rows).containsExactlyElementsOf(expected(null, to));
+    }
+
+    @Test
+    void sumMonthlyPoints_transactionsOnBoundariesAreIncluded() {
+        LocalDate day = LocalDate.of(2023, 12, 31);
+
+        List<MonthlyPointsProjection> rows = transactionRepository.sumMonthlyPointsByCustomerIdInAndTransactionDateBetween(
+                List.of(first.getId()), day, day);
+
+        Assertions.assertThat(rows).containsExactlyElementsOf(expected(day, day).stream()
+                .filter(r -> r.customerId().equals(first.getId()))
+                .toList());
+        Assertions.assertThat(rows).isNotEmpty();
+    }
+
+    @Test
+    void sumMonthlyPoints_customerWithoutTransactions_returnsNoRows() {
+        Customer empty = customerRepository.save(customer("repo-empty@example.com"));
+
+        Assertions.assertThat(transactionRepository.sumMonthlyPointsByCustomerIdIn(List.of(empty.getId()))).isEmpty();
+    }
+
+    @Test
+    void sumStalePointsChange_defaultRules_matchesPointsStoredByJava() {
+        // the default rules have no promotions, so reward_points must still take the date argument
+        List<CustomerDayPointsRow> rows = transactionRepository.sumStalePointsChange(
+                List.of(first.getId(), second.getId()), "stale");
+
+        Assertions.assertThat(rows).isNotEmpty().allSatisfy(row -> Assertions.assertThat(row.points()).isZero());
+    }
+
+    /** Computes the expected rows with the Java form of the reward rules. */
+    private List<MonthlyPointsProjection> expected(LocalDate from, LocalDate to) {
+        Map<Long, Map<YearMonth, Long>> byCustomer = new TreeMap<>();
+        for (Transaction t : transactions) {
+            LocalDate date = t.getTransactionDate();
+            if ((from != null && date.isBefore(from)) || (to != null && date.isAfter(to))) {
+                continue;
+            }
+            byCustomer.computeIfAbsent(t.getCustomer().getId(), k -> new TreeMap<>())
+                    .merge(YearMonth.from(date), rewardService.calculatePoints(t.getAmount(), date), Long::sum);
+        }
+        List<MonthlyPointsProjection> rows = new ArrayList<>();
+        byCustomer.forEach((customerId, months) -> months.forEach((ym, points) ->
+                rows.add(new MonthlyPointsProjection(customerId, ym.getYear(), ym.getMonthValue(), points))));
+        return rows;
+    }
+
+    private Customer customer(String email) {
+        Customer c = new Customer();
+        c.setName(email);
+        c.setEmail(email);
+        return c;
+    }
+
+    private Transaction tx(Customer c, BigDecimal amount, LocalDate date) {
+        Transaction t = new Transaction();
+        t.setCustomer(c);
+        t.setAmount(amount);
+        t.setTransactionDate(date);
+        rules.assignPoints(t);
+        return t;
+    }
+}
@@ -0,0 +1,148 @@
+package com.charter.rewardcalculator.service;
+
+import com.charter.rewardcalculator.config.RewardCacheProperties;
+import com.charter.rewardcalculator.exception.CustomerNotFoundException;
+import com.charter.rewardcalculator.exception.InvalidDateRangeException;
+import com.charter.rewardcalculator.model.CustomerMonthPoints;
+import com.charter.rewardcalculator.repository.CustomerMonthPointsRepository;
+import com.charter.rewardcalculator.repository.CustomerRepository;
+import com.charter.rewardcalculator.repository.TransactionRepository;
+import com.charter.rewardcalculator.repository.projection.CustomerNameRow;
+import com.charter.rewardcalculator.repository.projection.MonthlyPointsProjection;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@ExtendWith(MockitoExtension.class)
+class CachingRewardServiceTest {
+
+    @Mock
+    RewardService delegate;
+
+    @Mock
+    CustomerRepository customerRepository;
+
+    @Mock
+    CustomerMonthPointsRepository ledgerRepository;
+
+    @Mock
+    TransactionRepository transactionRepository;
+
+    CachingRewardService service;
+
+    @BeforeEach
+    void setUp() {
+        RewardSummaryCache cache = new RewardSummaryCache(new RewardCacheProperties(100, Duration.ofMinutes(10)));
+        service = new CachingRewardService(delegate, cache, customerRepository, ledgerRepository, transactionRepository,
+                new RewardMetrics(new SimpleMeterRegistry()), new ReportedRuleVersion("1", Instant.EPOCH));
+    }
+
+    @Test
+    void wholeMonthRanges_areAnsweredFromCachedHistory() {
+        stubHistory();
+
+        var all = service.getRewardsForCustomer(1L, null, null);
+        var q1 = service.getRewardsForCustomer(1L, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 3, 31));
+        var fromFeb = service.getRewardsForCustomer(1L, LocalDate.of(2024, 2, 1), null);
+
+        Assertions.assertThat(all.totalPoints()).isEqualTo(5 + 10 + 20 + 30);
+        Assertions.assertThat(q1.monthlyRewards()).extracting("month").containsExactly("JANUARY", "FEBRUARY", "MARCH");
+        Assertions.assertThat(q1.totalPoints()).isEqualTo(60);
+        Assertions.assertThat(fromFeb.totalPoints()).isEqualTo(50);
+        Mockito.verify(ledgerRepository, Mockito.times(1)).findByCustomerIdInOrderByCustomerIdAscYearMonthAsc(List.of(1L));
+        Mockito.verifyNoInteractions(transactionRepository, delegate);
+    }
+
+    @Test
+    void partialBounds_queryOnlyTheEdgeMonths() {
+        stubHistory();
+        LocalDate from = LocalDate.of(2023, 11, 20);
+        LocalDate to = LocalDate.of(2024, 2, 10);
+        Mockito.when(transactionRepository.sumMonthlyPointsByCustomerIdInAndTransactionDateBetween(
+                        List.of(1L), from, LocalDate.of(2023, 11, 30)))
+                .thenReturn(List.of(month(2023, 11, 3)));
+        Mockito.when(transactionRepository.sumMonthlyPointsByCustomerIdInAndTransactionDateBetween(
+                        List.of(1L), LocalDate.of(2024, 2, 1), to))
+                .thenReturn(List.of(month(2024, 2, 7)));
+
+        var result = service.getRewardsForCustomer(1L, from, to);
+
+        Assertions.assertThat(result.monthlyRewards()).extracting("points").containsExactly(3L, 10L, 7L);
+        Assertions.assertThat(result.totalPoints()).isEqualTo(20);
+        Mockito.verify(transactionRepository, Mockito.times(2)).sumMonthlyPointsByCustomerIdInAndTransactionDateBetween(
+                ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any());
+        Mockito.verifyNoMoreInteractions(transactionRepository);
+    }
+
+    @Test
+    void partialRangeWithinOneMonth_issuesSingleQuery() {
+        stubHistory();
+        LocalDate from = LocalDate.of(2024, 3, 5);
+        LocalDate to = LocalDate.of(2024, 3, 20);
+        Mockito.when(transactionRepository.sumMonthlyPointsByCustomerIdInAndTransactionDateBetween(List.of(1L), from, to))
+                .thenReturn(List.of(month(2024, 3, 12)));
+
+        var result = service.getRewardsForCustomer(1L, from, to);
+
+        Assertions.assertThat(result.totalPoints()).isEqualTo(12);
+        Mockito.verify(transactionRepository).sumMonthlyPointsByCustomerIdInAndTransactionDateBetween(List.of(1L), from, to);
+        Mockito.verifyNoMoreInteractions(transactionRepository);
+    }
+
+    @Test
+    void openEndedPartialBound_combinesEdgeAndCachedMonths() {
+        stubHistory();
+        LocalDate to = LocalDate.of(2024, 1, 15);
+        Mockito.when(transactionRepository.sumMonthlyPointsByCustomerIdInAndTransactionDateBetween(
+                        List.of(1L), LocalDate.of(2024, 1, 1), to))
+                .thenReturn(List.of(month(2024, 1, 4)));
+
+        var result = service.getRewardsForCustomer(1L, null, to);
+
+        Assertions.assertThat(result.monthlyRewards()).extracting("points").containsExactly(5L, 4L);
+    }
+
+    @Test
+    void unknownCustomer_throwsAndIsNotCached() {
+        Mockito.when(customerRepository.findNameById(9L)).thenReturn(Optional.empty());
+
+        Assertions.assertThatThrownBy(() -> service.getRewardsForCustomer(9L, null, null))
+                .isInstanceOf(CustomerNotFoundException.class);
+        Assertions.assertThatThrownBy(() -> service.getRewardsForCustomer(9L, null, null))
+                .isInstanceOf(CustomerNotFoundException.class);
+        Mockito.verify(customerRepository, Mockito.times(2)).findNameById(9L);
+    }
+
+    @Test
+    void fromAfterTo_throwsBeforeLoading() {
+        Assertions.assertThatThrownBy(() -> service.getRewardsForCustomer(
+                        1L, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 1, 1)))
+                .isInstanceOf(InvalidDateRangeException.class);
+        Mockito.verifyNoInteractions(customerRepository, ledgerRepository, transactionRepository);
+    }
+
+    private void stubHistory() {
+        Mockito.when(customerRepository.findNameById(1L)).thenReturn(Optional.of(new CustomerNameRow(1L, "Alice")));
+        Mockito.when(ledgerRepository.findByCustomerIdInOrderByCustomerIdAscYearMonthAsc(List.of(1L))).thenReturn(List.of(
+                new CustomerMonthPoints(1L, 202311, 5, 1),
+                new CustomerMonthPoints(1L, 202401, 10, 1),
+                new CustomerMonthPoints(1L, 202402, 20, 1),
+                new CustomerMonthPoints(1L, 202403, 30, 1)));
+    }
+
+    private MonthlyPointsProjection month(int year, int month, long points) {
+        return new MonthlyPointsProjection(1L, year, month, points);
+    }
+}
@@ -0,0 +1,133 @@
+package com.charter.rewardcalculator.service;
+
+import com.charter.rewardcalculator.model.Customer;
+import com.charter.rewardcalculator.model.Transaction;
+import com.charter.rewardcalculator.repository.CustomerRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// A low compaction bound makes the seeded writes fold the overlay into the base columns several times.
+@SpringBootTest(properties = {"rewards.columnar.enabled=true", "rewards.columnar.compact-after-rows=50"})
+@ActiveProfiles("test")
+class ColumnarRewardServiceTest {
+
+    @Autowired
+    RewardService rewardService;
+
+    @Autowired
+    RewardServiceImpl jpa;
+
+    @Autowired
+    TransactionService transactionService;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    private final List<Customer> createdCustomers = new ArrayList<>();
+    private final List<Transaction> createdTransactions = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        Random random = new Random(15);
+        for (int i = 0; i < 5; i++) {
+            Customer c = new Customer();
+            c.setName("Columnar " + i);
+            c.setEmail("columnar-" + i + "@example.com");
+            createdCustomers.add(customerRepository.save(c));
+        }
+        for (Customer c : createdCustomers.subList(0, 4)) {
+            for (int i = 0; i < 30; i++) {
+                createdTransactions.add(transactionService.createTransaction(c.getId(),
+                        BigDecimal.valueOf(1 + random.nextInt(40_000), 2),
+                        LocalDate.of(2023, 1, 1).plusDays(random.nextInt(700))));
+            }
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        createdTransactions.forEach(t -> transactionService.deleteTransaction(t.getId()));
+        customerRepository.deleteAll(createdCustomers);
+    }
+
+    @Test
+    void columnarEngine_isThePrimaryRewardService() {
+        Assertions.assertThat(rewardService).isInstanceOf(ColumnarRewardService.class);
+    }
+
+    @Test
+    void summaries_matchJpaPathOnRandomRanges() {
+        Random random = new Random(7);
+        List<Long> ids = new ArrayList<>(List.of(1L, 2L, 3L));
+        createdCustomers.forEach(c -> ids.add(c.getId()));
+        for (int i = 0; i < 100; i++) {
+            LocalDate from = random.nextInt(5) == 0 ? null : LocalDate.of(2023, 1, 1).plusDays(random.nextInt(700));
+            LocalDate to = random.nextInt(5) == 0 ? null
+                    : (from == null ? LocalDate.of(2023, 6, 1) : from).plusDays(random.nextInt(300));
+            Long id = ids.get(random.nextInt(ids.size()));
+
+            Assertions.assertThat(rewardService.getRewardsForCustomer(id, from, to))
+                    .as("customer %d from %s to %s", id, from, to)
+                    .isEqualTo(jpa.getRewardsForCustomer(id, from, to));
+        }
+    }
+
+    @Test
+    void pagesAndSlices_matchJpaPath() {
+        var pageable = PageRequest.of(0, 20, Sort.by("id").ascending());
+        LocalDate from = LocalDate.of(2023, 3, 10);
+        LocalDate to = LocalDate.of(2024, 4, 20);
+
+        Assertions.assertThat(rewardService.getRewardsPaged(pageable, from, to))
+                .isEqualTo(jpa.getRewardsPaged(pageable, from, to));
+        Assertions.assertThat(rewardService.getRewardsAfter(null, 4, null, null))
+                .isEqualTo(jpa.getRewardsAfter(null, 4, null, null));
+    }
+
+    @Test
+    void writes_areAppliedOnCommit() {
+        Customer quiet = createdCustomers.get(4);
+        Transaction created = transactionService.createTransaction(
+                quiet.getId(), new BigDecimal("120.00"), LocalDate.of(2024, 1, 15));
+        createdTransactions.add(created);
+        Assertions.assertThat(rewardService.getRewardsForCustomer(quiet.getId(), null, null).totalPoints()).isEqualTo(90);
+
+        transactionService.updateTransaction(created.getId(), quiet.getId(), new BigDecimal("75.00"), LocalDate.of(2024, 2, 1));
+        Assertions.assertThat(rewardService.getRewardsForCustomer(quiet.getId(), null, null))
+                .isEqualTo(jpa.getRewardsForCustomer(quiet.getId(), null, null));
+
+        transactionService.deleteTransaction(created.getId());
+        createdTransactions.remove(created);
+        Assertions.assertThat(rewardService.getRewardsForCustomer(quiet.getId(), null, null).monthlyRewards()).isEmpty();
+    }
+
+    @Test
+    void sameDayWrites_matchJpaPath() {
+        Customer quiet = createdCustomers.get(4);
+        Transaction large = transactionService.createTransaction(
+                quiet.getId(), new BigDecimal("120.00"), LocalDate.of(2024, 3, 9));
+        Transaction small = transactionService.createTransaction(
+                quiet.getId(), new BigDecimal("40.00"), LocalDate.of(2024, 3, 9));
+        createdTransactions.add(small);
+        Assertions.assertThat(rewardService.getRewardsForCustomer(quiet.getId(), null, null))
+                .isEqualTo(jpa.getRewardsForCustomer(quiet.getId(), null, null));
+
+        // The remaining transaction earns no points, but its month is still reported.
+        transactionService.deleteTransaction(large.getId());
+        Assertions.assertThat(rewardService.getRewardsForCustomer(quiet.getId(), null, null))
+                .isEqualTo(jpa.getRewardsForCustomer(quiet.getId(), null, null));
+    }
+}
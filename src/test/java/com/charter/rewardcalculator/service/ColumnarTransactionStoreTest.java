@@ -0,0 +1,171 @@
+package com.charter.rewardcalculator.service;
+
+import com.charter.rewardcalculator.dto.CustomerRewardSummaryDTO;
+import com.charter.rewardcalculator.dto.MonthlyRewardDTO;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+
+class ColumnarTransactionStoreTest {
+
+    private static final int ROWS = 1_000_000;
+    private static final int CUSTOMERS = 10_000;
+
+    @Test
+    void epochMonthOf_matchesLocalDate() {
+        for (int day = (int) LocalDate.of(1800, 1, 1).toEpochDay(); day < LocalDate.of(2300, 1, 1).toEpochDay(); day++) {
+            LocalDate date = LocalDate.ofEpochDay(day);
+            Assertions.assertThat(ColumnarTransactionStore.epochMonthOf(day))
+                    .as("%s", date)
+                    .isEqualTo(MonthlyPointsAccumulator.epochMonth(date.getYear(), date.getMonthValue()));
+        }
+    }
+
+    @Test
+    void sumMonths_matchesTreeMapAggregationOnRandomRanges() {
+        SplittableRandom random = new SplittableRandom(15);
+        ColumnarTransactionStore.Builder builder = ColumnarTransactionStore.builder();
+        Map<Long, List<long[]>> reference = new TreeMap<>();
+        for (long customerId = 1; customerId <= 50; customerId++) {
+            builder.customer(customerId * 3, "C" + customerId);
+            List<long[]> rows = new ArrayList<>();
+            int day = (int) LocalDate.of(2022, 1, 1).toEpochDay();
+            for (int i = random.nextInt(0, 200); i > 0; i--) {
+                day += random.nextInt(0, 6);
+                long points = random.nextLong(0, 700);
+                builder.row(day, points);
+                rows.add(new long[]{day, points});
+            }
+            reference.put(customerId * 3, rows);
+        }
+        ColumnarTransactionStore store = builder.build();
+
+        MonthlyPointsAccumulator accumulator = new MonthlyPointsAccumulator();
+        for (int i = 0; i < 2_000; i++) {
+            long customerId = random.nextLong(1, 51) * 3;
+            int from = (int) LocalDate.of(2022, 1, 1).toEpochDay() + random.nextInt(-30, 600);
+            int to = from + random.nextInt(0, 400);
+            accumulator.reset();
+            store.sumMonths(customerId, from, to, accumulator);
+
+            Assertions.assertThat(accumulator.toSummary(customerId, "C", "1"))
+                    .isEqualTo(expected(customerId, reference.get(customerId), from, to));
+        }
+    }
+
+    @Test
+    void apply_shadowsLoadedRowsAndAddsNewCustomers() {
+        ColumnarTransactionStore store = ColumnarTransactionStore.builder()
+                .customer(1, "Alice").row(day(2024, 1, 15), 90).row(day(2024, 2, 1), 25)
+                .customer(2, "Bob")
+                .build();
+        store.apply(1, new int[]{day(2024, 1, 15), day(2024, 2, 1), day(2024, 3, 3)},
+                new long[]{-90, -25, 250}, new int[]{-1, -1, 1});
+        store.apply(7, new int[]{day(2024, 1, 1)}, new long[]{52}, new int[]{1});
+
+        Assertions.assertThat(summary(store, 1).monthlyRewards())
+                .containsExactly(new MonthlyRewardDTO(2024, "MARCH", 250));
+        Assertions.assertThat(store.customerName(1)).isEqualTo("Alice");
+        Assertions.assertThat(summary(store, 2).monthlyRewards()).isEmpty();
+        Assertions.assertThat(summary(store, 7).totalPoints()).isEqualTo(52);
+        Assertions.assertThat(store.customerName(7)).isNull();
+        Assertions.assertThat(store.contains(7)).isTrue();
+        Assertions.assertThat(store.contains(3)).isFalse();
+        Assertions.assertThat(store.size()).isEqualTo(2);
+        Assertions.assertThat(store.overlayRows()).isEqualTo(2);
+    }
+
+    @Test
+    void apply_keepsZeroPointDaysUntilTheirLastTransactionIsRemoved() {
+        ColumnarTransactionStore store = ColumnarTransactionStore.builder()
+                .customer(1, "Alice").row(day(2024, 1, 15), 90).row(day(2024, 1, 15), 0)
+                .build();
+
+        store.apply(1, new int[]{day(2024, 1, 15)}, new long[]{-90}, new int[]{-1});
+        Assertions.assertThat(summary(store, 1).monthlyRewards())
+                .containsExactly(new MonthlyRewardDTO(2024, "JANUARY", 0));
+        Assertions.assertThat(store.size()).isEqualTo(1);
+
+        store.apply(1, new int[]{day(2024, 1, 15)}, new long[]{0}, new int[]{-1});
+        Assertions.assertThat(summary(store, 1).monthlyRewards()).isEmpty();
+        Assertions.assertThat(store.size()).isZero();
+    }
+
+    @Test
+    void compact_foldsTheOverlayIntoTheBaseColumns() {
+        SplittableRandom random = new SplittableRandom(21);
+        ColumnarTransactionStore.Builder builder = ColumnarTransactionStore.builder();
+        int firstDay = day(2023, 1, 1);
+        for (long customerId = 2; customerId <= 40; customerId += 2) {
+            builder.customer(customerId, "C" + customerId);
+            for (int i = 0; i < 20; i++) {
+                builder.row(firstDay + i * 9, random.nextLong(0, 700));
+            }
+        }
+        ColumnarTransactionStore store = builder.build();
+        for (long customerId = 1; customerId <= 41; customerId += 3) {
+            store.apply(customerId, new int[]{firstDay + 9, firstDay + 400},
+                    new long[]{random.nextLong(-50, 50), random.nextLong(0, 700)}, new int[]{0, 1});
+        }
+
+        ColumnarTransactionStore compacted = store.compact();
+
+        Assertions.assertThat(compacted.overlayRows()).isZero();
+        Assertions.assertThat(compacted.size()).isEqualTo(store.size());
+        for (long customerId = 1; customerId <= 42; customerId++) {
+            Assertions.assertThat(compacted.contains(customerId)).isEqualTo(store.contains(customerId));
+            Assertions.assertThat(compacted.customerName(customerId)).isEqualTo(store.customerName(customerId));
+            Assertions.assertThat(summary(compacted, customerId)).isEqualTo(summary(store, customerId));
+        }
+    }
+
+    @Test
+    void columns_holdTwelveBytesPerTransaction() {
+        SplittableRandom random = new SplittableRandom(3);
+        ColumnarTransactionStore.Builder builder = ColumnarTransactionStore.builder();
+        int perCustomer = ROWS / CUSTOMERS;
+        int firstDay = (int) LocalDate.of(2020, 1, 1).toEpochDay();
+        for (long customerId = 1; customerId <= CUSTOMERS; customerId++) {
+            builder.customer(customerId, null);
+            for (int i = 0; i < perCustomer; i++) {
+                builder.row(firstDay + i, random.nextLong(0, 700));
+            }
+        }
+        ColumnarTransactionStore store = builder.build();
+
+        // A List<Transaction> needs well over 100 bytes per row: the entity, its BigDecimal and its LocalDate.
+        Assertions.assertThat(store.size()).isEqualTo(ROWS);
+        Assertions.assertThat((double) store.columnBytes() / ROWS).isLessThan(12.2);
+    }
+
+    private static CustomerRewardSummaryDTO summary(ColumnarTransactionStore store, long customerId) {
+        MonthlyPointsAccumulator accumulator = new MonthlyPointsAccumulator();
+        store.sumMonths(customerId, Integer.MIN_VALUE, Integer.MAX_VALUE, accumulator);
+        return accumulator.toSummary(customerId, store.customerName(customerId), "1");
+    }
+
+    private static CustomerRewardSummaryDTO expected(long customerId, List<long[]> rows, int from, int to) {
+        TreeMap<YearMonth, Long> months = new TreeMap<>();
+        for (long[] row : rows) {
+            if (row[0] >= from && row[0] <= to) {
+                months.merge(YearMonth.from(LocalDate.ofEpochDay(row[0])), row[1], Long::sum);
+            }
+        }
+        List<MonthlyRewardDTO> monthly = months.entrySet().stream()
+                .map(e -> new MonthlyRewardDTO(e.getKey().getYear(), e.getKey().getMonth().name(), e.getValue()))
+                .toList();
+        return new CustomerRewardSummaryDTO(customerId, "C", monthly,
+                monthly.stream().mapToLong(MonthlyRewardDTO::points).sum(), "1");
+    }
+
+    private static int day(int year, int month, int day) {
+        return (int) LocalDate.of(year, month, day).toEpochDay();
+    }
+}
@@ -0,0 +1,176 @@
+package com.charter.rewardcalculator.service;
+
+import com.charter.rewardcalculator.dto.CsvImportResultDTO;
+import com.charter.rewardcalculator.model.Customer;
+import com.charter.rewardcalculator.repository.CustomerMonthPointsRepository;
+import com.charter.rewardcalculator.repository.CustomerRepository;
+import com.charter.rewardcalculator.repository.TransactionRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+@SpringBootTest(properties = {
+        "rewards.csv-import.chunk-size=512B",
+        "rewards.csv-import.batch-size=7",
+        "rewards.csv-import.parallelism=3"
+})
+@ActiveProfiles("test")
+class CsvImportServiceTest {
+
+    private static final int CUSTOMERS = 5;
+    private static final int ROWS = 400;
+
+    @Autowired
+    CsvImportService csvImportService;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Autowired
+    TransactionRepository transactionRepository;
+
+    @Autowired
+    CustomerMonthPointsRepository ledgerRepository;
+
+    @Autowired
+    RewardService rewardService;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @TempDir
+    Path tempDir;
+
+    private final List<Customer> customers = new ArrayList<>();
+
+    @BeforeEach
+    void seedCustomers() {
+        for (int i = 0; i < CUSTOMERS; i++) {
+            Customer c = new Customer();
+            c.setName("Import " + i);
+            c.setEmail("csv-import-" + i + "@example.com");
+            customers.add(customerRepository.save(c));
+        }
+    }
+
+    @AfterEach
+    void removeCustomers() {
+        List<Long> ids = customers.stream().map(Customer::getId).toList();
+        transactionTemplate.executeWithoutResult(status -> {
+            ids.forEach(id -> transactionRepository.deleteAllInBatch(transactionRepository.findByCustomerId(id)));
+            ledgerRepository.deleteByCustomerIdIn(ids);
+        });
+        customerRepository.deleteAll(customers);
+    }
+
+    @Test
+    void importFile_insertsValidRowsAcrossChunksAndUpdatesLedger() throws Exception {
+        SplittableRandom random = new SplittableRandom(20);
+        StringBuilder csv = new StringBuilder("customerId,amount,transactionDate\r\n");
+        Map<Long, Long> expectedPoints = new HashMap<>();
+        for (int i = 0; i < ROWS; i++) {
+            Long customerId = customers.get(random.nextInt(CUSTOMERS)).getId();
+            BigDecimal amount = BigDecimal.valueOf(random.nextLong(1, 30_000), 2);
+            LocalDate date = LocalDate.of(2024, 1, 1).plusDays(random.nextInt(366));
+            csv.append(customerId).append(',').append(amount.toPlainString()).append(',').append(date).append("\r\n");
+            expectedPoints.merge(customerId, rewardService.calculatePoints(amount), Long::sum);
+        }
+        Path file = Files.writeString(tempDir.resolve("transactions.csv"), csv);
+
+        CsvImportResultDTO result = csvImportService.importFile(file, tempDir.resolve("rejects.csv"));
+
+        Assertions.assertThat(result.received()).isEqualTo(ROWS);
+        Assertions.assertThat(result.accepted()).isEqualTo(ROWS);
+        Assertions.assertThat(result.rejected()).isZero();
+        Assertions.assertThat(result.rejectFile()).isNull();
+        Assertions.assertThat(tempDir.resolve("rejects.csv")).doesNotExist();
+        for (Customer customer : customers) {
+            long expected = expectedPoints.getOrDefault(customer.getId(), 0L);
+            // whole months are read from the ledger, partial ranges from the transaction table
+            Assertions.assertThat(rewardService.getRewardsForCustomer(
+                    customer.getId(), LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31)).totalPoints())
+                    .isEqualTo(expected);
+            Assertions.assertThat(rewardService.getRewardsForCustomer(
+                    customer.getId(), LocalDate.of(2023, 12, 31), LocalDate.of(2025, 1, 1)).totalPoints())
+                    .isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void importFile_writesRejectedLinesWithOffsetAndReason() throws Exception {
+        Long id = customers.get(0).getId();
+        String valid = id + ",120.00,2024-04-02\n";
+        String badAmount = id + ",-3.00,2024-04-03\n";
+        String unknownCustomer = "999999999,10.00,2024-04-03\n";
+        String badDate = id + ",10.00,2024-02-30\n";
+        Path file = Files.writeString(tempDir.resolve("mixed.csv"), valid + badAmount + unknownCustomer + badDate);
+        Path rejects = tempDir.resolve("mixed.rejects.csv");
+
+        CsvImportResultDTO result = csvImportService.importFile(file, rejects);
+
+        Assertions.assertThat(result.received()).isEqualTo(4);
+        Assertions.assertThat(result.accepted()).isEqualTo(1);
+        Assertions.assertThat(result.rejected()).isEqualTo(3);
+        Assertions.assertThat(result.rejectFile()).isEqualTo(rejects.toString());
+        int badAmountOffset = valid.length();
+        int unknownOffset = badAmountOffset + badAmount.length();
+        int badDateOffset = unknownOffset + unknownCustomer.length();
+        Assertions.assertThat(Files.readAllLines(rejects)).containsExactly(
+                "offset,reason,line",
+                badAmountOffset + ",\"amount must be greater than 0\"," + badAmount.strip(),
+                unknownOffset + ",\"Customer not found with id: 999999999\"," + unknownCustomer.strip(),
+                badDateOffset + ",\"" + CsvTransactionParser.DATE_MALFORMED + "\"," + badDate.strip());
+        Assertions.assertThat(rewardService.getRewardsForCustomer(id, null, null).totalPoints()).isEqualTo(90);
+    }
+
+    @Test
+    void importStream_spoolsBodyAndRemovesSpoolFile() {
+        Long id = customers.get(1).getId();
+        byte[] body = (id + ",75.00,2024-05-01\n" + id + ",75.00,2024-05-02\n").getBytes(StandardCharsets.UTF_8);
+
+        CsvImportResultDTO result = csvImportService.importStream(new ByteArrayInputStream(body));
+
+        Assertions.assertThat(result.accepted()).isEqualTo(2);
+        Assertions.assertThat(rewardService.getRewardsForCustomer(id, null, null).totalPoints()).isEqualTo(50);
+    }
+
+    @Test
+    void split_endsEveryChunkAfterALineFeed() throws Exception {
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 300; i++) {
+            csv.append(i + 1).append(',').append("1".repeat(1 + i % 7)).append(".00,2024-01-01\n");
+        }
+        Path file = Files.writeString(tempDir.resolve("split.csv"), csv);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            List<long[]> chunks = CsvImportServiceImpl.split(channel, 100);
+
+            Assertions.assertThat(chunks.get(0)[0]).isZero();
+            Assertions.assertThat(chunks.get(chunks.size() - 1)[1]).isEqualTo(channel.size());
+            for (int i = 1; i < chunks.size(); i++) {
+                Assertions.assertThat(chunks.get(i)[0]).isEqualTo(chunks.get(i - 1)[1]);
+                Assertions.assertThat(csv.charAt((int) chunks.get(i)[0] - 1)).isEqualTo('\n');
+            }
+        }
+    }
+}
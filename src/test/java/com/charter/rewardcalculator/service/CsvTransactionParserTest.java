@@ -0,0 +1,139 @@
+package com.charter.rewardcalculator.service;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+class CsvTransactionParserTest {
+
+    @Test
+    void next_parsesFieldsSkipsHeaderAndBlankLines() {
+        CsvTransactionParser parser = parser("customerId,amount,transactionDate\r\n"
+                + "42,120.50,2024-03-07\r\n"
+                + "\n"
+                + "7,5,2023-12-31\n"
+                + "9,0.5,2024-02-29", true);
+
+        Assertions.assertThat(parser.next()).isTrue();
+        Assertions.assertThat(parser.error()).isNull();
+        Assertions.assertThat(parser.customerId()).isEqualTo(42);
+        Assertions.assertThat(parser.amountCents()).isEqualTo(12050);
+        Assertions.assertThat(parser.epochDay()).isEqualTo(LocalDate.of(2024, 3, 7).toEpochDay());
+        Assertions.assertThat(parser.lineLength()).isEqualTo("42,120.50,2024-03-07".length());
+
+        Assertions.assertThat(parser.next()).isTrue();
+        Assertions.assertThat(parser.amountCents()).isEqualTo(500);
+        Assertions.assertThat(parser.epochDay()).isEqualTo(LocalDate.of(2023, 12, 31).toEpochDay());
+
+        Assertions.assertThat(parser.next()).isTrue();
+        Assertions.assertThat(parser.customerId()).isEqualTo(9);
+        Assertions.assertThat(parser.amountCents()).isEqualTo(50);
+
+        Assertions.assertThat(parser.next()).isFalse();
+    }
+
+    @Test
+    void next_withoutHeaderSkip_rejectsHeaderLine() {
+        CsvTransactionParser parser = parser("customerId,amount,transactionDate\n", false);
+
+        Assertions.assertThat(parser.next()).isTrue();
+        Assertions.assertThat(parser.error()).isEqualTo(CsvTransactionParser.CUSTOMER_ID_MALFORMED);
+    }
+
+    @Test
+    void next_rejectsRowsThatBreakEntityConstraints() {
+        Assertions.assertThat(errors(
+                "1,10.00",
+                "1,10.00,2024-01-01,x",
+                ",10.00,2024-01-01",
+                "0,10.00,2024-01-01",
+                "1x,10.00,2024-01-01",
+                "1,,2024-01-01",
+                "1,0.00,2024-01-01",
+                "1,-3.00,2024-01-01",
+                "1,1e3,2024-01-01",
+                "1,.,2024-01-01",
+                "1,10.125,2024-01-01",
+                "1,123456789.00,2024-01-01",
+                "1,10.00,",
+                "1,10.00,2024-02-30",
+                "1,10.00,2023-02-29",
+                "1,10.00,2024-13-01",
+                "1,10.00,2024/01/01",
+                "1,10.00,24-01-01"))
+                .containsExactly(
+                        CsvTransactionParser.EXPECTED_FIELDS,
+                        CsvTransactionParser.EXPECTED_FIELDS,
+                        CsvTransactionParser.CUSTOMER_ID_NULL,
+                        CsvTransactionParser.CUSTOMER_ID_MALFORMED,
+                        CsvTransactionParser.CUSTOMER_ID_MALFORMED,
+                        CsvTransactionParser.AMOUNT_NULL,
+                        CsvTransactionParser.AMOUNT_NOT_POSITIVE,
+                        CsvTransactionParser.AMOUNT_NOT_POSITIVE,
+                        CsvTransactionParser.AMOUNT_MALFORMED,
+                        CsvTransactionParser.AMOUNT_MALFORMED,
+                        CsvTransactionParser.AMOUNT_OUT_OF_BOUNDS,
+                        CsvTransactionParser.AMOUNT_OUT_OF_BOUNDS,
+                        CsvTransactionParser.DATE_NULL,
+                        CsvTransactionParser.DATE_MALFORMED,
+                        CsvTransactionParser.DATE_MALFORMED,
+                        CsvTransactionParser.DATE_MALFORMED,
+                        CsvTransactionParser.DATE_MALFORMED,
+                        CsvTransactionParser.DATE_MALFORMED);
+    }
+
+    @Test
+    void next_amountsMatchBigDecimalOnRandomValues() {
+        SplittableRandom random = new SplittableRandom(20);
+        StringBuilder csv = new StringBuilder();
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            long cents = random.nextLong(1, 10_000_000_000L);
+            String amount = BigDecimal.valueOf(cents, 2).toPlainString();
+            if (cents % 100 == 0 && random.nextBoolean()) {
+                amount = String.valueOf(cents / 100);
+            } else if (cents % 10 == 0 && random.nextBoolean()) {
+                amount = BigDecimal.valueOf(cents / 10, 1).toPlainString();
+            }
+            csv.append(i + 1).append(',').append(amount).append(",2024-01-01\n");
+            expected.add(cents);
+        }
+        CsvTransactionParser parser = parser(csv.toString(), false);
+
+        List<Long> parsed = new ArrayList<>();
+        while (parser.next()) {
+            Assertions.assertThat(parser.error()).isNull();
+            parsed.add(parser.amountCents());
+        }
+        Assertions.assertThat(parsed).isEqualTo(expected);
+    }
+
+    @Test
+    void epochDayOf_matchesLocalDate() {
+        for (LocalDate date = LocalDate.of(1800, 1, 1); date.isBefore(LocalDate.of(2300, 1, 1)); date = date.plusDays(1)) {
+            Assertions.assertThat(CsvTransactionParser.epochDayOf(date.getYear(), date.getMonthValue(), date.getDayOfMonth()))
+                    .as("%s", date)
+                    .isEqualTo(date.toEpochDay());
+        }
+    }
+
+    private static List<String> errors(String... lines) {
+        CsvTransactionParser parser = parser(String.join("\n", lines), false);
+        List<String> errors = new ArrayList<>();
+        while (parser.next()) {
+            errors.add(parser.error());
+        }
+        return errors;
+    }
+
+    private static CsvTransactionParser parser(String csv, boolean skipHeader) {
+        return new CsvTransactionParser(ByteBuffer.wrap(csv.getBytes(StandardCharsets.UTF_8)), skipHeader);
+    }
+}
@@ -0,0 +1,153 @@
+package com.charter.rewardcalculator.service;
+
+import com.charter.rewardcalculator.config.RequestStatementCounter;
+import com.charter.rewardcalculator.exception.CustomerNotFoundException;
+import com.charter.rewardcalculator.model.Customer;
+import com.charter.rewardcalculator.model.Transaction;
+import com.charter.rewardcalculator.repository.CustomerRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.Ordered;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CustomerPointsIndexTest {
+
+    private static final LocalDate START = LocalDate.of(2023, 1, 1);
+
+    @Autowired
+    CustomerPointsIndex index;
+
+    @Autowired
+    RewardServiceImpl uncached;
+
+    @Autowired
+    TransactionService transactionService;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    private Customer customer;
+    private final List<Transaction> transactions = new ArrayList<>();
+
+    @BeforeEach
+    void seedCustomer() {
+        Customer c = new Customer();
+        c.setName("Index Customer");
+        c.setEmail("index-customer@example.com");
+        customer = customerRepository.save(c);
+    }
+
+    @AfterEach
+    void removeCustomer() {
+        transactions.forEach(t -> transactionService.deleteTransaction(t.getId()));
+        customerRepository.delete(customer);
+    }
+
+    @Test
+    void total_matchesFullSummaryAfterBackdatedWritesUpdatesAndDeletes() {
+        Random random = new Random(16);
+        index.getTotal(customer.getId(), null, null);
+        for (int i = 0; i < 120; i++) {
+            int action = random.nextInt(6);
+            if (action == 0 && !transactions.isEmpty()) {
+                Transaction removed = transactions.remove(random.nextInt(transactions.size()));
+                transactionService.deleteTransaction(removed.getId());
+            } else if (action == 1 && !transactions.isEmpty()) {
+                int at = random.nextInt(transactions.size());
+                transactions.set(at, transactionService.updateTransaction(transactions.get(at).getId(),
+                        customer.getId(), amount(random), START.plusDays(random.nextInt(400))));
+            } else {
+                // Each day is drawn from the whole window, so most writes are backdated.
+                transactions.add(transactionService.createTransaction(
+                        customer.getId(), amount(random), START.plusDays(random.nextInt(400))));
+            }
+
+            LocalDate from = random.nextInt(4) == 0 ? null : START.plusDays(random.nextInt(400));
+            LocalDate to = random.nextInt(4) == 0 ? null
+                    : (from == null ? START : from).plusDays(random.nextInt(200));
+            Assertions.assertThat(index.getTotal(customer.getId(), from, to).totalPoints())
+                    .as("from %s to %s", from, to)
+                    .isEqualTo(uncached.getRewardsForCustomer(customer.getId(), from, to).totalPoints());
+        }
+    }
+
+    @Test
+    void writes_updateIndexedSumsWithoutReloading() {
+        transactions.add(transactionService.createTransaction(
+                customer.getId(), new BigDecimal("120.00"), LocalDate.of(2024, 3, 10)));
+        Assertions.assertThat(index.getTotal(customer.getId(), null, null).totalPoints()).isEqualTo(90);
+
+        transactions.add(transactionService.createTransaction(
+                customer.getId(), new BigDecimal("75.00"), LocalDate.of(2024, 1, 5)));
+
+        AtomicInteger statements = new AtomicInteger();
+        RequestStatementCounter.bind(statements);
+        try {
+            Assertions.assertThat(index.getTotal(customer.getId(), null, null).totalPoints()).isEqualTo(115);
+            Assertions.assertThat(index.getTotal(customer.getId(), null, LocalDate.of(2024, 2, 1)).totalPoints())
+                    .isEqualTo(25);
+        } finally {
+            RequestStatementCounter.bind(null);
+        }
+        Assertions.assertThat(statements.get()).isZero();
+    }
+
+    @Test
+    void loadAfterCommitBeforeTheChangeIsApplied_isNotCountedTwice() {
+        transactions.add(transactionService.createTransaction(
+                customer.getId(), new BigDecimal("120.00"), LocalDate.of(2024, 3, 10)));
+        AtomicLong loaded = new AtomicLong();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            transactions.add(transactionService.createTransaction(
+                    customer.getId(), new BigDecimal("75.00"), LocalDate.of(2024, 1, 5)));
+            // runs once the row is committed, ahead of the index applying its change
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public int getOrder() {
+                    return Ordered.HIGHEST_PRECEDENCE;
+                }
+
+                @Override
+                public void afterCommit() {
+                    loaded.set(CompletableFuture.supplyAsync(
+                            () -> index.getTotal(customer.getId(), null, null).totalPoints()).join());
+                }
+            });
+        });
+
+        Assertions.assertThat(loaded.get()).isEqualTo(115);
+        Assertions.assertThat(index.getTotal(customer.getId(), null, null).totalPoints()).isEqualTo(115);
+    }
+
+    @Test
+    void total_unknownCustomer_throwsNotFound() {
+        Assertions.assertThatThrownBy(() -> index.getTotal(999_999L, null, null))
+                .isInstanceOf(CustomerNotFoundException.class);
+    }
+
+    private static BigDecimal amount(Random random) {
+        return BigDecimal.valueOf(1 + random.nextInt(30_000), 2);
+    }
+}
@@ -0,0 +1,252 @@
+package com.charter.rewardcalculator.service;
+
+import com.charter.rewardcalculator.config.WriteBehindProperties;
+import com.charter.rewardcalculator.exception.CustomerNotFoundException;
+import com.charter.rewardcalculator.exception.WriteBufferFullException;
+import com.charter.rewardcalculator.model.Customer;
+import com.charter.rewardcalculator.model.Transaction;
+import com.charter.rewardcalculator.repository.CustomerMonthPointsRepository;
+import com.charter.rewardcalculator.repository.CustomerRepository;
+import com.charter.rewardcalculator.repository.TransactionRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolationException;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+@SpringBootTest(properties = {
+        "rewards.write-behind.enabled=true",
+        "rewards.write-behind.batch-size=16",
+        "rewards.write-behind.max-delay=5ms"
+})
+@ActiveProfiles("test")
+class GroupCommitTransactionServiceTest {
+
+    private static final int CUSTOMERS = 8;
+    private static final int THREADS = 32;
+    private static final int ROWS_PER_THREAD = 50;
+
+    @Autowired
+    TransactionService transactionService;
+
+    @Autowired
+    TransactionServiceImpl perRowService;
+
+    @Autowired
+    RewardService rewardService;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Autowired
+    TransactionRepository transactionRepository;
+
+    @Autowired
+    CustomerMonthPointsRepository ledgerRepository;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    private final List<Customer> customers = new ArrayList<>();
+
+    @BeforeEach
+    void seedCustomers() {
+        for (int i = 0; i < CUSTOMERS; i++) {
+            Customer c = new Customer();
+            c.setName("Write Behind " + i);
+            c.setEmail("write-behind-" + i + "@example.com");
+            customers.add(customerRepository.save(c));
+        }
+    }
+
+    @AfterEach
+    void removeCustomers() {
+        List<Long> ids = customers.stream().map(Customer::getId).toList();
+        transactionTemplate.executeWithoutResult(status -> {
+            ids.forEach(id -> transactionRepository.deleteAllInBatch(transactionRepository.findByCustomerId(id)));
+            ledgerRepository.deleteByCustomerIdIn(ids);
+        });
+        customerRepository.deleteAll(customers);
+    }
+
+    @Test
+    void createTransaction_concurrentCallersShareCommitsAndLedgerMatches() throws Exception {
+        Assertions.assertThat(transactionService).isInstanceOf(GroupCommitTransactionService.class);
+        DistributionSummary batchRows = meterRegistry.get("rewards.write-behind.batch.rows").summary();
+        long batchesBefore = batchRows.count();
+
+        List<Transaction> created = createConcurrently(transactionService);
+
+        long batches = batchRows.count() - batchesBefore;
+        Assertions.assertThat(created).hasSize(THREADS * ROWS_PER_THREAD);
+        Assertions.assertThat(created).extracting(Transaction::getId).doesNotContainNull().doesNotHaveDuplicates();
+        Assertions.assertThat(batches).isPositive().isLessThan(created.size());
+        Assertions.assertThat(batchRows.max()).isGreaterThan(1);
+        Assertions.assertThat(meterRegistry.get("rewards.write-behind.commit").timer().count()).isPositive();
+
+        Map<Long, Long> expectedPoints = new HashMap<>();
+        for (Transaction tx : created) {
+            expectedPoints.merge(tx.getCustomer().getId(), rewardService.calculatePoints(tx.getAmount()), Long::sum);
+        }
+        for (Customer customer : customers) {
+            Assertions.assertThat(transactionRepository.findByCustomerId(customer.getId()))
+                    .hasSize(THREADS * ROWS_PER_THREAD / CUSTOMERS);
+            // whole-month ranges come from the ledger, partial ones from the transaction table
+            Assertions.assertThat(rewardService.getRewardsForCustomer(customer.getId(), null, null).totalPoints())
+                    .isEqualTo(expectedPoints.get(customer.getId()));
+            Assertions.assertThat(rewardService.getRewardsForCustomer(
+                    customer.getId(), LocalDate.of(2023, 12, 31), LocalDate.of(2025, 1, 1)).totalPoints())
+                    .isEqualTo(expectedPoints.get(customer.getId()));
+        }
+    }
+
+    @Test
+    void createTransaction_unknownCustomerFailsOnlyItsOwnCaller() throws Exception {
+        Long id = customers.get(0).getId();
+        try (ExecutorService pool = Executors.newFixedThreadPool(3)) {
+            Future<Transaction> first = pool.submit(() ->
+                    transactionService.createTransaction(id, new BigDecimal("120.00"), LocalDate.of(2024, 4, 2)));
+            Future<Transaction> unknown = pool.submit(() ->
+                    transactionService.createTransaction(999_999_999L, new BigDecimal("10.00"), LocalDate.of(2024, 4, 2)));
+            Future<Transaction> second = pool.submit(() ->
+                    transactionService.createTransaction(id, new BigDecimal("75.00"), LocalDate.of(2024, 4, 3)));
+
+            Assertions.assertThat(first.get().getId()).isNotNull();
+            Assertions.assertThat(second.get().getId()).isNotNull();
+            Assertions.assertThatThrownBy(unknown::get)
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(CustomerNotFoundException.class);
+        }
+        Assertions.assertThat(rewardService.getRewardsForCustomer(id, null, null).totalPoints()).isEqualTo(115);
+    }
+
+    @Test
+    void createTransaction_invalidAmountIsRejectedBeforeQueueing() {
+        Assertions.assertThatThrownBy(() -> transactionService.createTransaction(
+                        customers.get(0).getId(), new BigDecimal("-3.00"), LocalDate.of(2024, 4, 2)))
+                .isInstanceOf(ConstraintViolationException.class)
+                .hasMessageContaining("amount");
+    }
+
+    @Test
+    void createTransaction_fullQueueRejectsAfterOfferTimeout() throws Exception {
+        CustomerRepository repository = Mockito.mock(CustomerRepository.class);
+        CountDownLatch writerBusy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.when(repository.findExistingIds(ArgumentMatchers.any())).thenAnswer(invocation -> {
+            writerBusy.countDown();
+            release.await();
+            return List.of();
+        });
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        GroupCommitTransactionService service = new GroupCommitTransactionService(
+                Mockito.mock(TransactionServiceImpl.class), Mockito.mock(EntityManager.class), repository,
+                Mockito.mock(RewardLedgerService.class), Mockito.mock(TransactionTemplate.class),
+                new WriteBehindProperties(true, 1, 1, Duration.ofMillis(1), Duration.ofMillis(50)),
+                RewardRuleSet.defaults(), registry);
+        try (ExecutorService pool = Executors.newFixedThreadPool(2)) {
+            Future<Transaction> inBatch = pool.submit(() ->
+                    service.createTransaction(1L, BigDecimal.TEN, LocalDate.of(2024, 1, 1)));
+            Assertions.assertThat(writerBusy.await(10, TimeUnit.SECONDS)).isTrue();
+            Future<Transaction> queued = pool.submit(() ->
+                    service.createTransaction(2L, BigDecimal.TEN, LocalDate.of(2024, 1, 1)));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (registry.get("rewards.write-behind.queue.depth").gauge().value() < 1 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+
+            Assertions.assertThatThrownBy(() -> service.createTransaction(3L, BigDecimal.TEN, LocalDate.of(2024, 1, 1)))
+                    .isInstanceOf(WriteBufferFullException.class);
+            Assertions.assertThat(registry.get("rewards.write-behind.rejected").counter().count()).isEqualTo(1);
+
+            release.countDown();
+            Assertions.assertThatThrownBy(inBatch::get).hasCauseInstanceOf(CustomerNotFoundException.class);
+            Assertions.assertThatThrownBy(queued::get).hasCauseInstanceOf(CustomerNotFoundException.class);
+        } finally {
+            release.countDown();
+            service.destroy();
+        }
+    }
+
+    /** Wall-clock comparison, so it only runs when requested, like {@code RewardLoadTest}. */
+    @Test
+    @EnabledIfSystemProperty(named = "rewards.load-test", matches = "true")
+    void groupCommit_isFasterThanPerRowCommits() throws Exception {
+        createConcurrently(perRowService);
+
+        long perRow = time(perRowService);
+        long grouped = time(transactionService);
+
+        int rows = THREADS * ROWS_PER_THREAD;
+        Assertions.assertThat(grouped)
+                .as("rows/s from %d threads: per-row=%d, group commit=%d",
+                        THREADS, rowsPerSecond(rows, perRow), rowsPerSecond(rows, grouped))
+                .isLessThan(perRow);
+    }
+
+    private long time(TransactionService service) throws Exception {
+        long started = System.nanoTime();
+        createConcurrently(service);
+        return System.nanoTime() - started;
+    }
+
+    /** Creates {@code ROWS_PER_THREAD} transactions from each of {@code THREADS} threads. */
+    private List<Transaction> createConcurrently(TransactionService service) throws Exception {
+        Function<Integer, List<Transaction>> worker = thread -> {
+            List<Transaction> created = new ArrayList<>(ROWS_PER_THREAD);
+            for (int i = 0; i < ROWS_PER_THREAD; i++) {
+                Long customerId = customers.get((thread + i) % CUSTOMERS).getId();
+                created.add(service.createTransaction(customerId,
+                        BigDecimal.valueOf(1_000 + (thread * 37L + i * 11L) % 20_000, 2),
+                        LocalDate.of(2024, 1, 1).plusDays((thread * 7L + i) % 366)));
+            }
+            return created;
+        };
+        List<Transaction> all = new ArrayList<>();
+        try (ExecutorService pool = Executors.newFixedThreadPool(THREADS)) {
+            List<CompletableFuture<List<Transaction>>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(CompletableFuture.supplyAsync(() -> worker.apply(thread), pool));
+            }
+            for (CompletableFuture<List<Transaction>> future : futures) {
+                all.addAll(future.get());
+            }
+        }
+        return all;
+    }
+
+    private static long rowsPerSecond(int rows, long nanos) {
+        return Math.round(rows / (nanos / 1_000_000_000.0));
+    }
+}
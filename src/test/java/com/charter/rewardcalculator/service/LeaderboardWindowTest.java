@@ -0,0 +1,123 @@
+package com.charter.rewardcalculator.service;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+class LeaderboardWindowTest {
+
+    private static final int CAPACITY = 5;
+
+    private final Map<Long, Long> totals = new HashMap<>();
+    private final FakeLoader loader = new FakeLoader();
+    private final LeaderboardWindow window = new LeaderboardWindow(202401, 202403, CAPACITY);
+
+    @Test
+    void top_matchesBruteForceRankingAfterRandomChanges() {
+        Random random = new Random(17);
+        for (long id = 1; id <= 40; id++) {
+            totals.put(id, (long) random.nextInt(100));
+        }
+        for (int i = 0; i < 2_000; i++) {
+            for (int j = random.nextInt(4); j >= 0; j--) {
+                long id = 1 + random.nextInt(45);
+                long points = Math.max(0, totals.getOrDefault(id, 0L) + random.nextInt(120) - 40);
+                totals.put(id, points);
+                window.markChanged(id);
+            }
+            int n = 1 + random.nextInt(CAPACITY);
+            Assertions.assertThat(window.top(n, loader)).as("read %d", i).isEqualTo(bruteForce(n));
+        }
+    }
+
+    @Test
+    void top_withoutChanges_doesNotQuery() {
+        totals.put(1L, 10L);
+        window.top(3, loader);
+        window.top(3, loader);
+
+        Assertions.assertThat(loader.topCalls).isEqualTo(1);
+        Assertions.assertThat(loader.totalsCalls).isZero();
+    }
+
+    @Test
+    void top_increaseOrNewCustomer_refreshesOnlyChangedCustomers() {
+        for (long id = 1; id <= 10; id++) {
+            totals.put(id, id * 10);
+        }
+        window.top(CAPACITY, loader);
+
+        totals.put(2L, 1_000L);
+        totals.put(11L, 500L);
+        window.markChanged(2L);
+        window.markChanged(11L);
+
+        Assertions.assertThat(window.top(3, loader)).extracting(LeaderboardWindow.CustomerPoints::customerId)
+                .containsExactly(2L, 11L, 10L);
+        Assertions.assertThat(loader.topCalls).isEqualTo(1);
+        Assertions.assertThat(loader.totalsCalls).isEqualTo(1);
+    }
+
+    @Test
+    void top_rankedCustomerFallsBelowUntracked_reloads() {
+        for (long id = 1; id <= 10; id++) {
+            totals.put(id, id * 10);
+        }
+        window.top(CAPACITY, loader);
+
+        totals.put(10L, 5L);
+        window.markChanged(10L);
+
+        Assertions.assertThat(window.top(CAPACITY, loader)).extracting(LeaderboardWindow.CustomerPoints::customerId)
+                .containsExactly(9L, 8L, 7L, 6L, 5L);
+        Assertions.assertThat(loader.topCalls).isEqualTo(2);
+    }
+
+    @Test
+    void covers_isInclusiveOnBothEnds() {
+        Assertions.assertThat(window.covers(202401)).isTrue();
+        Assertions.assertThat(window.covers(202403)).isTrue();
+        Assertions.assertThat(window.covers(202312)).isFalse();
+        Assertions.assertThat(window.covers(202404)).isFalse();
+    }
+
+    private List<LeaderboardWindow.CustomerPoints> bruteForce(int n) {
+        return totals.entrySet().stream()
+                .filter(e -> e.getValue() > 0)
+                .map(e -> entry(e.getKey(), e.getValue()))
+                .sorted(LeaderboardWindow.RANKING)
+                .limit(n)
+                .toList();
+    }
+
+    private static LeaderboardWindow.CustomerPoints entry(Long customerId, long points) {
+        return new LeaderboardWindow.CustomerPoints(customerId, "C" + customerId, points);
+    }
+
+    private final class FakeLoader implements LeaderboardWindow.Loader {
+
+        int topCalls;
+        int totalsCalls;
+
+        @Override
+        public List<LeaderboardWindow.CustomerPoints> top(int fromYearMonth, int toYearMonth, int limit) {
+            topCalls++;
+            return bruteForce(limit);
+        }
+
+        @Override
+        public List<LeaderboardWindow.CustomerPoints> totals(int fromYearMonth, int toYearMonth,
+                                                             Collection<Long> customerIds) {
+            totalsCalls++;
+            return customerIds.stream()
+                    .filter(id -> totals.getOrDefault(id, 0L) > 0)
+                    .map(id -> entry(id, totals.get(id)))
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.charter.rewardcalculator.service;
+
+import com.charter.rewardcalculator.dto.CustomerRewardSummaryDTO;
+import com.charter.rewardcalculator.dto.MonthlyRewardDTO;
+import com.sun.management.ThreadMXBean;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+class MonthlyPointsAccumulatorTest {
+
+    private static final int TRANSACTIONS = 1_000_000;
+    private static final double MAX_BYTES_PER_TRANSACTION = 0.01;
+    private static final int MAX_PASSES = 50;
+
+    private final RewardRuleSet rules = RewardRuleSet.defaults();
+
+    @Test
+    void toSummary_matchesTreeMapAggregation() {
+        Random random = new Random(11);
+        MonthlyPointsAccumulator accumulator = new MonthlyPointsAccumulator();
+        for (int customer = 0; customer < 200; customer++) {
+            accumulator.reset();
+            Map<YearMonth, Long> reference = new TreeMap<>();
+            int rows = random.nextInt(80);
+            // spans from a few months up to decades, to exercise growth in both directions
+            int spanDays = 1 + random.nextInt(customer % 3 == 0 ? 20_000 : 400);
+            LocalDate start = LocalDate.of(1990, 1, 1).plusDays(random.nextInt(10_000));
+            for (int i = 0; i < rows; i++) {
+                LocalDate date = start.plusDays(random.nextInt(spanDays));
+                long cents = random.nextInt(40_000);
+                accumulator.add(MonthlyPointsAccumulator.epochMonth(date.getYear(), date.getMonthValue()),
+                        rules.pointsForCents(cents));
+                reference.merge(YearMonth.from(date), rules.points(BigDecimal.valueOf(cents, 2), null), Long::sum);
+            }
+
+            Assertions.assertThat(accumulator.isEmpty()).isEqualTo(rows == 0);
+            Assertions.assertThat(accumulator.toSummary(7L, "Customer", "1")).isEqualTo(summary(reference));
+        }
+    }
+
+    @Test
+    void toSummary_keepsMonthsWithZeroPoints() {
+        MonthlyPointsAccumulator accumulator = new MonthlyPointsAccumulator();
+        accumulator.add(MonthlyPointsAccumulator.epochMonth(2024, 2), 0);
+
+        Assertions.assertThat(accumulator.toSummary(1L, "A", "1").monthlyRewards())
+                .containsExactly(new MonthlyRewardDTO(2024, "FEBRUARY", 0));
+    }
+
+    @Test
+    void add_allocatesNothingPerTransaction() {
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long[] cents = new long[4096];
+        int[] epochMonths = new int[cents.length];
+        Random random = new Random(3);
+        for (int i = 0; i < cents.length; i++) {
+            cents[i] = random.nextInt(40_000);
+            LocalDate date = LocalDate.of(2020, 1, 1).plusDays(random.nextInt(4 * 365));
+            epochMonths[i] = MonthlyPointsAccumulator.epochMonth(date.getYear(), date.getMonthValue());
+        }
+        MonthlyPointsAccumulator accumulator = new MonthlyPointsAccumulator();
+        long checksum = run(accumulator, cents, epochMonths);  // sizes the arrays
+
+        // Until the JIT has compiled the loop, a pass may allocate; how long that takes depends on
+        // what ran before in the same JVM, so passes are repeated until one is measured after it.
+        long fewest = Long.MAX_VALUE;
+        for (int pass = 0; pass < MAX_PASSES && (double) fewest / TRANSACTIONS >= MAX_BYTES_PER_TRANSACTION; pass++) {
+            long before = threads.getCurrentThreadAllocatedBytes();
+            checksum += run(accumulator, cents, epochMonths);
+            fewest = Math.min(fewest, threads.getCurrentThreadAllocatedBytes() - before);
+        }
+
+        Assertions.assertThat(checksum).isPositive();
+        Assertions.assertThat((double) fewest / TRANSACTIONS)
+                .as("bytes allocated per transaction in the best of %d passes (%d in total)", MAX_PASSES, fewest)
+                .isLessThan(MAX_BYTES_PER_TRANSACTION);
+    }
+
+    private long run(MonthlyPointsAccumulator accumulator, long[] cents, int[] epochMonths) {
+        long checksum = 0;
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            int slot = i & (cents.length - 1);
+            if (slot == 0) {
+                accumulator.reset();
+            }
+            long points = rules.pointsForCents(cents[slot]);
+            accumulator.add(epochMonths[slot], points);
+            checksum += points;
+        }
+        return checksum;
+    }
+
+    private CustomerRewardSummaryDTO summary(Map<YearMonth, Long> reference) {
+        List<MonthlyRewardDTO> months = new ArrayList<>();
+        long total = 0;
+        for (Map.Entry<YearMonth, Long> e : reference.entrySet()) {
+            months.add(new MonthlyRewardDTO(e.getKey().getYear(), e.getKey().getMonth().name(), e.getValue()));
+            total += e.getValue();
+        }
+        return new CustomerRewardSummaryDTO(7L, "Customer", months, total, "1");
+    }
+}
@@ -0,0 +1,71 @@
+package com.charter.rewardcalculator.service;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeMap;
+
+class PointsPrefixSumsTest {
+
+    private static final int FIRST_DAY = 19_700;
+
+    @Test
+    void total_isInclusiveOnBothEnds() {
+        PointsPrefixSums sums = PointsPrefixSums.of(1L, "Alice",
+                new int[]{10, 20, 30}, new long[]{5, 7, 11});
+
+        Assertions.assertThat(sums.total(10, 30)).isEqualTo(23);
+        Assertions.assertThat(sums.total(20, 20)).isEqualTo(7);
+        Assertions.assertThat(sums.total(11, 29)).isEqualTo(7);
+        Assertions.assertThat(sums.total(31, 40)).isZero();
+        Assertions.assertThat(sums.total(Integer.MIN_VALUE, Integer.MAX_VALUE)).isEqualTo(23);
+        Assertions.assertThat(sums.total(30, 10)).isZero();
+    }
+
+    @Test
+    void plus_matchesBruteForceForBackdatedAndRemovedPoints() {
+        Random random = new Random(16);
+        TreeMap<Integer, Long> reference = new TreeMap<>();
+        PointsPrefixSums sums = PointsPrefixSums.of(1L, "Alice", new int[0], new long[0]);
+        for (int i = 0; i < 3_000; i++) {
+            // Any day, so most changes land before the latest day already indexed.
+            int day = FIRST_DAY + random.nextInt(500);
+            long points = random.nextInt(5) == 0 && reference.containsKey(day)
+                    ? -random.nextInt((int) Math.max(1, reference.get(day)))
+                    : random.nextInt(700);
+            reference.merge(day, points, Long::sum);
+            PointsPrefixSums before = sums;
+            sums = sums.plus(day, points);
+
+            int from = FIRST_DAY - 10 + random.nextInt(520);
+            int to = from + random.nextInt(200);
+            Assertions.assertThat(sums.total(from, to)).isEqualTo(bruteForce(reference, from, to));
+            if (points != 0) {
+                Assertions.assertThat(before).isNotSameAs(sums);
+            }
+        }
+        Assertions.assertThat(sums.size()).isEqualTo(reference.size());
+    }
+
+    @Test
+    void plus_leavesEarlierInstanceUnchanged() {
+        PointsPrefixSums original = PointsPrefixSums.of(1L, "Alice", new int[]{10, 20}, new long[]{5, 7});
+
+        original.plus(15, 100);
+        original.plus(20, 1);
+
+        Assertions.assertThat(original.total(Integer.MIN_VALUE, Integer.MAX_VALUE)).isEqualTo(12);
+        Assertions.assertThat(original.size()).isEqualTo(2);
+    }
+
+    @Test
+    void of_rejectsUnsortedDays() {
+        Assertions.assertThatThrownBy(() -> PointsPrefixSums.of(1L, "Alice", new int[]{20, 10}, new long[]{1, 1}))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static long bruteForce(TreeMap<Integer, Long> reference, int from, int to) {
+        return reference.subMap(from, true, to, true).values().stream().mapToLong(Long::longValue).sum();
+    }
+}
@@ -0,0 +1,231 @@
+package com.charter.rewardcalculator.service;
+
+import com.charter.rewardcalculator.model.Customer;
+import com.charter.rewardcalculator.model.CustomerMonthPoints;
+import com.charter.rewardcalculator.model.PointsRecalculationRange;
+import com.charter.rewardcalculator.repository.CustomerMonthPointsRepository;
+import com.charter.rewardcalculator.repository.CustomerRepository;
+import com.charter.rewardcalculator.repository.PointsRecalculationRangeRepository;
+import com.charter.rewardcalculator.repository.TransactionRepository;
+import com.charter.rewardcalculator.repository.projection.MonthlyPointsProjection;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/** Runs the recalculation against its own database, since it rewrites the points of every customer. */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:points-recalculation;DB_CLOSE_DELAY=-1",
+        "rewards.recalculation.on-startup=false",
+        "rewards.recalculation.parallelism=2",
+        "rewards.recalculation.ranges-per-worker=2",
+        "rewards.recalculation.chunk-size=2",
+        "rewards.rules.version=2",
+        "rewards.rules.tiers[0].threshold=25",
+        "rewards.rules.tiers[0].rate=1",
+        "rewards.rules.tiers[1].threshold=100",
+        "rewards.rules.tiers[1].rate=3"
+})
+@ActiveProfiles("test")
+class PointsRecalculationServiceTest {
+
+    private static final int CUSTOMERS = 12;
+    private static final int TRANSACTIONS_PER_CUSTOMER = 15;
+
+    @Autowired
+    PointsRecalculationService recalculationService;
+
+    @Autowired
+    TransactionService transactionService;
+
+    @Autowired
+    RewardLedgerService ledgerService;
+
+    @Autowired
+    RewardRuleSet rules;
+
+    @Autowired
+    ReportedRuleVersion ruleVersion;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Autowired
+    TransactionRepository transactionRepository;
+
+    @Autowired
+    CustomerMonthPointsRepository ledgerRepository;
+
+    @Autowired
+    PointsRecalculationRangeRepository rangeRepository;
+
+    @Autowired
+    JdbcTemplate jdbc;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    private final List<Customer> customers = new ArrayList<>();
+    private final Random random = new Random(20250601);
+
+    @BeforeEach
+    void seedUnderOlderRules() {
+        for (int i = 0; i < CUSTOMERS; i++) {
+            Customer c = new Customer();
+            c.setName("Recalculation " + i);
+            c.setEmail("recalculation-" + i + "@example.com");
+            customers.add(customerRepository.save(c));
+            for (int t = 0; t < TRANSACTIONS_PER_CUSTOMER; t++) {
+                transactionService.createTransaction(c.getId(), randomAmount(), randomDate());
+            }
+        }
+        RewardRuleSet defaults = RewardRuleSet.defaults();
+        List<Object[]> rows = jdbc.query("select id, amount, transaction_date from transaction",
+                (rs, i) -> new Object[]{
+                        defaults.points(rs.getBigDecimal(2), rs.getObject(3, LocalDate.class)), rs.getLong(1)});
+        jdbc.batchUpdate("update transaction set points = ?, points_rule_version = '1' where id = ?", rows);
+        jdbc.update("delete from points_recalculation_range where rule_version = ?", rules.version());
+        ruleVersion.promote("1");
+        ledgerService.rebuild();
+    }
+
+    @AfterEach
+    void removeCustomers() {
+        List<Long> ids = customers.stream().map(Customer::getId).toList();
+        transactionTemplate.executeWithoutResult(status -> {
+            ids.forEach(id -> transactionRepository.deleteAllInBatch(transactionRepository.findByCustomerId(id)));
+            ledgerRepository.deleteByCustomerIdIn(ids);
+        });
+        customerRepository.deleteAll(customers);
+    }
+
+    @Test
+    void recalculate_rewritesEveryStaleRowAndKeepsTheLedgerInStep() throws Exception {
+        long stale = transactionRepository.count();
+        Assertions.assertThat(ruleVersion.version()).isEqualTo("1");
+
+        long rewritten = recalculationService.recalculate().get(30, TimeUnit.SECONDS);
+
+        Assertions.assertThat(rewritten).isEqualTo(stale);
+        Assertions.assertThat(ruleVersion.version()).isEqualTo(rules.version());
+        assertStoredPointsFollowTheRules();
+        assertLedgerMatchesStoredPoints();
+        Assertions.assertThat(rangeRepository.findByRuleVersionOrderByFirstCustomerIdAsc(rules.version()))
+                .hasSizeGreaterThan(1)
+                .allSatisfy(range -> Assertions.assertThat(range.getCompletedAt()).isNotNull());
+        Assertions.assertThat(recalculationService.recalculate().get(30, TimeUnit.SECONDS)).isZero();
+    }
+
+    @Test
+    void recalculate_resumesAfterTheLastCommittedChunk() throws Exception {
+        long first = customerRepository.findIdRange().minId();
+        long last = customerRepository.findIdRange().maxId();
+        long checkpoint = customers.get(CUSTOMERS / 2).getId();
+        rangeRepository.saveAndFlush(new PointsRecalculationRange(rules.version(), first, last, checkpoint, 0, null));
+        long remaining = jdbc.queryForObject(
+                "select count(*) from transaction where customer_id > ?", Long.class, checkpoint);
+
+        long rewritten = recalculationService.recalculate().get(30, TimeUnit.SECONDS);
+
+        Assertions.assertThat(rewritten).isEqualTo(remaining);
+        Assertions.assertThat(jdbc.queryForList(
+                        "select distinct points_rule_version from transaction where customer_id <= ?",
+                        String.class, checkpoint))
+                .containsExactly("1");
+        Assertions.assertThat(jdbc.queryForList(
+                        "select distinct points_rule_version from transaction where customer_id > ?",
+                        String.class, checkpoint))
+                .containsExactly(rules.version());
+        assertLedgerMatchesStoredPoints();
+        PointsRecalculationRange range = rangeRepository.findByRuleVersionOrderByFirstCustomerIdAsc(rules.version()).get(0);
+        Assertions.assertThat(range.getCheckpointCustomerId()).isEqualTo(last);
+        Assertions.assertThat(range.getRecalculatedRows()).isEqualTo(remaining);
+        Assertions.assertThat(range.getCompletedAt()).isNotNull();
+    }
+
+    @Test
+    void recalculate_startsOverWhenACompletedVersionHasStaleRows() throws Exception {
+        recalculationService.recalculate().get(30, TimeUnit.SECONDS);
+        // an instance still on the older rules, or rules switched back and forth, left rows behind
+        long reverted = jdbc.update("update transaction set points = 0, points_rule_version = '1' where customer_id = ?",
+                customers.get(3).getId());
+        ledgerService.rebuild();
+
+        long rewritten = recalculationService.recalculate().get(30, TimeUnit.SECONDS);
+
+        Assertions.assertThat(rewritten).isEqualTo(reverted).isPositive();
+        assertStoredPointsFollowTheRules();
+        assertLedgerMatchesStoredPoints();
+        Assertions.assertThat(ruleVersion.version()).isEqualTo(rules.version());
+    }
+
+    @Test
+    void recalculate_staysConsistentWithConcurrentWrites() throws Exception {
+        List<Long> transactionIds = new ArrayList<>(jdbc.queryForList(
+                "select id from transaction where customer_id >= ?", Long.class, customers.get(0).getId()));
+
+        CompletableFuture<Long> recalculation = recalculationService.recalculate();
+        for (int i = 0; i < 150; i++) {
+            int op = random.nextInt(3);
+            if (op == 0) {
+                transactionIds.add(transactionService.createTransaction(
+                        randomCustomer(), randomAmount(), randomDate()).getId());
+            } else if (op == 1) {
+                Long id = transactionIds.get(random.nextInt(transactionIds.size()));
+                transactionService.updateTransaction(id, randomCustomer(), randomAmount(), randomDate());
+            } else {
+                transactionService.deleteTransaction(transactionIds.remove(random.nextInt(transactionIds.size())));
+            }
+        }
+        recalculation.get(30, TimeUnit.SECONDS);
+
+        assertStoredPointsFollowTheRules();
+        assertLedgerMatchesStoredPoints();
+    }
+
+    private void assertStoredPointsFollowTheRules() {
+        jdbc.query("select amount, transaction_date, points, points_rule_version from transaction", rs -> {
+            BigDecimal amount = rs.getBigDecimal(1);
+            LocalDate date = rs.getObject(2, LocalDate.class);
+            Assertions.assertThat(rs.getLong(3)).as("%s on %s", amount, date).isEqualTo(rules.points(amount, date));
+            Assertions.assertThat(rs.getString(4)).isEqualTo(rules.version());
+        });
+    }
+
+    private void assertLedgerMatchesStoredPoints() {
+        List<Long> ids = customerRepository.findAll().stream().map(Customer::getId).toList();
+        Map<String, Long> ledger = ledgerRepository.findByCustomerIdInOrderByCustomerIdAscYearMonthAsc(ids).stream()
+                .collect(Collectors.toMap(m -> m.getCustomerId() + "/" + m.getYearMonth(), CustomerMonthPoints::getPoints));
+        Map<String, Long> stored = transactionRepository.sumMonthlyPointsByCustomerIdIn(ids).stream()
+                .collect(Collectors.toMap(p -> p.customerId() + "/" + (p.year() * 100 + p.month()),
+                        MonthlyPointsProjection::points));
+        Assertions.assertThat(ledger).isEqualTo(stored);
+    }
+
+    private Long randomCustomer() {
+        return customers.get(random.nextInt(CUSTOMERS)).getId();
+    }
+
+    private BigDecimal randomAmount() {
+        return BigDecimal.valueOf(1 + random.nextInt(30_000), 2);
+    }
+
+    private LocalDate randomDate() {
+        return LocalDate.of(2024, 1, 1).plusDays(random.nextInt(365));
+    }
+}
@@ -0,0 +1,237 @@
+package com.charter.rewardcalculator.service;
+
+import com.charter.rewardcalculator.config.ReportProperties;
+import com.charter.rewardcalculator.dto.BatchRewardSummaryDTO;
+import com.charter.rewardcalculator.dto.CustomerRewardSummaryDTO;
+import com.charter.rewardcalculator.dto.ReportJobDTO;
+import com.charter.rewardcalculator.exception.InvalidDateRangeException;
+import com.charter.rewardcalculator.exception.ReportJobNotFoundException;
+import com.charter.rewardcalculator.exception.ReportNotReadyException;
+import com.charter.rewardcalculator.model.Customer;
+import com.charter.rewardcalculator.model.Transaction;
+import com.charter.rewardcalculator.repository.CustomerRepository;
+import com.charter.rewardcalculator.repository.projection.IdRangeRow;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+@SpringBootTest(properties = {
+        "rewards.report.parallelism=3",
+        "rewards.report.ranges-per-worker=4",
+        "rewards.report.chunk-size=7"
+})
+@ActiveProfiles("test")
+class ReportJobServiceTest {
+
+    private static final int EXTRA_CUSTOMERS = 50;
+
+    @Autowired
+    ReportJobService reportJobService;
+
+    @Autowired
+    RewardService rewardService;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Autowired
+    TransactionService transactionService;
+
+    @Autowired
+    JsonMapper jsonMapper;
+
+    @TempDir
+    Path tempDir;
+
+    private final List<Customer> createdCustomers = new ArrayList<>();
+    private final List<Transaction> createdTransactions = new ArrayList<>();
+
+    @BeforeEach
+    void seedCustomers() {
+        for (int i = 0; i < EXTRA_CUSTOMERS; i++) {
+            Customer c = new Customer();
+            c.setName("Report Customer " + i);
+            c.setEmail("report-" + i + "@example.com");
+            createdCustomers.add(customerRepository.save(c));
+        }
+        for (int i = 0; i < createdCustomers.size(); i++) {
+            Long id = createdCustomers.get(i).getId();
+            createdTransactions.add(transactionService.createTransaction(
+                    id, new BigDecimal(60 + i * 3), LocalDate.of(2024, 1 + i % 3, 1 + i % 28)));
+            if (i % 2 == 0) {
+                createdTransactions.add(transactionService.createTransaction(
+                        id, new BigDecimal("130.00"), LocalDate.of(2024, 4, 10)));
+            }
+        }
+    }
+
+    @AfterEach
+    void removeCustomers() {
+        createdTransactions.forEach(t -> transactionService.deleteTransaction(t.getId()));
+        customerRepository.deleteAll(createdCustomers);
+    }
+
+    @Test
+    void report_matchesPerCustomerSummariesInIdOrder() throws Exception {
+        LocalDate from = LocalDate.of(2024, 1, 15);
+        LocalDate to = LocalDate.of(2024, 3, 31);
+
+        ReportJobDTO started = reportJobService.start(from, to);
+        ReportJobDTO finished = awaitFinished(started.jobId());
+
+        Assertions.assertThat(finished.status()).isEqualTo(ReportJobDTO.Status.COMPLETED);
+        Assertions.assertThat(finished.rangesCompleted()).isEqualTo(finished.rangesTotal());
+        List<CustomerRewardSummaryDTO> lines = readReport(reportJobService.reportFile(started.jobId()));
+        Assertions.assertThat(finished.rowsWritten()).isEqualTo(lines.size()).isEqualTo(customerRepository.count());
+        Assertions.assertThat(finished.rowsPerSecond()).isPositive();
+        Assertions.assertThat(lines).extracting(CustomerRewardSummaryDTO::customerId).isSorted();
+        for (CustomerRewardSummaryDTO line : lines) {
+            Assertions.assertThat(line).isEqualTo(rewardService.getRewardsForCustomer(line.customerId(), from, to));
+        }
+    }
+
+    @Test
+    void report_removingFinishedJobDeletesFile() throws Exception {
+        String jobId = reportJobService.start(null, null).jobId();
+        awaitFinished(jobId);
+        Path file = reportJobService.reportFile(jobId);
+
+        reportJobService.cancel(jobId);
+
+        Assertions.assertThat(file).doesNotExist();
+        Assertions.assertThatThrownBy(() -> reportJobService.status(jobId))
+                .isInstanceOf(ReportJobNotFoundException.class);
+    }
+
+    @Test
+    void start_invalidDateRange_throws() {
+        Assertions.assertThatThrownBy(() -> reportJobService.start(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 1, 1)))
+                .isInstanceOf(InvalidDateRangeException.class);
+    }
+
+    @Test
+    void cancel_stopsWorkersAndRemovesPartialOutput() throws Exception {
+        CustomerRepository repository = Mockito.mock(CustomerRepository.class);
+        RewardService service = Mockito.mock(RewardService.class);
+        CountDownLatch chunkStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.when(repository.findIdRange()).thenReturn(new IdRangeRow(1L, 1000L));
+        Mockito.when(repository.findIdsBetween(ArgumentMatchers.anyLong(), ArgumentMatchers.anyLong(), ArgumentMatchers.any()))
+                .thenAnswer(invocation -> {
+                    long after = invocation.getArgument(0);
+                    chunkStarted.countDown();
+                    release.await();
+                    return List.of(after + 1);
+                });
+        Mockito.when(service.getRewardsForCustomers(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any()))
+                .thenAnswer(invocation -> {
+                    List<Long> ids = invocation.getArgument(0);
+                    return new BatchRewardSummaryDTO(
+                            List.of(new CustomerRewardSummaryDTO(ids.get(0), "C", List.of(), 0L, "1")), List.of());
+                });
+        ReportJobServiceImpl jobs = new ReportJobServiceImpl(
+                repository, service, jsonMapper, new ReportProperties(tempDir, 2, 2, 1, Duration.ofHours(1)));
+        try {
+            String jobId = jobs.start(null, null).jobId();
+            Assertions.assertThat(chunkStarted.await(10, TimeUnit.SECONDS)).isTrue();
+
+            Assertions.assertThat(jobs.cancel(jobId).status()).isEqualTo(ReportJobDTO.Status.RUNNING);
+            release.countDown();
+            ReportJobDTO finished = awaitFinished(jobs, jobId);
+
+            Assertions.assertThat(finished.status()).isEqualTo(ReportJobDTO.Status.CANCELLED);
+            Assertions.assertThatThrownBy(() -> jobs.reportFile(jobId)).isInstanceOf(ReportNotReadyException.class);
+            try (var files = Files.list(tempDir)) {
+                Assertions.assertThat(files).isEmpty();
+            }
+        } finally {
+            release.countDown();
+            jobs.destroy();
+        }
+    }
+
+    @Test
+    void removeExpired_forgetsJobsFinishedBeforeTheRetentionAndDeletesTheirFiles() throws Exception {
+        CustomerRepository repository = Mockito.mock(CustomerRepository.class);
+        Mockito.when(repository.findIdRange()).thenReturn(new IdRangeRow(null, null));
+        ReportJobServiceImpl jobs = new ReportJobServiceImpl(repository, Mockito.mock(RewardService.class),
+                jsonMapper, new ReportProperties(tempDir, 1, 1, 1, Duration.ofMinutes(10)));
+        try {
+            String jobId = jobs.start(null, null).jobId();
+            ReportJobDTO finished = awaitFinished(jobs, jobId);
+            Path file = jobs.reportFile(jobId);
+
+            jobs.removeExpired(finished.finishedAt().plus(Duration.ofMinutes(5)));
+            Assertions.assertThat(jobs.status(jobId).status()).isEqualTo(ReportJobDTO.Status.COMPLETED);
+            Assertions.assertThat(file).exists();
+
+            jobs.removeExpired(finished.finishedAt().plus(Duration.ofMinutes(11)));
+            Assertions.assertThatThrownBy(() -> jobs.status(jobId)).isInstanceOf(ReportJobNotFoundException.class);
+            Assertions.assertThat(file).doesNotExist();
+        } finally {
+            jobs.destroy();
+        }
+    }
+
+    @Test
+    void split_coversIdSpaceWithContiguousRanges() {
+        List<long[]> ranges = ReportJobServiceImpl.split(new IdRangeRow(5L, 104L), 8);
+
+        Assertions.assertThat(ranges).hasSize(8);
+        Assertions.assertThat(ranges.get(0)[0]).isEqualTo(5);
+        Assertions.assertThat(ranges.get(ranges.size() - 1)[1]).isEqualTo(104);
+        for (int i = 1; i < ranges.size(); i++) {
+            Assertions.assertThat(ranges.get(i)[0]).isEqualTo(ranges.get(i - 1)[1] + 1);
+        }
+        Assertions.assertThat(ReportJobServiceImpl.split(new IdRangeRow(7L, 9L), 8)).hasSize(3);
+        Assertions.assertThat(ReportJobServiceImpl.split(new IdRangeRow(null, null), 8)).hasSize(1);
+    }
+
+    private List<CustomerRewardSummaryDTO> readReport(Path file) throws Exception {
+        List<CustomerRewardSummaryDTO> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(jsonMapper.readValue(line, CustomerRewardSummaryDTO.class));
+            }
+        }
+        return lines;
+    }
+
+    private ReportJobDTO awaitFinished(String jobId) throws InterruptedException {
+        return awaitFinished(reportJobService, jobId);
+    }
+
+    private static ReportJobDTO awaitFinished(ReportJobService service, String jobId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        ReportJobDTO status = service.status(jobId);
+        while (status.status() == ReportJobDTO.Status.RUNNING && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+            status = service.status(jobId);
+        }
+        return status;
+    }
+}
@@ -0,0 +1,111 @@
+package com.charter.rewardcalculator.service;
+
+import com.charter.rewardcalculator.dto.CustomerRewardSummaryDTO;
+import com.charter.rewardcalculator.exception.InvalidDateRangeException;
+import com.charter.rewardcalculator.model.Customer;
+import com.charter.rewardcalculator.repository.CustomerRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class RewardExportServiceTest {
+
+    @Autowired
+    RewardExportService exportService;
+
+    @Autowired
+    RewardService rewardService;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Autowired
+    JsonMapper jsonMapper;
+
+    private Customer withoutTransactions;
+
+    @BeforeEach
+    void seedCustomer() {
+        Customer c = new Customer();
+        c.setName("Quiet, \"Export\" Customer");
+        c.setEmail("quiet-export@example.com");
+        withoutTransactions = customerRepository.save(c);
+    }
+
+    @AfterEach
+    void removeCustomer() {
+        customerRepository.delete(withoutTransactions);
+    }
+
+    @Test
+    void ndjsonExport_matchesPerCustomerSummaries() {
+        List<CustomerRewardSummaryDTO> exported = exportNdjson(null, null);
+
+        Assertions.assertThat(exported).extracting(CustomerRewardSummaryDTO::customerId)
+                .isSorted()
+                .contains(1L, 2L, 3L, withoutTransactions.getId());
+        for (CustomerRewardSummaryDTO summary : exported) {
+            Assertions.assertThat(summary)
+                    .isEqualTo(rewardService.getRewardsForCustomer(summary.customerId(), null, null));
+        }
+    }
+
+    @Test
+    void ndjsonExport_appliesDateRangeButKeepsEveryCustomer() {
+        LocalDate from = LocalDate.of(2024, 2, 1);
+        LocalDate to   = LocalDate.of(2024, 2, 20);
+
+        List<CustomerRewardSummaryDTO> exported = exportNdjson(from, to);
+
+        Assertions.assertThat(exported).extracting(CustomerRewardSummaryDTO::customerId)
+                .contains(1L, 2L, 3L, withoutTransactions.getId());
+        for (CustomerRewardSummaryDTO summary : exported) {
+            Assertions.assertThat(summary)
+                    .isEqualTo(rewardService.getRewardsForCustomer(summary.customerId(), from, to));
+        }
+    }
+
+    @Test
+    void csvExport_writesOneRowPerMonthAndQuotesNames() {
+        String csv = export(null, null, RewardExportService.Format.CSV);
+        List<String> lines = csv.lines().toList();
+
+        Assertions.assertThat(lines.get(0)).isEqualTo("customerId,customerName,year,month,points,totalPoints");
+        Assertions.assertThat(lines).contains(
+                "1,Alice Johnson,2024,JANUARY,115,435",
+                "1,Alice Johnson,2024,FEBRUARY,250,435",
+                "1,Alice Johnson,2024,MARCH,70,435",
+                withoutTransactions.getId() + ",\"Quiet, \"\"Export\"\" Customer\",,,,0");
+    }
+
+    @Test
+    void export_fromAfterTo_throwsInvalidDateRange() {
+        Assertions.assertThatThrownBy(() -> export(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 1, 1),
+                        RewardExportService.Format.NDJSON))
+                .isInstanceOf(InvalidDateRangeException.class);
+    }
+
+    private List<CustomerRewardSummaryDTO> exportNdjson(LocalDate from, LocalDate to) {
+        return export(from, to, RewardExportService.Format.NDJSON).lines()
+                .map(line -> jsonMapper.readValue(line, CustomerRewardSummaryDTO.class))
+                .toList();
+    }
+
+    private String export(LocalDate from, LocalDate to, RewardExportService.Format format) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportSummaries(from, to, format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,149 @@
+package com.charter.rewardcalculator.service;
+
+import com.charter.rewardcalculator.dto.CustomerRewardSummaryDTO;
+import com.charter.rewardcalculator.dto.LeaderboardEntryDTO;
+import com.charter.rewardcalculator.exception.InvalidDateRangeException;
+import com.charter.rewardcalculator.model.Customer;
+import com.charter.rewardcalculator.model.Transaction;
+import com.charter.rewardcalculator.repository.CustomerRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class RewardLeaderboardServiceTest {
+
+    private static final YearMonth THIS_MONTH = YearMonth.now();
+
+    @Autowired
+    RewardLeaderboardService leaderboardService;
+
+    @Autowired
+    RewardServiceImpl uncached;
+
+    @Autowired
+    TransactionService transactionService;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    private final List<Customer> customers = new ArrayList<>();
+    private final List<Transaction> transactions = new ArrayList<>();
+    private final Random random = new Random(17);
+
+    @BeforeEach
+    void seed() {
+        for (int i = 0; i < 12; i++) {
+            Customer c = new Customer();
+            c.setName("Leader " + i);
+            c.setEmail("leader-" + i + "@example.com");
+            customers.add(customerRepository.save(c));
+        }
+        for (int i = 0; i < 150; i++) {
+            write();
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        transactions.forEach(t -> transactionService.deleteTransaction(t.getId()));
+        customerRepository.deleteAll(customers);
+    }
+
+    @Test
+    void adHocRanges_matchBruteForceRanking() {
+        LocalDate start = THIS_MONTH.minusMonths(6).atDay(1);
+        for (int i = 0; i < 40; i++) {
+            LocalDate from = random.nextInt(4) == 0 ? null : start.plusDays(random.nextInt(200));
+            LocalDate to = random.nextInt(4) == 0 ? null
+                    : (from == null ? start : from).plusDays(random.nextInt(120));
+            if (random.nextBoolean() && from != null && to != null) {
+                from = from.withDayOfMonth(1);
+                to = YearMonth.from(to).atEndOfMonth();
+            }
+            int n = 1 + random.nextInt(8);
+            assertRanking(n, from, to);
+        }
+    }
+
+    @Test
+    void precomputedWindows_followWritesUpdatesAndDeletes() {
+        LocalDate monthStart = THIS_MONTH.atDay(1);
+        LocalDate threeMonthStart = THIS_MONTH.minusMonths(2).atDay(1);
+        LocalDate monthEnd = THIS_MONTH.atEndOfMonth();
+        assertRanking(5, monthStart, monthEnd);
+        assertRanking(5, threeMonthStart, monthEnd);
+
+        for (int round = 0; round < 30; round++) {
+            for (int j = random.nextInt(4); j >= 0; j--) {
+                write();
+            }
+            assertRanking(1 + random.nextInt(10), monthStart, monthEnd);
+            assertRanking(1 + random.nextInt(10), threeMonthStart, monthEnd);
+        }
+    }
+
+    @Test
+    void fromAfterTo_throwsInvalidDateRange() {
+        Assertions.assertThatThrownBy(() -> leaderboardService.getTopCustomers(
+                        10, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 1, 1)))
+                .isInstanceOf(InvalidDateRangeException.class);
+    }
+
+    /** Creates, updates or deletes a random transaction within the last few months. */
+    private void write() {
+        int action = random.nextInt(8);
+        if (action == 0 && !transactions.isEmpty()) {
+            transactionService.deleteTransaction(transactions.remove(random.nextInt(transactions.size())).getId());
+        } else if (action == 1 && !transactions.isEmpty()) {
+            int at = random.nextInt(transactions.size());
+            transactions.set(at, transactionService.updateTransaction(transactions.get(at).getId(),
+                    customers.get(random.nextInt(customers.size())).getId(), amount(), recentDay()));
+        } else {
+            transactions.add(transactionService.createTransaction(
+                    customers.get(random.nextInt(customers.size())).getId(), amount(), recentDay()));
+        }
+    }
+
+    private void assertRanking(int n, LocalDate from, LocalDate to) {
+        List<LeaderboardEntryDTO> expected = customerRepository.findAll().stream()
+                .map(c -> uncached.getRewardsForCustomer(c.getId(), from, to))
+                .filter(s -> s.totalPoints() > 0)
+                .sorted(Comparator.comparingLong(CustomerRewardSummaryDTO::totalPoints).reversed()
+                        .thenComparing(CustomerRewardSummaryDTO::customerId))
+                .limit(n)
+                .map(s -> new LeaderboardEntryDTO(0, s.customerId(), s.customerName(), s.totalPoints()))
+                .toList();
+
+        List<LeaderboardEntryDTO> actual = leaderboardService.getTopCustomers(n, from, to).entries();
+
+        Assertions.assertThat(actual).extracting(LeaderboardEntryDTO::rank)
+                .containsExactlyElementsOf(IntStream.rangeClosed(1, expected.size()).boxed().toList());
+        Assertions.assertThat(actual).as("n %d from %s to %s", n, from, to)
+                .usingRecursiveFieldByFieldElementComparatorIgnoringFields("rank")
+                .containsExactlyElementsOf(expected);
+    }
+
+    private BigDecimal amount() {
+        return BigDecimal.valueOf(1 + random.nextInt(30_000), 2);
+    }
+
+    private LocalDate recentDay() {
+        LocalDate start = THIS_MONTH.minusMonths(4).atDay(1);
+        return start.plusDays(random.nextInt((int) (THIS_MONTH.atEndOfMonth().toEpochDay() - start.toEpochDay() + 1)));
+    }
+}
@@ -0,0 +1,174 @@
+package com.charter.rewardcalculator.service;
+
+import com.charter.rewardcalculator.model.Customer;
+import com.charter.rewardcalculator.model.CustomerMonthPoints;
+import com.charter.rewardcalculator.model.Transaction;
+import com.charter.rewardcalculator.repository.CustomerMonthPointsRepository;
+import com.charter.rewardcalculator.repository.CustomerRepository;
+import com.charter.rewardcalculator.repository.TransactionRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class RewardLedgerConsistencyTest {
+
+    private static final int CUSTOMERS = 8;
+    private static final int OPERATIONS = 400;
+
+    @Autowired
+    TransactionService transactionService;
+
+    @Autowired
+    RewardLedgerService ledgerService;
+
+    @Autowired
+    RewardService rewardService;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Autowired
+    TransactionRepository transactionRepository;
+
+    @Autowired
+    CustomerMonthPointsRepository ledgerRepository;
+
+    private final List<Customer> customers = new ArrayList<>();
+    private final List<Long> transactionIds = new ArrayList<>();
+
+    @BeforeEach
+    void seedCustomers() {
+        for (int i = 0; i < CUSTOMERS; i++) {
+            Customer c = new Customer();
+            c.setName("Ledger " + i);
+            c.setEmail("ledger-" + i + "@example.com");
+            customers.add(customerRepository.save(c));
+        }
+    }
+
+    @AfterEach
+    void removeCustomers() {
+        transactionIds.forEach(transactionService::deleteTransaction);
+        customerRepository.deleteAll(customers);
+    }
+
+    @Test
+    void ledgerMatchesRawComputationAfterRandomWrites() {
+        Random random = new Random(20240131);
+        for (int i = 0; i < OPERATIONS; i++) {
+            int op = random.nextInt(100);
+            if (op < 60 || transactionIds.isEmpty()) {
+                Transaction tx = transactionService.createTransaction(
+                        randomCustomer(random), randomAmount(random), randomDate(random));
+                transactionIds.add(tx.getId());
+            } else if (op < 85) {
+                Long id = transactionIds.get(random.nextInt(transactionIds.size()));
+                transactionService.updateTransaction(id, randomCustomer(random), randomAmount(random), randomDate(random));
+            } else {
+                Long id = transactionIds.remove(random.nextInt(transactionIds.size()));
+                transactionService.deleteTransaction(id);
+            }
+        }
+
+        assertLedgerMatchesTransactions();
+        for (Customer c : customers) {
+            Assertions.assertThat(rewardService.getRewardsForCustomer(c.getId(), null, null).monthlyRewards())
+                    .isEqualTo(rewardService.getRewardsForCustomer(
+                            c.getId(), LocalDate.of(2000, 1, 2), LocalDate.of(2099, 12, 30)).monthlyRewards());
+        }
+    }
+
+    @Test
+    void seedData_isLoadedIntoLedgerOnStartup() {
+        var alice = rewardService.getRewardsForCustomer(1L, null, null);
+
+        Assertions.assertThat(alice.totalPoints()).isEqualTo(435);
+        Assertions.assertThat(alice.monthlyRewards()).extracting("points").containsExactly(115L, 250L, 70L);
+    }
+
+    @Test
+    void backdatedTransaction_updatesEarlierMonth() {
+        Long customerId = customers.get(0).getId();
+        transactionIds.add(transactionService.createTransaction(
+                customerId, new BigDecimal("120.00"), LocalDate.of(2024, 3, 10)).getId());
+        transactionIds.add(transactionService.createTransaction(
+                customerId, new BigDecimal("200.00"), LocalDate.of(2021, 7, 4)).getId());
+
+        var summary = rewardService.getRewardsForCustomer(customerId, LocalDate.of(2021, 7, 1), LocalDate.of(2021, 7, 31));
+
+        Assertions.assertThat(summary.totalPoints()).isEqualTo(250);
+        assertLedgerMatchesTransactions();
+    }
+
+    @Test
+    void deletingLastTransactionOfMonth_removesLedgerRow() {
+        Long customerId = customers.get(0).getId();
+        Long id = transactionService.createTransaction(
+                customerId, new BigDecimal("45.00"), LocalDate.of(2024, 5, 5)).getId();
+
+        Assertions.assertThat(ledgerRepository.findByCustomerIdInOrderByCustomerIdAscYearMonthAsc(List.of(customerId)))
+                .containsExactly(new CustomerMonthPoints(customerId, 202405, 0, 1));
+
+        transactionService.deleteTransaction(id);
+
+        Assertions.assertThat(ledgerRepository.findByCustomerIdInOrderByCustomerIdAscYearMonthAsc(List.of(customerId)))
+                .isEmpty();
+    }
+
+    @Test
+    void rebuild_reproducesIncrementallyMaintainedLedger() {
+        Random random = new Random(7);
+        for (int i = 0; i < 100; i++) {
+            transactionIds.add(transactionService.createTransaction(
+                    randomCustomer(random), randomAmount(random), randomDate(random)).getId());
+        }
+        List<Long> ids = customers.stream().map(Customer::getId).toList();
+        var incremental = ledgerRepository.findByCustomerIdInOrderByCustomerIdAscYearMonthAsc(ids);
+
+        ledgerService.rebuild();
+
+        Assertions.assertThat(ledgerRepository.findByCustomerIdInOrderByCustomerIdAscYearMonthAsc(ids))
+                .isEqualTo(incremental);
+        assertLedgerMatchesTransactions();
+    }
+
+    private void assertLedgerMatchesTransactions() {
+        List<Long> ids = customers.stream().map(Customer::getId).toList();
+        var ledgerPoints = ledgerRepository.findByCustomerIdInOrderByCustomerIdAscYearMonthAsc(ids).stream()
+                .map(m -> List.of(m.getCustomerId(), (long) m.getYearMonth(), m.getPoints()))
+                .toList();
+        var rawPoints = transactionRepository.sumMonthlyPointsByCustomerIdIn(ids).stream()
+                .map(r -> List.of(r.customerId(), (long) (r.year() * 100 + r.month()), r.points()))
+                .toList();
+        Assertions.assertThat(ledgerPoints).isEqualTo(rawPoints);
+
+        long ledgerCount = ledgerRepository.findByCustomerIdInOrderByCustomerIdAscYearMonthAsc(ids).stream()
+                .mapToLong(CustomerMonthPoints::getTransactionCount)
+                .sum();
+        Assertions.assertThat(ledgerCount).isEqualTo(transactionIds.size());
+    }
+
+    private Long randomCustomer(Random random) {
+        return customers.get(random.nextInt(customers.size())).getId();
+    }
+
+    private BigDecimal randomAmount(Random random) {
+        return BigDecimal.valueOf(1 + random.nextInt(30_000), 2);
+    }
+
+    private LocalDate randomDate(Random random) {
+        return LocalDate.of(2021, 1, 1).plusDays(random.nextInt(4 * 365));
+    }
+}
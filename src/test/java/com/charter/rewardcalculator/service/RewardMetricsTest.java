@@ -0,0 +1,65 @@
+package com.charter.rewardcalculator.service;
+
+import com.charter.rewardcalculator.config.RequestStatementCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class RewardMetricsTest {
+
+    @Autowired
+    RewardService rewardService;
+
+    @Autowired
+    MeterRegistry registry;
+
+    @Test
+    void rewardReads_recordTimersAndDistributions() {
+        long pagedBefore = registry.get("rewards.paged").timer().count();
+        long customerBefore = registry.get("rewards.customer").timer().count();
+        long ledgerBefore = registry.get("rewards.points.query")
+                .tags("source", "ledger", "bounds", "between").timer().count();
+
+        rewardService.getRewardsPaged(PageRequest.of(0, 3, Sort.by("id").ascending()),
+                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 3, 31));
+        rewardService.getRewardsForCustomer(1L, null, null);
+
+        Assertions.assertThat(registry.get("rewards.paged").timer().count()).isEqualTo(pagedBefore + 1);
+        Assertions.assertThat(registry.get("rewards.customer").timer().count()).isEqualTo(customerBefore + 1);
+        Assertions.assertThat(registry.get("rewards.points.query")
+                .tags("source", "ledger", "bounds", "between").timer().count()).isEqualTo(ledgerBefore + 1);
+        Assertions.assertThat(registry.get("rewards.page.customers").summary().count()).isPositive();
+        Assertions.assertThat(registry.get("rewards.customer.months").summary().max()).isGreaterThanOrEqualTo(3);
+    }
+
+    @Test
+    void statementCounter_countsStatementsOfBoundThreadOnly() {
+        AtomicInteger counter = new AtomicInteger();
+        RequestStatementCounter.bind(counter);
+        try {
+            rewardService.getRewardsPaged(PageRequest.of(0, 3, Sort.by("id").ascending()), null, null);
+        } finally {
+            RequestStatementCounter.bind(null);
+        }
+        rewardService.getRewardsPaged(PageRequest.of(0, 3, Sort.by("id").ascending()), null, null);
+
+        // customer page + count + one points query for the whole page
+        Assertions.assertThat(counter.get()).isEqualTo(3);
+    }
+
+    @Test
+    void hibernateAndPoolMeters_areRegistered() {
+        Assertions.assertThat(registry.find("hibernate.statements").functionCounter()).isNotNull();
+        Assertions.assertThat(registry.find("hikaricp.connections.max").gauge()).isNotNull();
+    }
+}
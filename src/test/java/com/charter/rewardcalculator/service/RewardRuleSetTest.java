@@ -0,0 +1,121 @@
+package com.charter.rewardcalculator.service;
+
+import com.charter.rewardcalculator.config.RewardRuleProperties;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.SplittableRandom;
+
+class RewardRuleSetTest {
+
+    private static final LocalDate DECEMBER_1 = LocalDate.of(2024, 12, 1);
+    private static final LocalDate DECEMBER_31 = LocalDate.of(2024, 12, 31);
+
+    @Test
+    void defaults_matchTheOriginalTwoThresholdFormula() {
+        RewardRuleSet rules = RewardRuleSet.defaults();
+        for (long cents = -20_000; cents <= 300_000; cents += 7) {
+            long dollars = cents / 100;
+            long expected = dollars > 100 ? (dollars - 100) * 2 + 50 : Math.max(dollars - 50, 0);
+            Assertions.assertThat(rules.pointsForCents(cents)).as("%d cents", cents).isEqualTo(expected);
+        }
+        Assertions.assertThat(rules.version()).isEqualTo("1");
+    }
+
+    @Test
+    void pointsForCents_denseTableAndSearchAgreeWithAPlainWalk() {
+        SplittableRandom random = new SplittableRandom(5);
+        for (long last : new long[]{500, RewardRuleSet.DENSE_TIER_LIMIT + 1_000L}) {
+            List<RewardRuleProperties.Tier> tiers = List.of(
+                    new RewardRuleProperties.Tier(0, 0),
+                    new RewardRuleProperties.Tier(25, 1),
+                    new RewardRuleProperties.Tier(80, 3),
+                    new RewardRuleProperties.Tier(200, 2),
+                    new RewardRuleProperties.Tier(last, 5));
+            RewardRuleSet rules = rules(tiers, List.of());
+            for (int i = 0; i < 20_000; i++) {
+                long cents = random.nextLong(-1_000, (last + 2_000) * 100);
+                Assertions.assertThat(rules.pointsForCents(cents))
+                        .as("%d cents with last threshold %d", cents, last)
+                        .isEqualTo(walk(tiers, cents / 100));
+            }
+        }
+    }
+
+    @Test
+    void pointsForCents_appliesThePromotionOfTheDayOnly() {
+        RewardRuleSet rules = rules(List.of(), List.of(
+                new RewardRuleProperties.Promotion("december", DECEMBER_1, DECEMBER_31, new BigDecimal("2")),
+                new RewardRuleProperties.Promotion("new-year", LocalDate.of(2025, 1, 1),
+                        LocalDate.of(2025, 1, 1), new BigDecimal("1.5"))));
+
+        Assertions.assertThat(rules.points(new BigDecimal("120.00"), DECEMBER_1.minusDays(1))).isEqualTo(90);
+        Assertions.assertThat(rules.points(new BigDecimal("120.00"), DECEMBER_1)).isEqualTo(180);
+        Assertions.assertThat(rules.points(new BigDecimal("120.00"), DECEMBER_31)).isEqualTo(180);
+        Assertions.assertThat(rules.points(new BigDecimal("75.00"), LocalDate.of(2025, 1, 1))).isEqualTo(37);
+        Assertions.assertThat(rules.points(new BigDecimal("120.00"), LocalDate.of(2025, 1, 2))).isEqualTo(90);
+        Assertions.assertThat(rules.points(new BigDecimal("120.00"), null)).isEqualTo(90);
+    }
+
+    @Test
+    void sqlPattern_rendersTiersHighestFirstAndPromotionsAsDateRanges() {
+        RewardRuleSet rules = rules(List.of(), List.of(
+                new RewardRuleProperties.Promotion("december", DECEMBER_1, DECEMBER_31, new BigDecimal("2"))));
+
+        Assertions.assertThat(rules.sqlPattern()).isEqualTo("((case"
+                + " when cast(floor(?1) as bigint) > 100 then 50 + 2 * (cast(floor(?1) as bigint) - 100)"
+                + " when cast(floor(?1) as bigint) > 50 then 0 + 1 * (cast(floor(?1) as bigint) - 50)"
+                + " else 0 end) * (case when ?2 between date '2024-12-01' and date '2024-12-31' then 200"
+                + " else 100 end) / 100)");
+    }
+
+    @Test
+    void compile_rejectsInvalidRules() {
+        Assertions.assertThatThrownBy(() -> RewardRuleSet.compile(
+                        new RewardRuleProperties("two words", null, null), Instant.EPOCH))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("version");
+        Assertions.assertThatThrownBy(() -> rules(List.of(
+                        new RewardRuleProperties.Tier(100, 2), new RewardRuleProperties.Tier(50, 1)), List.of()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("strictly increasing");
+        Assertions.assertThatThrownBy(() -> rules(List.of(new RewardRuleProperties.Tier(50, -1)), List.of()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("negative");
+        Assertions.assertThatThrownBy(() -> rules(List.of(), List.of(
+                        new RewardRuleProperties.Promotion("a", DECEMBER_1, DECEMBER_31, BigDecimal.TWO),
+                        new RewardRuleProperties.Promotion("b", DECEMBER_31, DECEMBER_31, BigDecimal.TWO))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("overlap");
+        Assertions.assertThatThrownBy(() -> rules(List.of(), List.of(
+                        new RewardRuleProperties.Promotion("a", DECEMBER_1, DECEMBER_31, new BigDecimal("1.125")))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("two decimals");
+        Assertions.assertThatThrownBy(() -> rules(List.of(), List.of(
+                        new RewardRuleProperties.Promotion("a", DECEMBER_31, DECEMBER_1, BigDecimal.TWO))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("from on or before to");
+    }
+
+    private static RewardRuleSet rules(List<RewardRuleProperties.Tier> tiers,
+                                       List<RewardRuleProperties.Promotion> promotions) {
+        return RewardRuleSet.compile(new RewardRuleProperties("test", tiers, promotions), Instant.EPOCH);
+    }
+
+    /** Sums each tier's share of the dollars, walking the tiers in order. */
+    private static long walk(List<RewardRuleProperties.Tier> tiers, long dollars) {
+        long points = 0;
+        for (int i = 0; i < tiers.size(); i++) {
+            long start = tiers.get(i).threshold();
+            long end = i + 1 < tiers.size() ? tiers.get(i + 1).threshold() : Long.MAX_VALUE;
+            if (dollars > start) {
+                points += tiers.get(i).rate() * (Math.min(dollars, end) - start);
+            }
+        }
+        return points;
+    }
+}
@@ -1,25 +1,36 @@
 package com.charter.rewardcalculator.service;
 
+import com.charter.rewardcalculator.config.FanOutProperties;
 import com.charter.rewardcalculator.exception.CustomerNotFoundException;
+import com.charter.rewardcalculator.exception.InvalidCursorException;
 import com.charter.rewardcalculator.exception.InvalidDateRangeException;
-import com.charter.rewardcalculator.model.Customer;
-import com.charter.rewardcalculator.model.Transaction;
+import com.charter.rewardcalculator.model.CustomerMonthPoints;
+import com.charter.rewardcalculator.repository.CustomerMonthPointsRepository;
 import com.charter.rewardcalculator.repository.CustomerRepository;
 import com.charter.rewardcalculator.repository.TransactionRepository;
+import com.charter.rewardcalculator.repository.projection.CustomerNameRow;
+import com.charter.rewardcalculator.repository.projection.MonthlyPointsProjection;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 @ExtendWith(MockitoExtension.class)
 class RewardServiceImplTest {
@@ -30,6 +41,21 @@ class RewardServiceImplTest {
     @Mock
     TransactionRepository transactionRepository;
 
+    @Mock
+    CustomerMonthPointsRepository ledgerRepository;
+
+    @Spy
+    FanOutQueryExecutor fanOut = new FanOutQueryExecutor(new FanOutProperties(false, 100, 0), null);
+
+    @Spy
+    RewardMetrics metrics = new RewardMetrics(new SimpleMeterRegistry());
+
+    @Spy
+    RewardRuleSet rules = RewardRuleSet.defaults();
+
+    @Spy
+    ReportedRuleVersion ruleVersion = new ReportedRuleVersion("1", Instant.EPOCH);
+
     @InjectMocks
     RewardServiceImpl service;
 
@@ -103,9 +129,15 @@ class RewardServiceImplTest {
         Assertions.assertThat(service.calculatePoints(new BigDecimal("-10.00"))).isEqualTo(0);
     }
 
+    @Test
+    void calculatePoints_withDate_usesTheSameDefaultRules() {
+        Assertions.assertThat(service.calculatePoints(new BigDecimal("120.00"), LocalDate.of(2024, 12, 24)))
+                .isEqualTo(90);
+    }
+
     @Test
     void getRewardsForCustomer_notFound_throwsCustomerNotFoundException() {
-        Mockito.when(customerRepository.findById(999L)).thenReturn(Optional.empty());
+        Mockito.when(customerRepository.findNameById(999L)).thenReturn(Optional.empty());
         Assertions.assertThatThrownBy(() -> service.getRewardsForCustomer(999L, null, null))
                 .isInstanceOf(CustomerNotFoundException.class)
                 .hasMessageContaining("999");
@@ -113,29 +145,30 @@ class RewardServiceImplTest {
 
     @Test
     void getRewardsForCustomer_noTransactions_returnsZeroPoints() {
-        Customer c = customer(1L, "Alice");
-        Mockito.when(customerRepository.findById(1L)).thenReturn(Optional.of(c));
-        Mockito.when(transactionRepository.findByCustomerId(1L)).thenReturn(List.of());
+        CustomerNameRow c = customer(1L, "Alice");
+        Mockito.when(customerRepository.findNameById(1L)).thenReturn(Optional.of(c));
+        Mockito.when(ledgerRepository.findByCustomerIdInOrderByCustomerIdAscYearMonthAsc(List.of(1L))).thenReturn(List.of());
 
         var summary = service.getRewardsForCustomer(1L, null, null);
 
         Assertions.assertThat(summary.totalPoints()).isZero();
         Assertions.assertThat(summary.monthlyRewards()).isEmpty();
+        Assertions.assertThat(summary.ruleVersion()).isEqualTo("1");
     }
 
     @Test
-    void getRewardsForCustomer_monthlyAggregationAndOrder() {
-        Customer c = customer(1L, "Alice");
-        Mockito.when(customerRepository.findById(1L)).thenReturn(Optional.of(c));
-        Mockito.when(transactionRepository.findByCustomerId(1L)).thenReturn(List.of(
-                tx(c, "120.00", "2024-01-15"),  // 90 pts
-                tx(c, "75.00",  "2024-01-28"),  // 25 pts
-                tx(c, "200.00", "2024-02-10")   // 250 pts
+    void getRewardsForCustomer_monthlyRowsMappedInOrder() {
+        CustomerNameRow c = customer(1L, "Alice");
+        Mockito.when(customerRepository.findNameById(1L)).thenReturn(Optional.of(c));
+        Mockito.when(ledgerRepository.findByCustomerIdInOrderByCustomerIdAscYearMonthAsc(List.of(1L))).thenReturn(List.of(
+                ledger(1L, 202401, 115),
+                ledger(1L, 202402, 250)
         ));
 
         var summary = service.getRewardsForCustomer(1L, null, null);
 
         Assertions.assertThat(summary.monthlyRewards()).hasSize(2);
+        Assertions.assertThat(summary.monthlyRewards().get(0).year()).isEqualTo(2024);
         Assertions.assertThat(summary.monthlyRewards().get(0).month()).isEqualTo("JANUARY");
         Assertions.assertThat(summary.monthlyRewards().get(0).points()).isEqualTo(115);
         Assertions.assertThat(summary.monthlyRewards().get(1).month()).isEqualTo("FEBRUARY");
@@ -144,64 +177,112 @@ class RewardServiceImplTest {
 
     @Test
     void getRewardsForCustomer_totalPoints() {
-        Customer c = customer(1L, "Alice");
-        Mockito.when(customerRepository.findById(1L)).thenReturn(Optional.of(c));
-        Mockito.when(transactionRepository.findByCustomerId(1L)).thenReturn(List.of(
-                tx(c, "120.00", "2024-01-15"),  // 90
-                tx(c, "75.50",  "2024-01-28"),  // 25
-                tx(c, "200.00", "2024-02-10"),  // 250
-                tx(c, "45.00",  "2024-02-20"),  // 0
-                tx(c, "110.00", "2024-03-05")   // 70
+        CustomerNameRow c = customer(1L, "Alice");
+        Mockito.when(customerRepository.findNameById(1L)).thenReturn(Optional.of(c));
+        Mockito.when(ledgerRepository.findByCustomerIdInOrderByCustomerIdAscYearMonthAsc(List.of(1L))).thenReturn(List.of(
+                ledger(1L, 202401, 115),
+                ledger(1L, 202402, 250),
+                ledger(1L, 202403, 70)
         ));
 
         Assertions.assertThat(service.getRewardsForCustomer(1L, null, null).totalPoints()).isEqualTo(435);
     }
 
     @Test
-    void getRewardsForCustomer_withFromAndTo_callsDateRangeRepo() {
-        Customer c = customer(1L, "Alice");
+    void getRewardsForCustomer_withWholeMonthRange_readsLedger() {
+        CustomerNameRow c = customer(1L, "Alice");
         LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to   = LocalDate.of(2024, 2, 29);
+        Mockito.when(customerRepository.findNameById(1L)).thenReturn(Optional.of(c));
+        Mockito.when(ledgerRepository.findByCustomerIdInAndYearMonthBetweenOrderByCustomerIdAscYearMonthAsc(
+                        List.of(1L), 202401, 202402))
+                .thenReturn(List.of(ledger(1L, 202401, 115), ledger(1L, 202402, 250)));
+
+        var summary = service.getRewardsForCustomer(1L, from, to);
+
+        Assertions.assertThat(summary.totalPoints()).isEqualTo(365);
+        Assertions.assertThat(summary.monthlyRewards().get(1).month()).isEqualTo("FEBRUARY");
+        Mockito.verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    void getRewardsForCustomer_withOnlyWholeMonthFrom_readsLedger() {
+        CustomerNameRow c = customer(1L, "Alice");
+        LocalDate from = LocalDate.of(2024, 2, 1);
+        Mockito.when(customerRepository.findNameById(1L)).thenReturn(Optional.of(c));
+        Mockito.when(ledgerRepository.findByCustomerIdInAndYearMonthGreaterThanEqualOrderByCustomerIdAscYearMonthAsc(
+                        List.of(1L), 202402))
+                .thenReturn(List.of());
+
+        service.getRewardsForCustomer(1L, from, null);
+
+        Mockito.verify(ledgerRepository).findByCustomerIdInAndYearMonthGreaterThanEqualOrderByCustomerIdAscYearMonthAsc(
+                List.of(1L), 202402);
+        Mockito.verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    void getRewardsForCustomer_withOnlyWholeMonthTo_readsLedger() {
+        CustomerNameRow c = customer(1L, "Alice");
+        LocalDate to = LocalDate.of(2024, 1, 31);
+        Mockito.when(customerRepository.findNameById(1L)).thenReturn(Optional.of(c));
+        Mockito.when(ledgerRepository.findByCustomerIdInAndYearMonthLessThanEqualOrderByCustomerIdAscYearMonthAsc(
+                        List.of(1L), 202401))
+                .thenReturn(List.of());
+
+        service.getRewardsForCustomer(1L, null, to);
+
+        Mockito.verify(ledgerRepository).findByCustomerIdInAndYearMonthLessThanEqualOrderByCustomerIdAscYearMonthAsc(
+                List.of(1L), 202401);
+        Mockito.verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    void getRewardsForCustomer_withFromAndTo_callsDateRangeRepo() {
+        CustomerNameRow c = customer(1L, "Alice");
+        LocalDate from = LocalDate.of(2024, 1, 10);
         LocalDate to   = LocalDate.of(2024, 1, 31);
-        Mockito.when(customerRepository.findById(1L)).thenReturn(Optional.of(c));
-        Mockito.when(transactionRepository.findByCustomerIdAndTransactionDateBetween(1L, from, to))
-                .thenReturn(List.of(tx(c, "120.00", "2024-01-15")));
+        Mockito.when(customerRepository.findNameById(1L)).thenReturn(Optional.of(c));
+        Mockito.when(transactionRepository.sumMonthlyPointsByCustomerIdInAndTransactionDateBetween(List.of(1L), from, to))
+                .thenReturn(List.of(month(1L, 2024, 1, 90)));
 
         var summary = service.getRewardsForCustomer(1L, from, to);
 
         Assertions.assertThat(summary.totalPoints()).isEqualTo(90);
-        Mockito.verify(transactionRepository).findByCustomerIdAndTransactionDateBetween(1L, from, to);
+        Mockito.verify(transactionRepository).sumMonthlyPointsByCustomerIdInAndTransactionDateBetween(List.of(1L), from, to);
+        Mockito.verifyNoInteractions(ledgerRepository);
     }
 
     @Test
     void getRewardsForCustomer_withOnlyFrom_usesGreaterThanEqualQuery() {
-        Customer c = customer(1L, "Alice");
-        LocalDate from = LocalDate.of(2024, 2, 1);
-        Mockito.when(customerRepository.findById(1L)).thenReturn(Optional.of(c));
-        Mockito.when(transactionRepository.findByCustomerIdAndTransactionDateGreaterThanEqual(1L, from))
+        CustomerNameRow c = customer(1L, "Alice");
+        LocalDate from = LocalDate.of(2024, 2, 2);
+        Mockito.when(customerRepository.findNameById(1L)).thenReturn(Optional.of(c));
+        Mockito.when(transactionRepository.sumMonthlyPointsByCustomerIdInAndTransactionDateGreaterThanEqual(List.of(1L), from))
                 .thenReturn(List.of());
 
         service.getRewardsForCustomer(1L, from, null);
 
-        Mockito.verify(transactionRepository).findByCustomerIdAndTransactionDateGreaterThanEqual(1L, from);
+        Mockito.verify(transactionRepository).sumMonthlyPointsByCustomerIdInAndTransactionDateGreaterThanEqual(List.of(1L), from);
     }
 
     @Test
     void getRewardsForCustomer_withOnlyTo_usesLessThanEqualQuery() {
-        Customer c = customer(1L, "Alice");
-        LocalDate to = LocalDate.of(2024, 1, 31);
-        Mockito.when(customerRepository.findById(1L)).thenReturn(Optional.of(c));
-        Mockito.when(transactionRepository.findByCustomerIdAndTransactionDateLessThanEqual(1L, to))
+        CustomerNameRow c = customer(1L, "Alice");
+        LocalDate to = LocalDate.of(2024, 1, 30);
+        Mockito.when(customerRepository.findNameById(1L)).thenReturn(Optional.of(c));
+        Mockito.when(transactionRepository.sumMonthlyPointsByCustomerIdInAndTransactionDateLessThanEqual(List.of(1L), to))
                 .thenReturn(List.of());
 
         service.getRewardsForCustomer(1L, null, to);
 
-        Mockito.verify(transactionRepository).findByCustomerIdAndTransactionDateLessThanEqual(1L, to);
+        Mockito.verify(transactionRepository).sumMonthlyPointsByCustomerIdInAndTransactionDateLessThanEqual(List.of(1L), to);
     }
 
     @Test
     void getRewardsForCustomer_fromAfterTo_throwsInvalidDateRangeException() {
-        Customer c = customer(1L, "Alice");
-        Mockito.when(customerRepository.findById(1L)).thenReturn(Optional.of(c));
+        CustomerNameRow c = customer(1L, "Alice");
+        Mockito.when(customerRepository.findNameById(1L)).thenReturn(Optional.of(c));
 
         Assertions.assertThatThrownBy(() -> service.getRewardsForCustomer(
                 1L, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 1, 1)))
@@ -210,48 +291,23 @@ class RewardServiceImplTest {
 
     @Test
     void getRewardsForCustomer_fromEqualsTo_singleDayRange() {
-        Customer c = customer(1L, "Alice");
+        CustomerNameRow c = customer(1L, "Alice");
         LocalDate day = LocalDate.of(2024, 1, 15);
-        Mockito.when(customerRepository.findById(1L)).thenReturn(Optional.of(c));
-        Mockito.when(transactionRepository.findByCustomerIdAndTransactionDateBetween(1L, day, day))
-                .thenReturn(List.of(tx(c, "120.00", "2024-01-15")));
+        Mockito.when(customerRepository.findNameById(1L)).thenReturn(Optional.of(c));
+        Mockito.when(transactionRepository.sumMonthlyPointsByCustomerIdInAndTransactionDateBetween(List.of(1L), day, day))
+                .thenReturn(List.of(month(1L, 2024, 1, 90)));
 
         Assertions.assertThat(service.getRewardsForCustomer(1L, day, day).totalPoints()).isEqualTo(90);
     }
 
-    @Test
-    void getRewardsForCustomer_transactionOnFromBoundaryIsIncluded() {
-        Customer c = customer(1L, "Alice");
-        LocalDate from = LocalDate.of(2024, 1, 15);
-        LocalDate to   = LocalDate.of(2024, 1, 31);
-        Mockito.when(customerRepository.findById(1L)).thenReturn(Optional.of(c));
-        Mockito.when(transactionRepository.findByCustomerIdAndTransactionDateBetween(1L, from, to))
-                .thenReturn(List.of(tx(c, "120.00", "2024-01-15")));
-
-        Assertions.assertThat(service.getRewardsForCustomer(1L, from, to).totalPoints()).isEqualTo(90);
-    }
-
-    @Test
-    void getRewardsForCustomer_transactionOnToBoundaryIsIncluded() {
-        Customer c = customer(1L, "Alice");
-        LocalDate from = LocalDate.of(2024, 1, 1);
-        LocalDate to   = LocalDate.of(2024, 1, 28);
-        Mockito.when(customerRepository.findById(1L)).thenReturn(Optional.of(c));
-        Mockito.when(transactionRepository.findByCustomerIdAndTransactionDateBetween(1L, from, to))
-                .thenReturn(List.of(tx(c, "75.00", "2024-01-28")));
-
-        Assertions.assertThat(service.getRewardsForCustomer(1L, from, to).totalPoints()).isEqualTo(25);
-    }
-
     @Test
     void getRewardsPaged_returnsCorrectPageMetadata() {
-        Customer alice = customer(1L, "Alice");
-        Customer bob   = customer(2L, "Bob");
+        CustomerNameRow alice = customer(1L, "Alice");
+        CustomerNameRow bob = customer(2L, "Bob");
         var pageable = PageRequest.of(0, 2);
-        Mockito.when(customerRepository.findAll(pageable))
+        Mockito.when(customerRepository.findNames(pageable))
                 .thenReturn(new PageImpl<>(List.of(alice, bob), pageable, 3));
-        Mockito.when(transactionRepository.findByCustomerId(1L)).thenReturn(List.of());
-        Mockito.when(transactionRepository.findByCustomerId(2L)).thenReturn(List.of());
+        Mockito.when(ledgerRepository.findByCustomerIdInOrderByCustomerIdAscYearMonthAsc(List.of(1L, 2L))).thenReturn(List.of());
 
         var result = service.getRewardsPaged(pageable, null, null);
 
@@ -265,46 +321,213 @@ class RewardServiceImplTest {
 
     @Test
     void getRewardsPaged_withDateFilter_callsDateRangeRepo() {
-        Customer alice = customer(1L, "Alice");
+        CustomerNameRow alice = customer(1L, "Alice");
         var pageable = PageRequest.of(0, 10);
         LocalDate from = LocalDate.of(2024, 1, 1);
-        LocalDate to   = LocalDate.of(2024, 1, 31);
-        Mockito.when(customerRepository.findAll(pageable))
+        LocalDate to   = LocalDate.of(2024, 1, 20);
+        Mockito.when(customerRepository.findNames(pageable))
                 .thenReturn(new PageImpl<>(List.of(alice), pageable, 1));
-        Mockito.when(transactionRepository.findByCustomerIdAndTransactionDateBetween(1L, from, to))
-                .thenReturn(List.of(tx(alice, "120.00", "2024-01-15")));
+        Mockito.when(transactionRepository.sumMonthlyPointsByCustomerIdInAndTransactionDateBetween(List.of(1L), from, to))
+                .thenReturn(List.of(month(1L, 2024, 1, 90)));
 
         var result = service.getRewardsPaged(pageable, from, to);
 
         Assertions.assertThat(result.content().get(0).totalPoints()).isEqualTo(90);
-        Mockito.verify(transactionRepository).findByCustomerIdAndTransactionDateBetween(1L, from, to);
+        Mockito.verify(transactionRepository).sumMonthlyPointsByCustomerIdInAndTransactionDateBetween(List.of(1L), from, to);
+    }
+
+    @Test
+    void getRewardsPaged_fetchesAllPointsForPageInOneQuery() {
+        CustomerNameRow alice = customer(1L, "Alice");
+        CustomerNameRow bob = customer(2L, "Bob");
+        CustomerNameRow carol = customer(3L, "Carol");
+        var pageable = PageRequest.of(0, 3);
+        Mockito.when(customerRepository.findNames(pageable))
+                .thenReturn(new PageImpl<>(List.of(alice, bob, carol), pageable, 3));
+        Mockito.when(ledgerRepository.findByCustomerIdInOrderByCustomerIdAscYearMonthAsc(List.of(1L, 2L, 3L))).thenReturn(List.of(
+                ledger(1L, 202401, 90),
+                ledger(1L, 202402, 250),
+                ledger(2L, 202401, 25)
+        ));
+
+        var result = service.getRewardsPaged(pageable, null, null);
+
+        Assertions.assertThat(result.content()).extracting("customerId").containsExactly(1L, 2L, 3L);
+        Assertions.assertThat(result.content().get(0).totalPoints()).isEqualTo(340);
+        Assertions.assertThat(result.content().get(0).monthlyRewards()).hasSize(2);
+        Assertions.assertThat(result.content().get(1).totalPoints()).isEqualTo(25);
+        Assertions.assertThat(result.content().get(2).totalPoints()).isZero();
+        Assertions.assertThat(result.content().get(2).monthlyRewards()).isEmpty();
+        Mockito.verify(ledgerRepository).findByCustomerIdInOrderByCustomerIdAscYearMonthAsc(List.of(1L, 2L, 3L));
+        Mockito.verifyNoMoreInteractions(ledgerRepository);
+        Mockito.verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    void getRewardsPaged_fanOutEnabled_queriesChunksConcurrentlyAndKeepsIdOrder() throws Exception {
+        FanOutQueryExecutor chunked = new FanOutQueryExecutor(new FanOutProperties(true, 2, 4), null);
+        RewardServiceImpl fanOutService = new RewardServiceImpl(
+                customerRepository, transactionRepository, ledgerRepository, chunked, metrics, rules, ruleVersion);
+        List<CustomerNameRow> customers = List.of(customer(1L, "A"), customer(2L, "B"), customer(3L, "C"),
+                customer(4L, "D"), customer(5L, "E"));
+        var pageable = PageRequest.of(0, 5);
+        Mockito.when(customerRepository.findNames(pageable)).thenReturn(new PageImpl<>(customers, pageable, 5));
+        CountDownLatch allChunksStarted = new CountDownLatch(3);
+        Mockito.when(ledgerRepository.findByCustomerIdInOrderByCustomerIdAscYearMonthAsc(ArgumentMatchers.anyList()))
+                .thenAnswer(invocation -> {
+                    List<Long> ids = invocation.getArgument(0);
+                    allChunksStarted.countDown();
+                    // every chunk waits for the others, so this only completes if they run concurrently
+                    Assertions.assertThat(allChunksStarted.await(5, TimeUnit.SECONDS)).isTrue();
+                    return ids.stream().map(id -> ledger(id, 202401, id * 10)).toList();
+                });
+
+        var result = fanOutService.getRewardsPaged(pageable, null, null);
+
+        Assertions.assertThat(result.content()).extracting("customerId").containsExactly(1L, 2L, 3L, 4L, 5L);
+        Assertions.assertThat(result.content()).extracting("totalPoints").containsExactly(10L, 20L, 30L, 40L, 50L);
+        Mockito.verify(ledgerRepository).findByCustomerIdInOrderByCustomerIdAscYearMonthAsc(List.of(1L, 2L));
+        Mockito.verify(ledgerRepository).findByCustomerIdInOrderByCustomerIdAscYearMonthAsc(List.of(3L, 4L));
+        Mockito.verify(ledgerRepository).findByCustomerIdInOrderByCustomerIdAscYearMonthAsc(List.of(5L));
+        chunked.destroy();
+    }
+
+    @Test
+    void getRewardsPaged_emptyPage_skipsTransactionQuery() {
+        var pageable = PageRequest.of(5, 10);
+        Mockito.when(customerRepository.findNames(pageable))
+                .thenReturn(new PageImpl<>(List.of(), pageable, 3));
+
+        var result = service.getRewardsPaged(pageable, null, null);
+
+        Assertions.assertThat(result.content()).isEmpty();
+        Mockito.verifyNoInteractions(transactionRepository, ledgerRepository);
+    }
+
+    @Test
+    void getRewardsPaged_recordsTimersTaggedByQueryBranch() {
+        var pageable = PageRequest.of(0, 10);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RewardServiceImpl metered = new RewardServiceImpl(
+                customerRepository, transactionRepository, ledgerRepository, fanOut, new RewardMetrics(registry), rules,
+                ruleVersion);
+        Mockito.when(customerRepository.findNames(pageable))
+                .thenReturn(new PageImpl<>(List.of(customer(1L, "Alice"), customer(2L, "Bob")), pageable, 2));
+
+        metered.getRewardsPaged(pageable, LocalDate.of(2024, 1, 15), null);
+
+        Assertions.assertThat(registry.get("rewards.paged").timer().count()).isEqualTo(1);
+        Assertions.assertThat(registry.get("rewards.points.query")
+                .tags("source", "transactions", "bounds", "from").timer().count()).isEqualTo(1);
+        Assertions.assertThat(registry.get("rewards.points.query")
+                .tags("source", "ledger", "bounds", "from").timer().count()).isZero();
+        Assertions.assertThat(registry.get("rewards.summary.build").timer().count()).isEqualTo(2);
+        Assertions.assertThat(registry.get("rewards.page.customers").summary().totalAmount()).isEqualTo(2);
     }
 
     @Test
     void getRewardsPaged_fromAfterTo_throwsInvalidDateRangeException() {
-        Customer alice = customer(1L, "Alice");
+        CustomerNameRow alice = customer(1L, "Alice");
         var pageable = PageRequest.of(0, 10);
         LocalDate from = LocalDate.of(2024, 3, 1);
         LocalDate to   = LocalDate.of(2024, 1, 1);
-        Mockito.when(customerRepository.findAll(pageable))
+        Mockito.when(customerRepository.findNames(pageable))
                 .thenReturn(new PageImpl<>(List.of(alice), pageable, 1));
 
         Assertions.assertThatThrownBy(() -> service.getRewardsPaged(pageable, from, to))
                 .isInstanceOf(InvalidDateRangeException.class);
     }
 
-    private Customer customer(Long id, String name) {
-        Customer c = new Customer();
-        c.setId(id);
-        c.setName(name);
-        return c;
+    @Test
+    void getRewardsAfter_firstSlice_seeksFromStartAndReturnsNextCursor() {
+        Mockito.when(customerRepository.findNamesAfter(0L, Limit.of(3)))
+                .thenReturn(List.of(customer(1L, "Alice"), customer(2L, "Bob"), customer(3L, "Carol")));
+        Mockito.when(ledgerRepository.findByCustomerIdInOrderByCustomerIdAscYearMonthAsc(List.of(1L, 2L)))
+                .thenReturn(List.of(ledger(2L, 202401, 25)));
+
+        var result = service.getRewardsAfter(null, 2, null, null);
+
+        Assertions.assertThat(result.content()).extracting("customerId").containsExactly(1L, 2L);
+        Assertions.assertThat(result.content().get(1).totalPoints()).isEqualTo(25);
+        Assertions.assertThat(result.size()).isEqualTo(2);
+        Assertions.assertThat(result.last()).isFalse();
+        Assertions.assertThat(result.nextCursor()).isEqualTo(CustomerCursor.encode(2L));
+        Mockito.verify(customerRepository, Mockito.never()).count();
+    }
+
+    @Test
+    void getRewardsAfter_cursor_seeksPastEncodedId() {
+        Mockito.when(customerRepository.findNamesAfter(2L, Limit.of(3)))
+                .thenReturn(List.of(customer(3L, "Carol")));
+        Mockito.when(ledgerRepository.findByCustomerIdInOrderByCustomerIdAscYearMonthAsc(List.of(3L)))
+                .thenReturn(List.of());
+
+        var result = service.getRewardsAfter(CustomerCursor.encode(2L), 2, null, null);
+
+        Assertions.assertThat(result.content()).extracting("customerId").containsExactly(3L);
+        Assertions.assertThat(result.last()).isTrue();
+        Assertions.assertThat(result.nextCursor()).isNull();
+    }
+
+    @Test
+    void getRewardsAfter_pastEnd_returnsEmptyLastSlice() {
+        Mockito.when(customerRepository.findNamesAfter(9L, Limit.of(11))).thenReturn(List.of());
+
+        var result = service.getRewardsAfter(CustomerCursor.encode(9L), 10, null, null);
+
+        Assertions.assertThat(result.content()).isEmpty();
+        Assertions.assertThat(result.last()).isTrue();
+        Mockito.verifyNoInteractions(transactionRepository, ledgerRepository);
+    }
+
+    @Test
+    void getRewardsAfter_malformedCursor_throwsInvalidCursorException() {
+        for (String cursor : List.of("not base64!", CustomerCursor.encode(5L).substring(1), "YWJj", "YzE6LTE")) {
+            Assertions.assertThatThrownBy(() -> service.getRewardsAfter(cursor, 10, null, null))
+                    .isInstanceOf(InvalidCursorException.class);
+        }
+        Mockito.verifyNoInteractions(customerRepository);
+    }
+
+    @Test
+    void getRewardsForCustomers_resolvesCustomersAndPointsInTwoQueriesAndListsMissingIds() {
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to   = LocalDate.of(2024, 1, 20);
+        Mockito.when(customerRepository.findNamesByIdIn(List.of(3L, 99L, 1L)))
+                .thenReturn(List.of(customer(1L, "Alice"), customer(3L, "Carol")));
+        Mockito.when(transactionRepository.sumMonthlyPointsByCustomerIdInAndTransactionDateBetween(List.of(3L, 1L), from, to))
+                .thenReturn(List.of(month(1L, 2024, 1, 90)));
+
+        var result = service.getRewardsForCustomers(List.of(3L, 99L, 1L, 3L), from, to);
+
+        Assertions.assertThat(result.content()).extracting("customerId").containsExactly(3L, 1L);
+        Assertions.assertThat(result.content().get(0).totalPoints()).isZero();
+        Assertions.assertThat(result.content().get(1).totalPoints()).isEqualTo(90);
+        Assertions.assertThat(result.notFound()).containsExactly(99L);
+        Mockito.verify(customerRepository).findNamesByIdIn(List.of(3L, 99L, 1L));
+        Mockito.verifyNoMoreInteractions(customerRepository);
+    }
+
+    @Test
+    void getRewardsForCustomers_noneFound_skipsPointsQuery() {
+        Mockito.when(customerRepository.findNamesByIdIn(List.of(98L, 99L))).thenReturn(List.of());
+
+        var result = service.getRewardsForCustomers(List.of(98L, 99L), null, null);
+
+        Assertions.assertThat(result.content()).isEmpty();
+        Assertions.assertThat(result.notFound()).containsExactly(98L, 99L);
+        Mockito.verifyNoInteractions(transactionRepository, ledgerRepository);
+    }
+
+    private CustomerNameRow customer(Long id, String name) {
+        return new CustomerNameRow(id, name);
+    }
+
+    private CustomerMonthPoints ledger(Long customerId, int yearMonth, long points) {
+        return new CustomerMonthPoints(customerId, yearMonth, points, 1);
     }
 
-    private Transaction tx(Customer c, String amount, String date) {
-        Transaction t = new Transaction();
-        t.setCustomer(c);
-        t.setAmount(new BigDecimal(amount));
-        t.setTransactionDate(LocalDate.parse(date));
-        return t;
+    private MonthlyPointsProjection month(Long customerId, int year, int month, long points) {
+        return new MonthlyPointsProjection(customerId, year, month, points);
     }
 }
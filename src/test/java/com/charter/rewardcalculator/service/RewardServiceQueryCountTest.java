@@ -0,0 +1,179 @@
+package com.charter.rewardcalculator.service;
+
+import com.charter.rewardcalculator.controller.RewardController;
+import com.charter.rewardcalculator.dto.CustomerRewardSummaryDTO;
+import com.charter.rewardcalculator.dto.RewardSummarySliceDTO;
+import com.charter.rewardcalculator.model.Customer;
+import com.charter.rewardcalculator.model.Transaction;
+import com.charter.rewardcalculator.repository.CustomerRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class RewardServiceQueryCountTest {
+
+    private static final int EXTRA_CUSTOMERS = 60;
+
+    @Autowired
+    RewardService rewardService;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Autowired
+    TransactionService transactionService;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    private final List<Customer> createdCustomers = new ArrayList<>();
+    private final List<Transaction> createdTransactions = new ArrayList<>();
+
+    @BeforeEach
+    void seedCustomers() {
+        for (int i = 0; i < EXTRA_CUSTOMERS; i++) {
+            Customer c = new Customer();
+            c.setName("Customer " + i);
+            c.setEmail("query-count-" + i + "@example.com");
+            createdCustomers.add(customerRepository.save(c));
+        }
+        for (Customer c : createdCustomers) {
+            createdTransactions.add(transactionService.createTransaction(
+                    c.getId(), new BigDecimal("120.00"), LocalDate.parse("2024-01-15")));
+            createdTransactions.add(transactionService.createTransaction(
+                    c.getId(), new BigDecimal("75.00"), LocalDate.parse("2024-02-03")));
+        }
+    }
+
+    @AfterEach
+    void removeCustomers() {
+        createdTransactions.forEach(t -> transactionService.deleteTransaction(t.getId()));
+        customerRepository.deleteAll(createdCustomers);
+    }
+
+    @Test
+    void getRewardsPaged_statementCountIsIndependentOfPageSize() {
+        long small = statementsFor(5, null, null);
+        long medium = statementsFor(20, null, null);
+        long large = statementsFor(50, null, null);
+
+        Assertions.assertThat(small).isEqualTo(medium).isEqualTo(large);
+        // customer page + count + one transaction query for the whole page
+        Assertions.assertThat(large).isEqualTo(3);
+    }
+
+    @Test
+    void getRewardsPaged_withWholeMonthRange_statementCountIsIndependentOfPageSize() {
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2024, 1, 31);
+
+        long small = statementsFor(5, from, to);
+        long large = statementsFor(50, from, to);
+
+        Assertions.assertThat(small).isEqualTo(large).isEqualTo(3);
+    }
+
+    @Test
+    void getRewardsPaged_withPartialMonthRange_statementCountIsIndependentOfPageSize() {
+        LocalDate from = LocalDate.of(2024, 1, 10);
+        LocalDate to = LocalDate.of(2024, 2, 5);
+
+        long small = statementsFor(5, from, to);
+        long large = statementsFor(50, from, to);
+
+        Assertions.assertThat(small).isEqualTo(large).isEqualTo(3);
+    }
+
+    @Test
+    void getRewardsPaged_summariesMatchPerCustomerLookup() {
+        var page = rewardService.getRewardsPaged(PageRequest.of(0, 50, Sort.by("id").ascending()), null, null);
+
+        for (var summary : page.content()) {
+            Assertions.assertThat(summary)
+                    .isEqualTo(rewardService.getRewardsForCustomer(summary.customerId(), null, null));
+        }
+    }
+
+    @Test
+    void getRewardsAfter_skipsCountQueryAtAnyDepth() {
+        long first = cursorStatementsFor(null);
+        String deep = rewardService.getRewardsAfter(null, 40, null, null).nextCursor();
+        long later = cursorStatementsFor(deep);
+
+        // customer seek + one points query for the whole slice
+        Assertions.assertThat(first).isEqualTo(later).isEqualTo(2);
+    }
+
+    @Test
+    void getRewardsAfter_walkVisitsSameCustomersAsOffsetPaging() {
+        List<Long> offsetIds = rewardService.getRewardsPaged(
+                        PageRequest.of(0, RewardController.MAX_PAGE_SIZE, Sort.by("id").ascending()), null, null)
+                .content().stream().map(CustomerRewardSummaryDTO::customerId).toList();
+
+        List<Long> cursorIds = new ArrayList<>();
+        String cursor = null;
+        RewardSummarySliceDTO slice;
+        do {
+            slice = rewardService.getRewardsAfter(cursor, 7, null, null);
+            slice.content().forEach(summary -> cursorIds.add(summary.customerId()));
+            cursor = slice.nextCursor();
+        } while (!slice.last());
+
+        Assertions.assertThat(cursorIds).isEqualTo(offsetIds);
+    }
+
+    @Test
+    void getRewardsForCustomers_usesTwoStatementsAndMatchesPerCustomerLookup() {
+        List<Long> ids = new ArrayList<>(createdCustomers.stream().map(Customer::getId).toList());
+        ids.add(2, Long.MAX_VALUE);
+        LocalDate from = LocalDate.of(2024, 1, 10);
+        LocalDate to = LocalDate.of(2024, 2, 5);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        var batch = rewardService.getRewardsForCustomers(ids, from, to);
+
+        // customer IN query + one points query for the whole batch
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        Assertions.assertThat(batch.notFound()).containsExactly(Long.MAX_VALUE);
+        Assertions.assertThat(batch.content()).extracting(CustomerRewardSummaryDTO::customerId)
+                .containsExactlyElementsOf(ids.stream().filter(id -> id != Long.MAX_VALUE).toList());
+        for (var summary : batch.content()) {
+            Assertions.assertThat(summary)
+                    .isEqualTo(rewardService.getRewardsForCustomer(summary.customerId(), from, to));
+        }
+    }
+
+    private long cursorStatementsFor(String cursor) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        var result = rewardService.getRewardsAfter(cursor, 5, null, null);
+        Assertions.assertThat(result.content()).hasSize(5);
+        return statistics.getPrepareStatementCount();
+    }
+
+    private long statementsFor(int pageSize, LocalDate from, LocalDate to) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        var result = rewardService.getRewardsPaged(
+                PageRequest.of(0, pageSize, Sort.by("id").ascending()), from, to);
+        Assertions.assertThat(result.content()).hasSize(pageSize);
+        return statistics.getPrepareStatementCount();
+    }
+}
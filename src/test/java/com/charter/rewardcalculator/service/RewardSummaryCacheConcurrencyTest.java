@@ -0,0 +1,144 @@
+package com.charter.rewardcalculator.service;
+
+import com.charter.rewardcalculator.model.Customer;
+import com.charter.rewardcalculator.repository.CustomerRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class RewardSummaryCacheConcurrencyTest {
+
+    private static final int WRITES = 300;
+    private static final int READERS = 4;
+    private static final long POINTS_PER_WRITE = 90;
+
+    @Autowired
+    RewardService rewardService;
+
+    @Autowired
+    TransactionService transactionService;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Autowired
+    RewardSummaryCache cache;
+
+    @Autowired
+    RewardServiceImpl uncached;
+
+    private Customer customer;
+    private final List<Long> transactionIds = new ArrayList<>();
+
+    @BeforeEach
+    void seedCustomer() {
+        Customer c = new Customer();
+        c.setName("Cache Customer");
+        c.setEmail("cache-customer@example.com");
+        customer = customerRepository.save(c);
+    }
+
+    @AfterEach
+    void removeCustomer() {
+        transactionIds.forEach(transactionService::deleteTransaction);
+        customerRepository.delete(customer);
+    }
+
+    @Test
+    void readAfterWrite_neverSeesStaleSummary() throws Exception {
+        Long customerId = customer.getId();
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicLong completedWrites = new AtomicLong();
+        ExecutorService readers = Executors.newFixedThreadPool(READERS);
+        List<Future<?>> results = new ArrayList<>();
+        for (int r = 0; r < READERS; r++) {
+            results.add(readers.submit(() -> {
+                while (!done.get()) {
+                    long floor = completedWrites.get() * POINTS_PER_WRITE;
+                    long total = rewardService.getRewardsForCustomer(customerId, null, null).totalPoints();
+                    Assertions.assertThat(total).as("reads started after a write see it").isGreaterThanOrEqualTo(floor);
+                }
+                return null;
+            }));
+        }
+
+        try {
+            for (int i = 1; i <= WRITES; i++) {
+                transactionIds.add(transactionService.createTransaction(
+                        customerId, new BigDecimal("120.00"), LocalDate.of(2024, 1 + i % 12, 1)).getId());
+                completedWrites.set(i);
+                Assertions.assertThat(rewardService.getRewardsForCustomer(customerId, null, null).totalPoints())
+                        .as("summary read after write %d", i)
+                        .isEqualTo(i * POINTS_PER_WRITE);
+            }
+        } finally {
+            done.set(true);
+            readers.shutdown();
+            Assertions.assertThat(readers.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        }
+        for (Future<?> result : results) {
+            result.get();
+        }
+
+        var stats = cache.stats();
+        Assertions.assertThat(stats.hitCount()).isPositive();
+        Assertions.assertThat(stats.missCount()).isGreaterThanOrEqualTo(WRITES);
+    }
+
+    @Test
+    void arbitraryRanges_matchUncachedComputation() {
+        Long customerId = customer.getId();
+        Random random = new Random(42);
+        for (int i = 0; i < 60; i++) {
+            transactionIds.add(transactionService.createTransaction(customerId,
+                    BigDecimal.valueOf(1 + random.nextInt(25_000), 2),
+                    LocalDate.of(2023, 1, 1).plusDays(random.nextInt(730))).getId());
+        }
+
+        for (int i = 0; i < 200; i++) {
+            LocalDate from = random.nextInt(10) == 0 ? null : LocalDate.of(2022, 11, 1).plusDays(random.nextInt(850));
+            LocalDate to = random.nextInt(10) == 0 ? null : LocalDate.of(2022, 11, 1).plusDays(random.nextInt(850));
+            if (from != null && to != null && from.isAfter(to)) {
+                LocalDate swap = from;
+                from = to;
+                to = swap;
+            }
+            Assertions.assertThat(rewardService.getRewardsForCustomer(customerId, from, to))
+                    .as("range %s..%s", from, to)
+                    .isEqualTo(uncached.getRewardsForCustomer(customerId, from, to));
+        }
+    }
+
+    @Test
+    void deleteAndUpdate_invalidateCachedSummary() {
+        Long customerId = customer.getId();
+        Long id = transactionService.createTransaction(
+                customerId, new BigDecimal("120.00"), LocalDate.of(2024, 1, 10)).getId();
+        transactionIds.add(id);
+        Assertions.assertThat(rewardService.getRewardsForCustomer(customerId, null, null).totalPoints()).isEqualTo(90);
+
+        transactionService.updateTransaction(id, customerId, new BigDecimal("200.00"), LocalDate.of(2024, 1, 10));
+        Assertions.assertThat(rewardService.getRewardsForCustomer(customerId, null, null).totalPoints()).isEqualTo(250);
+
+        transactionService.deleteTransaction(transactionIds.remove(0));
+        Assertions.assertThat(rewardService.getRewardsForCustomer(customerId, null, null).totalPoints()).isZero();
+    }
+}
@@ -0,0 +1,99 @@
+package com.charter.rewardcalculator.service;
+
+import com.charter.rewardcalculator.config.RewardCacheProperties;
+import com.charter.rewardcalculator.model.CustomerMonthPoints;
+import com.charter.rewardcalculator.repository.projection.CustomerNameRow;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class RewardSummaryCacheTest {
+
+    private final RewardSummaryCache cache =
+            new RewardSummaryCache(new RewardCacheProperties(100, Duration.ofMinutes(10)));
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void get_secondCallIsServedFromCache() {
+        var first = cache.get(1L, () -> load(1L, 10));
+        var second = cache.get(1L, () -> load(1L, 20));
+
+        Assertions.assertThat(second).isSameAs(first);
+        Assertions.assertThat(loads).hasValue(1);
+        Assertions.assertThat(cache.stats().hitCount()).isEqualTo(1);
+        Assertions.assertThat(cache.stats().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    void invalidate_dropsThatCustomerOnly() {
+        cache.get(1L, () -> load(1L, 10));
+        cache.get(2L, () -> load(2L, 30));
+
+        cache.invalidate(List.of(1L));
+
+        Assertions.assertThat(points(cache.get(1L, () -> load(1L, 11)))).isEqualTo(11);
+        Assertions.assertThat(points(cache.get(2L, () -> load(2L, 31)))).isEqualTo(30);
+    }
+
+    @Test
+    void get_invalidatedWhileLoading_doesNotKeepResult() {
+        var stale = cache.get(1L, () -> {
+            cache.invalidate(List.of(1L));
+            return load(1L, 10);
+        });
+        var fresh = cache.get(1L, () -> load(1L, 11));
+
+        Assertions.assertThat(points(stale)).isEqualTo(10);
+        Assertions.assertThat(points(fresh)).isEqualTo(11);
+        Assertions.assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void get_beyondMaximumSize_evicts() {
+        RewardSummaryCache small = new RewardSummaryCache(new RewardCacheProperties(2, Duration.ofMinutes(10)));
+        for (long id = 1; id <= 10; id++) {
+            long customerId = id;
+            small.get(customerId, () -> load(customerId, 1));
+        }
+
+        var stats = small.stats();
+        Assertions.assertThat(stats.size()).isLessThanOrEqualTo(2);
+        Assertions.assertThat(stats.evictionCount()).isGreaterThanOrEqualTo(8);
+    }
+
+    @Test
+    void get_zeroMaximumSize_disablesCaching() {
+        RewardSummaryCache disabled = new RewardSummaryCache(new RewardCacheProperties(0, Duration.ofMinutes(10)));
+
+        disabled.get(1L, () -> load(1L, 1));
+        disabled.get(1L, () -> load(1L, 1));
+
+        Assertions.assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void buckets_betweenSelectsInclusiveMonthSpan() {
+        CustomerMonthBuckets buckets = CustomerMonthBuckets.of(new CustomerNameRow(1L, null), List.of(
+                new CustomerMonthPoints(1L, 202311, 5, 1),
+                new CustomerMonthPoints(1L, 202401, 10, 1),
+                new CustomerMonthPoints(1L, 202403, 30, 1)));
+
+        Assertions.assertThat(buckets.between(202312, 202403)).extracting("points").containsExactly(10L, 30L);
+        Assertions.assertThat(buckets.between(202401, 202401)).extracting("points").containsExactly(10L);
+        Assertions.assertThat(buckets.between(202402, 202402)).isEmpty();
+        Assertions.assertThat(buckets.between(202404, 202312)).isEmpty();
+        Assertions.assertThat(buckets.between(Integer.MIN_VALUE, Integer.MAX_VALUE)).hasSize(3);
+    }
+
+    private CustomerMonthBuckets load(Long customerId, long points) {
+        loads.incrementAndGet();
+        return CustomerMonthBuckets.of(new CustomerNameRow(customerId, null), List.of(new CustomerMonthPoints(customerId, 202401, points, 1)));
+    }
+
+    private long points(CustomerMonthBuckets buckets) {
+        return buckets.between(Integer.MIN_VALUE, Integer.MAX_VALUE).get(0).points();
+    }
+}
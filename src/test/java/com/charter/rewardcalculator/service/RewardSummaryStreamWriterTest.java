@@ -0,0 +1,129 @@
+package com.charter.rewardcalculator.service;
+
+import com.charter.rewardcalculator.repository.projection.TransactionExportRow;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+class RewardSummaryStreamWriterTest {
+
+    private static final int CUSTOMERS = 200_000;
+    private static final int ROWS_PER_CUSTOMER = 10;
+    private static final long MAX_HEAP_GROWTH_BYTES = 32L * 1024 * 1024;
+
+    @Test
+    void write_groupsConsecutiveRowsPerCustomer() {
+        List<TransactionExportRow> rows = List.of(
+                new TransactionExportRow(1L, "Alice", 90L, LocalDate.of(2024, 1, 15)),
+                new TransactionExportRow(1L, "Alice", 25L, LocalDate.of(2024, 1, 28)),
+                new TransactionExportRow(1L, "Alice", 250L, LocalDate.of(2024, 2, 10)),
+                new TransactionExportRow(2L, "Bob", null, null));
+        CountingOutputStream out = new CountingOutputStream(true);
+
+        long customers = writer(RewardExportService.Format.CSV).write(rows.iterator(), out);
+
+        Assertions.assertThat(customers).isEqualTo(2);
+        Assertions.assertThat(out.text()).isEqualTo("""
+                customerId,customerName,year,month,points,totalPoints
+                1,Alice,2024,JANUARY,115,365
+                1,Alice,2024,FEBRUARY,250,365
+                2,Bob,,,,0
+                """);
+    }
+
+    @Test
+    void write_millionsOfRows_keepsHeapBounded() {
+        RewardSummaryStreamWriter writer = writer(RewardExportService.Format.NDJSON);
+        CountingOutputStream out = new CountingOutputStream(false);
+        long baseline = usedHeapAfterGc();
+        long[] peak = {0};
+
+        long customers = writer.write(new SyntheticRows(() -> peak[0] = Math.max(peak[0], usedHeapAfterGc())), out);
+
+        Assertions.assertThat(customers).isEqualTo(CUSTOMERS);
+        Assertions.assertThat(out.count).isGreaterThan((long) CUSTOMERS * 50);
+        Assertions.assertThat(peak[0] - baseline).isLessThan(MAX_HEAP_GROWTH_BYTES);
+    }
+
+    private RewardSummaryStreamWriter writer(RewardExportService.Format format) {
+        return new RewardSummaryStreamWriter(JsonMapper.builder().build(), "1", format);
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /** Lazily generates rows for many customers and samples heap usage a few times along the way. */
+    private static final class SyntheticRows implements Iterator<TransactionExportRow> {
+
+        private static final long TOTAL = (long) CUSTOMERS * ROWS_PER_CUSTOMER;
+        private static final long SAMPLE_EVERY = TOTAL / 4;
+
+        private final Runnable sampler;
+        private long next;
+
+        SyntheticRows(Runnable sampler) {
+            this.sampler = sampler;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < TOTAL;
+        }
+
+        @Override
+        public TransactionExportRow next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (next > 0 && next % SAMPLE_EVERY == 0) {
+                sampler.run();
+            }
+            long customerId = next / ROWS_PER_CUSTOMER + 1;
+            int i = (int) (next % ROWS_PER_CUSTOMER);
+            next++;
+            return new TransactionExportRow(customerId, "Customer " + customerId,
+                    i * 15L, LocalDate.of(2024, 1 + i % 12, 1 + i));
+        }
+    }
+
+    /** Counts bytes written and optionally keeps them for assertions on small outputs. */
+    private static final class CountingOutputStream extends OutputStream {
+
+        private final StringBuilder text;
+        private long count;
+
+        CountingOutputStream(boolean keep) {
+            this.text = keep ? new StringBuilder() : null;
+        }
+
+        @Override
+        public void write(int b) {
+            count++;
+            if (text != null) {
+                text.append((char) b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+            if (text != null) {
+                text.append(new String(b, off, len, StandardCharsets.UTF_8));
+            }
+        }
+
+        String text() {
+            return text.toString();
+        }
+    }
+}
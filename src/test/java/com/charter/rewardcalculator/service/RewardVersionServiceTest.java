@@ -0,0 +1,129 @@
+package com.charter.rewardcalculator.service;
+
+import com.charter.rewardcalculator.exception.CustomerNotFoundException;
+import com.charter.rewardcalculator.model.Customer;
+import com.charter.rewardcalculator.model.Transaction;
+import com.charter.rewardcalculator.repository.CustomerRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class RewardVersionServiceTest {
+
+    @Autowired
+    RewardVersionService versionService;
+
+    @Autowired
+    TransactionService transactionService;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    private final List<Customer> customers = new ArrayList<>();
+    private final List<Long> transactionIds = new ArrayList<>();
+
+    @BeforeEach
+    void seedCustomers() {
+        for (int i = 0; i < 2; i++) {
+            Customer c = new Customer();
+            c.setName("Version " + i);
+            c.setEmail("version-" + i + "@example.com");
+            customers.add(customerRepository.save(c));
+        }
+    }
+
+    @AfterEach
+    void removeCustomers() {
+        transactionIds.forEach(transactionService::deleteTransaction);
+        customerRepository.deleteAll(customers);
+    }
+
+    @Test
+    void customerVersion_changesOnEveryTransactionWrite() {
+        Long id = customers.get(0).getId();
+        List<String> tags = new ArrayList<>();
+        tags.add(versionService.customerVersion(id).eTag());
+
+        Transaction tx = transactionService.createTransaction(id, new BigDecimal("120.00"), LocalDate.of(2024, 3, 5));
+        tags.add(versionService.customerVersion(id).eTag());
+        // same month and same points: month totals do not move, but a date-bounded summary does
+        transactionService.updateTransaction(tx.getId(), id, new BigDecimal("120.00"), LocalDate.of(2024, 3, 20));
+        tags.add(versionService.customerVersion(id).eTag());
+        transactionService.deleteTransaction(tx.getId());
+        tags.add(versionService.customerVersion(id).eTag());
+
+        Assertions.assertThat(tags).doesNotHaveDuplicates();
+        Assertions.assertThat(versionService.customerVersion(id).eTag()).isEqualTo(tags.get(tags.size() - 1));
+    }
+
+    @Test
+    void customerVersion_movesLastModifiedForward() {
+        Long id = customers.get(0).getId();
+        var before = versionService.customerVersion(id);
+
+        transactionIds.add(transactionService.createTransaction(
+                id, new BigDecimal("75.00"), LocalDate.of(2024, 3, 5)).getId());
+
+        var after = versionService.customerVersion(id);
+        Assertions.assertThat(after.lastModified()).isAfterOrEqualTo(before.lastModified());
+        Assertions.assertThat(versionService.customerVersion(customers.get(1).getId()).eTag())
+                .isEqualTo("W/\"" + customers.get(1).getId() + "-0-1\"");
+    }
+
+    @Test
+    void customerVersion_isOneStatementAndUnknownCustomerThrows() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        versionService.customerVersion(customers.get(0).getId());
+
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        Assertions.assertThatThrownBy(() -> versionService.customerVersion(999_999_999L))
+                .isInstanceOf(CustomerNotFoundException.class);
+    }
+
+    @Test
+    void pageVersion_changesOnlyWithCustomersOnThePage() {
+        int position = customerRepository.findIdsAfter(0L, Limit.unlimited()).indexOf(customers.get(0).getId());
+        Pageable ownPage = PageRequest.of(position, 1, Sort.by("id").ascending());
+        Pageable otherPage = PageRequest.of(position + 1, 1, Sort.by("id").ascending());
+        var own = versionService.pageVersion(ownPage);
+        var other = versionService.pageVersion(otherPage);
+        Assertions.assertThat(own.eTag()).isNotEqualTo(other.eTag());
+
+        transactionIds.add(transactionService.createTransaction(
+                customers.get(0).getId(), new BigDecimal("60.00"), LocalDate.of(2024, 2, 1)).getId());
+
+        Assertions.assertThat(versionService.pageVersion(ownPage).eTag()).isNotEqualTo(own.eTag());
+        Assertions.assertThat(versionService.pageVersion(otherPage)).isEqualTo(other);
+    }
+
+    @Test
+    void pageVersion_beyondLastPageHasNoLastModified() {
+        var empty = versionService.pageVersion(PageRequest.of(100_000, 10, Sort.by("id").ascending()));
+
+        Assertions.assertThat(empty.lastModified()).isNull();
+        Assertions.assertThat(empty.lastModifiedMillis()).isEqualTo(-1);
+    }
+}
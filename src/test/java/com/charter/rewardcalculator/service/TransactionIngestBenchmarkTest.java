@@ -0,0 +1,103 @@
+package com.charter.rewardcalculator.service;
+
+import com.charter.rewardcalculator.model.Customer;
+import com.charter.rewardcalculator.repository.CustomerMonthPointsRepository;
+import com.charter.rewardcalculator.repository.CustomerRepository;
+import com.charter.rewardcalculator.repository.TransactionRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Compares batched ingestion against row-at-a-time ingestion on the embedded database. It is a
+ * wall-clock comparison, so it only runs when requested, like {@code RewardLoadTest}.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "rewards.load-test", matches = "true")
+class TransactionIngestBenchmarkTest {
+
+    private static final int ROWS = 2_000;
+
+    @Autowired
+    TransactionIngestServiceImpl ingestService;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Autowired
+    TransactionRepository transactionRepository;
+
+    @Autowired
+    CustomerMonthPointsRepository ledgerRepository;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    private Customer customer;
+
+    @BeforeEach
+    void seedCustomer() {
+        Customer c = new Customer();
+        c.setName("Benchmark");
+        c.setEmail("ingest-benchmark@example.com");
+        customer = customerRepository.save(c);
+    }
+
+    @AfterEach
+    void removeCustomer() {
+        transactionTemplate.executeWithoutResult(status -> {
+            transactionRepository.deleteAllInBatch(transactionRepository.findByCustomerId(customer.getId()));
+            ledgerRepository.deleteByCustomerIdIn(List.of(customer.getId()));
+        });
+        customerRepository.delete(customer);
+    }
+
+    @Test
+    void batchedIngest_isFasterThanSingleRowIngest() {
+        byte[] body = ndjson(ROWS);
+        ingestService.ingest(new ByteArrayInputStream(body), TransactionIngestService.Format.NDJSON, 500);
+
+        long single = timeIngest(body, 1);
+        long batched = timeIngest(body, 500);
+
+        Assertions.assertThat(batched)
+                .as("rows/s for %d rows: single=%d, batched=%d", ROWS, rowsPerSecond(single), rowsPerSecond(batched))
+                .isLessThan(single);
+        Assertions.assertThat(transactionRepository.findByCustomerId(customer.getId())).hasSize(ROWS * 3);
+    }
+
+    private long timeIngest(byte[] body, int batchSize) {
+        long started = System.nanoTime();
+        var result = ingestService.ingest(new ByteArrayInputStream(body), TransactionIngestService.Format.NDJSON, batchSize);
+        long elapsed = System.nanoTime() - started;
+        Assertions.assertThat(result.accepted()).isEqualTo(ROWS);
+        return elapsed;
+    }
+
+    private long rowsPerSecond(long nanos) {
+        return Math.round(ROWS / (nanos / 1_000_000_000.0));
+    }
+
+    private byte[] ndjson(int rows) {
+        StringBuilder sb = new StringBuilder();
+        LocalDate start = LocalDate.of(2022, 1, 1);
+        for (int i = 0; i < rows; i++) {
+            sb.append("{\"customerId\":").append(customer.getId())
+                    .append(",\"amount\":").append(10 + i % 190).append(".25")
+                    .append(",\"transactionDate\":\"").append(start.plusDays(i % 900)).append("\"}\n");
+        }
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,185 @@
+package com.charter.rewardcalculator.service;
+
+import com.charter.rewardcalculator.config.IngestProperties;
+import com.charter.rewardcalculator.model.Customer;
+import com.charter.rewardcalculator.repository.CustomerMonthPointsRepository;
+import com.charter.rewardcalculator.repository.CustomerRepository;
+import com.charter.rewardcalculator.repository.TransactionRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TransactionIngestServiceTest {
+
+    @Autowired
+    TransactionIngestServiceImpl ingestService;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Autowired
+    TransactionRepository transactionRepository;
+
+    @Autowired
+    CustomerMonthPointsRepository ledgerRepository;
+
+    @Autowired
+    RewardService rewardService;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    JsonMapper jsonMapper;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    RewardLedgerService ledgerService;
+
+    @Autowired
+    Validator validator;
+
+    @Autowired
+    RewardRuleSet rules;
+
+    private Customer customer;
+
+    @BeforeEach
+    void seedCustomer() {
+        Customer c = new Customer();
+        c.setName("Ingest");
+        c.setEmail("ingest@example.com");
+        customer = customerRepository.save(c);
+    }
+
+    @AfterEach
+    void removeCustomer() {
+        transactionTemplate.executeWithoutResult(status -> {
+            transactionRepository.deleteAllInBatch(transactionRepository.findByCustomerId(customer.getId()));
+            ledgerRepository.deleteByCustomerIdIn(List.of(customer.getId()));
+        });
+        customerRepository.delete(customer);
+    }
+
+    @Test
+    void ingest_jsonArray_insertsValidRowsAndReportsRejections() {
+        String body = """
+                [
+                  {"customerId": %1$d, "amount": 120.00, "transactionDate": "2024-01-15"},
+                  {"customerId": %1$d, "amount": -5.00,  "transactionDate": "2024-01-16"},
+                  {"customerId": %1$d, "amount": 75.00},
+                  {"customerId": 999999, "amount": 75.00, "transactionDate": "2024-01-17"},
+                  {"customerId": %1$d, "amount": "abc", "transactionDate": "2024-01-18"},
+                  {"amount": 75.00, "transactionDate": "2024-01-19"},
+                  {"customerId": %1$d, "amount": 200.00, "transactionDate": "2024-02-10"}
+                ]
+                """.formatted(customer.getId());
+
+        var result = ingestService.ingest(stream(body), TransactionIngestService.Format.JSON_ARRAY, 3);
+
+        Assertions.assertThat(result.received()).isEqualTo(7);
+        Assertions.assertThat(result.accepted()).isEqualTo(2);
+        Assertions.assertThat(result.rejected()).isEqualTo(5);
+        Assertions.assertThat(result.rejections()).extracting("row").containsExactly(1L, 2L, 3L, 4L, 5L);
+        Assertions.assertThat(result.rejections().get(0).message()).isEqualTo("amount must be greater than 0");
+        Assertions.assertThat(result.rejections().get(1).message()).isEqualTo("transactionDate must not be null");
+        Assertions.assertThat(result.rejections().get(2).message()).contains("999999");
+        Assertions.assertThat(result.rejections().get(3).message()).startsWith("Malformed row");
+        Assertions.assertThat(result.rejections().get(4).message()).isEqualTo("customerId must not be null");
+        Assertions.assertThat(transactionRepository.findByCustomerId(customer.getId())).hasSize(2);
+    }
+
+    @Test
+    void ingest_ndjson_rejectsOnlyMalformedLines() {
+        String body = """
+                {"customerId": %1$d, "amount": 120.00, "transactionDate": "2024-01-15"}
+                {"customerId": %1$d, "amount": 75.00, "transactionDate": 
+
+                {"customerId": %1$d, "amount": 110.00, "transactionDate": "2024-03-05"}
+                """.formatted(customer.getId());
+
+        var result = ingestService.ingest(stream(body), TransactionIngestService.Format.NDJSON, 500);
+
+        Assertions.assertThat(result.accepted()).isEqualTo(2);
+        Assertions.assertThat(result.rejected()).isEqualTo(1);
+        Assertions.assertThat(result.rejections().get(0).row()).isEqualTo(1);
+        Assertions.assertThat(result.rejections().get(0).message()).startsWith("Malformed row");
+    }
+
+    @Test
+    void ingest_jsonSyntaxError_keepsRowsBeforeTheError() {
+        String body = """
+                [
+                  {"customerId": %1$d, "amount": 120.00, "transactionDate": "2024-01-15"},
+                  {"customerId": %1$d, "amount": 75.00, "transactionDate": "2024-01-16"} ,,
+                  {"customerId": %1$d, "amount": 75.00, "transactionDate": "2024-01-17"}
+                ]
+                """.formatted(customer.getId());
+
+        var result = ingestService.ingest(stream(body), TransactionIngestService.Format.JSON_ARRAY, 500);
+
+        Assertions.assertThat(result.accepted()).isEqualTo(2);
+        Assertions.assertThat(result.rejected()).isEqualTo(1);
+        Assertions.assertThat(result.rejections().get(0).message()).startsWith("Malformed JSON");
+    }
+
+    @Test
+    void ingest_updatesLedgerForAcceptedRows() {
+        String body = """
+                {"customerId": %1$d, "amount": 120.00, "transactionDate": "2024-01-15"}
+                {"customerId": %1$d, "amount": 75.50, "transactionDate": "2024-01-28"}
+                {"customerId": %1$d, "amount": 200.00, "transactionDate": "2024-02-10"}
+                """.formatted(customer.getId());
+
+        ingestService.ingest(stream(body), TransactionIngestService.Format.NDJSON, 2);
+
+        var summary = rewardService.getRewardsForCustomer(customer.getId(), null, null);
+        Assertions.assertThat(summary.monthlyRewards()).extracting("points").containsExactly(115L, 250L);
+        Assertions.assertThat(summary.totalPoints()).isEqualTo(365);
+    }
+
+    @Test
+    void ingest_failedFlush_rejectsTheChunkAndKeepsEarlierChunks() {
+        // every customer passes validation, so the unknown one fails on the foreign key at flush
+        CustomerRepository everyoneExists = Mockito.mock(CustomerRepository.class);
+        Mockito.when(everyoneExists.findExistingIds(ArgumentMatchers.any()))
+                .thenAnswer(invocation -> List.copyOf(invocation.<Collection<Long>>getArgument(0)));
+        TransactionIngestServiceImpl service = new TransactionIngestServiceImpl(jsonMapper, entityManager,
+                everyoneExists, ledgerService, validator, transactionTemplate, new IngestProperties(1, 10), rules);
+        String body = """
+                {"customerId": %1$d, "amount": 120.00, "transactionDate": "2024-01-15"}
+                {"customerId": 999999, "amount": 75.00, "transactionDate": "2024-01-16"}
+                """.formatted(customer.getId());
+
+        var result = service.ingest(stream(body), TransactionIngestService.Format.NDJSON);
+
+        Assertions.assertThat(result.accepted()).isEqualTo(1);
+        Assertions.assertThat(result.rejected()).isEqualTo(1);
+        Assertions.assertThat(result.rejections().get(0).row()).isEqualTo(1);
+        Assertions.assertThat(result.rejections().get(0).message()).startsWith("Batch write failed");
+        Assertions.assertThat(transactionRepository.findByCustomerId(customer.getId())).hasSize(1);
+    }
+
+    private ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}